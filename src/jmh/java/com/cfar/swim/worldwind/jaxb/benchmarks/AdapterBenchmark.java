@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.benchmarks;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.EnvironmentAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstaclesAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.PlannerAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.TrajectoryAdapter;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.render.Obstacle;
+
+/**
+ * Benchmarks the throughput and latency of individual adapters in isolation
+ * for scaled scenarios.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AdapterBenchmark {
+	
+	/** the number of obstacles and trajectory waypoints of the scenario */
+	@Param({"100", "1000", "10000"})
+	public int size;
+	
+	/** the marshalled scenario of this adapter benchmark */
+	private Scenario marshalledScenario;
+	
+	/** the unmarshalled scenario of this adapter benchmark */
+	private com.cfar.swim.worldwind.session.Scenario unmarshalledScenario;
+	
+	/** the obstacles adapter of this adapter benchmark */
+	private ObstaclesAdapter obstaclesAdapter;
+	
+	/** the trajectory adapter of this adapter benchmark */
+	private TrajectoryAdapter trajectoryAdapter;
+	
+	/** the planner adapter of this adapter benchmark */
+	private PlannerAdapter plannerAdapter;
+	
+	/** the environment adapter of this adapter benchmark */
+	private EnvironmentAdapter environmentAdapter;
+	
+	/**
+	 * Sets up the scaled scenario and adapters of this adapter benchmark.
+	 * 
+	 * @throws Exception if the scenario or adapters cannot be set up
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		this.marshalledScenario = ScenarioFixture.createScenario(this.size, this.size);
+		File file = ScenarioFixture.writeScenario(this.marshalledScenario);
+		try {
+			this.unmarshalledScenario = new ScenarioUnmarshaller().unmarshalScenario(file);
+		} finally {
+			file.delete();
+		}
+		
+		this.obstaclesAdapter = AdapterRegistry.getObstaclesAdapter();
+		this.trajectoryAdapter = AdapterRegistry.getTrajectoryAdapter();
+		this.plannerAdapter = new PlannerAdapter(
+				this.unmarshalledScenario.getAircraft(), this.unmarshalledScenario.getEnvironment());
+		this.environmentAdapter = new EnvironmentAdapter(this.unmarshalledScenario.getGlobe());
+	}
+	
+	/**
+	 * Benchmarks the unmarshalling of obstacles.
+	 * 
+	 * @return the unmarshalled obstacles
+	 * 
+	 * @throws Exception if the obstacles cannot be unmarshalled
+	 */
+	@Benchmark
+	public Set<Obstacle> unmarshalObstacles() throws Exception {
+		return this.obstaclesAdapter.unmarshal(this.marshalledScenario.getObstacles());
+	}
+	
+	/**
+	 * Benchmarks the marshalling of obstacles.
+	 * 
+	 * @return the marshalled obstacles
+	 * 
+	 * @throws Exception if the obstacles cannot be marshalled
+	 */
+	@Benchmark
+	public Obstacles marshalObstacles() throws Exception {
+		return this.obstaclesAdapter.marshal(this.unmarshalledScenario.getObstacles());
+	}
+	
+	/**
+	 * Benchmarks the unmarshalling of a trajectory.
+	 * 
+	 * @return the unmarshalled trajectory
+	 * 
+	 * @throws Exception if the trajectory cannot be unmarshalled
+	 */
+	@Benchmark
+	public com.cfar.swim.worldwind.planning.Trajectory unmarshalTrajectory() throws Exception {
+		return this.trajectoryAdapter.unmarshal(this.marshalledScenario.getTrajectory());
+	}
+	
+	/**
+	 * Benchmarks the marshalling of a trajectory.
+	 * 
+	 * @return the marshalled trajectory
+	 * 
+	 * @throws Exception if the trajectory cannot be marshalled
+	 */
+	@Benchmark
+	public Trajectory marshalTrajectory() throws Exception {
+		return this.trajectoryAdapter.marshal(this.unmarshalledScenario.getTrajectory());
+	}
+	
+	/**
+	 * Benchmarks the unmarshalling of a planner.
+	 * 
+	 * @return the unmarshalled planner
+	 * 
+	 * @throws Exception if the planner cannot be unmarshalled
+	 */
+	@Benchmark
+	public com.cfar.swim.worldwind.planners.Planner unmarshalPlanner() throws Exception {
+		return this.plannerAdapter.unmarshal(this.marshalledScenario.getPlanner());
+	}
+	
+	/**
+	 * Benchmarks the marshalling of a planner.
+	 * 
+	 * @return the marshalled planner
+	 * 
+	 * @throws Exception if the planner cannot be marshalled
+	 */
+	@Benchmark
+	public Planner marshalPlanner() throws Exception {
+		return this.plannerAdapter.marshal(this.unmarshalledScenario.getPlanner());
+	}
+	
+	/**
+	 * Benchmarks the unmarshalling of an environment.
+	 * 
+	 * @return the unmarshalled environment
+	 * 
+	 * @throws Exception if the environment cannot be unmarshalled
+	 */
+	@Benchmark
+	public com.cfar.swim.worldwind.environments.Environment unmarshalEnvironment() throws Exception {
+		return this.environmentAdapter.unmarshal(this.marshalledScenario.getEnvironment());
+	}
+	
+	/**
+	 * Benchmarks the marshalling of an environment.
+	 * 
+	 * @return the marshalled environment
+	 * 
+	 * @throws Exception if the environment cannot be marshalled
+	 */
+	@Benchmark
+	public Environment marshalEnvironment() throws Exception {
+		return this.environmentAdapter.marshal(this.unmarshalledScenario.getEnvironment());
+	}
+	
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cfar.swim.worldwind.jaxb.ParallelScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.direct.DirectScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.direct.DirectScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.direct.ParallelScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.direct.PipelinedScenarioUnmarshaller;
+import com.cfar.swim.worldwind.session.Scenario;
+
+/**
+ * Benchmarks the throughput of direct, pipelined and parallel scenario marshalling
+ * and unmarshalling against JAXB scenario marshalling and unmarshalling for
+ * scaled scenarios. Allocation rates are reported when running with the
+ * GC profiler, that is, with the option <code>-prof gc</code>.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DirectBenchmark {
+	
+	/** the number of obstacles and trajectory waypoints of the scenario */
+	@Param({"1000", "10000", "100000"})
+	public int size;
+	
+	/** the scenario marshaller of this direct benchmark */
+	private ScenarioMarshaller marshaller;
+	
+	/** the scenario unmarshaller of this direct benchmark */
+	private ScenarioUnmarshaller unmarshaller;
+	
+	/** the direct scenario marshaller of this direct benchmark */
+	private DirectScenarioMarshaller directMarshaller;
+	
+	/** the direct scenario unmarshaller of this direct benchmark */
+	private DirectScenarioUnmarshaller directUnmarshaller;
+	
+	/** the pipelined scenario unmarshaller of this direct benchmark */
+	private PipelinedScenarioUnmarshaller pipelinedUnmarshaller;
+	
+	/** the parallel scenario marshaller of this direct benchmark */
+	private ParallelScenarioMarshaller parallelMarshaller;
+	
+	/** the parallel scenario unmarshaller of this direct benchmark */
+	private ParallelScenarioUnmarshaller parallelUnmarshaller;
+	
+	/** the scenario file to be unmarshalled */
+	private File input;
+	
+	/** the scenario file to be marshalled to */
+	private File output;
+	
+	/** the scenario to be marshalled */
+	private Scenario scenario;
+	
+	/**
+	 * Sets up the scaled scenario of this direct benchmark.
+	 * 
+	 * @throws JAXBException if the scenario cannot be set up
+	 * @throws IOException if the scenario files cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws JAXBException, IOException {
+		this.marshaller = new ScenarioMarshaller();
+		this.unmarshaller = new ScenarioUnmarshaller();
+		this.directMarshaller = new DirectScenarioMarshaller();
+		this.directUnmarshaller = new DirectScenarioUnmarshaller();
+		this.pipelinedUnmarshaller = new PipelinedScenarioUnmarshaller();
+		this.parallelUnmarshaller = new ParallelScenarioUnmarshaller();
+		this.parallelMarshaller = new ParallelScenarioMarshaller();
+		this.input = ScenarioFixture.writeScenario(ScenarioFixture.createScenario(this.size, this.size));
+		this.output = File.createTempFile("scenario", ".xml");
+		this.scenario = this.unmarshaller.unmarshalScenario(this.input);
+	}
+	
+	/**
+	 * Tears down the scenario files and the pipelined and parallel scenario
+	 * (un)marshallers of this direct benchmark.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.pipelinedUnmarshaller.close();
+		this.parallelUnmarshaller.close();
+		this.parallelMarshaller.close();
+		this.input.delete();
+		this.output.delete();
+	}
+	
+	/**
+	 * Benchmarks the JAXB unmarshalling of a scenario file.
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	@Benchmark
+	public Scenario unmarshalScenario() throws JAXBException {
+		return this.unmarshaller.unmarshalScenario(this.input);
+	}
+	
+	/**
+	 * Benchmarks the direct unmarshalling of a scenario file.
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	@Benchmark
+	public Scenario unmarshalScenarioDirect() throws JAXBException {
+		return this.directUnmarshaller.unmarshalScenario(this.input);
+	}
+	
+	/**
+	 * Benchmarks the pipelined unmarshalling of a scenario file.
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	@Benchmark
+	public Scenario unmarshalScenarioPipelined() throws JAXBException {
+		return this.pipelinedUnmarshaller.unmarshalScenario(this.input);
+	}
+	
+	/**
+	 * Benchmarks the parallel unmarshalling of a scenario file.
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	@Benchmark
+	public Scenario unmarshalScenarioParallel() throws JAXBException {
+		return this.parallelUnmarshaller.unmarshalScenario(this.input);
+	}
+	
+	/**
+	 * Benchmarks the JAXB marshalling of a scenario file.
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	@Benchmark
+	public void marshalScenario() throws JAXBException {
+		this.marshaller.marshalScenario(this.scenario, this.output);
+	}
+	
+	/**
+	 * Benchmarks the direct marshalling of a scenario file.
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	@Benchmark
+	public void marshalScenarioDirect() throws JAXBException {
+		this.directMarshaller.marshalScenario(this.scenario, this.output);
+	}
+	
+	/**
+	 * Benchmarks the parallel marshalling of a scenario file.
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	@Benchmark
+	public void marshalScenarioParallel() throws JAXBException {
+		this.parallelMarshaller.marshalScenario(this.scenario, this.output);
+	}
+	
+}
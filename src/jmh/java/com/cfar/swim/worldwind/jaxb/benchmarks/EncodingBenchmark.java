@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cfar.swim.worldwind.jaxb.CompressionFormat;
+import com.cfar.swim.worldwind.jaxb.ScenarioCompression;
+import com.cfar.swim.worldwind.jaxb.ScenarioEncoding;
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+
+/**
+ * Benchmarks the throughput of marshalling and unmarshalling scaled
+ * scenarios in plain and Fast Infoset encodings, each either uncompressed
+ * or GZIP compressed. The encoded file sizes are reported at setup.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EncodingBenchmark {
+	
+	/** the number of obstacles and trajectory waypoints of the scenario */
+	@Param({"1000", "10000", "100000"})
+	public int size;
+	
+	/** the encoding of the scenario files */
+	@Param({"XML", "FAST_INFOSET"})
+	public ScenarioEncoding encoding;
+	
+	/** the compression format of the scenario files */
+	@Param({"NONE", "GZIP"})
+	public CompressionFormat format;
+	
+	/** the scenario marshaller of this encoding benchmark */
+	private ScenarioMarshaller marshaller;
+	
+	/** the scenario unmarshaller of this encoding benchmark */
+	private ScenarioUnmarshaller unmarshaller;
+	
+	/** the scenario compression of this encoding benchmark */
+	private ScenarioCompression compression;
+	
+	/** the scenario file to be unmarshalled */
+	private File input;
+	
+	/** the scenario file to be marshalled to */
+	private File output;
+	
+	/** the scenario element to be marshalled */
+	private Object scenario;
+	
+	/**
+	 * Sets up the encoded scaled scenario of this encoding benchmark.
+	 * 
+	 * @throws JAXBException if the scenario cannot be set up
+	 * @throws IOException if the scenario files cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws JAXBException, IOException {
+		this.marshaller = new ScenarioMarshaller();
+		this.unmarshaller = new ScenarioUnmarshaller();
+		this.compression = new ScenarioCompression();
+		this.compression.setFormat(this.format);
+		this.scenario = ScenarioFixture.createScenario(this.size, this.size);
+		this.input = File.createTempFile("scenario", this.encoding.getExtension() + this.format.getExtension());
+		this.output = File.createTempFile("scenario", this.encoding.getExtension() + this.format.getExtension());
+		this.write(this.input);
+		System.out.println(this.encoding + " " + this.format + " scenario of size "
+				+ this.size + " encoded in " + this.input.length() + " bytes");
+	}
+	
+	/**
+	 * Tears down the scenario files of this encoding benchmark.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.input.delete();
+		this.output.delete();
+	}
+	
+	/**
+	 * Writes the encoded and compressed scenario to a file.
+	 * 
+	 * @param file the file
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 * @throws IOException if the file cannot be written
+	 */
+	private void write(File file) throws JAXBException, IOException {
+		try (OutputStream stream = this.compression.compress(
+				new BufferedOutputStream(new FileOutputStream(file)), file)) {
+			this.marshaller.marshal(this.scenario, this.encoding.createResult(stream));
+		}
+	}
+	
+	/**
+	 * Benchmarks the unmarshalling of an encoded scenario file.
+	 * 
+	 * @return the unmarshalled scenario element
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 * @throws IOException if the scenario file cannot be read
+	 */
+	@Benchmark
+	public Object unmarshal() throws JAXBException, IOException {
+		try (InputStream stream = this.compression.decompress(
+				new BufferedInputStream(new FileInputStream(this.input)))) {
+			return this.unmarshaller.unmarshal(ScenarioEncoding.createSource(stream, null));
+		}
+	}
+	
+	/**
+	 * Benchmarks the marshalling of an encoded scenario file.
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 * @throws IOException if the scenario file cannot be written
+	 */
+	@Benchmark
+	public void marshal() throws JAXBException, IOException {
+		this.write(this.output);
+	}
+	
+}
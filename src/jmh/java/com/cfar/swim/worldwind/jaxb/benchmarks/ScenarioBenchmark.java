@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.session.Scenario;
+
+/**
+ * Benchmarks the throughput and latency of scenario marshalling and
+ * unmarshalling for scaled scenarios.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ScenarioBenchmark {
+	
+	/** the number of obstacles and trajectory waypoints of the scenario */
+	@Param({"100", "1000", "10000"})
+	public int size;
+	
+	/** the scenario marshaller of this scenario benchmark */
+	private ScenarioMarshaller marshaller;
+	
+	/** the scenario unmarshaller of this scenario benchmark */
+	private ScenarioUnmarshaller unmarshaller;
+	
+	/** the scenario file to be unmarshalled */
+	private File input;
+	
+	/** the scenario file to be marshalled to */
+	private File output;
+	
+	/** the scenario to be marshalled */
+	private Scenario scenario;
+	
+	/**
+	 * Sets up the scaled scenario of this scenario benchmark.
+	 * 
+	 * @throws JAXBException if the scenario cannot be set up
+	 * @throws IOException if the scenario files cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws JAXBException, IOException {
+		this.marshaller = new ScenarioMarshaller();
+		this.unmarshaller = new ScenarioUnmarshaller();
+		this.input = ScenarioFixture.writeScenario(ScenarioFixture.createScenario(this.size, this.size));
+		this.output = File.createTempFile("scenario", ".xml");
+		this.scenario = this.unmarshaller.unmarshalScenario(this.input);
+	}
+	
+	/**
+	 * Tears down the scenario files of this scenario benchmark.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.input.delete();
+		this.output.delete();
+	}
+	
+	/**
+	 * Benchmarks the unmarshalling of a scenario file.
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	@Benchmark
+	public Scenario unmarshalScenario() throws JAXBException {
+		return this.unmarshaller.unmarshalScenario(this.input);
+	}
+	
+	/**
+	 * Benchmarks the marshalling of a scenario file.
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	@Benchmark
+	public void marshalScenario() throws JAXBException {
+		this.marshaller.marshalScenario(this.scenario, this.output);
+	}
+	
+}
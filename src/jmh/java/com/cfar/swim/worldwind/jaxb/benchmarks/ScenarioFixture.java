@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.adapters.TemporalCodec;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.Location;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+
+/**
+ * Realizes a benchmark fixture which scales a template scenario to a
+ * requested number of obstacles and trajectory waypoints. The obstacles and
+ * waypoints are placed pseudo-randomly within the template environment
+ * using a fixed seed, such that all benchmark runs adapt identical data.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+public final class ScenarioFixture {
+	
+	/** the template scenario of all benchmark fixtures */
+	public static final String TEMPLATE = "src/test/resources/xml/scenario2.xml";
+	
+	/** the seed of all benchmark fixtures */
+	public static final long SEED = 20211231L;
+	
+	/**
+	 * Prevents the construction of a scenario fixture.
+	 */
+	private ScenarioFixture() {
+	}
+	
+	/**
+	 * Creates a scaled scenario from the template scenario.
+	 * 
+	 * @param obstacles the number of obstacles of the scaled scenario
+	 * @param waypoints the number of trajectory waypoints of the scaled
+	 *        scenario
+	 * 
+	 * @return the scaled scenario
+	 * 
+	 * @throws JAXBException if the template scenario cannot be unmarshalled
+	 */
+	public static Scenario createScenario(int obstacles, int waypoints) throws JAXBException {
+		Scenario scenario = (Scenario) new ScenarioUnmarshaller().unmarshal(new File(ScenarioFixture.TEMPLATE));
+		Random random = new Random(ScenarioFixture.SEED);
+		XMLGregorianCalendar start = TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar("2001-12-31T12:00:00Z");
+		XMLGregorianCalendar end = TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar("2022-12-31T12:00:00Z");
+		
+		scenario.setObstacles(new Obstacles());
+		List<Object> cylinders = scenario.getObstacles().getBoxOrCylinderOrSphere();
+		for (int index = 0; index < obstacles; index++) {
+			ObstacleCylinder cylinder = new ObstacleCylinder();
+			Location location = new Location();
+			location.setLatitude(random.nextDouble() * 50d);
+			location.setLongitude(random.nextDouble() * 90d);
+			cylinder.setLocation(location);
+			cylinder.setRadius(100d + (random.nextDouble() * 900d));
+			cylinder.setBottom(0d);
+			cylinder.setTop(2000d);
+			CostInterval costInterval = new CostInterval();
+			costInterval.setId("obstacle" + index);
+			costInterval.setCost(random.nextDouble() * 100d);
+			costInterval.setStart(start);
+			costInterval.setEnd(end);
+			cylinder.setCostInterval(costInterval);
+			cylinders.add(cylinder);
+		}
+		
+		scenario.setTrajectory(new Trajectory());
+		List<Waypoint> trajectory = scenario.getTrajectory().getWaypoint();
+		for (int index = 0; index < waypoints; index++) {
+			Waypoint waypoint = new Waypoint();
+			waypoint.setLatitude(random.nextDouble() * 50d);
+			waypoint.setLongitude(random.nextDouble() * 90d);
+			waypoint.setAltitude(random.nextDouble() * 2000d);
+			waypoint.setDesignator(Integer.toString(index));
+			waypoint.setCost((double) index);
+			waypoint.setTtg(TemporalCodec.getDatatypeFactory().newDurationDayTime(1000L * index));
+			waypoint.setEto(start);
+			trajectory.add(waypoint);
+		}
+		
+		return scenario;
+	}
+	
+	/**
+	 * Writes a scaled scenario to a temporary file which is deleted on exit.
+	 * 
+	 * @param scenario the scaled scenario
+	 * 
+	 * @return the temporary scenario file
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	public static File writeScenario(Scenario scenario) throws JAXBException, IOException {
+		File file = File.createTempFile("scenario", ".xml");
+		file.deleteOnExit();
+		new ScenarioMarshaller().marshal(scenario, file);
+		return file;
+	}
+	
+}
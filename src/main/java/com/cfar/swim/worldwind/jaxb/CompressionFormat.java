@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.File;
+
+/**
+ * Enumerates the compression formats of scenario files.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioCompression
+ */
+public enum CompressionFormat {
+	
+	/** uncompressed scenario files */
+	NONE(""),
+	
+	/** GZIP compressed scenario files */
+	GZIP(".gz"),
+	
+	/** zlib wrapped Deflate compressed scenario files */
+	DEFLATE(".zz");
+	
+	/** the number of header bytes required to detect a compression format */
+	public static final int HEADER_LENGTH = 2;
+	
+	/** the file name extension of this compression format */
+	private final String extension;
+	
+	/**
+	 * Constructs a new compression format with a file name extension.
+	 * 
+	 * @param extension the file name extension of the compression format
+	 */
+	private CompressionFormat(String extension) {
+		this.extension = extension;
+	}
+	
+	/**
+	 * Gets the file name extension of this compression format.
+	 * 
+	 * @return the file name extension of this compression format
+	 */
+	public String getExtension() {
+		return this.extension;
+	}
+	
+	/**
+	 * Detects the compression format of a scenario stream from its magic
+	 * bytes.
+	 * 
+	 * @param header the first bytes of the scenario stream
+	 * @param length the number of valid header bytes
+	 * 
+	 * @return the detected compression format
+	 */
+	public static CompressionFormat detect(byte[] header, int length) {
+		CompressionFormat format = CompressionFormat.NONE;
+		
+		if (CompressionFormat.HEADER_LENGTH <= length) {
+			int first = header[0] & 0xFF;
+			int second = header[1] & 0xFF;
+			if ((0x1F == first) && (0x8B == second)) {
+				format = CompressionFormat.GZIP;
+			} else if ((0x08 == (first & 0x0F)) && (0 == (((first << 8) | second) % 31))) {
+				format = CompressionFormat.DEFLATE;
+			}
+		}
+		
+		return format;
+	}
+	
+	/**
+	 * Gets the compression format of a scenario file from its file name
+	 * extension.
+	 * 
+	 * @param file the scenario file
+	 * 
+	 * @return the compression format of the scenario file
+	 */
+	public static CompressionFormat forFile(File file) {
+		String name = file.getName();
+		CompressionFormat format = CompressionFormat.NONE;
+		
+		if (name.endsWith(CompressionFormat.GZIP.extension)) {
+			format = CompressionFormat.GZIP;
+		} else if (name.endsWith(CompressionFormat.DEFLATE.extension) || name.endsWith(".deflate")) {
+			format = CompressionFormat.DEFLATE;
+		}
+		
+		return format;
+	}
+	
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Set;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamSource;
+
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstacleFilter;
+import com.cfar.swim.worldwind.jaxb.adapters.ScenarioAdapter;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+import com.cfar.swim.worldwind.render.Obstacle;
+
+/**
+ * Realizes a lazily loaded scenario. When a lazy scenario is loaded, the
+ * sections of its scenario file are indexed and only the inexpensive
+ * sections, that is, the attributes, environment, aircraft, waypoints,
+ * planner, datalink and SWIM connection, are unmarshalled. The expensive
+ * sections, that is, the obstacles and the trajectory including their
+ * depictions, are skipped without being unmarshalled and only materialized
+ * when they are first accessed. Skipped sections are located again by their
+ * index in the scenario file, which requires tokenizing but not
+ * unmarshalling the preceding sections. Compressed and Fast Infoset
+ * scenario files are detected from their magic bytes and decoded again
+ * for each materialized section.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioUnmarshaller#unmarshalLazyScenario(File)
+ */
+public class LazyScenario {
+	
+	/** the index of absent sections */
+	private static final int ABSENT = -1;
+	
+	/** the scenario file of this lazy scenario */
+	private final File input;
+	
+	/** indicates whether or not the scenario file of this lazy scenario is memory mapped */
+	private final boolean mapped;
+	
+	/** the compression settings of the scenario file of this lazy scenario */
+	private final ScenarioCompression compression;
+	
+	/** the filter of the materialized obstacles of this lazy scenario, may be null */
+	private final ObstacleFilter obstacleFilter;
+	
+	/** the index of the obstacles section of this lazy scenario */
+	private int obstaclesIndex = LazyScenario.ABSENT;
+	
+	/** the index of the trajectory section of this lazy scenario */
+	private int trajectoryIndex = LazyScenario.ABSENT;
+	
+	/** the unmarshalled scenario without deferred sections of this lazy scenario */
+	private final com.cfar.swim.worldwind.session.Scenario scenario;
+	
+	/** the materialized obstacles of this lazy scenario */
+	private Set<Obstacle> obstacles = null;
+	
+	/** the materialized trajectory of this lazy scenario */
+	private com.cfar.swim.worldwind.planning.Trajectory trajectory = null;
+	
+	/** indicates whether or not this lazy scenario has been materialized */
+	private boolean materialized = false;
+	
+	/**
+	 * Constructs and loads a new lazy scenario from a scenario file.
+	 * 
+	 * @param input the scenario file
+	 * @param mapped true if the scenario file is to be memory mapped, false
+	 *        otherwise
+	 * @param compression the compression settings of the scenario file
+	 * @param obstacleFilter the filter of the materialized obstacles, null
+	 *        if all obstacles are to be materialized
+	 * 
+	 * @throws JAXBException if the lazy scenario cannot be loaded
+	 */
+	LazyScenario(File input, boolean mapped, ScenarioCompression compression, ObstacleFilter obstacleFilter)
+			throws JAXBException {
+		this.input = input;
+		this.mapped = mapped;
+		this.compression = compression;
+		this.obstacleFilter = obstacleFilter;
+		this.scenario = this.load();
+	}
+	
+	/**
+	 * Loads this lazy scenario indexing its sections and unmarshalling all
+	 * but the deferred sections.
+	 * 
+	 * @return the unmarshalled scenario without deferred sections
+	 * 
+	 * @throws JAXBException if the lazy scenario cannot be loaded
+	 */
+	private com.cfar.swim.worldwind.session.Scenario load() throws JAXBException {
+		ScenarioAdapter scenarioAdapter = AdapterRegistry.getScenarioAdapter();
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		XMLStreamReader reader = null;
+		
+		try (InputStream file = ScenarioStreams.openInput(this.input, this.mapped);
+				InputStream stream = this.compression.decompress(file)) {
+			reader = this.openScenario(stream);
+			Scenario scenario = ScenarioStreams.unmarshalAttributes(reader);
+			reader.nextTag();
+			
+			int index = 0;
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				switch (reader.getLocalName()) {
+				case "environment":
+					scenario.setEnvironment(unmarshaller.unmarshal(reader, Environment.class).getValue());
+					break;
+				case "obstacles":
+					this.obstaclesIndex = index;
+					ScenarioStreams.skipElement(reader);
+					break;
+				case "aircraft":
+					scenario.setAircraft(unmarshaller.unmarshal(reader, Aircraft.class).getValue());
+					break;
+				case "waypoints":
+					scenario.setWaypoints(unmarshaller.unmarshal(reader, Waypoints.class).getValue());
+					break;
+				case "trajectory":
+					this.trajectoryIndex = index;
+					ScenarioStreams.skipElement(reader);
+					break;
+				case "planner":
+					scenario.setPlanner(unmarshaller.unmarshal(reader, Planner.class).getValue());
+					break;
+				case "datalink":
+					scenario.setDatalink(unmarshaller.unmarshal(reader, Datalink.class).getValue());
+					break;
+				case "swim":
+					scenario.setSwim(unmarshaller.unmarshal(reader, Swim.class).getValue());
+					break;
+				default:
+					ScenarioStreams.skipElement(reader);
+				}
+				index++;
+			}
+			
+			com.cfar.swim.worldwind.session.Scenario unmarshalledScenario = scenarioAdapter.unmarshalHeader(scenario);
+			scenarioAdapter.unmarshalBody(scenario, unmarshalledScenario);
+			return unmarshalledScenario;
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+			LazyScenario.close(reader);
+		}
+	}
+	
+	/**
+	 * Opens the scenario element of the scenario file of this lazy scenario
+	 * in its detected encoding.
+	 * 
+	 * @param stream the decompressed input stream of the scenario file
+	 * 
+	 * @return the XML stream reader positioned at the scenario element
+	 * 
+	 * @throws JAXBException if the scenario element is missing
+	 * @throws XMLStreamException if the scenario file cannot be read
+	 * @throws IOException if the encoding cannot be detected
+	 */
+	private XMLStreamReader openScenario(InputStream stream) throws JAXBException, XMLStreamException, IOException {
+		Source source = ScenarioEncoding.createSource(stream, this.input.toURI().toString());
+		XMLStreamReader reader = (source instanceof StAXSource)
+				? ((StAXSource) source).getXMLStreamReader()
+				: ScenarioStreams.createReader(((StreamSource) source).getInputStream(), source.getSystemId());
+		if ((XMLStreamConstants.START_ELEMENT != ScenarioStreams.toTag(reader))
+				|| !"scenario".equals(reader.getLocalName())) {
+			reader.close();
+			throw new JAXBException("scenario element expected at " + reader.getLocation());
+		}
+		return reader;
+	}
+	
+	/**
+	 * Unmarshals an indexed section of the scenario file of this lazy
+	 * scenario.
+	 * 
+	 * @param <T> the type of the section
+	 * 
+	 * @param index the index of the section
+	 * @param type the type of the section
+	 * 
+	 * @return the unmarshalled section
+	 * 
+	 * @throws JAXBException if the section cannot be unmarshalled
+	 */
+	private <T> T unmarshalSection(int index, Class<T> type) throws JAXBException {
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		XMLStreamReader reader = null;
+		
+		try (InputStream file = ScenarioStreams.openInput(this.input, this.mapped);
+				InputStream stream = this.compression.decompress(file)) {
+			reader = this.openScenario(stream);
+			reader.nextTag();
+			for (int skipped = 0; skipped < index; skipped++) {
+				ScenarioStreams.skipElement(reader);
+				ScenarioStreams.toTag(reader);
+			}
+			return unmarshaller.unmarshal(reader, type).getValue();
+		} catch (IOException | XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+			LazyScenario.close(reader);
+		}
+	}
+	
+	/**
+	 * Closes an XML stream reader if present.
+	 * 
+	 * @param reader the XML stream reader, may be null
+	 */
+	private static void close(XMLStreamReader reader) {
+		if (null != reader) {
+			try {
+				reader.close();
+			} catch (XMLStreamException e) {
+				// the underlying input stream is closed separately
+			}
+		}
+	}
+	
+	/**
+	 * Gets the scenario file of this lazy scenario.
+	 * 
+	 * @return the scenario file of this lazy scenario
+	 */
+	public File getInput() {
+		return this.input;
+	}
+	
+	/**
+	 * Gets the unmarshalled scenario of this lazy scenario. Unless this lazy
+	 * scenario has been materialized, the returned scenario lacks the
+	 * deferred obstacles and trajectory.
+	 * 
+	 * @return the unmarshalled scenario of this lazy scenario
+	 * 
+	 * @see #materialize()
+	 */
+	public com.cfar.swim.worldwind.session.Scenario getScenario() {
+		return this.scenario;
+	}
+	
+	/**
+	 * Determines whether or not this lazy scenario has obstacles.
+	 * 
+	 * @return true if this lazy scenario has obstacles, false otherwise
+	 */
+	public boolean hasObstacles() {
+		return (LazyScenario.ABSENT != this.obstaclesIndex);
+	}
+	
+	/**
+	 * Gets the obstacles of this lazy scenario materializing them on first
+	 * access. Only the obstacles accepted by the obstacle filter of this
+	 * lazy scenario are materialized.
+	 * 
+	 * @return the obstacles of this lazy scenario, empty if absent
+	 * 
+	 * @throws JAXBException if the obstacles cannot be materialized
+	 */
+	public synchronized Set<Obstacle> getObstacles() throws JAXBException {
+		if (null == this.obstacles) {
+			if (this.hasObstacles()) {
+				try {
+					this.obstacles = AdapterRegistry.getObstaclesAdapter().unmarshal(
+							this.unmarshalSection(this.obstaclesIndex, Obstacles.class), this.obstacleFilter);
+				} catch (JAXBException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new JAXBException(e);
+				}
+			} else {
+				this.obstacles = Collections.emptySet();
+			}
+		}
+		return this.obstacles;
+	}
+	
+	/**
+	 * Determines whether or not this lazy scenario has a trajectory.
+	 * 
+	 * @return true if this lazy scenario has a trajectory, false otherwise
+	 */
+	public boolean hasTrajectory() {
+		return (LazyScenario.ABSENT != this.trajectoryIndex);
+	}
+	
+	/**
+	 * Gets the trajectory of this lazy scenario materializing it on first
+	 * access.
+	 * 
+	 * @return the trajectory of this lazy scenario, null if absent
+	 * 
+	 * @throws JAXBException if the trajectory cannot be materialized
+	 */
+	public synchronized com.cfar.swim.worldwind.planning.Trajectory getTrajectory() throws JAXBException {
+		if ((null == this.trajectory) && this.hasTrajectory()) {
+			try {
+				this.trajectory = AdapterRegistry.getTrajectoryAdapter().unmarshal(
+						this.unmarshalSection(this.trajectoryIndex, Trajectory.class));
+			} catch (JAXBException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new JAXBException(e);
+			}
+		}
+		return this.trajectory;
+	}
+	
+	/**
+	 * Materializes all deferred sections of this lazy scenario into its
+	 * unmarshalled scenario.
+	 * 
+	 * @return the completely unmarshalled scenario of this lazy scenario
+	 * 
+	 * @throws JAXBException if the deferred sections cannot be materialized
+	 */
+	public synchronized com.cfar.swim.worldwind.session.Scenario materialize() throws JAXBException {
+		if (!this.materialized) {
+			if (this.hasObstacles()) {
+				this.scenario.submitAddObstacles(this.getObstacles());
+			}
+			if (this.hasTrajectory()) {
+				this.scenario.setTrajectory(this.getTrajectory());
+			}
+			this.materialized = true;
+		}
+		return this.scenario;
+	}
+	
+}
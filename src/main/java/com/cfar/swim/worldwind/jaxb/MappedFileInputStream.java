@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Realizes an input stream reading a file through memory mappings rather
+ * than read system calls. The file is mapped in chunks of at most
+ * {@link Integer#MAX_VALUE} bytes, such that files above 2 GB can be read,
+ * and the bytes are served directly from the operating system page cache
+ * without intermediate heap buffers.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see FileChannel#map(java.nio.channels.FileChannel.MapMode, long, long)
+ */
+public class MappedFileInputStream extends InputStream {
+	
+	/** the default chunk size of mapped file input streams */
+	public static final long DEFAULT_CHUNK_SIZE = 1L << 30;
+	
+	/** the file channel of this mapped file input stream */
+	private final FileChannel channel;
+	
+	/** the size of the mapped file of this mapped file input stream */
+	private final long size;
+	
+	/** the chunk size of this mapped file input stream */
+	private final long chunkSize;
+	
+	/** the file position of the current chunk of this mapped file input stream */
+	private long chunkPosition = 0;
+	
+	/** the current chunk of this mapped file input stream */
+	private ByteBuffer chunk;
+	
+	/** the marked file position of this mapped file input stream */
+	private long mark = 0;
+	
+	/**
+	 * Constructs a new mapped file input stream with the default chunk size.
+	 * 
+	 * @param file the file to be mapped
+	 * 
+	 * @throws IOException if the file cannot be opened or mapped
+	 */
+	public MappedFileInputStream(File file) throws IOException {
+		this(file, MappedFileInputStream.DEFAULT_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Constructs a new mapped file input stream with a specified chunk size.
+	 * 
+	 * @param file the file to be mapped
+	 * @param chunkSize the chunk size, at most {@link Integer#MAX_VALUE}
+	 * 
+	 * @throws IOException if the file cannot be opened or mapped
+	 * @throws IllegalArgumentException if the chunk size is invalid
+	 */
+	public MappedFileInputStream(File file, long chunkSize) throws IOException {
+		if ((0 >= chunkSize) || (Integer.MAX_VALUE < chunkSize)) {
+			throw new IllegalArgumentException("invalid chunk size");
+		}
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			this.size = this.channel.size();
+			this.chunkSize = chunkSize;
+			this.chunk = this.map(0);
+		} catch (IOException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Maps the chunk starting at a file position.
+	 * 
+	 * @param position the file position of the chunk
+	 * 
+	 * @return the mapped chunk
+	 * 
+	 * @throws IOException if the chunk cannot be mapped
+	 */
+	private ByteBuffer map(long position) throws IOException {
+		long length = Math.min(this.chunkSize, this.size - position);
+		MappedByteBuffer mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		this.chunkPosition = position;
+		return mapped;
+	}
+	
+	/**
+	 * Ensures the current chunk of this mapped file input stream to have
+	 * remaining bytes by mapping the next chunk if required.
+	 * 
+	 * @return true if bytes remain, false if the end of file is reached
+	 * 
+	 * @throws IOException if the next chunk cannot be mapped
+	 */
+	private boolean ensure() throws IOException {
+		if (null == this.chunk) {
+			throw new IOException("stream closed");
+		}
+		if (!this.chunk.hasRemaining()) {
+			long next = this.chunkPosition + this.chunk.capacity();
+			if (next >= this.size) {
+				return false;
+			}
+			this.chunk = this.map(next);
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the file position of this mapped file input stream.
+	 * 
+	 * @return the file position of this mapped file input stream
+	 */
+	public long position() {
+		return this.chunkPosition + this.chunk.position();
+	}
+	
+	/**
+	 * Sets the file position of this mapped file input stream.
+	 * 
+	 * @param position the file position
+	 * 
+	 * @throws IOException if the file position cannot be set
+	 * @throws IllegalArgumentException if the file position is invalid
+	 */
+	public void position(long position) throws IOException {
+		if ((0 > position) || (this.size < position)) {
+			throw new IllegalArgumentException("invalid position");
+		}
+		if ((position < this.chunkPosition) || (position > (this.chunkPosition + this.chunk.capacity()))) {
+			this.chunk = this.map(position - (position % this.chunkSize));
+		}
+		this.chunk.position((int) (position - this.chunkPosition));
+	}
+	
+	/**
+	 * Gets the size of the mapped file of this mapped file input stream.
+	 * 
+	 * @return the size of the mapped file
+	 */
+	public long size() {
+		return this.size;
+	}
+	
+	/**
+	 * Reads the next byte of this mapped file input stream.
+	 * 
+	 * @return the next byte, or -1 if the end of file is reached
+	 * 
+	 * @throws IOException if the byte cannot be read
+	 * 
+	 * @see InputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		return this.ensure() ? (this.chunk.get() & 0xFF) : -1;
+	}
+	
+	/**
+	 * Reads bytes of this mapped file input stream.
+	 * 
+	 * @param bytes the array of the read bytes
+	 * @param offset the offset of the read bytes
+	 * @param length the maximum number of bytes to be read
+	 * 
+	 * @return the number of read bytes, or -1 if the end of file is reached
+	 * 
+	 * @throws IOException if the bytes cannot be read
+	 * 
+	 * @see InputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(byte[] bytes, int offset, int length) throws IOException {
+		if (0 == length) {
+			return 0;
+		} else if (!this.ensure()) {
+			return -1;
+		}
+		int count = Math.min(length, this.chunk.remaining());
+		this.chunk.get(bytes, offset, count);
+		return count;
+	}
+	
+	/**
+	 * Skips bytes of this mapped file input stream.
+	 * 
+	 * @param length the number of bytes to be skipped
+	 * 
+	 * @return the number of skipped bytes
+	 * 
+	 * @throws IOException if the bytes cannot be skipped
+	 * 
+	 * @see InputStream#skip(long)
+	 */
+	@Override
+	public long skip(long length) throws IOException {
+		this.ensure();
+		long skipped = Math.max(0, Math.min(length, this.size - this.position()));
+		this.position(this.position() + skipped);
+		return skipped;
+	}
+	
+	/**
+	 * Gets the number of bytes available in this mapped file input stream.
+	 * 
+	 * @return the number of available bytes
+	 * 
+	 * @throws IOException if the stream is closed
+	 * 
+	 * @see InputStream#available()
+	 */
+	@Override
+	public int available() throws IOException {
+		this.ensure();
+		return (int) Math.min(Integer.MAX_VALUE, this.size - this.position());
+	}
+	
+	/**
+	 * Indicates whether or not this mapped file input stream supports marks.
+	 * 
+	 * @return true
+	 * 
+	 * @see InputStream#markSupported()
+	 */
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+	
+	/**
+	 * Marks the current file position of this mapped file input stream.
+	 * 
+	 * @param limit the read limit, which is ignored
+	 * 
+	 * @see InputStream#mark(int)
+	 */
+	@Override
+	public synchronized void mark(int limit) {
+		if (null != this.chunk) {
+			this.mark = this.position();
+		}
+	}
+	
+	/**
+	 * Resets this mapped file input stream to the marked file position.
+	 * 
+	 * @throws IOException if the stream cannot be reset
+	 * 
+	 * @see InputStream#reset()
+	 */
+	@Override
+	public synchronized void reset() throws IOException {
+		this.ensure();
+		this.position(this.mark);
+	}
+	
+	/**
+	 * Closes this mapped file input stream. Mapped chunks are released by
+	 * the garbage collector.
+	 * 
+	 * @throws IOException if the file channel cannot be closed
+	 * 
+	 * @see InputStream#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		this.chunk = null;
+		this.channel.close();
+	}
+	
+}
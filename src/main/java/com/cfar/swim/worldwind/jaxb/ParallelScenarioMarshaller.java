@@ -0,0 +1,611 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a parallel scenario marshaller which serializes the sections of
+ * a scenario and chunks of its obstacles into separate in-memory buffers on
+ * worker threads. Each worker uses its own pooled marshaller in fragment
+ * mode. The namespace declarations repeated by the start tags of the
+ * fragment roots are removed if the same bindings are already declared by
+ * the scenario element, and the buffers are written to the output file in
+ * document order with a single gathering write.
+ * 
+ * The written scenario files are plain XML files without compression and
+ * schema validation. Namespace declarations which are not in scope of the
+ * scenario element are kept at the fragment roots, such that the stitched
+ * fragments remain namespace-well-formed.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioMarshaller
+ */
+public class ParallelScenarioMarshaller implements AutoCloseable {
+	
+	/** the default number of obstacles per serialized chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+	
+	/** the initial capacity of section buffers */
+	private static final int INITIAL_BUFFER_SIZE = 1 << 10;
+	
+	/** the serialization stage metrics of parallel scenario marshallers */
+	private static final StageMetrics SERIALIZE_STAGE = ScenarioMetrics.getStage("ParallelScenarioMarshaller.serialize");
+	
+	/** the writing stage metrics of parallel scenario marshallers */
+	private static final StageMetrics WRITE_STAGE = ScenarioMetrics.getStage("ParallelScenarioMarshaller.write");
+	
+	/** the number of workers of this parallel scenario marshaller */
+	private final int workers;
+	
+	/** the worker pool of this parallel scenario marshaller */
+	private final ExecutorService pool;
+	
+	/** the number of obstacles per serialized chunk of this parallel scenario marshaller */
+	private int chunkSize = ParallelScenarioMarshaller.DEFAULT_CHUNK_SIZE;
+	
+	/**
+	 * Constructs a new parallel scenario marshaller with one worker per
+	 * available processor.
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 */
+	public ParallelScenarioMarshaller() throws JAXBException {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Constructs a new parallel scenario marshaller with a specified number
+	 * of workers.
+	 * 
+	 * @param workers the number of workers
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 * @throws IllegalArgumentException if the number of workers is not
+	 *         positive
+	 */
+	public ParallelScenarioMarshaller(int workers) throws JAXBException {
+		if (0 >= workers) {
+			throw new IllegalArgumentException("invalid number of workers");
+		}
+		ScenarioContext.getInstance();
+		this.workers = workers;
+		this.pool = ScenarioExecutors.newWorkerPool(workers);
+	}
+	
+	/**
+	 * Gets the number of workers of this parallel scenario marshaller.
+	 * 
+	 * @return the number of workers
+	 */
+	public int getWorkers() {
+		return this.workers;
+	}
+	
+	/**
+	 * Gets the number of obstacles per serialized chunk of this parallel
+	 * scenario marshaller.
+	 * 
+	 * @return the number of obstacles per serialized chunk
+	 */
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+	
+	/**
+	 * Sets the number of obstacles per serialized chunk of this parallel
+	 * scenario marshaller.
+	 * 
+	 * @param chunkSize the number of obstacles per serialized chunk
+	 * 
+	 * @throws IllegalArgumentException if the chunk size is not positive
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (0 >= chunkSize) {
+			throw new IllegalArgumentException("invalid chunk size");
+		}
+		this.chunkSize = chunkSize;
+	}
+	
+	/**
+	 * Marshals a scenario into an output file.
+	 * 
+	 * @param scenario the scenario to be marshalled
+	 * @param output the output file
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	public void marshalScenario(com.cfar.swim.worldwind.session.Scenario scenario, File output) throws JAXBException {
+		Scenario marshalledScenario = null;
+		
+		try {
+			marshalledScenario = AdapterRegistry.getScenarioAdapter().marshal(scenario);
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		}
+		
+		this.marshal(marshalledScenario, output);
+	}
+	
+	/**
+	 * Marshals a JAXB scenario into an output file.
+	 * 
+	 * @param scenario the JAXB scenario to be marshalled
+	 * @param output the output file
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be marshalled
+	 */
+	public void marshal(Scenario scenario, File output) throws JAXBException {
+		ByteBuffer[] buffers = this.serialize(scenario);
+		long start = ScenarioMetrics.start();
+		
+		try (FileChannel channel = FileChannel.open(output.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			int offset = 0;
+			while (offset < buffers.length) {
+				channel.write(buffers, offset, buffers.length - offset);
+				while ((offset < buffers.length) && !buffers[offset].hasRemaining()) {
+					offset++;
+				}
+			}
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		} finally {
+			ParallelScenarioMarshaller.WRITE_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Closes this parallel scenario marshaller shutting down its workers.
+	 * 
+	 * @see AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+	
+	/**
+	 * Serializes a JAXB scenario into buffers in document order.
+	 * 
+	 * @param scenario the JAXB scenario to be serialized
+	 * 
+	 * @return the buffers of the serialized JAXB scenario in document order
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be serialized
+	 */
+	private ByteBuffer[] serialize(Scenario scenario) throws JAXBException {
+		// the empty scenario element provides the prolog and root namespace declarations
+		Scenario root = new Scenario();
+		root.setId(scenario.getId());
+		root.setTime(scenario.getTime());
+		if (ScenarioAttributes.isPresent(scenario, "threshold")) {
+			root.setThreshold(scenario.getThreshold());
+		}
+		if (ScenarioAttributes.isPresent(scenario, "globe")) {
+			root.setGlobe(scenario.getGlobe());
+		}
+		SectionBuffer rootBuffer = ParallelScenarioMarshaller.marshal(root, false);
+		byte[] bytes = rootBuffer.array();
+		int length = rootBuffer.size();
+		StartTag rootTag = StartTag.parse(bytes, ParallelScenarioMarshaller.indexOfRoot(bytes, length), length,
+				Collections.emptyMap());
+		if (!rootTag.empty || (length != rootTag.end)) {
+			throw new JAXBException("unexpected scenario element");
+		}
+		
+		String namespace = ScenarioContext.getInstance().createJAXBIntrospector()
+				.getElementName(scenario).getNamespaceURI();
+		List<CompletableFuture<List<ByteBuffer>>> sections = new ArrayList<>();
+		Map<String, String> declarations = rootTag.declarations;
+		
+		this.serialize(sections, new QName(namespace, "environment"), Environment.class, scenario.getEnvironment(), declarations);
+		if ((null != scenario.getObstacles())
+				&& (this.chunkSize < scenario.getObstacles().getBoxOrCylinderOrSphere().size())) {
+			List<Object> obstacles = scenario.getObstacles().getBoxOrCylinderOrSphere();
+			for (int from = 0; from < obstacles.size(); from += this.chunkSize) {
+				Obstacles chunk = new Obstacles();
+				chunk.getBoxOrCylinderOrSphere().addAll(
+						obstacles.subList(from, Math.min(obstacles.size(), from + this.chunkSize)));
+				boolean first = (0 == from);
+				boolean last = (obstacles.size() <= (from + this.chunkSize));
+				sections.add(this.serialize(new QName(namespace, "obstacles"), Obstacles.class, chunk,
+						first, last, declarations));
+			}
+		} else {
+			this.serialize(sections, new QName(namespace, "obstacles"), Obstacles.class, scenario.getObstacles(), declarations);
+		}
+		this.serialize(sections, new QName(namespace, "aircraft"), Aircraft.class, scenario.getAircraft(), declarations);
+		this.serialize(sections, new QName(namespace, "waypoints"), Waypoints.class, scenario.getWaypoints(), declarations);
+		this.serialize(sections, new QName(namespace, "trajectory"), Trajectory.class, scenario.getTrajectory(), declarations);
+		this.serialize(sections, new QName(namespace, "planner"), Planner.class, scenario.getPlanner(), declarations);
+		this.serialize(sections, new QName(namespace, "datalink"), Datalink.class, scenario.getDatalink(), declarations);
+		this.serialize(sections, new QName(namespace, "swim"), Swim.class, scenario.getSwim(), declarations);
+		
+		List<ByteBuffer> buffers = new ArrayList<>();
+		buffers.add(ByteBuffer.wrap(bytes, 0, rootTag.end - 2));
+		buffers.add(ByteBuffer.wrap(new byte[] {'>'}));
+		try {
+			for (CompletableFuture<List<ByteBuffer>> section : sections) {
+				buffers.addAll(section.get());
+			}
+		} catch (ExecutionException e) {
+			throw (e.getCause() instanceof JAXBException) ? (JAXBException) e.getCause() : new JAXBException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JAXBException(e);
+		}
+		buffers.add(ByteBuffer.wrap(("</" + rootTag.name + ">").getBytes(StandardCharsets.UTF_8)));
+		
+		return buffers.toArray(new ByteBuffer[buffers.size()]);
+	}
+	
+	/**
+	 * Serializes a scenario section on a worker if present.
+	 * 
+	 * @param <T> the type of the scenario section
+	 * 
+	 * @param sections the serialized sections in document order
+	 * @param name the element name of the scenario section
+	 * @param type the type of the scenario section
+	 * @param section the scenario section, may be null
+	 * @param declarations the namespace declarations in scope of the scenario
+	 *        section by prefix
+	 */
+	private <T> void serialize(List<CompletableFuture<List<ByteBuffer>>> sections, QName name, Class<T> type, T section,
+			Map<String, String> declarations) {
+		if (null != section) {
+			sections.add(this.serialize(name, type, section, true, true, declarations));
+		}
+	}
+	
+	/**
+	 * Serializes a scenario section or a chunk of a scenario section on a
+	 * worker. The serialized buffers start with the start tag of the section
+	 * without the namespace declarations in scope, if the chunk is the first
+	 * one, followed by its content and end tag, if the chunk is the last one.
+	 * 
+	 * @param <T> the type of the scenario section
+	 * 
+	 * @param name the element name of the scenario section
+	 * @param type the type of the scenario section
+	 * @param section the scenario section or chunk
+	 * @param first indicates whether or not the chunk is the first one
+	 * @param last indicates whether or not the chunk is the last one
+	 * @param declarations the namespace declarations in scope of the scenario
+	 *        section by prefix
+	 * 
+	 * @return the future of the serialized buffers
+	 */
+	private <T> CompletableFuture<List<ByteBuffer>> serialize(QName name, Class<T> type, T section,
+			boolean first, boolean last, Map<String, String> declarations) {
+		return ScenarioExecutors.execute(this.pool, new CompletableFuture<>(), () -> {
+			long start = ScenarioMetrics.start();
+			SectionBuffer buffer = ParallelScenarioMarshaller.marshal(new JAXBElement<T>(name, type, section), true);
+			byte[] bytes = buffer.array();
+			int length = buffer.size();
+			StartTag startTag = StartTag.parse(bytes, 0, length, declarations);
+			List<ByteBuffer> buffers = new ArrayList<>();
+			
+			if (startTag.empty) {
+				if (!(first && last) || (length != startTag.end)) {
+					throw new JAXBException("unexpected empty chunk");
+				}
+				buffers.add(ByteBuffer.wrap(startTag.bytes));
+			} else {
+				byte[] endTag = ("</" + startTag.name + ">").getBytes(StandardCharsets.UTF_8);
+				int contentEnd = length - endTag.length;
+				if ((contentEnd < startTag.end)
+						|| !Arrays.equals(endTag, Arrays.copyOfRange(bytes, contentEnd, length))) {
+					throw new JAXBException("unexpected end tag");
+				}
+				if (first) {
+					buffers.add(ByteBuffer.wrap(startTag.bytes));
+				}
+				buffers.add(ByteBuffer.wrap(bytes, startTag.end, contentEnd - startTag.end));
+				if (last) {
+					buffers.add(ByteBuffer.wrap(endTag));
+				}
+			}
+			ParallelScenarioMarshaller.SERIALIZE_STAGE.stop(start);
+			
+			return buffers;
+		});
+	}
+	
+	/**
+	 * Marshals a JAXB element into a section buffer using a pooled
+	 * marshaller.
+	 * 
+	 * @param element the JAXB element to be marshalled
+	 * @param fragment indicates whether or not the JAXB element is marshalled
+	 *        as fragment without prolog
+	 * 
+	 * @return the section buffer of the marshalled JAXB element
+	 * 
+	 * @throws JAXBException if the JAXB element cannot be marshalled
+	 */
+	private static SectionBuffer marshal(Object element, boolean fragment) throws JAXBException {
+		Marshaller marshaller = ScenarioContext.acquireMarshaller();
+		
+		try {
+			SectionBuffer buffer = new SectionBuffer();
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment);
+			marshaller.marshal(element, buffer);
+			return buffer;
+		} finally {
+			ScenarioContext.releaseMarshaller(marshaller);
+		}
+	}
+	
+	/**
+	 * Gets the index of the root element start tag following the prolog.
+	 * 
+	 * @param bytes the marshalled bytes
+	 * @param length the number of marshalled bytes
+	 * 
+	 * @return the index of the root element start tag
+	 * 
+	 * @throws JAXBException if there is no root element start tag
+	 */
+	private static int indexOfRoot(byte[] bytes, int length) throws JAXBException {
+		for (int index = 0; index < (length - 1); index++) {
+			if (('<' == bytes[index]) && ('?' != bytes[index + 1])) {
+				return index;
+			}
+		}
+		
+		throw new JAXBException("missing root element");
+	}
+	
+	/**
+	 * Realizes a parsed start tag of a marshalled element.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static final class StartTag {
+		
+		/** the qualified name of the element of this start tag */
+		private String name = null;
+		
+		/** the index following the end of this start tag */
+		private int end = 0;
+		
+		/** indicates whether or not this start tag is an empty element tag */
+		private boolean empty = false;
+		
+		/** the namespace declarations of this start tag by prefix */
+		private final Map<String, String> declarations = new HashMap<>();
+		
+		/** the bytes of this start tag without the namespace declarations in scope */
+		private byte[] bytes = null;
+		
+		/**
+		 * Constructs a new start tag.
+		 */
+		private StartTag() {
+		}
+		
+		/**
+		 * Parses a start tag removing the namespace declarations which bind
+		 * their prefixes to the same namespace URIs as the declarations in
+		 * scope.
+		 * 
+		 * @param bytes the marshalled bytes
+		 * @param from the index of the start tag
+		 * @param length the number of marshalled bytes
+		 * @param scope the namespace declarations in scope by prefix
+		 * 
+		 * @return the parsed start tag
+		 * 
+		 * @throws JAXBException if there is no well-formed start tag
+		 */
+		private static StartTag parse(byte[] bytes, int from, int length, Map<String, String> scope)
+				throws JAXBException {
+			if ((from >= length) || ('<' != bytes[from])) {
+				throw new JAXBException("missing start tag");
+			}
+			
+			StartTag startTag = new StartTag();
+			ByteArrayOutputStream kept = new ByteArrayOutputStream();
+			int index = StartTag.skipName(bytes, from + 1, length);
+			startTag.name = new String(bytes, from + 1, index - from - 1, StandardCharsets.UTF_8);
+			kept.write(bytes, from, index - from);
+			
+			while (0 == startTag.end) {
+				int attributeStart = index;
+				index = StartTag.skipWhitespace(bytes, index, length);
+				if (index >= length) {
+					throw new JAXBException("unterminated start tag");
+				} else if ('>' == bytes[index]) {
+					startTag.end = index + 1;
+					kept.write(bytes, attributeStart, startTag.end - attributeStart);
+				} else if (((index + 1) < length) && ('/' == bytes[index]) && ('>' == bytes[index + 1])) {
+					startTag.empty = true;
+					startTag.end = index + 2;
+					kept.write(bytes, attributeStart, startTag.end - attributeStart);
+				} else {
+					int nameStart = index;
+					index = StartTag.skipName(bytes, index, length);
+					String attribute = new String(bytes, nameStart, index - nameStart, StandardCharsets.UTF_8);
+					index = StartTag.skipWhitespace(bytes, index, length);
+					if ((index >= length) || ('=' != bytes[index])) {
+						throw new JAXBException("malformed attribute " + attribute);
+					}
+					index = StartTag.skipWhitespace(bytes, index + 1, length);
+					if ((index >= length) || (('"' != bytes[index]) && ('\'' != bytes[index]))) {
+						throw new JAXBException("malformed attribute " + attribute);
+					}
+					byte quote = bytes[index];
+					int valueStart = ++index;
+					while ((index < length) && (quote != bytes[index])) {
+						index++;
+					}
+					if (index >= length) {
+						throw new JAXBException("unterminated attribute " + attribute);
+					}
+					String value = new String(bytes, valueStart, index - valueStart, StandardCharsets.UTF_8);
+					index++;
+					
+					// namespace declarations are removed if their bindings are in scope
+					String prefix = null;
+					if ("xmlns".equals(attribute)) {
+						prefix = "";
+					} else if (attribute.startsWith("xmlns:")) {
+						prefix = attribute.substring("xmlns:".length());
+					}
+					if (null != prefix) {
+						startTag.declarations.put(prefix, value);
+					}
+					if ((null == prefix) || !value.equals(scope.get(prefix))) {
+						kept.write(bytes, attributeStart, index - attributeStart);
+					}
+				}
+			}
+			startTag.bytes = kept.toByteArray();
+			
+			return startTag;
+		}
+		
+		/**
+		 * Gets the index following a name.
+		 * 
+		 * @param bytes the marshalled bytes
+		 * @param from the index of the name
+		 * @param length the number of marshalled bytes
+		 * 
+		 * @return the index following the name
+		 * 
+		 * @throws JAXBException if there is no name
+		 */
+		private static int skipName(byte[] bytes, int from, int length) throws JAXBException {
+			int index = from;
+			while ((index < length) && !StartTag.isWhitespace(bytes[index]) && ('=' != bytes[index])
+					&& ('/' != bytes[index]) && ('>' != bytes[index])) {
+				index++;
+			}
+			if (from == index) {
+				throw new JAXBException("missing name");
+			}
+			return index;
+		}
+		
+		/**
+		 * Gets the index following XML whitespace.
+		 * 
+		 * @param bytes the marshalled bytes
+		 * @param from the index of the whitespace
+		 * @param length the number of marshalled bytes
+		 * 
+		 * @return the index following the whitespace
+		 */
+		private static int skipWhitespace(byte[] bytes, int from, int length) {
+			int index = from;
+			while ((index < length) && StartTag.isWhitespace(bytes[index])) {
+				index++;
+			}
+			return index;
+		}
+		
+		/**
+		 * Determines whether or not a byte is XML whitespace.
+		 * 
+		 * @param b the byte
+		 * 
+		 * @return true if the byte is XML whitespace, false otherwise
+		 */
+		private static boolean isWhitespace(byte b) {
+			return (' ' == b) || ('\t' == b) || ('\n' == b) || ('\r' == b);
+		}
+		
+	}
+	
+	/**
+	 * Realizes an in-memory buffer of a serialized scenario section exposing
+	 * its bytes without copying.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static final class SectionBuffer extends ByteArrayOutputStream {
+		
+		/**
+		 * Constructs a new section buffer.
+		 */
+		private SectionBuffer() {
+			super(ParallelScenarioMarshaller.INITIAL_BUFFER_SIZE);
+		}
+		
+		/**
+		 * Gets the backing array of this section buffer holding
+		 * {@link #size()} valid bytes.
+		 * 
+		 * @return the backing array of this section buffer
+		 */
+		private byte[] array() {
+			return this.buf;
+		}
+		
+	}
+	
+}
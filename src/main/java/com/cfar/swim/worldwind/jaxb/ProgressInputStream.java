@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Future;
+
+/**
+ * Realizes an input stream which reports its progress to a progress
+ * listener and stops reading once its associated future has been
+ * cancelled. Parsers reading from a progress input stream are therefore
+ * aborted at their next read after a cancellation.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ProgressListener
+ */
+public class ProgressInputStream extends FilterInputStream {
+	
+	/** the minimum number of bytes between two progress reports */
+	public static final long REPORT_INTERVAL = 1L << 16;
+	
+	/** the total number of bytes of this progress input stream */
+	private final long total;
+	
+	/** the progress listener of this progress input stream, may be null */
+	private final ProgressListener listener;
+	
+	/** the future of this progress input stream, may be null */
+	private final Future<?> future;
+	
+	/** the number of bytes read from this progress input stream */
+	private long processed = 0;
+	
+	/** the number of bytes last reported by this progress input stream */
+	private long reported = 0;
+	
+	/** the marked number of bytes read from this progress input stream */
+	private long mark = 0;
+	
+	/**
+	 * Constructs a new progress input stream.
+	 * 
+	 * @param input the underlying input stream
+	 * @param total the total number of bytes or
+	 *        {@link ProgressListener#UNKNOWN_TOTAL}
+	 * @param listener the progress listener, may be null
+	 * @param future the future whose cancellation stops reading, may be null
+	 */
+	public ProgressInputStream(InputStream input, long total, ProgressListener listener, Future<?> future) {
+		super(input);
+		this.total = total;
+		this.listener = listener;
+		this.future = future;
+	}
+	
+	/**
+	 * Gets the number of bytes read from this progress input stream.
+	 * 
+	 * @return the number of bytes read from this progress input stream
+	 */
+	public long getProcessed() {
+		return this.processed;
+	}
+	
+	/**
+	 * Reads the next byte of this progress input stream.
+	 * 
+	 * @return the next byte or -1 if the end of the stream has been reached
+	 * 
+	 * @throws IOException if the byte cannot be read
+	 * @throws InterruptedIOException if the future has been cancelled
+	 * 
+	 * @see FilterInputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		this.checkCancelled();
+		int b = super.read();
+		this.progressed((-1 == b) ? -1 : 1);
+		return b;
+	}
+	
+	/**
+	 * Reads bytes of this progress input stream into a buffer.
+	 * 
+	 * @param buffer the buffer
+	 * @param offset the buffer offset
+	 * @param length the maximum number of bytes to be read
+	 * 
+	 * @return the number of bytes read or -1 if the end of the stream has
+	 *         been reached
+	 * 
+	 * @throws IOException if the bytes cannot be read
+	 * @throws InterruptedIOException if the future has been cancelled
+	 * 
+	 * @see FilterInputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		this.checkCancelled();
+		int read = super.read(buffer, offset, length);
+		this.progressed(read);
+		return read;
+	}
+	
+	/**
+	 * Skips bytes of this progress input stream.
+	 * 
+	 * @param n the number of bytes to be skipped
+	 * 
+	 * @return the number of skipped bytes
+	 * 
+	 * @throws IOException if the bytes cannot be skipped
+	 * @throws InterruptedIOException if the future has been cancelled
+	 * 
+	 * @see FilterInputStream#skip(long)
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		this.checkCancelled();
+		long skipped = super.skip(n);
+		this.progressed(skipped);
+		return skipped;
+	}
+	
+	/**
+	 * Marks the current position of this progress input stream.
+	 * 
+	 * @param readLimit the read limit of the mark
+	 * 
+	 * @see FilterInputStream#mark(int)
+	 */
+	@Override
+	public synchronized void mark(int readLimit) {
+		super.mark(readLimit);
+		this.mark = this.processed;
+	}
+	
+	/**
+	 * Resets this progress input stream to its marked position.
+	 * 
+	 * @throws IOException if this progress input stream cannot be reset
+	 * 
+	 * @see FilterInputStream#reset()
+	 */
+	@Override
+	public synchronized void reset() throws IOException {
+		super.reset();
+		this.processed = this.mark;
+	}
+	
+	/**
+	 * Checks whether or not the future of this progress input stream has
+	 * been cancelled.
+	 * 
+	 * @throws InterruptedIOException if the future has been cancelled
+	 */
+	private void checkCancelled() throws InterruptedIOException {
+		if ((null != this.future) && this.future.isCancelled()) {
+			throw new InterruptedIOException("scenario input cancelled");
+		}
+	}
+	
+	/**
+	 * Accounts for bytes read from this progress input stream and reports
+	 * the progress if the report interval has been exceeded, the total
+	 * number of bytes has been read or the end of the stream has been
+	 * reached. Decompressing streams may not read beyond their trailers.
+	 * 
+	 * @param read the number of bytes read or -1 at the end of the stream
+	 */
+	private void progressed(long read) {
+		if (0 < read) {
+			this.processed += read;
+		}
+		if ((null != this.listener) && (this.processed != this.reported)
+				&& ((-1 == read) || (this.total == this.processed)
+						|| (ProgressInputStream.REPORT_INTERVAL <= (this.processed - this.reported)))) {
+			this.reported = this.processed;
+			this.listener.progressed(this.processed, this.total);
+		}
+	}
+	
+}
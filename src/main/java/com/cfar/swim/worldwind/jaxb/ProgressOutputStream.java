@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.Future;
+
+/**
+ * Realizes an output stream which reports its progress to a progress
+ * listener and stops writing once its associated future has been
+ * cancelled. Marshallers writing to a progress output stream are therefore
+ * aborted at their next write after a cancellation.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ProgressListener
+ */
+public class ProgressOutputStream extends FilterOutputStream {
+	
+	/** the progress listener of this progress output stream, may be null */
+	private final ProgressListener listener;
+	
+	/** the future of this progress output stream, may be null */
+	private final Future<?> future;
+	
+	/** the number of bytes written to this progress output stream */
+	private long processed = 0;
+	
+	/** the number of bytes last reported by this progress output stream */
+	private long reported = 0;
+	
+	/**
+	 * Constructs a new progress output stream.
+	 * 
+	 * @param output the underlying output stream
+	 * @param listener the progress listener, may be null
+	 * @param future the future whose cancellation stops writing, may be null
+	 */
+	public ProgressOutputStream(OutputStream output, ProgressListener listener, Future<?> future) {
+		super(output);
+		this.listener = listener;
+		this.future = future;
+	}
+	
+	/**
+	 * Gets the number of bytes written to this progress output stream.
+	 * 
+	 * @return the number of bytes written to this progress output stream
+	 */
+	public long getProcessed() {
+		return this.processed;
+	}
+	
+	/**
+	 * Writes a byte to this progress output stream.
+	 * 
+	 * @param b the byte to be written
+	 * 
+	 * @throws IOException if the byte cannot be written
+	 * @throws InterruptedIOException if the future has been cancelled
+	 * 
+	 * @see FilterOutputStream#write(int)
+	 */
+	@Override
+	public void write(int b) throws IOException {
+		this.checkCancelled();
+		this.out.write(b);
+		this.progressed(1);
+	}
+	
+	/**
+	 * Writes bytes of a buffer to this progress output stream.
+	 * 
+	 * @param buffer the buffer
+	 * @param offset the buffer offset
+	 * @param length the number of bytes to be written
+	 * 
+	 * @throws IOException if the bytes cannot be written
+	 * @throws InterruptedIOException if the future has been cancelled
+	 * 
+	 * @see FilterOutputStream#write(byte[], int, int)
+	 */
+	@Override
+	public void write(byte[] buffer, int offset, int length) throws IOException {
+		this.checkCancelled();
+		this.out.write(buffer, offset, length);
+		this.progressed(length);
+	}
+	
+	/**
+	 * Flushes this progress output stream and reports its progress.
+	 * 
+	 * @throws IOException if this progress output stream cannot be flushed
+	 * 
+	 * @see FilterOutputStream#flush()
+	 */
+	@Override
+	public void flush() throws IOException {
+		super.flush();
+		if ((null != this.listener) && (this.processed != this.reported)) {
+			this.reported = this.processed;
+			this.listener.progressed(this.processed, ProgressListener.UNKNOWN_TOTAL);
+		}
+	}
+	
+	/**
+	 * Checks whether or not the future of this progress output stream has
+	 * been cancelled.
+	 * 
+	 * @throws InterruptedIOException if the future has been cancelled
+	 */
+	private void checkCancelled() throws InterruptedIOException {
+		if ((null != this.future) && this.future.isCancelled()) {
+			throw new InterruptedIOException("scenario output cancelled");
+		}
+	}
+	
+	/**
+	 * Accounts for bytes written to this progress output stream and reports
+	 * the progress if the report interval has been exceeded.
+	 * 
+	 * @param written the number of bytes written
+	 */
+	private void progressed(long written) {
+		this.processed += written;
+		if ((null != this.listener)
+				&& (ProgressInputStream.REPORT_INTERVAL <= (this.processed - this.reported))) {
+			this.reported = this.processed;
+			this.listener.progressed(this.processed, ProgressListener.UNKNOWN_TOTAL);
+		}
+	}
+	
+}
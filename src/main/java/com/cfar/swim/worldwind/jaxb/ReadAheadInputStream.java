@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Realizes an input stream which reads its underlying input stream ahead
+ * on a separate thread into a bounded number of recycled buffers. Expensive
+ * underlying streams, such as decompressing streams, are therefore read
+ * concurrently with the consumer, for example, a parser.
+ * 
+ * The underlying input stream is exclusively read and closed by the read
+ * ahead thread.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioCompression
+ */
+public class ReadAheadInputStream extends InputStream {
+	
+	/** the underlying input stream of this read ahead input stream */
+	private final InputStream input;
+	
+	/** the free buffers of this read ahead input stream */
+	private final BlockingQueue<Buffer> free;
+	
+	/** the filled buffers of this read ahead input stream */
+	private final BlockingQueue<Buffer> filled;
+	
+	/** the current buffer of this read ahead input stream */
+	private Buffer current = null;
+	
+	/** the read position within the current buffer */
+	private int position = 0;
+	
+	/** indicates whether or not this read ahead input stream has been closed */
+	private volatile boolean closed = false;
+	
+	/** the error raised by the read ahead thread, if any */
+	private volatile IOException error = null;
+	
+	/**
+	 * Constructs a new read ahead input stream and starts reading ahead.
+	 * 
+	 * @param input the underlying input stream
+	 * @param executor the executor of the read ahead thread
+	 * @param bufferSize the size of each buffer
+	 * @param buffers the number of buffers
+	 * 
+	 * @throws IllegalArgumentException if the buffer size or number of
+	 *         buffers is not positive
+	 */
+	public ReadAheadInputStream(InputStream input, Executor executor, int bufferSize, int buffers) {
+		if ((0 >= bufferSize) || (0 >= buffers)) {
+			throw new IllegalArgumentException("invalid buffers");
+		}
+		this.input = input;
+		this.free = new ArrayBlockingQueue<>(buffers + 1);
+		this.filled = new ArrayBlockingQueue<>(buffers + 1);
+		for (int buffer = 0; buffer < buffers; buffer++) {
+			this.free.add(new Buffer(bufferSize));
+		}
+		executor.execute(this::readAhead);
+	}
+	
+	/**
+	 * Reads the underlying input stream ahead until its end has been
+	 * reached, an error occurs or this read ahead input stream is closed.
+	 * Unless the end has been reached, the end buffer is always queued such
+	 * that the consumer never waits for a terminated read ahead thread.
+	 */
+	private void readAhead() {
+		boolean ended = false;
+		
+		try {
+			while (!this.closed) {
+				Buffer buffer = this.free.take();
+				if (this.closed) {
+					break;
+				}
+				buffer.length = this.input.read(buffer.data, 0, buffer.data.length);
+				this.filled.add(buffer);
+				if (-1 == buffer.length) {
+					ended = true;
+					break;
+				}
+			}
+		} catch (IOException e) {
+			this.error = e;
+		} catch (InterruptedException e) {
+			this.error = new InterruptedIOException("read ahead interrupted");
+		} catch (RuntimeException e) {
+			this.error = new IOException("read ahead failed", e);
+		} finally {
+			if (!ended) {
+				if ((null == this.error) && !this.closed) {
+					this.error = new IOException("read ahead aborted");
+				}
+				this.filled.add(Buffer.END);
+			}
+			try {
+				this.input.close();
+			} catch (IOException e) {
+				// the underlying input stream has been consumed
+			}
+		}
+	}
+	
+	/**
+	 * Ensures that the current buffer has bytes left to be read.
+	 * 
+	 * @return true if bytes are left, false if the end of the stream has been
+	 *         reached
+	 * 
+	 * @throws IOException if the read ahead thread failed or was interrupted
+	 */
+	private boolean fill() throws IOException {
+		while ((null == this.current) || (this.position >= this.current.length)) {
+			if ((null != this.current) && (-1 == this.current.length)) {
+				return false;
+			}
+			if (null != this.current) {
+				this.free.add(this.current);
+			}
+			try {
+				this.current = this.filled.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("read ahead interrupted");
+			}
+			this.position = 0;
+			if (-1 == this.current.length) {
+				if (null != this.error) {
+					throw this.error;
+				}
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Reads the next byte of this read ahead input stream.
+	 * 
+	 * @return the next byte or -1 if the end of the stream has been reached
+	 * 
+	 * @throws IOException if the byte cannot be read
+	 * 
+	 * @see InputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		return this.fill() ? (this.current.data[this.position++] & 0xFF) : -1;
+	}
+	
+	/**
+	 * Reads bytes of this read ahead input stream into a buffer.
+	 * 
+	 * @param buffer the buffer
+	 * @param offset the buffer offset
+	 * @param length the maximum number of bytes to be read
+	 * 
+	 * @return the number of bytes read or -1 if the end of the stream has
+	 *         been reached
+	 * 
+	 * @throws IOException if the bytes cannot be read
+	 * 
+	 * @see InputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (0 == length) {
+			return 0;
+		}
+		if (!this.fill()) {
+			return -1;
+		}
+		int read = Math.min(length, this.current.length - this.position);
+		System.arraycopy(this.current.data, this.position, buffer, offset, read);
+		this.position += read;
+		return read;
+	}
+	
+	/**
+	 * Gets the number of bytes which can be read without blocking.
+	 * 
+	 * @return the number of bytes left in the current buffer
+	 * 
+	 * @see InputStream#available()
+	 */
+	@Override
+	public int available() {
+		return ((null == this.current) || (-1 == this.current.length)) ? 0 : (this.current.length - this.position);
+	}
+	
+	/**
+	 * Closes this read ahead input stream stopping the read ahead thread,
+	 * which closes the underlying input stream.
+	 * 
+	 * @see InputStream#close()
+	 */
+	@Override
+	public void close() {
+		if (!this.closed) {
+			this.closed = true;
+			this.free.offer(Buffer.END);
+		}
+	}
+	
+	/**
+	 * Realizes a read ahead buffer.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static class Buffer {
+		
+		/** the buffer marking the end of the read ahead */
+		private static final Buffer END = new Buffer(0);
+		
+		/** the data of this buffer */
+		private final byte[] data;
+		
+		/** the number of valid bytes of this buffer, -1 at the end of the stream */
+		private int length = -1;
+		
+		/**
+		 * Constructs a new buffer of a specified size.
+		 * 
+		 * @param size the size of the buffer
+		 */
+		private Buffer(int size) {
+			this.data = new byte[size];
+		}
+		
+	}
+	
+}
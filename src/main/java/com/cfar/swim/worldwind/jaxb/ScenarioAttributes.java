@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Provides the presence of optional attributes with default values of JAXB
+ * scenario elements. The generated getters of such attributes return their
+ * default values if the attributes are absent, such that absent and default
+ * attributes cannot be distinguished by their getters. Lossless encoders
+ * therefore consult the presence of these attributes.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+public final class ScenarioAttributes {
+	
+	/** the attribute fields of JAXB scenario element classes by attribute name */
+	private static final ClassValue<Map<String, Field>> fields = new ClassValue<Map<String, Field>>() {
+		
+		/**
+		 * Computes the attribute fields of a JAXB scenario element class
+		 * including the ones of its superclasses.
+		 * 
+		 * @param type the JAXB scenario element class
+		 * 
+		 * @return the attribute fields of the JAXB scenario element class
+		 * 
+		 * @see ClassValue#computeValue(Class)
+		 */
+		@Override
+		protected Map<String, Field> computeValue(Class<?> type) {
+			Map<String, Field> fields = new HashMap<>();
+			for (Class<?> current = type; Object.class != current; current = current.getSuperclass()) {
+				for (Field field : current.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers()) && !fields.containsKey(field.getName())) {
+						field.setAccessible(true);
+						fields.put(field.getName(), field);
+					}
+				}
+			}
+			return fields;
+		}
+		
+	};
+	
+	/**
+	 * Prevents the construction of scenario attributes.
+	 */
+	private ScenarioAttributes() {
+	}
+	
+	/**
+	 * Determines whether or not an optional attribute with a default value
+	 * is present at a JAXB scenario element.
+	 * 
+	 * @param element the JAXB scenario element
+	 * @param name the name of the attribute property
+	 * 
+	 * @return true if the attribute is present, false otherwise
+	 * 
+	 * @throws IllegalArgumentException if the JAXB scenario element has no
+	 *         such attribute property
+	 */
+	public static boolean isPresent(Object element, String name) {
+		Field field = ScenarioAttributes.fields.get(element.getClass()).get(name);
+		if (null == field) {
+			throw new IllegalArgumentException("unknown attribute " + name);
+		}
+		
+		try {
+			return null != field.get(element);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.bind.JAXBException;
+
+/**
+ * Realizes a scenario batch which unmarshals or marshals many scenario
+ * files concurrently. All files are processed by a bounded pool of worker
+ * threads sharing the scenario context, and their results are streamed in
+ * completion order. Errors are isolated per file and reported as
+ * unsuccessful batch results rather than aborting the batch.
+ * 
+ * Files are submitted lazily while the result stream is consumed, such that
+ * at most a small multiple of the number of workers is in flight or waiting
+ * to be consumed at any time, regardless of the size of the batch.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioBatchResult
+ * @see ScenarioContext
+ */
+public class ScenarioBatch implements AutoCloseable {
+	
+	/** the file name extension of scenario files */
+	public static final String SCENARIO_FILE_EXTENSION = ".xml";
+	
+	/** the number of files in flight per worker of a scenario batch */
+	private static final int FILES_PER_WORKER = 2;
+	
+	/** the number of workers of this scenario batch */
+	private final int workers;
+	
+	/** the worker pool of this scenario batch */
+	private final ExecutorService pool;
+	
+	/**
+	 * Constructs a new scenario batch with one worker per available
+	 * processor.
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 */
+	public ScenarioBatch() throws JAXBException {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Constructs a new scenario batch with a specified number of workers.
+	 * 
+	 * @param workers the number of workers
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 * @throws IllegalArgumentException if the number of workers is not
+	 *         positive
+	 */
+	public ScenarioBatch(int workers) throws JAXBException {
+		if (0 >= workers) {
+			throw new IllegalArgumentException("invalid number of workers");
+		}
+		ScenarioContext.getInstance();
+		this.workers = workers;
+		this.pool = ScenarioExecutors.newWorkerPool(workers);
+	}
+	
+	/**
+	 * Gets the number of workers of this scenario batch.
+	 * 
+	 * @return the number of workers of this scenario batch
+	 */
+	public int getWorkers() {
+		return this.workers;
+	}
+	
+	/**
+	 * Lists the scenario files of a directory and its subdirectories in
+	 * path order.
+	 * 
+	 * @param directory the directory
+	 * 
+	 * @return the scenario files of the directory
+	 * 
+	 * @throws IOException if the directory cannot be listed
+	 */
+	public static List<File> listScenarioFiles(File directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory.toPath())) {
+			return paths
+					.filter(Files::isRegularFile)
+					.filter(path -> path.getFileName().toString().endsWith(ScenarioBatch.SCENARIO_FILE_EXTENSION))
+					.sorted()
+					.map(Path::toFile)
+					.collect(Collectors.toList());
+		}
+	}
+	
+	/**
+	 * Unmarshals the scenario files of a directory and its subdirectories
+	 * concurrently into scenario elements.
+	 * 
+	 * @param directory the directory
+	 * 
+	 * @return the stream of batch results in completion order
+	 * 
+	 * @throws IOException if the directory cannot be listed
+	 * 
+	 * @see #unmarshal(Collection)
+	 */
+	public Stream<ScenarioBatchResult<Object>> unmarshal(File directory) throws IOException {
+		return this.unmarshal(ScenarioBatch.listScenarioFiles(directory));
+	}
+	
+	/**
+	 * Unmarshals scenario files concurrently into scenario elements.
+	 * 
+	 * @param files the scenario files
+	 * 
+	 * @return the stream of batch results in completion order
+	 */
+	public Stream<ScenarioBatchResult<Object>> unmarshal(Collection<File> files) {
+		return this.process(files, file -> new ScenarioUnmarshaller().unmarshal(file));
+	}
+	
+	/**
+	 * Unmarshals scenario files concurrently into session scenarios.
+	 * 
+	 * @param files the scenario files
+	 * 
+	 * @return the stream of batch results in completion order
+	 */
+	public Stream<ScenarioBatchResult<com.cfar.swim.worldwind.session.Scenario>> unmarshalScenarios(
+			Collection<File> files) {
+		return this.process(files, file -> new ScenarioUnmarshaller().unmarshalScenario(file));
+	}
+	
+	/**
+	 * Marshals scenario elements concurrently into scenario files.
+	 * 
+	 * @param elements the scenario elements by scenario file
+	 * 
+	 * @return the stream of batch results in completion order
+	 */
+	public Stream<ScenarioBatchResult<Void>> marshal(Map<File, ?> elements) {
+		return this.process(elements.keySet(), file -> {
+			new ScenarioMarshaller().marshal(elements.get(file), file);
+			return null;
+		});
+	}
+	
+	/**
+	 * Marshals session scenarios concurrently into scenario files.
+	 * 
+	 * @param scenarios the session scenarios by scenario file
+	 * 
+	 * @return the stream of batch results in completion order
+	 */
+	public Stream<ScenarioBatchResult<Void>> marshalScenarios(
+			Map<File, com.cfar.swim.worldwind.session.Scenario> scenarios) {
+		return this.process(scenarios.keySet(), file -> {
+			new ScenarioMarshaller().marshalScenario(scenarios.get(file), file);
+			return null;
+		});
+	}
+	
+	/**
+	 * Processes scenario files concurrently with a batch task. The files are
+	 * submitted to the workers of this scenario batch while the returned
+	 * stream is consumed, and closing the stream cancels the files which
+	 * have not been completed yet.
+	 * 
+	 * @param <T> the value type of the batch task
+	 * 
+	 * @param files the scenario files
+	 * @param task the batch task processing a single scenario file
+	 * 
+	 * @return the stream of batch results in completion order
+	 */
+	public <T> Stream<ScenarioBatchResult<T>> process(Collection<File> files, Task<T> task) {
+		BatchIterator<T> iterator = new BatchIterator<>(new ArrayList<>(files), task);
+		return StreamSupport.stream(Spliterators.spliterator(iterator, files.size(),
+				Spliterator.NONNULL | Spliterator.SIZED), false).onClose(iterator::cancel);
+	}
+	
+	/**
+	 * Closes this scenario batch shutting down its workers. Files in flight
+	 * are completed.
+	 * 
+	 * @see AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+	
+	/**
+	 * Describes a batch task processing a single scenario file.
+	 * 
+	 * @author Stephan Heinemann
+	 * 
+	 * @param <T> the value type of the batch task
+	 */
+	@FunctionalInterface
+	public static interface Task<T> {
+		
+		/**
+		 * Processes a single scenario file.
+		 * 
+		 * @param file the scenario file
+		 * 
+		 * @return the value computed for the scenario file, may be null
+		 * 
+		 * @throws Exception if the scenario file cannot be processed
+		 */
+		public T process(File file) throws Exception;
+		
+	}
+	
+	/**
+	 * Realizes a batch iterator which submits scenario files to the workers
+	 * of this scenario batch on demand and iterates their results in
+	 * completion order.
+	 * 
+	 * @author Stephan Heinemann
+	 * 
+	 * @param <T> the value type of the batch task
+	 */
+	private class BatchIterator<T> implements Iterator<ScenarioBatchResult<T>> {
+		
+		/** the scenario files of this batch iterator */
+		private final List<File> files;
+		
+		/** the batch task of this batch iterator */
+		private final Task<T> task;
+		
+		/** the completion service of this batch iterator */
+		private final CompletionService<ScenarioBatchResult<T>> completion;
+		
+		/** the scenario files in flight of this batch iterator by future */
+		private final Map<Future<ScenarioBatchResult<T>>, File> pending = new HashMap<>();
+		
+		/** the number of submitted files of this batch iterator */
+		private int submitted = 0;
+		
+		/** the number of consumed results of this batch iterator */
+		private int consumed = 0;
+		
+		/**
+		 * Constructs a new batch iterator.
+		 * 
+		 * @param files the scenario files
+		 * @param task the batch task
+		 */
+		private BatchIterator(List<File> files, Task<T> task) {
+			this.files = files;
+			this.task = task;
+			this.completion = new ExecutorCompletionService<>(ScenarioBatch.this.pool);
+		}
+		
+		/**
+		 * Indicates whether or not this batch iterator has more results.
+		 * 
+		 * @return true if this batch iterator has more results, false
+		 *         otherwise
+		 * 
+		 * @see Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+			return this.consumed < this.files.size();
+		}
+		
+		/**
+		 * Gets the next completed result of this batch iterator.
+		 * 
+		 * @return the next completed result of this batch iterator
+		 * 
+		 * @throws NoSuchElementException if there are no more results
+		 * 
+		 * @see Iterator#next()
+		 */
+		@Override
+		public ScenarioBatchResult<T> next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			this.submit();
+			
+			Future<ScenarioBatchResult<T>> future = null;
+			try {
+				future = this.completion.take();
+				return future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.cancel();
+				throw new IllegalStateException(e);
+			} catch (ExecutionException e) {
+				return new ScenarioBatchResult<>(this.pending.get(future), null, e.getCause(), 0);
+			} catch (CancellationException e) {
+				return new ScenarioBatchResult<>(this.pending.get(future), null, e, 0);
+			} finally {
+				this.pending.remove(future);
+				this.consumed++;
+			}
+		}
+		
+		/**
+		 * Submits scenario files to the workers while the number of files in
+		 * flight or waiting to be consumed is below the limit.
+		 */
+		private void submit() {
+			int limit = ScenarioBatch.this.workers * ScenarioBatch.FILES_PER_WORKER;
+			
+			while ((this.submitted < this.files.size()) && ((this.submitted - this.consumed) < limit)) {
+				File file = this.files.get(this.submitted);
+				this.pending.put(this.completion.submit(() -> {
+					long start = System.nanoTime();
+					try {
+						T value = this.task.process(file);
+						return new ScenarioBatchResult<>(file, value, null, System.nanoTime() - start);
+					} catch (Exception e) {
+						return new ScenarioBatchResult<>(file, null, e, System.nanoTime() - start);
+					}
+				}), file);
+				this.submitted++;
+			}
+		}
+		
+		/**
+		 * Cancels the submitted files of this batch iterator which have not
+		 * been completed yet and stops submitting further files.
+		 */
+		private void cancel() {
+			for (Future<ScenarioBatchResult<T>> future : this.pending.keySet()) {
+				future.cancel(false);
+			}
+			this.files.subList(this.submitted, this.files.size()).clear();
+		}
+		
+	}
+	
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * Realizes the result of processing a single scenario file of a scenario
+ * batch. A batch result either holds the value computed for its file or
+ * the error which occurred while processing its file, such that a failing
+ * file does not affect the other files of the batch.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @param <T> the value type of the batch result
+ * 
+ * @see ScenarioBatch
+ */
+public final class ScenarioBatchResult<T> {
+	
+	/** the scenario file of this batch result */
+	private final File file;
+	
+	/** the value of this batch result, may be null */
+	private final T value;
+	
+	/** the error of this batch result, null if successful */
+	private final Throwable error;
+	
+	/** the processing time of this batch result in nanoseconds */
+	private final long duration;
+	
+	/**
+	 * Constructs a new batch result.
+	 * 
+	 * @param file the scenario file of the batch result
+	 * @param value the value of the batch result, may be null
+	 * @param error the error of the batch result, null if successful
+	 * @param duration the processing time of the batch result in nanoseconds
+	 * 
+	 * @throws NullPointerException if the scenario file is null
+	 */
+	ScenarioBatchResult(File file, T value, Throwable error, long duration) {
+		this.file = Objects.requireNonNull(file);
+		this.value = value;
+		this.error = error;
+		this.duration = duration;
+	}
+	
+	/**
+	 * Gets the scenario file of this batch result.
+	 * 
+	 * @return the scenario file of this batch result
+	 */
+	public File getFile() {
+		return this.file;
+	}
+	
+	/**
+	 * Gets the value of this batch result.
+	 * 
+	 * @return the value of this batch result, null if unsuccessful
+	 */
+	public T getValue() {
+		return this.value;
+	}
+	
+	/**
+	 * Gets the error of this batch result.
+	 * 
+	 * @return the error of this batch result, null if successful
+	 */
+	public Throwable getError() {
+		return this.error;
+	}
+	
+	/**
+	 * Indicates whether or not this batch result is successful.
+	 * 
+	 * @return true if this batch result is successful, false otherwise
+	 */
+	public boolean isSuccessful() {
+		return (null == this.error);
+	}
+	
+	/**
+	 * Gets the processing time of this batch result.
+	 * 
+	 * @return the processing time of this batch result in nanoseconds
+	 */
+	public long getDuration() {
+		return this.duration;
+	}
+	
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Realizes the compression settings of scenario files. Compressed scenario
+ * input is detected from its magic bytes and decompressed on a separate
+ * read ahead thread, such that decompression and parsing overlap.
+ * Scenario output is compressed in the configured format or, by default,
+ * in the format implied by the output file name extension.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see CompressionFormat
+ * @see ReadAheadInputStream
+ */
+public class ScenarioCompression {
+	
+	/** the default buffer size of scenario compressions */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+	
+	/** the default number of read ahead buffers of scenario compressions */
+	public static final int DEFAULT_READ_AHEAD_BUFFERS = 4;
+	
+	/** the compression level of this scenario compression */
+	private int level = Deflater.DEFAULT_COMPRESSION;
+	
+	/** the buffer size of this scenario compression */
+	private int bufferSize = ScenarioCompression.DEFAULT_BUFFER_SIZE;
+	
+	/** the number of read ahead buffers of this scenario compression */
+	private int readAheadBuffers = ScenarioCompression.DEFAULT_READ_AHEAD_BUFFERS;
+	
+	/** the output format of this scenario compression, null if implied by the file name */
+	private CompressionFormat format = null;
+	
+	/** the executor of the read ahead threads of this scenario compression */
+	private Executor executor = ScenarioExecutors.getDefaultExecutor();
+	
+	/**
+	 * Gets the compression level of this scenario compression.
+	 * 
+	 * @return the compression level of this scenario compression
+	 */
+	public int getLevel() {
+		return this.level;
+	}
+	
+	/**
+	 * Sets the compression level of this scenario compression.
+	 * 
+	 * @param level the compression level between 0 and 9, or -1 for the
+	 *        default compression level
+	 * 
+	 * @throws IllegalArgumentException if the compression level is invalid
+	 */
+	public void setLevel(int level) {
+		if ((Deflater.DEFAULT_COMPRESSION > level) || (Deflater.BEST_COMPRESSION < level)) {
+			throw new IllegalArgumentException("invalid compression level");
+		}
+		this.level = level;
+	}
+	
+	/**
+	 * Gets the buffer size of this scenario compression.
+	 * 
+	 * @return the buffer size of this scenario compression
+	 */
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+	
+	/**
+	 * Sets the buffer size of this scenario compression, which applies to
+	 * the file, (de)compression and read ahead buffers.
+	 * 
+	 * @param bufferSize the buffer size of this scenario compression
+	 * 
+	 * @throws IllegalArgumentException if the buffer size is not positive
+	 */
+	public void setBufferSize(int bufferSize) {
+		if (0 >= bufferSize) {
+			throw new IllegalArgumentException("invalid buffer size");
+		}
+		this.bufferSize = bufferSize;
+	}
+	
+	/**
+	 * Gets the number of read ahead buffers of this scenario compression.
+	 * 
+	 * @return the number of read ahead buffers of this scenario compression
+	 */
+	public int getReadAheadBuffers() {
+		return this.readAheadBuffers;
+	}
+	
+	/**
+	 * Sets the number of read ahead buffers of this scenario compression.
+	 * 
+	 * @param readAheadBuffers the number of read ahead buffers
+	 * 
+	 * @throws IllegalArgumentException if the number of read ahead buffers
+	 *         is not positive
+	 */
+	public void setReadAheadBuffers(int readAheadBuffers) {
+		if (0 >= readAheadBuffers) {
+			throw new IllegalArgumentException("invalid number of read ahead buffers");
+		}
+		this.readAheadBuffers = readAheadBuffers;
+	}
+	
+	/**
+	 * Gets the output format of this scenario compression.
+	 * 
+	 * @return the output format of this scenario compression, null if
+	 *         implied by the output file name extension
+	 */
+	public CompressionFormat getFormat() {
+		return this.format;
+	}
+	
+	/**
+	 * Sets the output format of this scenario compression.
+	 * 
+	 * @param format the output format of this scenario compression, null if
+	 *        implied by the output file name extension
+	 */
+	public void setFormat(CompressionFormat format) {
+		this.format = format;
+	}
+	
+	/**
+	 * Gets the executor of the read ahead threads of this scenario
+	 * compression.
+	 * 
+	 * @return the executor of the read ahead threads
+	 */
+	public Executor getExecutor() {
+		return this.executor;
+	}
+	
+	/**
+	 * Sets the executor of the read ahead threads of this scenario
+	 * compression.
+	 * 
+	 * @param executor the executor of the read ahead threads
+	 * 
+	 * @throws NullPointerException if the executor is null
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = Objects.requireNonNull(executor);
+	}
+	
+	/**
+	 * Wraps a scenario input stream into a decompressing input stream if its
+	 * magic bytes indicate a compression format. Compressed input is
+	 * decompressed ahead on a separate thread, whereas uncompressed input is
+	 * returned as is.
+	 * 
+	 * @param input the scenario input stream
+	 * 
+	 * @return the decompressed scenario input stream
+	 * 
+	 * @throws IOException if the scenario input stream cannot be read
+	 */
+	public InputStream decompress(InputStream input) throws IOException {
+		InputStream stream = input.markSupported() ? input : new BufferedInputStream(input, this.bufferSize);
+		byte[] header = new byte[CompressionFormat.HEADER_LENGTH];
+		
+		int length = ScenarioStreams.peek(stream, header);
+		
+		switch (CompressionFormat.detect(header, length)) {
+		case GZIP:
+			stream = new ReadAheadInputStream(new GZIPInputStream(stream, this.bufferSize),
+					this.executor, this.bufferSize, this.readAheadBuffers);
+			break;
+		case DEFLATE:
+			stream = new ReadAheadInputStream(new InflaterInputStream(stream, new Inflater(), this.bufferSize) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						this.inf.end();
+					}
+				}
+			}, this.executor, this.bufferSize, this.readAheadBuffers);
+			break;
+		default:
+			// uncompressed input is parsed directly
+		}
+		
+		return stream;
+	}
+	
+	/**
+	 * Wraps a scenario output stream into a compressing output stream in the
+	 * output format of this scenario compression or the format implied by
+	 * the output file name extension.
+	 * 
+	 * @param output the scenario output stream
+	 * @param file the scenario output file
+	 * 
+	 * @return the compressing scenario output stream
+	 * 
+	 * @throws IOException if the compressing output stream cannot be created
+	 */
+	public OutputStream compress(OutputStream output, File file) throws IOException {
+		OutputStream stream = output;
+		
+		switch ((null == this.format) ? CompressionFormat.forFile(file) : this.format) {
+		case GZIP:
+			stream = new LevelGZIPOutputStream(output, this.bufferSize, this.level);
+			break;
+		case DEFLATE:
+			stream = new DeflaterOutputStream(output, new Deflater(this.level), this.bufferSize) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						this.def.end();
+					}
+				}
+			};
+			break;
+		default:
+			// uncompressed output is written directly
+		}
+		
+		return stream;
+	}
+	
+	/**
+	 * Realizes a GZIP output stream with a compression level.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static class LevelGZIPOutputStream extends GZIPOutputStream {
+		
+		/**
+		 * Constructs a new GZIP output stream with a compression level.
+		 * 
+		 * @param output the underlying output stream
+		 * @param size the buffer size
+		 * @param level the compression level
+		 * 
+		 * @throws IOException if the GZIP header cannot be written
+		 */
+		private LevelGZIPOutputStream(OutputStream output, int size, int level) throws IOException {
+			super(output, size);
+			this.def.setLevel(level);
+		}
+		
+	}
+	
+}
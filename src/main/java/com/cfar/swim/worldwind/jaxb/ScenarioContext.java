@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Realizes a process-wide scenario context which lazily creates a single
+ * shared JAXB context for scenarios and pools the marshallers and
+ * unmarshallers created from it. JAXB contexts are thread-safe but
+ * expensive to create, whereas marshallers and unmarshallers are cheap to
+ * create but must not be shared among threads.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+public final class ScenarioContext {
+	
+	/** the maximum number of idle marshallers and unmarshallers kept in the pools */
+	public static final int POOL_CAPACITY = Math.max(2, 2 * Runtime.getRuntime().availableProcessors());
+	
+	/** the lazily created shared JAXB context of all scenario (un)marshallers */
+	private static volatile JAXBContext context = null;
+	
+	/** the pool of idle marshallers of the shared scenario context */
+	private static final BlockingQueue<Marshaller> marshallers = new ArrayBlockingQueue<>(POOL_CAPACITY);
+	
+	/** the pool of idle unmarshallers of the shared scenario context */
+	private static final BlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<>(POOL_CAPACITY);
+	
+	/**
+	 * Prevents the construction of a scenario context.
+	 */
+	private ScenarioContext() {
+	}
+	
+	/**
+	 * Gets the shared JAXB context of scenarios creating it on first access.
+	 * 
+	 * @return the shared JAXB context of scenarios
+	 * 
+	 * @throws JAXBException if the JAXB context cannot be created
+	 */
+	public static JAXBContext getInstance() throws JAXBException {
+		JAXBContext instance = ScenarioContext.context;
+		
+		if (null == instance) {
+			synchronized (ScenarioContext.class) {
+				instance = ScenarioContext.context;
+				if (null == instance) {
+					instance = JAXBContext.newInstance(
+							com.cfar.swim.worldwind.jaxb.scenario.ObjectFactory.class);
+					ScenarioContext.context = instance;
+				}
+			}
+		}
+		
+		return instance;
+	}
+	
+	/**
+	 * Acquires a marshaller from the pool of this scenario context. The
+	 * acquired marshaller is exclusively owned by the caller until it is
+	 * released.
+	 * 
+	 * @return the acquired marshaller
+	 * 
+	 * @throws JAXBException if no marshaller can be created
+	 * 
+	 * @see #releaseMarshaller(Marshaller)
+	 */
+	public static Marshaller acquireMarshaller() throws JAXBException {
+		Marshaller marshaller = ScenarioContext.marshallers.poll();
+		
+		if (null == marshaller) {
+			marshaller = ScenarioContext.getInstance().createMarshaller();
+		}
+		
+		return marshaller;
+	}
+	
+	/**
+	 * Releases an acquired marshaller to the pool of this scenario context.
+	 * The marshaller is reset to its default configuration and discarded if
+	 * the pool is full or the marshaller cannot be reset.
+	 * 
+	 * @param marshaller the marshaller to be released
+	 */
+	public static void releaseMarshaller(Marshaller marshaller) {
+		if (null != marshaller) {
+			try {
+				marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+				marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
+				marshaller.setSchema(null);
+				marshaller.setEventHandler(null);
+				marshaller.setListener(null);
+				ScenarioContext.marshallers.offer(marshaller);
+			} catch (JAXBException e) {
+				// discard marshallers which cannot be reset
+			}
+		}
+	}
+	
+	/**
+	 * Acquires an unmarshaller from the pool of this scenario context. The
+	 * acquired unmarshaller is exclusively owned by the caller until it is
+	 * released.
+	 * 
+	 * @return the acquired unmarshaller
+	 * 
+	 * @throws JAXBException if no unmarshaller can be created
+	 * 
+	 * @see #releaseUnmarshaller(Unmarshaller)
+	 */
+	public static Unmarshaller acquireUnmarshaller() throws JAXBException {
+		Unmarshaller unmarshaller = ScenarioContext.unmarshallers.poll();
+		
+		if (null == unmarshaller) {
+			unmarshaller = ScenarioContext.getInstance().createUnmarshaller();
+		}
+		
+		return unmarshaller;
+	}
+	
+	/**
+	 * Releases an acquired unmarshaller to the pool of this scenario context.
+	 * The unmarshaller is reset to its default configuration and discarded if
+	 * the pool is full or the unmarshaller cannot be reset.
+	 * 
+	 * @param unmarshaller the unmarshaller to be released
+	 */
+	public static void releaseUnmarshaller(Unmarshaller unmarshaller) {
+		if (null != unmarshaller) {
+			try {
+				unmarshaller.setSchema(null);
+				unmarshaller.setEventHandler(null);
+				unmarshaller.setListener(null);
+				ScenarioContext.unmarshallers.offer(unmarshaller);
+			} catch (JAXBException e) {
+				// discard unmarshallers which cannot be reset
+			}
+		}
+	}
+	
+}
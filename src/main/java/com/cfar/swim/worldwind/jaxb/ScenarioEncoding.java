@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.stax.StAXResult;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+
+/**
+ * Enumerates the encodings of scenario files. Encoded scenarios are
+ * (un)marshalled through the standard JAXB source and result paths, such
+ * that all scenario adapters apply unchanged.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioVocabulary
+ */
+public enum ScenarioEncoding {
+	
+	/** textual XML encoded scenario files */
+	XML(".xml"),
+	
+	/** binary Fast Infoset encoded scenario files */
+	FAST_INFOSET(".finf");
+	
+	/** the number of header bytes required to detect an encoding */
+	public static final int HEADER_LENGTH = 4;
+	
+	/** the file name extension of this encoding */
+	private final String extension;
+	
+	/**
+	 * Constructs a new encoding with a file name extension.
+	 * 
+	 * @param extension the file name extension of the encoding
+	 */
+	private ScenarioEncoding(String extension) {
+		this.extension = extension;
+	}
+	
+	/**
+	 * Gets the file name extension of this encoding.
+	 * 
+	 * @return the file name extension of this encoding
+	 */
+	public String getExtension() {
+		return this.extension;
+	}
+	
+	/**
+	 * Creates a result encoding a scenario into an output stream.
+	 * Fast Infoset results reference the external scenario vocabulary.
+	 * 
+	 * @param output the output stream
+	 * 
+	 * @return the result encoding a scenario into the output stream
+	 * 
+	 * @throws JAXBException if the result cannot be created
+	 */
+	public Result createResult(OutputStream output) throws JAXBException {
+		Result result = null;
+		
+		if (ScenarioEncoding.FAST_INFOSET == this) {
+			StAXDocumentSerializer serializer = new StAXDocumentSerializer(output);
+			serializer.setExternalVocabulary(ScenarioVocabulary.getInstance());
+			result = new StAXResult(serializer);
+		} else {
+			result = new StreamResult(output);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Detects the encoding of a scenario stream from its magic bytes.
+	 * 
+	 * @param header the first bytes of the scenario stream
+	 * @param length the number of valid header bytes
+	 * 
+	 * @return the detected encoding
+	 */
+	public static ScenarioEncoding detect(byte[] header, int length) {
+		ScenarioEncoding encoding = ScenarioEncoding.XML;
+		
+		if ((ScenarioEncoding.HEADER_LENGTH <= length)
+				&& ((byte) 0xE0 == header[0]) && (0x00 == header[1])
+				&& (0x00 == header[2]) && (0x01 == header[3])) {
+			encoding = ScenarioEncoding.FAST_INFOSET;
+		}
+		
+		return encoding;
+	}
+	
+	/**
+	 * Gets the encoding of a scenario file from its file name extension
+	 * disregarding any compression format extension.
+	 * 
+	 * @param file the scenario file
+	 * 
+	 * @return the encoding of the scenario file
+	 */
+	public static ScenarioEncoding forFile(File file) {
+		String name = file.getName().toLowerCase();
+		String compression = CompressionFormat.forFile(file).getExtension();
+		
+		if (name.endsWith(compression)) {
+			name = name.substring(0, name.length() - compression.length());
+		}
+		
+		return (name.endsWith(ScenarioEncoding.FAST_INFOSET.extension) || name.endsWith(".fi"))
+				? ScenarioEncoding.FAST_INFOSET : ScenarioEncoding.XML;
+	}
+	
+	/**
+	 * Creates a source decoding a scenario from an input stream whose
+	 * encoding is detected from its magic bytes.
+	 * 
+	 * @param input the input stream
+	 * @param systemId the system identifier of the input stream
+	 * 
+	 * @return the source decoding a scenario from the input stream
+	 * 
+	 * @throws IOException if the input stream cannot be read
+	 * @throws JAXBException if the source cannot be created
+	 */
+	public static Source createSource(InputStream input, String systemId) throws IOException, JAXBException {
+		Source source = null;
+		InputStream stream = input.markSupported() ? input : new BufferedInputStream(input);
+		byte[] header = new byte[ScenarioEncoding.HEADER_LENGTH];
+		
+		int length = ScenarioStreams.peek(stream, header);
+		
+		if (ScenarioEncoding.FAST_INFOSET == ScenarioEncoding.detect(header, length)) {
+			StAXDocumentParser parser = new StAXDocumentParser(stream);
+			parser.setExternalVocabularies(ScenarioVocabulary.getParserVocabularies());
+			// the Fast Infoset connector of JAXB expects interned names
+			parser.setStringInterning(true);
+			source = new StAXSource(parser);
+		} else {
+			source = new StreamSource(stream, systemId);
+		}
+		
+		return source;
+	}
+	
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Realizes the process-wide executors of asynchronous scenario input and
+ * output. The default executor runs each task in a virtual thread on Java
+ * 21 and later runtimes, which are looked up reflectively, and falls back
+ * to a cached pool of daemon threads on earlier runtimes. Processor-bound
+ * scenario tasks are run by fixed worker pools instead.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioUnmarshaller#unmarshalScenarioAsync(java.io.File)
+ * @see ScenarioMarshaller#marshalScenarioAsync(com.cfar.swim.worldwind.session.Scenario, java.io.File)
+ */
+public final class ScenarioExecutors {
+	
+	/** the minimum runtime feature version providing virtual threads */
+	private static final int VIRTUAL_THREADS_VERSION = 21;
+	
+	/** the lazily created default executor of asynchronous scenario input and output */
+	private static volatile Executor defaultExecutor = null;
+	
+	/**
+	 * Prevents the construction of scenario executors.
+	 */
+	private ScenarioExecutors() {
+	}
+	
+	/**
+	 * Gets the default executor of asynchronous scenario input and output
+	 * creating it on first access.
+	 * 
+	 * @return the default executor of asynchronous scenario input and output
+	 */
+	public static Executor getDefaultExecutor() {
+		Executor executor = ScenarioExecutors.defaultExecutor;
+		
+		if (null == executor) {
+			synchronized (ScenarioExecutors.class) {
+				executor = ScenarioExecutors.defaultExecutor;
+				if (null == executor) {
+					executor = ScenarioExecutors.createVirtualThreadExecutor();
+					if (null == executor) {
+						executor = Executors.newCachedThreadPool(new ScenarioThreadFactory("scenario-io-"));
+					}
+					ScenarioExecutors.defaultExecutor = executor;
+				}
+			}
+		}
+		
+		return executor;
+	}
+	
+	/**
+	 * Creates a new worker pool of a fixed number of daemon threads for
+	 * processor-bound scenario tasks. The worker pool is owned by the caller
+	 * and has to be shut down after use.
+	 * 
+	 * @param threads the number of worker threads
+	 * 
+	 * @return the new worker pool
+	 * 
+	 * @throws IllegalArgumentException if the number of worker threads is
+	 *         not positive
+	 */
+	public static ExecutorService newWorkerPool(int threads) {
+		return Executors.newFixedThreadPool(threads, new ScenarioThreadFactory("scenario-worker-"));
+	}
+	
+	/**
+	 * Creates an executor running each task in a new virtual thread if
+	 * supported by the runtime.
+	 * 
+	 * @return the virtual thread executor, null if virtual threads are not
+	 *         supported
+	 */
+	private static Executor createVirtualThreadExecutor() {
+		Executor executor = null;
+		
+		if (ScenarioExecutors.VIRTUAL_THREADS_VERSION <= Runtime.version().feature()) {
+			try {
+				Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				executor = (Executor) factory.invoke(null);
+			} catch (ReflectiveOperationException | UnsupportedOperationException e) {
+				// virtual threads are not available
+			}
+		}
+		
+		return executor;
+	}
+	
+	/**
+	 * Executes a scenario task asynchronously completing a future with its
+	 * result. The task is expected to observe the cancellation of the future
+	 * and abort, for example, by reading through a {@link ProgressInputStream}.
+	 * 
+	 * @param <T> the result type of the scenario task
+	 * 
+	 * @param executor the executor of the scenario task
+	 * @param future the future to be completed
+	 * @param task the scenario task
+	 * 
+	 * @return the future to be completed
+	 */
+	public static <T> CompletableFuture<T> execute(Executor executor, CompletableFuture<T> future, Callable<T> task) {
+		try {
+			executor.execute(() -> {
+				if (!future.isDone()) {
+					try {
+						future.complete(task.call());
+					} catch (Throwable t) {
+						future.completeExceptionally(t);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		
+		return future;
+	}
+	
+	/**
+	 * Realizes a thread factory creating daemon threads for asynchronous
+	 * scenario input and output.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static class ScenarioThreadFactory implements ThreadFactory {
+		
+		/** the thread name prefix of this scenario thread factory */
+		private final String prefix;
+		
+		/** the number of threads created by this scenario thread factory */
+		private final AtomicInteger threads = new AtomicInteger();
+		
+		/**
+		 * Constructs a new scenario thread factory.
+		 * 
+		 * @param prefix the thread name prefix
+		 */
+		private ScenarioThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+		
+		/**
+		 * Creates a new daemon thread running a task.
+		 * 
+		 * @param task the task to be run
+		 * 
+		 * @return the created daemon thread
+		 * 
+		 * @see ThreadFactory#newThread(Runnable)
+		 */
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, this.prefix + this.threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+		
+	}
+	
+}
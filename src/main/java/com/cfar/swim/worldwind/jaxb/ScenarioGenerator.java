@@ -0,0 +1,928 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.cfar.swim.worldwind.jaxb.adapters.TemporalCodec;
+
+/**
+ * Realizes a deterministic synthetic scenario generator for load tests. The
+ * generated scenarios conform to the scenario schema and comprise a
+ * controllable number of box, cylinder and sphere obstacles, cost intervals
+ * and trajectory waypoints within a planning grid or continuum that is
+ * planned by a selected planner family. All pseudo-random properties are
+ * derived from a seed, such that equal generators generate identical
+ * scenarios. Scenarios are written with an XML stream writer one element at
+ * a time, such that arbitrarily large scenarios are generated in constant
+ * memory.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioStreamMarshaller
+ */
+public class ScenarioGenerator {
+	
+	/**
+	 * Enumerates the planner families of generated scenarios.
+	 * 
+	 * @author Stephan Heinemann
+	 *
+	 */
+	public enum PlannerFamily {
+		ASTAR("astar"),
+		THETASTAR("thetastar"),
+		ARASTAR("arastar"),
+		ADSTAR("adstar"),
+		OADSTAR("oadstar"),
+		BRRT("brrt"),
+		ARRT("arrt"),
+		DRRT("drrt"),
+		HRRT("hrrt"),
+		ADRRT("adrrt"),
+		OADRRT("oadrrt"),
+		RRTSTAR("rrtstar");
+		
+		/** the element local name of this planner family */
+		private final String localName;
+		
+		/**
+		 * Constructs a new planner family with an element local name.
+		 * 
+		 * @param localName the element local name of the planner family
+		 */
+		private PlannerFamily(String localName) {
+			this.localName = localName;
+		}
+		
+		/**
+		 * Gets the element local name of this planner family.
+		 * 
+		 * @return the element local name of this planner family
+		 */
+		public String getLocalName() {
+			return this.localName;
+		}
+	}
+	
+	/** the south-western latitude of generated environments */
+	private static final double SOUTH = 0d;
+	
+	/** the western longitude of generated environments */
+	private static final double WEST = 0d;
+	
+	/** the north-eastern latitude of generated environments */
+	private static final double NORTH = 50d;
+	
+	/** the eastern longitude of generated environments */
+	private static final double EAST = 90d;
+	
+	/** the bottom altitude of generated environments */
+	private static final double BOTTOM = 0d;
+	
+	/** the top altitude of generated environments */
+	private static final double TOP = 2000d;
+	
+	/** the start time of generated cost intervals */
+	private static final ZonedDateTime START = ZonedDateTime.parse("2021-12-31T12:00:00Z");
+	
+	/** the number of hours covered by all generated cost intervals */
+	private static final long HORIZON = 24L * 365L;
+	
+	/** the seed of this scenario generator */
+	private final long seed;
+	
+	/** the number of box obstacles of this scenario generator */
+	private long boxes = 0;
+	
+	/** the number of cylinder obstacles of this scenario generator */
+	private long cylinders = 0;
+	
+	/** the number of sphere obstacles of this scenario generator */
+	private long spheres = 0;
+	
+	/** the number of distinct cost intervals of this scenario generator */
+	private int costIntervals = 1;
+	
+	/** the number of trajectory waypoints of this scenario generator */
+	private long waypoints = 0;
+	
+	/** the grid division of this scenario generator, zero for a continuum */
+	private int division = 10;
+	
+	/** the continuum resolution of this scenario generator */
+	private double resolution = 0d;
+	
+	/** the planner family of this scenario generator */
+	private PlannerFamily plannerFamily = PlannerFamily.ASTAR;
+	
+	/**
+	 * Constructs a new scenario generator with a seed generating an empty
+	 * planning grid scenario with a division of ten planned by an A* planner.
+	 * 
+	 * @param seed the seed of the scenario generator
+	 */
+	public ScenarioGenerator(long seed) {
+		this.seed = seed;
+	}
+	
+	/**
+	 * Gets the seed of this scenario generator.
+	 * 
+	 * @return the seed of this scenario generator
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+	
+	/**
+	 * Gets the number of box obstacles of this scenario generator.
+	 * 
+	 * @return the number of box obstacles of this scenario generator
+	 */
+	public long getBoxes() {
+		return this.boxes;
+	}
+	
+	/**
+	 * Sets the number of box obstacles of this scenario generator.
+	 * 
+	 * @param boxes the number of box obstacles to be set
+	 * 
+	 * @throws IllegalArgumentException if the number of box obstacles is
+	 *         negative
+	 */
+	public void setBoxes(long boxes) {
+		if (0 > boxes) {
+			throw new IllegalArgumentException("invalid number of boxes");
+		}
+		this.boxes = boxes;
+	}
+	
+	/**
+	 * Gets the number of cylinder obstacles of this scenario generator.
+	 * 
+	 * @return the number of cylinder obstacles of this scenario generator
+	 */
+	public long getCylinders() {
+		return this.cylinders;
+	}
+	
+	/**
+	 * Sets the number of cylinder obstacles of this scenario generator.
+	 * 
+	 * @param cylinders the number of cylinder obstacles to be set
+	 * 
+	 * @throws IllegalArgumentException if the number of cylinder obstacles
+	 *         is negative
+	 */
+	public void setCylinders(long cylinders) {
+		if (0 > cylinders) {
+			throw new IllegalArgumentException("invalid number of cylinders");
+		}
+		this.cylinders = cylinders;
+	}
+	
+	/**
+	 * Gets the number of sphere obstacles of this scenario generator.
+	 * 
+	 * @return the number of sphere obstacles of this scenario generator
+	 */
+	public long getSpheres() {
+		return this.spheres;
+	}
+	
+	/**
+	 * Sets the number of sphere obstacles of this scenario generator.
+	 * 
+	 * @param spheres the number of sphere obstacles to be set
+	 * 
+	 * @throws IllegalArgumentException if the number of sphere obstacles is
+	 *         negative
+	 */
+	public void setSpheres(long spheres) {
+		if (0 > spheres) {
+			throw new IllegalArgumentException("invalid number of spheres");
+		}
+		this.spheres = spheres;
+	}
+	
+	/**
+	 * Gets the number of distinct cost intervals of this scenario generator.
+	 * The cost intervals partition a one year horizon and each obstacle is
+	 * active during one of them.
+	 * 
+	 * @return the number of distinct cost intervals of this scenario
+	 *         generator
+	 */
+	public int getCostIntervals() {
+		return this.costIntervals;
+	}
+	
+	/**
+	 * Sets the number of distinct cost intervals of this scenario generator.
+	 * 
+	 * @param costIntervals the number of distinct cost intervals to be set
+	 * 
+	 * @throws IllegalArgumentException if the number of cost intervals is
+	 *         not positive or exceeds the number of horizon hours
+	 */
+	public void setCostIntervals(int costIntervals) {
+		if ((0 >= costIntervals) || (ScenarioGenerator.HORIZON < costIntervals)) {
+			throw new IllegalArgumentException("invalid number of cost intervals");
+		}
+		this.costIntervals = costIntervals;
+	}
+	
+	/**
+	 * Gets the number of trajectory waypoints of this scenario generator.
+	 * 
+	 * @return the number of trajectory waypoints of this scenario generator
+	 */
+	public long getWaypoints() {
+		return this.waypoints;
+	}
+	
+	/**
+	 * Sets the number of trajectory waypoints of this scenario generator.
+	 * 
+	 * @param waypoints the number of trajectory waypoints to be set
+	 * 
+	 * @throws IllegalArgumentException if the number of trajectory waypoints
+	 *         is negative
+	 */
+	public void setWaypoints(long waypoints) {
+		if (0 > waypoints) {
+			throw new IllegalArgumentException("invalid number of waypoints");
+		}
+		this.waypoints = waypoints;
+	}
+	
+	/**
+	 * Generates planning grid environments with a division.
+	 * 
+	 * @param division the division of the planning grid
+	 * 
+	 * @throws IllegalArgumentException if the division is not positive
+	 */
+	public void setGrid(int division) {
+		if (0 >= division) {
+			throw new IllegalArgumentException("invalid division");
+		}
+		this.division = division;
+		this.resolution = 0d;
+	}
+	
+	/**
+	 * Generates planning continuum environments with a resolution.
+	 * 
+	 * @param resolution the resolution of the planning continuum
+	 * 
+	 * @throws IllegalArgumentException if the resolution is not positive
+	 */
+	public void setContinuum(double resolution) {
+		if (!(0d < resolution)) {
+			throw new IllegalArgumentException("invalid resolution");
+		}
+		this.division = 0;
+		this.resolution = resolution;
+	}
+	
+	/**
+	 * Determines whether or not this scenario generator generates planning
+	 * grid environments.
+	 * 
+	 * @return true if this scenario generator generates planning grid
+	 *         environments, false if it generates planning continuum
+	 *         environments
+	 */
+	public boolean isGrid() {
+		return (0 < this.division);
+	}
+	
+	/**
+	 * Gets the planner family of this scenario generator.
+	 * 
+	 * @return the planner family of this scenario generator
+	 */
+	public PlannerFamily getPlannerFamily() {
+		return this.plannerFamily;
+	}
+	
+	/**
+	 * Sets the planner family of this scenario generator.
+	 * 
+	 * @param plannerFamily the planner family to be set
+	 * 
+	 * @throws IllegalArgumentException if the planner family is null
+	 */
+	public void setPlannerFamily(PlannerFamily plannerFamily) {
+		if (null == plannerFamily) {
+			throw new IllegalArgumentException("invalid planner family");
+		}
+		this.plannerFamily = plannerFamily;
+	}
+	
+	/**
+	 * Generates a scenario into an output file.
+	 * 
+	 * @param output the output file
+	 * 
+	 * @throws JAXBException if the scenario cannot be generated
+	 */
+	public void generate(File output) throws JAXBException {
+		try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(output))) {
+			this.generate(stream);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Generates a scenario into an output stream. The output stream is
+	 * flushed but not closed.
+	 * 
+	 * @param output the output stream
+	 * 
+	 * @throws JAXBException if the scenario cannot be generated
+	 */
+	public void generate(OutputStream output) throws JAXBException {
+		XMLStreamWriter writer = null;
+		
+		try {
+			writer = ScenarioStreams.createWriter(output);
+			writer.writeStartDocument("UTF-8", "1.0");
+			this.generate(writer);
+			writer.writeEndDocument();
+			writer.flush();
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			if (null != writer) {
+				try {
+					writer.close();
+				} catch (XMLStreamException e) {
+					// the underlying output stream remains open
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Generates a scenario element into an XML stream writer. The document
+	 * itself is neither started nor ended.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws JAXBException if the scenario cannot be generated
+	 */
+	public void generate(XMLStreamWriter writer) throws JAXBException {
+		Random random = new Random(this.seed);
+		
+		try {
+			writer.setPrefix(ScenarioStreams.NAMESPACE_PREFIX, ScenarioStreams.NAMESPACE_URI);
+			this.writeStartElement(writer, "scenario");
+			writer.writeNamespace(ScenarioStreams.NAMESPACE_PREFIX, ScenarioStreams.NAMESPACE_URI);
+			writer.writeAttribute("id", "Synthetic Scenario " + this.seed);
+			writer.writeAttribute("time", TemporalCodec.printTime(ScenarioGenerator.START));
+			writer.writeAttribute("threshold", "0");
+			writer.writeAttribute("globe", "Earth");
+			
+			this.generateEnvironment(writer);
+			this.generateObstacles(writer, random);
+			this.generateAircraft(writer);
+			this.generateTrajectory(writer, random);
+			this.generatePlanner(writer);
+			this.generateDatalink(writer);
+			this.generateSwim(writer);
+			
+			writer.writeEndElement();
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Generates the planning grid or continuum environment.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the environment cannot be written
+	 */
+	private void generateEnvironment(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "environment");
+		if (this.isGrid()) {
+			this.writeStartElement(writer, "grid");
+			writer.writeAttribute("division", Integer.toString(this.division));
+		} else {
+			this.writeStartElement(writer, "continuum");
+			writer.writeAttribute("resolution", DatatypeConverter.printDouble(this.resolution));
+		}
+		writer.writeAttribute("bottom", DatatypeConverter.printDouble(ScenarioGenerator.BOTTOM));
+		writer.writeAttribute("top", DatatypeConverter.printDouble(ScenarioGenerator.TOP));
+		this.writeLocation(writer, "southWest", ScenarioGenerator.SOUTH, ScenarioGenerator.WEST);
+		this.writeLocation(writer, "northEast", ScenarioGenerator.NORTH, ScenarioGenerator.EAST);
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Generates the obstacles in a pseudo-random order of obstacle types.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @throws XMLStreamException if the obstacles cannot be written
+	 */
+	private void generateObstacles(XMLStreamWriter writer, Random random) throws XMLStreamException {
+		long boxes = this.boxes;
+		long cylinders = this.cylinders;
+		long spheres = this.spheres;
+		long obstacles = boxes + cylinders + spheres;
+		
+		if (0 < obstacles) {
+			this.writeStartElement(writer, "obstacles");
+			for (long index = 0; index < obstacles; index++) {
+				long type = Math.floorMod(random.nextLong(), obstacles - index);
+				if (type < boxes) {
+					this.generateBox(writer, random);
+					boxes--;
+				} else if (type < (boxes + cylinders)) {
+					this.generateCylinder(writer, random);
+					cylinders--;
+				} else {
+					this.generateSphere(writer, random);
+					spheres--;
+				}
+				this.generateCostInterval(writer, random, "obstacle" + index);
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		}
+	}
+	
+	/**
+	 * Starts a box obstacle element with a pseudo-random geometry.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @throws XMLStreamException if the box obstacle cannot be written
+	 */
+	private void generateBox(XMLStreamWriter writer, Random random) throws XMLStreamException {
+		double bottom = this.nextAltitude(random);
+		this.writeStartElement(writer, "box");
+		writer.writeAttribute("leftWidth", DatatypeConverter.printDouble(this.nextExtent(random)));
+		writer.writeAttribute("rightWidth", DatatypeConverter.printDouble(this.nextExtent(random)));
+		writer.writeAttribute("bottom", DatatypeConverter.printDouble(bottom));
+		writer.writeAttribute("top", DatatypeConverter.printDouble(bottom + this.nextExtent(random)));
+		this.writeLocation(writer, "begin", this.nextLatitude(random), this.nextLongitude(random));
+		this.writeLocation(writer, "end", this.nextLatitude(random), this.nextLongitude(random));
+	}
+	
+	/**
+	 * Starts a cylinder obstacle element with a pseudo-random geometry.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @throws XMLStreamException if the cylinder obstacle cannot be written
+	 */
+	private void generateCylinder(XMLStreamWriter writer, Random random) throws XMLStreamException {
+		double bottom = this.nextAltitude(random);
+		this.writeStartElement(writer, "cylinder");
+		writer.writeAttribute("radius", DatatypeConverter.printDouble(this.nextExtent(random)));
+		writer.writeAttribute("bottom", DatatypeConverter.printDouble(bottom));
+		writer.writeAttribute("top", DatatypeConverter.printDouble(bottom + this.nextExtent(random)));
+		this.writeLocation(writer, "location", this.nextLatitude(random), this.nextLongitude(random));
+	}
+	
+	/**
+	 * Starts a sphere obstacle element with a pseudo-random geometry.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @throws XMLStreamException if the sphere obstacle cannot be written
+	 */
+	private void generateSphere(XMLStreamWriter writer, Random random) throws XMLStreamException {
+		this.writeStartElement(writer, "sphere");
+		writer.writeAttribute("radius", DatatypeConverter.printDouble(this.nextExtent(random)));
+		this.writeStartElement(writer, "center");
+		writer.writeAttribute("latitude", DatatypeConverter.printDouble(this.nextLatitude(random)));
+		writer.writeAttribute("longitude", DatatypeConverter.printDouble(this.nextLongitude(random)));
+		writer.writeAttribute("altitude", DatatypeConverter.printDouble(this.nextAltitude(random)));
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Generates a cost interval covering one of the distinct cost intervals
+	 * of this scenario generator.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param random the pseudo-random number generator
+	 * @param id the identifier of the cost interval
+	 * 
+	 * @throws XMLStreamException if the cost interval cannot be written
+	 */
+	private void generateCostInterval(XMLStreamWriter writer, Random random, String id)
+			throws XMLStreamException {
+		long hours = ScenarioGenerator.HORIZON / this.costIntervals;
+		long interval = random.nextInt(this.costIntervals);
+		ZonedDateTime start = ScenarioGenerator.START.plusHours(interval * hours);
+		
+		this.writeStartElement(writer, "costInterval");
+		writer.writeAttribute("id", id);
+		writer.writeAttribute("cost", DatatypeConverter.printDouble(Math.rint(random.nextDouble() * 100d)));
+		writer.writeAttribute("start", TemporalCodec.printTime(start));
+		writer.writeAttribute("end", TemporalCodec.printTime(start.plusHours(hours)));
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Generates the aircraft.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the aircraft cannot be written
+	 */
+	private void generateAircraft(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "aircraft");
+		writer.writeAttribute("radius", "150");
+		writer.writeAttribute("type", "IRIS");
+		this.writeStartElement(writer, "center");
+		writer.writeAttribute("latitude", DatatypeConverter.printDouble(ScenarioGenerator.SOUTH));
+		writer.writeAttribute("longitude", DatatypeConverter.printDouble(ScenarioGenerator.WEST));
+		writer.writeEndElement();
+		this.writeStartElement(writer, "costInterval");
+		writer.writeAttribute("id", "aircraft");
+		writer.writeAttribute("cost", "100");
+		writer.writeAttribute("start", TemporalCodec.printTime(ScenarioGenerator.START));
+		writer.writeAttribute("end", TemporalCodec.printTime(
+				ScenarioGenerator.START.plusHours(ScenarioGenerator.HORIZON)));
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Generates the trajectory as a pseudo-random walk through the
+	 * environment unless there are no trajectory waypoints.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @throws XMLStreamException if the trajectory cannot be written
+	 */
+	private void generateTrajectory(XMLStreamWriter writer, Random random) throws XMLStreamException {
+		if (0 < this.waypoints) {
+			double step = 1d / Math.max(1d, this.waypoints - 1d);
+			
+			this.writeStartElement(writer, "trajectory");
+			for (long index = 0; index < this.waypoints; index++) {
+				double progress = index * step;
+				double latitude = ScenarioGenerator.SOUTH + (progress * (ScenarioGenerator.NORTH - ScenarioGenerator.SOUTH));
+				double longitude = ScenarioGenerator.WEST + (progress * (ScenarioGenerator.EAST - ScenarioGenerator.WEST));
+				this.writeStartElement(writer, "waypoint");
+				writer.writeAttribute("latitude", DatatypeConverter.printDouble(latitude));
+				writer.writeAttribute("longitude", DatatypeConverter.printDouble(longitude));
+				writer.writeAttribute("altitude", DatatypeConverter.printDouble(this.nextAltitude(random)));
+				writer.writeAttribute("designator", Long.toString(index));
+				writer.writeAttribute("cost", DatatypeConverter.printDouble(index));
+				writer.writeAttribute("ttg", "PT" + index + "S");
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		}
+	}
+	
+	/**
+	 * Generates the planner of the planner family of this scenario generator.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the planner cannot be written
+	 */
+	private void generatePlanner(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "planner");
+		writer.writeAttribute("costPolicy", "AVERAGE");
+		writer.writeAttribute("riskPolicy", "SAFETY");
+		this.writeStartElement(writer, this.plannerFamily.getLocalName());
+		
+		switch (this.plannerFamily) {
+		case ARASTAR:
+			this.writeAnytime(writer);
+			break;
+		case ADSTAR:
+			this.writeAnytime(writer);
+			this.writeDynamic(writer);
+			break;
+		case OADSTAR:
+			this.writeAnytime(writer);
+			this.writeDynamic(writer);
+			this.writeOnline(writer);
+			break;
+		case BRRT:
+		case RRTSTAR:
+			this.writeSampling(writer);
+			break;
+		case ARRT:
+			this.writeSampling(writer);
+			this.writeNeighbors(writer);
+			this.writeAnytime(writer);
+			break;
+		case DRRT:
+			this.writeSampling(writer);
+			this.writeNeighbors(writer);
+			this.writeHeuristic(writer);
+			this.writeDynamic(writer);
+			break;
+		case HRRT:
+			this.writeSampling(writer);
+			this.writeNeighbors(writer);
+			this.writeHeuristic(writer);
+			break;
+		case ADRRT:
+			this.writeSampling(writer);
+			this.writeNeighbors(writer);
+			this.writeAnytime(writer);
+			this.writeDynamic(writer);
+			break;
+		case OADRRT:
+			this.writeSampling(writer);
+			this.writeNeighbors(writer);
+			this.writeAnytime(writer);
+			this.writeDynamic(writer);
+			this.writeOnline(writer);
+			break;
+		default:
+			break;
+		}
+		
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Generates the simulated datalink.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the datalink cannot be written
+	 */
+	private void generateDatalink(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "datalink");
+		writer.writeAttribute("downlinkPeriod", "PT1S");
+		this.writeStartElement(writer, "simulated");
+		writer.writeAttribute("uplinkDelay", "PT0.5S");
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Generates the simulated SWIM connection.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the SWIM connection cannot be written
+	 */
+	private void generateSwim(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "swim");
+		this.writeStartElement(writer, "simulated");
+		writer.writeAttribute("resourceDirectory", "swim");
+		writer.writeAttribute("updatePeriod", "PT1S");
+		writer.writeAttribute("updateProbability", "0.1");
+		writer.writeAttribute("updateQuantity", "1");
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes the anytime properties of a planner.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the anytime properties cannot be written
+	 */
+	private void writeAnytime(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "anytime");
+		writer.writeAttribute("minimumQuality", "1.0");
+		writer.writeAttribute("maximumQuality", "50.0");
+		writer.writeAttribute("qualityImprovement", "1.0");
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes the dynamic properties of a planner.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the dynamic properties cannot be written
+	 */
+	private void writeDynamic(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "dynamic");
+		writer.writeAttribute("significantChange", "0.5");
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes the online properties of a planner.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the online properties cannot be written
+	 */
+	private void writeOnline(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "online");
+		this.writeStartElement(writer, "errors");
+		this.writeStartElement(writer, "maxTrackError");
+		writer.writeAttribute("crossTrackError", "10.0");
+		writer.writeAttribute("altitudeError", "5.0");
+		writer.writeAttribute("openingBearingError", "5.0");
+		writer.writeAttribute("closingBearingError", "5.0");
+		writer.writeAttribute("timingError", "PT10S");
+		writer.writeEndElement();
+		this.writeTrackPointError(writer, "maxTakeOffError");
+		this.writeTrackPointError(writer, "maxLandingError");
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes a track point error of online planner properties.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the track point error element
+	 * 
+	 * @throws XMLStreamException if the track point error cannot be written
+	 */
+	private void writeTrackPointError(XMLStreamWriter writer, String localName) throws XMLStreamException {
+		this.writeStartElement(writer, localName);
+		writer.writeAttribute("horizontalError", "10.0");
+		writer.writeAttribute("verticalError", "5.0");
+		writer.writeAttribute("timingError", "PT10S");
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes the sampling properties of a planner.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the sampling properties cannot be written
+	 */
+	private void writeSampling(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "sampling");
+		writer.writeAttribute("distribution", "UNIFORM");
+		writer.writeAttribute("strategy", "EXTEND");
+		writer.writeAttribute("extension", "LINEAR");
+		writer.writeAttribute("maxIterations", "1000");
+		writer.writeAttribute("epsilon", "250.0");
+		writer.writeAttribute("bias", "5");
+		writer.writeAttribute("goalThreshold", "5.0");
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes the neighbors properties of a planner.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the neighbors properties cannot be
+	 *         written
+	 */
+	private void writeNeighbors(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "neighbors");
+		writer.writeAttribute("neighborLimit", "10");
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes the heuristic properties of a planner.
+	 * 
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws XMLStreamException if the heuristic properties cannot be
+	 *         written
+	 */
+	private void writeHeuristic(XMLStreamWriter writer) throws XMLStreamException {
+		this.writeStartElement(writer, "heuristic");
+		writer.writeAttribute("algorithm", "hRRT");
+		writer.writeAttribute("variant", "ENHANCED");
+		writer.writeAttribute("qualityBound", "1.0");
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes a location element.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the location element
+	 * @param latitude the latitude of the location
+	 * @param longitude the longitude of the location
+	 * 
+	 * @throws XMLStreamException if the location cannot be written
+	 */
+	private void writeLocation(XMLStreamWriter writer, String localName, double latitude, double longitude)
+			throws XMLStreamException {
+		this.writeStartElement(writer, localName);
+		writer.writeAttribute("latitude", DatatypeConverter.printDouble(latitude));
+		writer.writeAttribute("longitude", DatatypeConverter.printDouble(longitude));
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes a start element of the scenario namespace.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the start element
+	 * 
+	 * @throws XMLStreamException if the start element cannot be written
+	 */
+	private void writeStartElement(XMLStreamWriter writer, String localName) throws XMLStreamException {
+		writer.writeStartElement(ScenarioStreams.NAMESPACE_PREFIX, localName, ScenarioStreams.NAMESPACE_URI);
+	}
+	
+	/**
+	 * Gets a pseudo-random latitude within the generated environments.
+	 * 
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @return the pseudo-random latitude
+	 */
+	private double nextLatitude(Random random) {
+		return ScenarioGenerator.SOUTH + (random.nextDouble() * (ScenarioGenerator.NORTH - ScenarioGenerator.SOUTH));
+	}
+	
+	/**
+	 * Gets a pseudo-random longitude within the generated environments.
+	 * 
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @return the pseudo-random longitude
+	 */
+	private double nextLongitude(Random random) {
+		return ScenarioGenerator.WEST + (random.nextDouble() * (ScenarioGenerator.EAST - ScenarioGenerator.WEST));
+	}
+	
+	/**
+	 * Gets a pseudo-random altitude within the lower half of the generated
+	 * environments.
+	 * 
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @return the pseudo-random altitude
+	 */
+	private double nextAltitude(Random random) {
+		return ScenarioGenerator.BOTTOM + (random.nextDouble() * (ScenarioGenerator.TOP - ScenarioGenerator.BOTTOM) / 2d);
+	}
+	
+	/**
+	 * Gets a pseudo-random obstacle extent between 100 and 1000 meters.
+	 * 
+	 * @param random the pseudo-random number generator
+	 * 
+	 * @return the pseudo-random obstacle extent
+	 */
+	private double nextExtent(Random random) {
+		return 100d + (random.nextDouble() * 900d);
+	}
+	
+}
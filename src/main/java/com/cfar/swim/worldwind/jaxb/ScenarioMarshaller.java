@@ -29,15 +29,26 @@
  */
 package com.cfar.swim.worldwind.jaxb;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.helpers.AbstractMarshallerImpl;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Result;
+import javax.xml.transform.stax.StAXResult;
+import javax.xml.validation.Schema;
 
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
 import com.cfar.swim.worldwind.jaxb.adapters.ScenarioAdapter;
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
 
 /**
@@ -47,23 +58,40 @@ import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
  */
 public class ScenarioMarshaller extends AbstractMarshallerImpl {
 	
-	/** the marshaller of this scenario marshaller */
-	private Marshaller scenarioMarshaller;
+	/** the writing stage metrics of scenario marshallers */
+	private static final StageMetrics WRITE_STAGE = ScenarioMetrics.getStage("ScenarioMarshaller.write");
+	
+	/** the schema validating the output of this scenario marshaller, may be null */
+	private Schema schema = null;
+	
+	/** indicates whether or not this scenario marshaller adapts independent scenario sections concurrently */
+	private boolean parallel = false;
+	
+	/** the executor of the asynchronous marshalling of this scenario marshaller */
+	private Executor executor = ScenarioExecutors.getDefaultExecutor();
+	
+	/** the compression of the output files of this scenario marshaller */
+	private ScenarioCompression compression = new ScenarioCompression();
+	
+	/** the encoding of the output files of this scenario marshaller, null if implied by the file name */
+	private ScenarioEncoding scenarioEncoding = null;
 	
 	/**
-	 * Constructs a scenario marshaller.
+	 * Constructs a scenario marshaller using the shared scenario context.
 	 * 
 	 * @throws JAXBException if the scenario marshaller cannot be constructed
+	 * 
+	 * @see ScenarioContext#getInstance()
 	 */
 	public ScenarioMarshaller() throws JAXBException {
 		super();
-		JAXBContext scenarioContext = JAXBContext.newInstance(
-				com.cfar.swim.worldwind.jaxb.scenario.ObjectFactory.class);
-		scenarioMarshaller = scenarioContext.createMarshaller();
+		ScenarioContext.getInstance();
 	}
 	
 	/**
-	 * Marshals a scenario.
+	 * Marshals a scenario. StAX results, such as Fast Infoset encoded
+	 * scenario results, are marshalled into their XML stream writers, while
+	 * all other results are marshalled as usual.
 	 * 
 	 * @param jaxbElement the scenario JAXB element to be marshalled
 	 * @param result the marshalled result
@@ -71,27 +99,263 @@ public class ScenarioMarshaller extends AbstractMarshallerImpl {
 	 * @throws JAXBException if the scenario cannot be marshalled
 	 * 
 	 * @see javax.xml.bind.Marshaller#marshal(Object, Result)
+	 * @see ScenarioEncoding#createResult(OutputStream)
 	 */
 	@Override
 	public void marshal(Object jaxbElement, Result result) throws JAXBException {
-		scenarioMarshaller.marshal(jaxbElement, result);
+		Marshaller scenarioMarshaller = ScenarioContext.acquireMarshaller();
+		ScenarioSchema.FailFastHandler handler = null;
+		long start = ScenarioMetrics.start();
+		try {
+			if (null != this.schema) {
+				handler = new ScenarioSchema.FailFastHandler();
+				scenarioMarshaller.setSchema(this.schema);
+				scenarioMarshaller.setEventHandler(handler);
+			}
+			if ((result instanceof StAXResult) && (null != ((StAXResult) result).getXMLStreamWriter())) {
+				scenarioMarshaller.marshal(jaxbElement, ((StAXResult) result).getXMLStreamWriter());
+			} else {
+				scenarioMarshaller.marshal(jaxbElement, result);
+			}
+		} catch (JAXBException e) {
+			throw (null == handler) ? e : handler.wrap(e);
+		} finally {
+			ScenarioMarshaller.WRITE_STAGE.stop(start);
+			ScenarioContext.releaseMarshaller(scenarioMarshaller);
+		}
+	}
+	
+	/**
+	 * Marshals a scenario.
+	 * 
+	 * @param jaxbElement the scenario JAXB element to be marshalled
+	 * @param writer the XML stream writer of the marshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 * 
+	 * @see javax.xml.bind.Marshaller#marshal(Object, XMLStreamWriter)
+	 */
+	@Override
+	public void marshal(Object jaxbElement, XMLStreamWriter writer) throws JAXBException {
+		this.marshal(jaxbElement, new StAXResult(writer));
+	}
+	
+	/**
+	 * Gets the schema validating the output of this scenario marshaller.
+	 * 
+	 * @return the schema validating the output, null if the output is not
+	 *         validated
+	 * 
+	 * @see javax.xml.bind.Marshaller#getSchema()
+	 */
+	@Override
+	public Schema getSchema() {
+		return this.schema;
 	}
 	
 	/**
-	 * Marshals a scenario into an output file.
+	 * Sets the schema validating the output of this scenario marshaller.
+	 * The output is validated while it is written and marshalling fails at
+	 * the first validation error. The shared compiled scenario schema is
+	 * obtained from the scenario schema.
+	 * 
+	 * @param schema the schema validating the output, null if the output is
+	 *        not to be validated
+	 * 
+	 * @see javax.xml.bind.Marshaller#setSchema(Schema)
+	 * @see ScenarioSchema#getInstance()
+	 */
+	@Override
+	public void setSchema(Schema schema) {
+		this.schema = schema;
+	}
+	
+	/**
+	 * Gets the encoding of the output files of this scenario marshaller,
+	 * which is not to be confused with the character encoding of the
+	 * marshalled XML.
+	 * 
+	 * @return the encoding of the output files, null if implied by the
+	 *         output file name extension
+	 */
+	public ScenarioEncoding getScenarioEncoding() {
+		return this.scenarioEncoding;
+	}
+	
+	/**
+	 * Sets the encoding of the output files of this scenario marshaller.
+	 * 
+	 * @param scenarioEncoding the encoding of the output files, null if
+	 *        implied by the output file name extension
+	 */
+	public void setScenarioEncoding(ScenarioEncoding scenarioEncoding) {
+		this.scenarioEncoding = scenarioEncoding;
+	}
+	
+	/**
+	 * Gets the encoding of an output file of this scenario marshaller.
+	 * 
+	 * @param output the output file
+	 * 
+	 * @return the encoding of the output file
+	 */
+	private ScenarioEncoding getScenarioEncoding(File output) {
+		return (null == this.scenarioEncoding) ? ScenarioEncoding.forFile(output) : this.scenarioEncoding;
+	}
+	
+	/**
+	 * Marshals a scenario into an output file. The output file is encoded
+	 * and compressed in the encoding and format of this scenario marshaller,
+	 * or the ones implied by its name extension such as <code>.xml.gz</code>
+	 * or <code>.finf</code>.
 	 * 
 	 * @param scenario the scenario to be marshalled
 	 * @param output the output file
 	 * 
 	 * @throws JAXBException if the scenario cannot be marshalled
+	 * 
+	 * @see ScenarioEncoding#forFile(File)
+	 * @see ScenarioCompression#compress(OutputStream, File)
 	 */
 	public void marshalScenario(com.cfar.swim.worldwind.session.Scenario scenario, File output) throws JAXBException {
 		try {
-			Scenario marshalledScenario = new ScenarioAdapter().marshal(scenario);
-			this.marshal(marshalledScenario, output);
+			Scenario marshalledScenario = this.getScenarioAdapter().marshal(scenario);
+			try (OutputStream stream = this.compression.compress(new BufferedOutputStream(
+					new FileOutputStream(output), this.compression.getBufferSize()), output)) {
+				this.marshal(marshalledScenario, this.getScenarioEncoding(output).createResult(stream));
+			}
 		} catch (Exception e) {
 			throw new JAXBException(e);
 		}
 	}
 	
+	/**
+	 * Indicates whether or not this scenario marshaller adapts independent
+	 * scenario sections concurrently.
+	 * 
+	 * @return true if independent scenario sections are adapted
+	 *         concurrently, false otherwise
+	 */
+	public boolean isParallel() {
+		return this.parallel;
+	}
+	
+	/**
+	 * Sets whether or not this scenario marshaller adapts independent
+	 * scenario sections concurrently. Parallel adaptation reduces the
+	 * latency of scenarios with several expensive sections, such as a large
+	 * planning grid and many obstacles, to roughly the one of its most
+	 * expensive section.
+	 * 
+	 * @param parallel true if independent scenario sections are to be
+	 *        adapted concurrently, false otherwise
+	 * 
+	 * @see AdapterRegistry#getParallelScenarioAdapter()
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+	
+	/**
+	 * Gets the executor of the asynchronous marshalling of this scenario
+	 * marshaller.
+	 * 
+	 * @return the executor of the asynchronous marshalling
+	 * 
+	 * @see ScenarioExecutors#getDefaultExecutor()
+	 */
+	public Executor getExecutor() {
+		return this.executor;
+	}
+	
+	/**
+	 * Sets the executor of the asynchronous marshalling of this scenario
+	 * marshaller.
+	 * 
+	 * @param executor the executor of the asynchronous marshalling
+	 * 
+	 * @throws NullPointerException if the executor is null
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = Objects.requireNonNull(executor);
+	}
+	
+	/**
+	 * Gets the compression of the output files of this scenario marshaller.
+	 * 
+	 * @return the compression of the output files
+	 */
+	public ScenarioCompression getCompression() {
+		return this.compression;
+	}
+	
+	/**
+	 * Sets the compression of the output files of this scenario marshaller.
+	 * 
+	 * @param compression the compression of the output files
+	 * 
+	 * @throws NullPointerException if the compression is null
+	 */
+	public void setCompression(ScenarioCompression compression) {
+		this.compression = Objects.requireNonNull(compression);
+	}
+	
+	/**
+	 * Marshals a scenario into an output file asynchronously using the
+	 * executor of this scenario marshaller.
+	 * 
+	 * @param scenario the scenario to be marshalled
+	 * @param output the output file
+	 * 
+	 * @return the future of the completed marshalling
+	 * 
+	 * @see #marshalScenarioAsync(com.cfar.swim.worldwind.session.Scenario, File, ProgressListener)
+	 */
+	public CompletableFuture<Void> marshalScenarioAsync(
+			com.cfar.swim.worldwind.session.Scenario scenario, File output) {
+		return this.marshalScenarioAsync(scenario, output, null);
+	}
+	
+	/**
+	 * Marshals a scenario into an output file asynchronously using the
+	 * executor of this scenario marshaller. The progress is reported in
+	 * (compressed) bytes written to the output file. Cancelling the returned future stops
+	 * marshalling at the next write and deletes the incomplete output file.
+	 * 
+	 * @param scenario the scenario to be marshalled
+	 * @param output the output file
+	 * @param listener the progress listener, may be null
+	 * 
+	 * @return the future of the completed marshalling
+	 */
+	public CompletableFuture<Void> marshalScenarioAsync(
+			com.cfar.swim.worldwind.session.Scenario scenario, File output, ProgressListener listener) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		return ScenarioExecutors.execute(this.executor, future, () -> {
+			try {
+				Scenario marshalledScenario = this.getScenarioAdapter().marshal(scenario);
+				try (OutputStream stream = this.compression.compress(new ProgressOutputStream(
+						new BufferedOutputStream(new FileOutputStream(output), this.compression.getBufferSize()),
+						listener, future), output)) {
+					this.marshal(marshalledScenario, this.getScenarioEncoding(output).createResult(stream));
+				}
+			} catch (Exception e) {
+				if (future.isCancelled()) {
+					output.delete();
+				}
+				throw (e instanceof JAXBException) ? e : new JAXBException(e);
+			}
+			return null;
+		});
+	}
+	
+	/**
+	 * Gets the scenario adapter of this scenario marshaller.
+	 * 
+	 * @return the parallel or sequential shared scenario adapter
+	 */
+	private ScenarioAdapter getScenarioAdapter() {
+		return this.parallel ? AdapterRegistry.getParallelScenarioAdapter() : AdapterRegistry.getScenarioAdapter();
+	}
+	
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.net.URL;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.ValidationEvent;
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.bind.ValidationEventLocator;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Realizes a process-wide scenario schema which lazily compiles the
+ * scenario XML schema once. Compiled schemas are thread-safe and are shared
+ * by all validating scenario (un)marshallers, which validate while streaming
+ * rather than in a separate pass.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioUnmarshaller#setSchema(Schema)
+ * @see ScenarioMarshaller#setSchema(Schema)
+ */
+public final class ScenarioSchema {
+	
+	/** the class path resource of the scenario XML schema */
+	public static final String SCHEMA_RESOURCE = "/xsd/scenario.xsd";
+	
+	/** the lazily compiled shared scenario schema */
+	private static volatile Schema schema = null;
+	
+	/**
+	 * Prevents the construction of a scenario schema.
+	 */
+	private ScenarioSchema() {
+	}
+	
+	/**
+	 * Gets the shared compiled scenario schema compiling it on first access.
+	 * 
+	 * @return the shared compiled scenario schema
+	 * 
+	 * @throws JAXBException if the scenario schema cannot be compiled
+	 */
+	public static Schema getInstance() throws JAXBException {
+		Schema instance = ScenarioSchema.schema;
+		
+		if (null == instance) {
+			synchronized (ScenarioSchema.class) {
+				instance = ScenarioSchema.schema;
+				if (null == instance) {
+					URL resource = ScenarioSchema.class.getResource(ScenarioSchema.SCHEMA_RESOURCE);
+					if (null == resource) {
+						throw new JAXBException("missing scenario schema " + ScenarioSchema.SCHEMA_RESOURCE);
+					}
+					try {
+						instance = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(resource);
+					} catch (SAXException e) {
+						throw new JAXBException(e);
+					}
+					ScenarioSchema.schema = instance;
+				}
+			}
+		}
+		
+		return instance;
+	}
+	
+	/**
+	 * Describes a validation event including its location.
+	 * 
+	 * @param event the validation event
+	 * 
+	 * @return the description of the validation event
+	 */
+	public static String describe(ValidationEvent event) {
+		StringBuilder description = new StringBuilder(String.valueOf(event.getMessage()));
+		ValidationEventLocator locator = event.getLocator();
+		
+		if ((null != locator) && (0 <= locator.getLineNumber())) {
+			description.append(" at line ").append(locator.getLineNumber())
+					.append(", column ").append(locator.getColumnNumber());
+			if (null != locator.getURL()) {
+				description.append(" of ").append(locator.getURL());
+			}
+		} else if ((null != locator) && (null != locator.getObject())) {
+			description.append(" at ").append(locator.getObject().getClass().getSimpleName());
+		}
+		
+		return description.toString();
+	}
+	
+	/**
+	 * Realizes a validation event handler which aborts at the first
+	 * validation error and retains it, while warnings are ignored.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	public static final class FailFastHandler implements ValidationEventHandler {
+		
+		/** the first validation error handled by this fail fast handler */
+		private ValidationEvent error = null;
+		
+		/**
+		 * Handles a validation event aborting at errors.
+		 * 
+		 * @param event the validation event
+		 * 
+		 * @return true if the event is a warning, false otherwise
+		 * 
+		 * @see ValidationEventHandler#handleEvent(ValidationEvent)
+		 */
+		@Override
+		public boolean handleEvent(ValidationEvent event) {
+			if (ValidationEvent.WARNING == event.getSeverity()) {
+				return true;
+			}
+			if (null == this.error) {
+				this.error = event;
+			}
+			return false;
+		}
+		
+		/**
+		 * Gets the first validation error handled by this fail fast handler.
+		 * 
+		 * @return the first validation error, null if none
+		 */
+		public ValidationEvent getError() {
+			return this.error;
+		}
+		
+		/**
+		 * Wraps a JAXB exception raised by an aborted (un)marshalling into a
+		 * JAXB exception describing the first validation error.
+		 * 
+		 * @param e the JAXB exception raised by the aborted (un)marshalling
+		 * 
+		 * @return the JAXB exception describing the first validation error,
+		 *         or the raised exception if no validation error occurred
+		 */
+		public JAXBException wrap(JAXBException e) {
+			JAXBException wrapped = e;
+			
+			if (null != this.error) {
+				wrapped = new JAXBException(ScenarioSchema.describe(this.error), e);
+			}
+			
+			return wrapped;
+		}
+		
+	}
+	
+}
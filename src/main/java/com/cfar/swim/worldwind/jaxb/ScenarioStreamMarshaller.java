@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.DepictionAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.EnvironmentAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstaclesAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.PlannerAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.TemporalCodec;
+import com.cfar.swim.worldwind.jaxb.adapters.WaypointAdapter;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Depiction;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+
+/**
+ * Realizes a streaming scenario marshaller which writes scenarios with an
+ * XML stream writer. In contrast to the scenario marshaller, no complete
+ * JAXB scenario mirror is built before serialization: the sections of a
+ * scenario are marshalled as individual fragments and obstacles as well as
+ * waypoints are adapted and written one at a time. The written scenarios
+ * conform to the same scenario schema.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioMarshaller
+ */
+public class ScenarioStreamMarshaller {
+	
+	/**
+	 * Constructs a streaming scenario marshaller using the shared scenario
+	 * context.
+	 * 
+	 * @throws JAXBException if the streaming scenario marshaller cannot be
+	 *         constructed
+	 * 
+	 * @see ScenarioContext#getInstance()
+	 */
+	public ScenarioStreamMarshaller() throws JAXBException {
+		ScenarioContext.getInstance();
+	}
+	
+	/**
+	 * Marshals a scenario into an output file.
+	 * 
+	 * @param scenario the scenario to be marshalled
+	 * @param output the output file
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	public void marshalScenario(com.cfar.swim.worldwind.session.Scenario scenario, File output)
+			throws JAXBException {
+		try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(output))) {
+			this.marshalScenario(scenario, stream);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Marshals a scenario into an output stream. The output stream is flushed
+	 * but not closed.
+	 * 
+	 * @param scenario the scenario to be marshalled
+	 * @param output the output stream
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	public void marshalScenario(com.cfar.swim.worldwind.session.Scenario scenario, OutputStream output)
+			throws JAXBException {
+		XMLStreamWriter writer = null;
+		
+		try {
+			writer = ScenarioStreams.createWriter(output);
+			writer.writeStartDocument("UTF-8", "1.0");
+			this.marshalScenario(scenario, writer);
+			writer.writeEndDocument();
+			writer.flush();
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			if (null != writer) {
+				try {
+					writer.close();
+				} catch (XMLStreamException e) {
+					// the underlying output stream remains open
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Marshals a scenario element into an XML stream writer. The document
+	 * itself is neither started nor ended.
+	 * 
+	 * @param scenario the scenario to be marshalled
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	public void marshalScenario(com.cfar.swim.worldwind.session.Scenario scenario, XMLStreamWriter writer)
+			throws JAXBException {
+		Marshaller marshaller = ScenarioContext.acquireMarshaller();
+		
+		try {
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+			
+			writer.setPrefix(ScenarioStreams.NAMESPACE_PREFIX, ScenarioStreams.NAMESPACE_URI);
+			this.writeStartElement(writer, "scenario");
+			writer.writeNamespace(ScenarioStreams.NAMESPACE_PREFIX, ScenarioStreams.NAMESPACE_URI);
+			writer.writeAttribute("id", scenario.getId());
+			if (null != scenario.getTime()) {
+				writer.writeAttribute("time", TemporalCodec.printTime(scenario.getTime()));
+			}
+			writer.writeAttribute("threshold", DatatypeConverter.printDouble(scenario.getThreshold()));
+			writer.writeAttribute("globe", AdapterRegistry.getGlobeAdapter().marshal(scenario.getGlobe()).value());
+			
+			this.marshalFragment(marshaller, writer, "environment", Environment.class,
+					new EnvironmentAdapter(scenario.getGlobe()).marshal(scenario.getEnvironment()));
+			
+			if (scenario.hasObstacles()) {
+				ObstaclesAdapter obstaclesAdapter = AdapterRegistry.getObstaclesAdapter();
+				this.writeStartElement(writer, "obstacles");
+				for (com.cfar.swim.worldwind.render.Obstacle obstacle : scenario.getObstacles()) {
+					this.marshalObstacle(marshaller, writer, obstaclesAdapter.marshalObstacle(obstacle));
+				}
+				writer.writeEndElement();
+			}
+			if (scenario.hasAircraft()) {
+				this.marshalFragment(marshaller, writer, "aircraft", Aircraft.class,
+						AdapterRegistry.getAircraftAdapter().marshal(scenario.getAircraft()));
+			}
+			if (scenario.hasWaypoints()) {
+				this.writeStartElement(writer, "waypoints");
+				this.marshalWaypoints(marshaller, writer, scenario.getWaypoints());
+				writer.writeEndElement();
+			}
+			if (scenario.hasTrajectory()) {
+				com.cfar.swim.worldwind.planning.Trajectory trajectory = scenario.getTrajectory();
+				this.writeStartElement(writer, "trajectory");
+				this.marshalWaypoints(marshaller, writer, trajectory.getWaypoints());
+				if (trajectory.hasDepiction()) {
+					this.marshalFragment(marshaller, writer, "depiction", Depiction.class,
+							new DepictionAdapter(trajectory.getReferencePosition()).marshal(trajectory.getDepiction()));
+				}
+				writer.writeEndElement();
+			}
+			
+			this.marshalFragment(marshaller, writer, "planner", Planner.class,
+					new PlannerAdapter(scenario.getAircraft(), scenario.getEnvironment()).marshal(scenario.getPlanner()));
+			this.marshalFragment(marshaller, writer, "datalink", Datalink.class,
+					AdapterRegistry.getDatalinkAdapter().marshal(scenario.getDatalink()));
+			this.marshalFragment(marshaller, writer, "swim", Swim.class,
+					AdapterRegistry.getSwimAdapter().marshal(scenario.getSwimConnection()));
+			
+			writer.writeEndElement();
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseMarshaller(marshaller);
+		}
+	}
+	
+	/**
+	 * Writes a start element of the scenario namespace.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the start element
+	 * 
+	 * @throws XMLStreamException if the start element cannot be written
+	 */
+	private void writeStartElement(XMLStreamWriter writer, String localName) throws XMLStreamException {
+		writer.writeStartElement(ScenarioStreams.NAMESPACE_PREFIX, localName, ScenarioStreams.NAMESPACE_URI);
+	}
+	
+	/**
+	 * Marshals a scenario fragment into an XML stream writer.
+	 * 
+	 * @param <T> the type of the scenario fragment
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the scenario fragment element
+	 * @param type the type of the scenario fragment
+	 * @param fragment the scenario fragment to be marshalled
+	 * 
+	 * @throws JAXBException if the scenario fragment cannot be marshalled
+	 */
+	private <T> void marshalFragment(Marshaller marshaller, XMLStreamWriter writer,
+			String localName, Class<T> type, T fragment) throws JAXBException {
+		marshaller.marshal(new JAXBElement<T>(
+				new QName(ScenarioStreams.NAMESPACE_URI, localName), type, fragment), writer);
+	}
+	
+	/**
+	 * Marshals a single marshalled obstacle into an XML stream writer.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param obstacle the marshalled obstacle, ignored if null
+	 * 
+	 * @throws JAXBException if the obstacle cannot be marshalled
+	 */
+	private void marshalObstacle(Marshaller marshaller, XMLStreamWriter writer, Object obstacle)
+			throws JAXBException {
+		if (obstacle instanceof ObstacleBox) {
+			this.marshalFragment(marshaller, writer, "box", ObstacleBox.class, (ObstacleBox) obstacle);
+		} else if (obstacle instanceof ObstacleCylinder) {
+			this.marshalFragment(marshaller, writer, "cylinder", ObstacleCylinder.class, (ObstacleCylinder) obstacle);
+		} else if (obstacle instanceof ObstacleSphere) {
+			this.marshalFragment(marshaller, writer, "sphere", ObstacleSphere.class, (ObstacleSphere) obstacle);
+		}
+	}
+	
+	/**
+	 * Marshals waypoints one at a time into an XML stream writer.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param waypoints the waypoints to be marshalled
+	 * 
+	 * @throws Exception if the waypoints cannot be marshalled
+	 */
+	private void marshalWaypoints(Marshaller marshaller, XMLStreamWriter writer,
+			Iterable<? extends com.cfar.swim.worldwind.planning.Waypoint> waypoints) throws Exception {
+		WaypointAdapter waypointAdapter = AdapterRegistry.getWaypointAdapter();
+		
+		for (com.cfar.swim.worldwind.planning.Waypoint waypoint : waypoints) {
+			this.marshalFragment(marshaller, writer, "waypoint", Waypoint.class, waypointAdapter.marshal(waypoint));
+		}
+	}
+	
+}
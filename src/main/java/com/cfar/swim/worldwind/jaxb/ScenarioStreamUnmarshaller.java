@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstacleFilter;
+import com.cfar.swim.worldwind.jaxb.adapters.ScenarioAdapter;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a streaming scenario unmarshaller which reads scenarios with an
+ * XML stream reader. In contrast to the scenario unmarshaller, the complete
+ * JAXB object graph is never materialized: the sections of a scenario are
+ * unmarshalled as individual fragments and obstacles are adapted one at a
+ * time and submitted to the unmarshalled scenario in batches.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioUnmarshaller
+ */
+public class ScenarioStreamUnmarshaller {
+	
+	/** the default number of obstacles submitted to a scenario at once */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+	
+	/** the number of obstacles submitted to a scenario at once */
+	private int batchSize = ScenarioStreamUnmarshaller.DEFAULT_BATCH_SIZE;
+	
+	/** indicates whether or not this streaming scenario unmarshaller memory maps input files */
+	private boolean mapped = false;
+	
+	/** the filter of the obstacles unmarshalled by this streaming scenario unmarshaller */
+	private ObstacleFilter obstacleFilter = null;
+	
+	/**
+	 * Constructs a streaming scenario unmarshaller using the shared scenario
+	 * context.
+	 * 
+	 * @throws JAXBException if the streaming scenario unmarshaller cannot
+	 *         be constructed
+	 * 
+	 * @see ScenarioContext#getInstance()
+	 */
+	public ScenarioStreamUnmarshaller() throws JAXBException {
+		ScenarioContext.getInstance();
+	}
+	
+	/**
+	 * Gets the number of obstacles submitted to a scenario at once by this
+	 * streaming scenario unmarshaller.
+	 * 
+	 * @return the number of obstacles submitted to a scenario at once
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+	
+	/**
+	 * Sets the number of obstacles submitted to a scenario at once by this
+	 * streaming scenario unmarshaller.
+	 * 
+	 * @param batchSize the number of obstacles submitted to a scenario at once
+	 * 
+	 * @throws IllegalArgumentException if the batch size is not positive
+	 */
+	public void setBatchSize(int batchSize) {
+		if (0 >= batchSize) {
+			throw new IllegalArgumentException("invalid batch size");
+		}
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * Indicates whether or not this streaming scenario unmarshaller memory maps input
+	 * files.
+	 * 
+	 * @return true if input files are memory mapped, false otherwise
+	 */
+	public boolean isMapped() {
+		return this.mapped;
+	}
+	
+	/**
+	 * Sets whether or not this streaming scenario unmarshaller memory maps input files.
+	 * Memory mapped input files are read directly from the operating system
+	 * page cache without copying their bytes through heap buffers, which
+	 * benefits very large and repeatedly loaded scenario files.
+	 * 
+	 * @param mapped true if input files are to be memory mapped, false
+	 *        otherwise
+	 * 
+	 * @see MappedFileInputStream
+	 */
+	public void setMapped(boolean mapped) {
+		this.mapped = mapped;
+	}
+	
+	/**
+	 * Gets the filter of the obstacles unmarshalled by this streaming
+	 * scenario unmarshaller.
+	 * 
+	 * @return the obstacle filter, null if all obstacles are unmarshalled
+	 */
+	public ObstacleFilter getObstacleFilter() {
+		return this.obstacleFilter;
+	}
+	
+	/**
+	 * Sets the filter of the obstacles unmarshalled by this streaming
+	 * scenario unmarshaller. Obstacles outside of the region of interest or
+	 * time window of the obstacle filter are rejected as soon as they have
+	 * been decoded.
+	 * 
+	 * @param obstacleFilter the obstacle filter, null if all obstacles are
+	 *        to be unmarshalled
+	 */
+	public void setObstacleFilter(ObstacleFilter obstacleFilter) {
+		this.obstacleFilter = obstacleFilter;
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(File input) throws JAXBException {
+		try (InputStream stream = ScenarioStreams.openInput(input, this.mapped)) {
+			return this.unmarshalScenario(stream, input.toURI().toString());
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input stream. The input stream is not
+	 * closed.
+	 * 
+	 * @param input the input stream
+	 * @param systemId the system identifier of the input stream, may be null
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(InputStream input, String systemId)
+			throws JAXBException {
+		XMLStreamReader reader = null;
+		
+		try {
+			reader = ScenarioStreams.createReader(input, systemId);
+			return this.unmarshalScenario(reader);
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			if (null != reader) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					// the underlying input stream remains open
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario from an XML stream reader positioned at or before
+	 * the scenario element. The reader is left after the scenario element.
+	 * 
+	 * @param reader the XML stream reader
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(XMLStreamReader reader)
+			throws JAXBException {
+		ScenarioAdapter scenarioAdapter = AdapterRegistry.getScenarioAdapter();
+		com.cfar.swim.worldwind.session.Scenario unmarshalledScenario = null;
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		
+		try {
+			if ((XMLStreamConstants.START_ELEMENT != ScenarioStreams.toTag(reader))
+					|| !"scenario".equals(reader.getLocalName())) {
+				throw new JAXBException("scenario element expected at " + reader.getLocation());
+			}
+			Scenario scenario = ScenarioStreams.unmarshalAttributes(reader);
+			reader.nextTag();
+			
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				switch (reader.getLocalName()) {
+				case "environment":
+					scenario.setEnvironment(unmarshaller.unmarshal(reader, Environment.class).getValue());
+					break;
+				case "obstacles":
+					unmarshalledScenario = scenarioAdapter.unmarshalHeader(scenario);
+					ScenarioStreams.unmarshalObstacles(reader,
+							obstacleReader -> ScenarioStreams.unmarshalObstacle(obstacleReader, unmarshaller),
+							this.obstacleFilter, this.batchSize, unmarshalledScenario);
+					break;
+				case "aircraft":
+					scenario.setAircraft(unmarshaller.unmarshal(reader, Aircraft.class).getValue());
+					break;
+				case "waypoints":
+					scenario.setWaypoints(unmarshaller.unmarshal(reader, Waypoints.class).getValue());
+					break;
+				case "trajectory":
+					scenario.setTrajectory(unmarshaller.unmarshal(reader, Trajectory.class).getValue());
+					break;
+				case "planner":
+					scenario.setPlanner(unmarshaller.unmarshal(reader, Planner.class).getValue());
+					break;
+				case "datalink":
+					scenario.setDatalink(unmarshaller.unmarshal(reader, Datalink.class).getValue());
+					break;
+				case "swim":
+					scenario.setSwim(unmarshaller.unmarshal(reader, Swim.class).getValue());
+					break;
+				default:
+					ScenarioStreams.skipElement(reader);
+				}
+			}
+			reader.next();
+			
+			if (null == unmarshalledScenario) {
+				unmarshalledScenario = scenarioAdapter.unmarshalHeader(scenario);
+			}
+			scenarioAdapter.unmarshalBody(scenario, unmarshalledScenario);
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+		}
+		
+		return unmarshalledScenario;
+	}
+	
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstacleFilter;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstaclesAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.TemporalCodec;
+import com.cfar.swim.worldwind.jaxb.scenario.Globe;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+/**
+ * Provides StAX utilities for streaming scenario (un)marshallers.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+public final class ScenarioStreams {
+	
+	/** the namespace URI of scenarios */
+	public static final String NAMESPACE_URI =
+			"https://github.com/stephanheinemann/worldwind-jaxb/tree/master/src/main/resources/xsd";
+	
+	/** the namespace prefix of scenarios */
+	public static final String NAMESPACE_PREFIX = "safcs";
+	
+	/** the shared XML input factory of all scenario stream readers */
+	private static final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+	
+	/** the shared XML output factory of all scenario stream writers */
+	private static final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+	
+	static {
+		ScenarioStreams.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		ScenarioStreams.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+	}
+	
+	/**
+	 * Prevents the construction of scenario streams.
+	 */
+	private ScenarioStreams() {
+	}
+	
+	/**
+	 * Creates an XML stream reader for a scenario input stream.
+	 * 
+	 * @param input the scenario input stream
+	 * @param systemId the system identifier of the scenario input stream
+	 * 
+	 * @return the created XML stream reader
+	 * 
+	 * @throws XMLStreamException if the XML stream reader cannot be created
+	 */
+	public static XMLStreamReader createReader(InputStream input, String systemId) throws XMLStreamException {
+		synchronized (ScenarioStreams.inputFactory) {
+			return ScenarioStreams.inputFactory.createXMLStreamReader(systemId, input);
+		}
+	}
+	
+	/**
+	 * Opens a scenario input file either through a memory mapping or through
+	 * an ordinary buffered file input stream.
+	 * 
+	 * @param input the scenario input file
+	 * @param mapped true if the scenario input file is to be memory mapped,
+	 *        false otherwise
+	 * 
+	 * @return the opened scenario input stream
+	 * 
+	 * @throws IOException if the scenario input file cannot be opened
+	 * 
+	 * @see MappedFileInputStream
+	 */
+	public static InputStream openInput(File input, boolean mapped) throws IOException {
+		return mapped ? new MappedFileInputStream(input)
+				: new BufferedInputStream(new FileInputStream(input));
+	}
+	
+	/**
+	 * Peeks at the header bytes of a scenario input stream without consuming
+	 * them, for example, to detect its compression format or encoding.
+	 * 
+	 * @param input the scenario input stream supporting marks
+	 * @param header the buffer of the header bytes
+	 * 
+	 * @return the number of header bytes peeked at
+	 * 
+	 * @throws IOException if the header bytes cannot be read
+	 * 
+	 * @see InputStream#markSupported()
+	 */
+	public static int peek(InputStream input, byte[] header) throws IOException {
+		int length = 0;
+		int read = 0;
+		
+		input.mark(header.length);
+		while ((length < header.length) && (-1 != (read = input.read(header, length, header.length - length)))) {
+			length += read;
+		}
+		input.reset();
+		
+		return length;
+	}
+	
+	/**
+	 * Creates a UTF-8 encoded XML stream writer for a scenario output stream.
+	 * The characters of the created writer are buffered and encoded in bulk
+	 * rather than encoded one at a time into the scenario output stream.
+	 * The created writer has to be flushed before the scenario output stream
+	 * is closed.
+	 * 
+	 * @param output the scenario output stream
+	 * 
+	 * @return the created XML stream writer
+	 * 
+	 * @throws XMLStreamException if the XML stream writer cannot be created
+	 */
+	public static XMLStreamWriter createWriter(OutputStream output) throws XMLStreamException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		synchronized (ScenarioStreams.outputFactory) {
+			return ScenarioStreams.outputFactory.createXMLStreamWriter(writer);
+		}
+	}
+	
+	/**
+	 * Advances an XML stream reader to the next start or end element unless
+	 * it is already positioned at one. In contrast to
+	 * {@link XMLStreamReader#nextTag()}, the current event is not skipped if
+	 * it is a start or end element, which is the position a JAXB unmarshaller
+	 * may leave the reader at after unmarshalling a fragment.
+	 * 
+	 * @param reader the XML stream reader
+	 * 
+	 * @return the event type of the start or end element
+	 * 
+	 * @throws XMLStreamException if the end of the document has been reached
+	 *         or the XML stream cannot be read
+	 */
+	public static int toTag(XMLStreamReader reader) throws XMLStreamException {
+		int event = reader.getEventType();
+		
+		while ((XMLStreamConstants.START_ELEMENT != event) && (XMLStreamConstants.END_ELEMENT != event)) {
+			if (XMLStreamConstants.END_DOCUMENT == event) {
+				throw new XMLStreamException("unexpected end of document", reader.getLocation());
+			}
+			event = reader.next();
+		}
+		
+		return event;
+	}
+	
+	/**
+	 * Skips the element an XML stream reader is positioned at including all
+	 * its descendants. The reader is left at the event following the end
+	 * element.
+	 * 
+	 * @param reader the XML stream reader positioned at a start element
+	 * 
+	 * @throws XMLStreamException if the XML stream cannot be read
+	 */
+	public static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 0;
+		
+		do {
+			int event = reader.next();
+			if (XMLStreamConstants.START_ELEMENT == event) {
+				depth++;
+			} else if (XMLStreamConstants.END_ELEMENT == event) {
+				depth--;
+			}
+		} while (0 <= depth);
+		
+		reader.next();
+	}
+	
+	/**
+	 * Unmarshals the box, cylinder or sphere obstacle element an XML stream
+	 * reader is positioned at. Unknown elements are skipped. The reader is
+	 * left at the event following the obstacle element.
+	 * 
+	 * @param reader the XML stream reader positioned at an obstacle element
+	 * @param unmarshaller the unmarshaller of the obstacle
+	 * 
+	 * @return the unmarshalled obstacle, null if the element is unknown
+	 * 
+	 * @throws JAXBException if the obstacle cannot be unmarshalled
+	 * @throws XMLStreamException if the XML stream cannot be read
+	 */
+	public static Object unmarshalObstacle(XMLStreamReader reader, Unmarshaller unmarshaller)
+			throws JAXBException, XMLStreamException {
+		switch (reader.getLocalName()) {
+		case "box":
+			return unmarshaller.unmarshal(reader, ObstacleBox.class).getValue();
+		case "cylinder":
+			return unmarshaller.unmarshal(reader, ObstacleCylinder.class).getValue();
+		case "sphere":
+			return unmarshaller.unmarshal(reader, ObstacleSphere.class).getValue();
+		default:
+			ScenarioStreams.skipElement(reader);
+			return null;
+		}
+	}
+	
+	/**
+	 * Unmarshals the obstacles of a scenario submitting them in batches. The
+	 * obstacle elements are decoded one at a time, adapted if accepted by
+	 * the obstacle filter and submitted to the unmarshalled scenario once a
+	 * batch is full.
+	 * 
+	 * @param reader the XML stream reader positioned at the obstacles element
+	 * @param decoder the decoder of the individual obstacle elements
+	 * @param filter the obstacle filter, null if all obstacles are accepted
+	 * @param batchSize the number of obstacles submitted to the scenario at
+	 *        once
+	 * @param unmarshalledScenario the scenario to submit the obstacles to
+	 * 
+	 * @throws Exception if the obstacles cannot be unmarshalled
+	 */
+	public static void unmarshalObstacles(XMLStreamReader reader, ObstacleDecoder decoder,
+			ObstacleFilter filter, int batchSize, com.cfar.swim.worldwind.session.Scenario unmarshalledScenario)
+			throws Exception {
+		ObstaclesAdapter obstaclesAdapter = AdapterRegistry.getObstaclesAdapter();
+		Set<com.cfar.swim.worldwind.render.Obstacle> batch = new HashSet<>();
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			com.cfar.swim.worldwind.render.Obstacle unmarshalledObstacle =
+					obstaclesAdapter.unmarshalObstacle(decoder.decode(reader), filter);
+			if (null != unmarshalledObstacle) {
+				batch.add(unmarshalledObstacle);
+				if (batchSize <= batch.size()) {
+					unmarshalledScenario.submitAddObstacles(batch);
+					batch = new HashSet<>();
+				}
+			}
+		}
+		reader.next();
+		
+		if (!batch.isEmpty()) {
+			unmarshalledScenario.submitAddObstacles(batch);
+		}
+	}
+	
+	/**
+	 * Unmarshals the attributes of a scenario element into an otherwise empty
+	 * scenario.
+	 * 
+	 * @param reader the XML stream reader positioned at the scenario element
+	 * 
+	 * @return the scenario holding the unmarshalled attributes
+	 * 
+	 * @throws IllegalArgumentException if an attribute cannot be unmarshalled
+	 */
+	public static Scenario unmarshalAttributes(XMLStreamReader reader) {
+		Scenario scenario = new Scenario();
+		
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String value = reader.getAttributeValue(index).trim();
+			switch (reader.getAttributeLocalName(index)) {
+			case "id":
+				scenario.setId(value);
+				break;
+			case "time":
+				scenario.setTime(TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar(value));
+				break;
+			case "threshold":
+				scenario.setThreshold(DatatypeConverter.parseDouble(value));
+				break;
+			case "globe":
+				scenario.setGlobe(Globe.fromValue(value));
+				break;
+			default:
+				break;
+			}
+		}
+		
+		return scenario;
+	}
+	
+	/**
+	 * Marshals the present attributes of a scenario into the scenario element
+	 * an XML stream writer has just started.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param scenario the scenario whose attributes are to be marshalled
+	 * 
+	 * @throws XMLStreamException if an attribute cannot be marshalled
+	 * 
+	 * @see ScenarioAttributes#isPresent(Object, String)
+	 */
+	public static void marshalAttributes(XMLStreamWriter writer, Scenario scenario) throws XMLStreamException {
+		if (null != scenario.getId()) {
+			writer.writeAttribute("id", scenario.getId());
+		}
+		if (null != scenario.getTime()) {
+			writer.writeAttribute("time", scenario.getTime().toXMLFormat());
+		}
+		if (ScenarioAttributes.isPresent(scenario, "threshold")) {
+			writer.writeAttribute("threshold", DatatypeConverter.printDouble(scenario.getThreshold()));
+		}
+		if (ScenarioAttributes.isPresent(scenario, "globe")) {
+			writer.writeAttribute("globe", scenario.getGlobe().value());
+		}
+	}
+	
+	/**
+	 * Decodes the individual obstacle elements of a streamed obstacles
+	 * section.
+	 * 
+	 * @author Stephan Heinemann
+	 *
+	 */
+	@FunctionalInterface
+	public static interface ObstacleDecoder {
+		
+		/**
+		 * Decodes the obstacle element an XML stream reader is positioned at
+		 * leaving the reader at the event following the obstacle element.
+		 * 
+		 * @param reader the XML stream reader positioned at an obstacle element
+		 * 
+		 * @return the decoded obstacle, null if the element is unknown
+		 * 
+		 * @throws JAXBException if the obstacle cannot be unmarshalled
+		 * @throws XMLStreamException if the XML stream cannot be read
+		 */
+		public Object decode(XMLStreamReader reader) throws JAXBException, XMLStreamException;
+		
+	}
+	
+}
@@ -30,19 +30,33 @@
 package com.cfar.swim.worldwind.jaxb;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.UnmarshallerHandler;
 import javax.xml.bind.helpers.AbstractUnmarshallerImpl;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
 import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.validation.Schema;
 
 import org.w3c.dom.Node;
 import org.xml.sax.InputSource;
 import org.xml.sax.XMLReader;
 
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstacleFilter;
 import com.cfar.swim.worldwind.jaxb.adapters.ScenarioAdapter;
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
 
 /**
@@ -52,19 +66,37 @@ import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
  */
 public class ScenarioUnmarshaller extends AbstractUnmarshallerImpl {
 	
-	/** the unmarshaller of this scenario unmarshaller */
-	Unmarshaller scenarioUnmarshaller;
+	/** the parsing stage metrics of scenario unmarshallers */
+	private static final StageMetrics PARSE_STAGE = ScenarioMetrics.getStage("ScenarioUnmarshaller.parse");
+	
+	/** indicates whether or not this scenario unmarshaller memory maps input files */
+	private boolean mapped = false;
+	
+	/** the schema validating the input of this scenario unmarshaller, may be null */
+	private Schema schema = null;
+	
+	/** indicates whether or not this scenario unmarshaller adapts independent scenario sections concurrently */
+	private boolean parallel = false;
+	
+	/** the filter of the obstacles unmarshalled by this scenario unmarshaller, null if unfiltered */
+	private ObstacleFilter obstacleFilter = null;
+	
+	/** the executor of the asynchronous unmarshalling of this scenario unmarshaller */
+	private Executor executor = ScenarioExecutors.getDefaultExecutor();
+	
+	/** the compression of the input files of this scenario unmarshaller */
+	private ScenarioCompression compression = new ScenarioCompression();
 	
 	/**
-	 * Constructs a scenario unmarshaller.
+	 * Constructs a scenario unmarshaller using the shared scenario context.
 	 * 
 	 * @throws JAXBException if the scenario unmarshaller cannot be constructed
+	 * 
+	 * @see ScenarioContext#getInstance()
 	 */
 	public ScenarioUnmarshaller() throws JAXBException {
 		super();
-		JAXBContext scenarioContext = JAXBContext.newInstance(
-				com.cfar.swim.worldwind.jaxb.scenario.ObjectFactory.class);
-		scenarioUnmarshaller = scenarioContext.createUnmarshaller();
+		ScenarioContext.getInstance();
 	}
 	
 	/**
@@ -80,19 +112,85 @@ public class ScenarioUnmarshaller extends AbstractUnmarshallerImpl {
 	 */
 	@Override
 	public Object unmarshal(Node node) throws JAXBException {
-		return scenarioUnmarshaller.unmarshal(node);
+		Unmarshaller scenarioUnmarshaller = ScenarioContext.acquireUnmarshaller();
+		ScenarioSchema.FailFastHandler handler = this.validate(scenarioUnmarshaller);
+		try {
+			return scenarioUnmarshaller.unmarshal(node);
+		} catch (JAXBException e) {
+			throw (null == handler) ? e : handler.wrap(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(scenarioUnmarshaller);
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario. StAX sources, such as Fast Infoset encoded
+	 * scenario sources, are unmarshalled from their XML stream readers,
+	 * while all other sources are unmarshalled as usual.
+	 * 
+	 * @param source the scenario source to be unmarshalled
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 * 
+	 * @see javax.xml.bind.Unmarshaller#unmarshal(Source)
+	 * @see ScenarioEncoding#createSource(InputStream, String)
+	 */
+	@Override
+	public Object unmarshal(Source source) throws JAXBException {
+		if ((source instanceof StAXSource) && (null != ((StAXSource) source).getXMLStreamReader())) {
+			return this.unmarshal(((StAXSource) source).getXMLStreamReader());
+		} else {
+			return super.unmarshal(source);
+		}
 	}
 	
 	/**
-	 * Gets the unmarshaller handler of this scenario unmarshaller.
+	 * Unmarshals a scenario.
+	 * 
+	 * @param reader the XML stream reader of the scenario to be unmarshalled
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 * 
+	 * @see javax.xml.bind.Unmarshaller#unmarshal(XMLStreamReader)
+	 */
+	@Override
+	public Object unmarshal(XMLStreamReader reader) throws JAXBException {
+		Unmarshaller scenarioUnmarshaller = ScenarioContext.acquireUnmarshaller();
+		ScenarioSchema.FailFastHandler handler = this.validate(scenarioUnmarshaller);
+		long start = ScenarioMetrics.start();
+		try {
+			return scenarioUnmarshaller.unmarshal(reader);
+		} catch (JAXBException e) {
+			throw (null == handler) ? e : handler.wrap(e);
+		} finally {
+			ScenarioUnmarshaller.PARSE_STAGE.stop(start);
+			ScenarioContext.releaseUnmarshaller(scenarioUnmarshaller);
+		}
+	}
+	
+	/**
+	 * Gets an unmarshaller handler of this scenario unmarshaller. Since an
+	 * unmarshaller handler is bound to its unmarshaller, the handler is
+	 * obtained from a dedicated unmarshaller of the shared scenario context.
 	 * 
-	 * @return the unmarshaller handler of this scenario unmarshaller
+	 * @return an unmarshaller handler of this scenario unmarshaller
+	 * 
+	 * @throws IllegalStateException if the unmarshaller handler cannot be
+	 *         created
 	 * 
 	 * @see javax.xml.bind.Unmarshaller#getUnmarshallerHandler()
 	 */
 	@Override
 	public UnmarshallerHandler getUnmarshallerHandler() {
-		return scenarioUnmarshaller.getUnmarshallerHandler();
+		try {
+			return ScenarioContext.getInstance().createUnmarshaller().getUnmarshallerHandler();
+		} catch (JAXBException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 	
 	/**
@@ -110,11 +208,195 @@ public class ScenarioUnmarshaller extends AbstractUnmarshallerImpl {
 	@Override
 	protected Object unmarshal(XMLReader reader, InputSource source) throws JAXBException {
 		SAXSource saxSource = new SAXSource(reader, source);
-		return scenarioUnmarshaller.unmarshal(saxSource);
+		Unmarshaller scenarioUnmarshaller = ScenarioContext.acquireUnmarshaller();
+		ScenarioSchema.FailFastHandler handler = this.validate(scenarioUnmarshaller);
+		long start = ScenarioMetrics.start();
+		try {
+			return scenarioUnmarshaller.unmarshal(saxSource);
+		} catch (JAXBException e) {
+			throw (null == handler) ? e : handler.wrap(e);
+		} finally {
+			ScenarioUnmarshaller.PARSE_STAGE.stop(start);
+			ScenarioContext.releaseUnmarshaller(scenarioUnmarshaller);
+		}
+	}
+	
+	/**
+	 * Gets the schema validating the input of this scenario unmarshaller.
+	 * 
+	 * @return the schema validating the input, null if the input is not
+	 *         validated
+	 * 
+	 * @see javax.xml.bind.Unmarshaller#getSchema()
+	 */
+	@Override
+	public Schema getSchema() {
+		return this.schema;
+	}
+	
+	/**
+	 * Sets the schema validating the input of this scenario unmarshaller.
+	 * The input is validated while it is parsed and unmarshalling fails at
+	 * the first validation error reporting its location. The shared
+	 * compiled scenario schema is obtained from the scenario schema.
+	 * 
+	 * @param schema the schema validating the input, null if the input is
+	 *        not to be validated
+	 * 
+	 * @see javax.xml.bind.Unmarshaller#setSchema(Schema)
+	 * @see ScenarioSchema#getInstance()
+	 */
+	@Override
+	public void setSchema(Schema schema) {
+		this.schema = schema;
+	}
+	
+	/**
+	 * Configures an acquired unmarshaller to validate against the schema of
+	 * this scenario unmarshaller if set.
+	 * 
+	 * @param scenarioUnmarshaller the acquired unmarshaller
+	 * 
+	 * @return the fail fast handler of the validation, null if the input is
+	 *         not validated
+	 * 
+	 * @throws JAXBException if the unmarshaller cannot be configured
+	 */
+	private ScenarioSchema.FailFastHandler validate(Unmarshaller scenarioUnmarshaller) throws JAXBException {
+		ScenarioSchema.FailFastHandler handler = null;
+		
+		if (null != this.schema) {
+			handler = new ScenarioSchema.FailFastHandler();
+			scenarioUnmarshaller.setSchema(this.schema);
+			scenarioUnmarshaller.setEventHandler(handler);
+		}
+		
+		return handler;
 	}
 	
 	/**
-	 * Unmarshals a scenario from an input file.
+	 * Indicates whether or not this scenario unmarshaller memory maps input
+	 * files.
+	 * 
+	 * @return true if input files are memory mapped, false otherwise
+	 */
+	public boolean isMapped() {
+		return this.mapped;
+	}
+	
+	/**
+	 * Sets whether or not this scenario unmarshaller memory maps input files.
+	 * Memory mapped input files are read directly from the operating system
+	 * page cache without copying their bytes through heap buffers, which
+	 * benefits very large and repeatedly loaded scenario files.
+	 * 
+	 * @param mapped true if input files are to be memory mapped, false
+	 *        otherwise
+	 * 
+	 * @see MappedFileInputStream
+	 */
+	public void setMapped(boolean mapped) {
+		this.mapped = mapped;
+	}
+	
+	/**
+	 * Indicates whether or not this scenario unmarshaller adapts independent
+	 * scenario sections concurrently.
+	 * 
+	 * @return true if independent scenario sections are adapted
+	 *         concurrently, false otherwise
+	 */
+	public boolean isParallel() {
+		return this.parallel;
+	}
+	
+	/**
+	 * Sets whether or not this scenario unmarshaller adapts independent
+	 * scenario sections concurrently. Parallel adaptation reduces the
+	 * latency of scenarios with several expensive sections, such as a large
+	 * planning grid and many obstacles, to roughly the one of its most
+	 * expensive section.
+	 * 
+	 * @param parallel true if independent scenario sections are to be
+	 *        adapted concurrently, false otherwise
+	 * 
+	 * @see AdapterRegistry#getParallelScenarioAdapter()
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+	
+	/**
+	 * Gets the filter of the obstacles unmarshalled by this scenario
+	 * unmarshaller.
+	 * 
+	 * @return the obstacle filter, null if all obstacles are unmarshalled
+	 */
+	public ObstacleFilter getObstacleFilter() {
+		return this.obstacleFilter;
+	}
+	
+	/**
+	 * Sets the filter of the obstacles unmarshalled by this scenario
+	 * unmarshaller. Obstacles outside of the region of interest or time
+	 * window of the obstacle filter are rejected before they are adapted.
+	 * 
+	 * @param obstacleFilter the obstacle filter, null if all obstacles are
+	 *        to be unmarshalled
+	 */
+	public void setObstacleFilter(ObstacleFilter obstacleFilter) {
+		this.obstacleFilter = obstacleFilter;
+	}
+	
+	/**
+	 * Gets the executor of the asynchronous unmarshalling of this scenario
+	 * unmarshaller.
+	 * 
+	 * @return the executor of the asynchronous unmarshalling
+	 * 
+	 * @see ScenarioExecutors#getDefaultExecutor()
+	 */
+	public Executor getExecutor() {
+		return this.executor;
+	}
+	
+	/**
+	 * Sets the executor of the asynchronous unmarshalling of this scenario
+	 * unmarshaller.
+	 * 
+	 * @param executor the executor of the asynchronous unmarshalling
+	 * 
+	 * @throws NullPointerException if the executor is null
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = Objects.requireNonNull(executor);
+	}
+	
+	/**
+	 * Gets the compression of the input files of this scenario unmarshaller.
+	 * 
+	 * @return the compression of the input files
+	 */
+	public ScenarioCompression getCompression() {
+		return this.compression;
+	}
+	
+	/**
+	 * Sets the compression of the input files of this scenario unmarshaller.
+	 * 
+	 * @param compression the compression of the input files
+	 * 
+	 * @throws NullPointerException if the compression is null
+	 */
+	public void setCompression(ScenarioCompression compression) {
+		this.compression = Objects.requireNonNull(compression);
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file. GZIP and Deflate compressed
+	 * input files are detected from their magic bytes and decompressed on a
+	 * separate thread while parsing. Fast Infoset encoded input files are
+	 * detected from their magic bytes likewise.
 	 * 
 	 * @param input the input file
 	 * 
@@ -123,12 +405,88 @@ public class ScenarioUnmarshaller extends AbstractUnmarshallerImpl {
 	 * @throws JAXBExcetpion if the scenario cannot be unmarshalled
 	 */
 	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(File input) throws JAXBException {
+		return this.unmarshalScenario(input, null, null);
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file asynchronously using the
+	 * executor of this scenario unmarshaller.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the future of the unmarshalled scenario or null
+	 * 
+	 * @see #unmarshalScenarioAsync(File, ProgressListener)
+	 */
+	public CompletableFuture<com.cfar.swim.worldwind.session.Scenario> unmarshalScenarioAsync(File input) {
+		return this.unmarshalScenarioAsync(input, null);
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file asynchronously using the
+	 * executor of this scenario unmarshaller. The progress is reported in
+	 * (compressed) bytes read from the input file. Cancelling the returned future stops
+	 * parsing at the next read of the input file.
+	 * 
+	 * @param input the input file
+	 * @param listener the progress listener, may be null
+	 * 
+	 * @return the future of the unmarshalled scenario or null
+	 */
+	public CompletableFuture<com.cfar.swim.worldwind.session.Scenario> unmarshalScenarioAsync(
+			File input, ProgressListener listener) {
+		CompletableFuture<com.cfar.swim.worldwind.session.Scenario> future = new CompletableFuture<>();
+		return ScenarioExecutors.execute(this.executor, future,
+				() -> this.unmarshalScenario(input, listener, future));
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file reporting the progress and
+	 * observing the cancellation of a future.
+	 * 
+	 * @param input the input file
+	 * @param listener the progress listener, may be null
+	 * @param future the future whose cancellation stops unmarshalling, may
+	 *        be null
+	 * 
+	 * @return the unmarshalled scenario or null
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 * @throws CancellationException if the future has been cancelled
+	 */
+	private com.cfar.swim.worldwind.session.Scenario unmarshalScenario(
+			File input, ProgressListener listener, Future<?> future) throws JAXBException {
 		com.cfar.swim.worldwind.session.Scenario unmarshalledScenario = null;
 		
-		Object scenario = this.unmarshal(input);
+		Object scenario = null;
+		Unmarshaller scenarioUnmarshaller = ScenarioContext.acquireUnmarshaller();
+		ScenarioSchema.FailFastHandler handler = this.validate(scenarioUnmarshaller);
+		long start = ScenarioMetrics.start();
+		try (InputStream file = ((null == listener) && (null == future))
+				? ScenarioStreams.openInput(input, this.mapped)
+				: new ProgressInputStream(ScenarioStreams.openInput(input, this.mapped),
+						input.length(), listener, future);
+				InputStream stream = this.compression.decompress(file)) {
+			Source source = ScenarioEncoding.createSource(stream, input.toURI().toString());
+			scenario = (source instanceof StAXSource)
+					? scenarioUnmarshaller.unmarshal(((StAXSource) source).getXMLStreamReader())
+					: scenarioUnmarshaller.unmarshal(source);
+		} catch (JAXBException e) {
+			throw (null == handler) ? e : handler.wrap(e);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioUnmarshaller.PARSE_STAGE.stop(start);
+			ScenarioContext.releaseUnmarshaller(scenarioUnmarshaller);
+		}
+		
+		if ((null != future) && future.isCancelled()) {
+			throw new CancellationException();
+		}
+		
 		if (scenario instanceof Scenario) {
 			try {
-				unmarshalledScenario = new ScenarioAdapter().unmarshal((Scenario) scenario);
+				unmarshalledScenario = this.getScenarioAdapter().unmarshal((Scenario) scenario);
 			} catch (Exception e) {
 				throw new JAXBException(e);
 			}
@@ -137,4 +495,36 @@ public class ScenarioUnmarshaller extends AbstractUnmarshallerImpl {
 		return unmarshalledScenario;
 	}
 	
+	/**
+	 * Unmarshals a lazy scenario from an input file. Only the inexpensive
+	 * sections of the scenario are unmarshalled immediately, while the
+	 * obstacles and the trajectory are materialized on first access. The
+	 * materialized obstacles are filtered by the obstacle filter of this
+	 * scenario unmarshaller.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled lazy scenario
+	 * 
+	 * @throws JAXBException if the lazy scenario cannot be unmarshalled
+	 * 
+	 * @see LazyScenario
+	 */
+	public LazyScenario unmarshalLazyScenario(File input) throws JAXBException {
+		return new LazyScenario(input, this.mapped, this.compression, this.obstacleFilter);
+	}
+	
+	/**
+	 * Gets the scenario adapter of this scenario unmarshaller.
+	 * 
+	 * @return the parallel or sequential shared scenario adapter, or a
+	 *         filtering scenario adapter if an obstacle filter is set
+	 */
+	private ScenarioAdapter getScenarioAdapter() {
+		if (null != this.obstacleFilter) {
+			return new ScenarioAdapter(this.parallel, this.obstacleFilter);
+		}
+		return this.parallel ? AdapterRegistry.getParallelScenarioAdapter() : AdapterRegistry.getScenarioAdapter();
+	}
+	
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBException;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.jvnet.fastinfoset.ExternalVocabulary;
+import org.jvnet.fastinfoset.Vocabulary;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+
+/**
+ * Realizes a process-wide Fast Infoset vocabulary which is lazily derived
+ * from the scenario XML schema once. The vocabulary contains the qualified
+ * element names, the unqualified attribute names and the enumerated
+ * attribute values of the schema. Fast Infoset scenario documents reference
+ * it as external vocabulary, such that these names and values are encoded
+ * as small table indices from their very first occurrence on.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioEncoding#FAST_INFOSET
+ */
+public final class ScenarioVocabulary {
+	
+	/** the URI identifying the external scenario vocabulary */
+	public static final String VOCABULARY_URI = ScenarioStreams.NAMESPACE_URI + "/scenario.xsd";
+	
+	/** the lazily derived shared external scenario vocabulary */
+	private static volatile ExternalVocabulary vocabulary = null;
+	
+	/** the lazily derived shared external parser vocabularies */
+	private static volatile Map<String, ParserVocabulary> parserVocabularies = null;
+	
+	/**
+	 * Prevents the construction of a scenario vocabulary.
+	 */
+	private ScenarioVocabulary() {
+	}
+	
+	/**
+	 * Gets the shared external scenario vocabulary deriving it from the
+	 * scenario XML schema on first access.
+	 * 
+	 * @return the shared external scenario vocabulary
+	 * 
+	 * @throws JAXBException if the scenario XML schema cannot be read
+	 */
+	public static ExternalVocabulary getInstance() throws JAXBException {
+		ExternalVocabulary instance = ScenarioVocabulary.vocabulary;
+		
+		if (null == instance) {
+			synchronized (ScenarioVocabulary.class) {
+				instance = ScenarioVocabulary.vocabulary;
+				if (null == instance) {
+					instance = new ExternalVocabulary(ScenarioVocabulary.VOCABULARY_URI,
+							ScenarioVocabulary.derive());
+					ScenarioVocabulary.parserVocabularies = Collections.singletonMap(
+							ScenarioVocabulary.VOCABULARY_URI, new ParserVocabulary(instance.vocabulary));
+					ScenarioVocabulary.vocabulary = instance;
+				}
+			}
+		}
+		
+		return instance;
+	}
+	
+	/**
+	 * Gets the shared external parser vocabularies resolving the external
+	 * scenario vocabulary by its URI.
+	 * 
+	 * @return the shared external parser vocabularies
+	 * 
+	 * @throws JAXBException if the scenario XML schema cannot be read
+	 */
+	public static Map<String, ParserVocabulary> getParserVocabularies() throws JAXBException {
+		ScenarioVocabulary.getInstance();
+		return ScenarioVocabulary.parserVocabularies;
+	}
+	
+	/**
+	 * Derives a Fast Infoset vocabulary from the scenario XML schema.
+	 * 
+	 * @return the derived Fast Infoset vocabulary
+	 * 
+	 * @throws JAXBException if the scenario XML schema cannot be read
+	 */
+	@SuppressWarnings("unchecked")
+	private static Vocabulary derive() throws JAXBException {
+		Vocabulary derived = new Vocabulary();
+		
+		try (InputStream schema = ScenarioVocabulary.class.getResourceAsStream(ScenarioSchema.SCHEMA_RESOURCE)) {
+			if (null == schema) {
+				throw new JAXBException("missing scenario schema " + ScenarioSchema.SCHEMA_RESOURCE);
+			}
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			Document document = factory.newDocumentBuilder().parse(schema);
+			
+			derived.prefixes.add(ScenarioStreams.NAMESPACE_PREFIX);
+			derived.namespaceNames.add(ScenarioStreams.NAMESPACE_URI);
+			
+			NodeList elements = document.getElementsByTagNameNS(XMLConstants.W3C_XML_SCHEMA_NS_URI, "element");
+			for (int index = 0; index < elements.getLength(); index++) {
+				String name = ((Element) elements.item(index)).getAttribute("name");
+				if (!name.isEmpty()) {
+					derived.localNames.add(name);
+					derived.elements.add(new QName(ScenarioStreams.NAMESPACE_URI, name,
+							ScenarioStreams.NAMESPACE_PREFIX));
+				}
+			}
+			
+			NodeList attributes = document.getElementsByTagNameNS(XMLConstants.W3C_XML_SCHEMA_NS_URI, "attribute");
+			for (int index = 0; index < attributes.getLength(); index++) {
+				String name = ((Element) attributes.item(index)).getAttribute("name");
+				if (!name.isEmpty()) {
+					derived.localNames.add(name);
+					derived.attributes.add(new QName(name));
+				}
+			}
+			
+			NodeList values = document.getElementsByTagNameNS(XMLConstants.W3C_XML_SCHEMA_NS_URI, "enumeration");
+			for (int index = 0; index < values.getLength(); index++) {
+				derived.attributeValues.add(((Element) values.item(index)).getAttribute("value"));
+			}
+		} catch (IOException | ParserConfigurationException | SAXException e) {
+			throw new JAXBException(e);
+		}
+		
+		return derived;
+	}
+	
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.adapters;
+
+/**
+ * Realizes a registry of shared adapters. Adapters without state are
+ * immutable and thread-safe and are therefore shared by all (un)marshallers
+ * instead of being created for every adapted element. Globe-bound adapters
+ * such as environment adapters are not registered since they are bound to
+ * the globe of a single scenario and only used once per adapted scenario.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+public final class AdapterRegistry {
+	
+	/** the shared aircraft adapter */
+	private static final AircraftAdapter aircraftAdapter = new AircraftAdapter();
+	
+	/** the shared box adapter */
+	private static final BoxAdapter boxAdapter = new BoxAdapter();
+	
+	/** the shared capabilities adapter */
+	private static final CapabilitiesAdapter capabilitiesAdapter = new CapabilitiesAdapter();
+	
+	/** the shared cost interval adapter */
+	private static final CostIntervalAdapter costIntervalAdapter = new CostIntervalAdapter();
+	
+	/** the shared cylinder adapter */
+	private static final CylinderAdapter cylinderAdapter = new CylinderAdapter();
+	
+	/** the shared datalink adapter */
+	private static final DatalinkAdapter datalinkAdapter = new DatalinkAdapter();
+	
+	/** the shared datum adapter */
+	private static final DatumAdapter datumAdapter = new DatumAdapter();
+	
+	/** the shared Dronekit datalink adapter */
+	private static final DronekitDatalinkAdapter dronekitDatalinkAdapter = new DronekitDatalinkAdapter();
+	
+	/** the shared duration adapter */
+	private static final DurationAdapter durationAdapter = new DurationAdapter();
+	
+	/** the shared globe adapter */
+	private static final GlobeAdapter globeAdapter = new GlobeAdapter();
+	
+	/** the shared live SWIM adapter */
+	private static final LiveSwimAdapter liveSwimAdapter = new LiveSwimAdapter();
+	
+	/** the shared location adapter */
+	private static final LocationAdapter locationAdapter = new LocationAdapter();
+	
+	/** the shared obstacle box adapter */
+	private static final ObstacleBoxAdapter obstacleBoxAdapter = new ObstacleBoxAdapter();
+	
+	/** the shared obstacle cylinder adapter */
+	private static final ObstacleCylinderAdapter obstacleCylinderAdapter = new ObstacleCylinderAdapter();
+	
+	/** the shared obstacle sphere adapter */
+	private static final ObstacleSphereAdapter obstacleSphereAdapter = new ObstacleSphereAdapter();
+	
+	/** the shared obstacles adapter */
+	private static final ObstaclesAdapter obstaclesAdapter = new ObstaclesAdapter();
+	
+	/** the shared position adapter */
+	private static final PositionAdapter positionAdapter = new PositionAdapter();
+	
+	/** the shared scenario adapter */
+	private static final ScenarioAdapter scenarioAdapter = new ScenarioAdapter();
+	
+	/** the shared parallel scenario adapter */
+	private static final ScenarioAdapter parallelScenarioAdapter = new ScenarioAdapter(true);
+	
+	/** the shared sector adapter */
+	private static final SectorAdapter sectorAdapter = new SectorAdapter();
+	
+	/** the shared simulated datalink adapter */
+	private static final SimulatedDatalinkAdapter simulatedDatalinkAdapter = new SimulatedDatalinkAdapter();
+	
+	/** the shared simulated SWIM adapter */
+	private static final SimulatedSwimAdapter simulatedSwimAdapter = new SimulatedSwimAdapter();
+	
+	/** the shared sphere adapter */
+	private static final SphereAdapter sphereAdapter = new SphereAdapter();
+	
+	/** the shared SWIM adapter */
+	private static final SwimAdapter swimAdapter = new SwimAdapter();
+	
+	/** the shared time adapter */
+	private static final TimeAdapter timeAdapter = new TimeAdapter();
+	
+	/** the shared time interval adapter */
+	private static final TimeIntervalAdapter timeIntervalAdapter = new TimeIntervalAdapter();
+	
+	/** the shared track error adapter */
+	private static final TrackErrorAdapter trackErrorAdapter = new TrackErrorAdapter();
+	
+	/** the shared track point error adapter */
+	private static final TrackPointErrorAdapter trackPointErrorAdapter = new TrackPointErrorAdapter();
+	
+	/** the shared trajectory adapter */
+	private static final TrajectoryAdapter trajectoryAdapter = new TrajectoryAdapter();
+	
+	/** the shared waypoint adapter */
+	private static final WaypointAdapter waypointAdapter = new WaypointAdapter();
+	
+	/** the shared waypoints adapter */
+	private static final WaypointsAdapter waypointsAdapter = new WaypointsAdapter();
+	
+	/**
+	 * Prevents the construction of an adapter registry.
+	 */
+	private AdapterRegistry() {
+	}
+	
+	/**
+	 * Gets the shared aircraft adapter.
+	 * 
+	 * @return the shared aircraft adapter
+	 */
+	public static AircraftAdapter getAircraftAdapter() {
+		return AdapterRegistry.aircraftAdapter;
+	}
+	
+	/**
+	 * Gets the shared box adapter.
+	 * 
+	 * @return the shared box adapter
+	 */
+	public static BoxAdapter getBoxAdapter() {
+		return AdapterRegistry.boxAdapter;
+	}
+	
+	/**
+	 * Gets the shared capabilities adapter.
+	 * 
+	 * @return the shared capabilities adapter
+	 */
+	public static CapabilitiesAdapter getCapabilitiesAdapter() {
+		return AdapterRegistry.capabilitiesAdapter;
+	}
+	
+	/**
+	 * Gets the shared cost interval adapter.
+	 * 
+	 * @return the shared cost interval adapter
+	 */
+	public static CostIntervalAdapter getCostIntervalAdapter() {
+		return AdapterRegistry.costIntervalAdapter;
+	}
+	
+	/**
+	 * Gets the shared cylinder adapter.
+	 * 
+	 * @return the shared cylinder adapter
+	 */
+	public static CylinderAdapter getCylinderAdapter() {
+		return AdapterRegistry.cylinderAdapter;
+	}
+	
+	/**
+	 * Gets the shared datalink adapter.
+	 * 
+	 * @return the shared datalink adapter
+	 */
+	public static DatalinkAdapter getDatalinkAdapter() {
+		return AdapterRegistry.datalinkAdapter;
+	}
+	
+	/**
+	 * Gets the shared datum adapter.
+	 * 
+	 * @return the shared datum adapter
+	 */
+	public static DatumAdapter getDatumAdapter() {
+		return AdapterRegistry.datumAdapter;
+	}
+	
+	/**
+	 * Gets the shared Dronekit datalink adapter.
+	 * 
+	 * @return the shared Dronekit datalink adapter
+	 */
+	public static DronekitDatalinkAdapter getDronekitDatalinkAdapter() {
+		return AdapterRegistry.dronekitDatalinkAdapter;
+	}
+	
+	/**
+	 * Gets the shared duration adapter.
+	 * 
+	 * @return the shared duration adapter
+	 */
+	public static DurationAdapter getDurationAdapter() {
+		return AdapterRegistry.durationAdapter;
+	}
+	
+	/**
+	 * Gets the shared globe adapter.
+	 * 
+	 * @return the shared globe adapter
+	 */
+	public static GlobeAdapter getGlobeAdapter() {
+		return AdapterRegistry.globeAdapter;
+	}
+	
+	/**
+	 * Gets the shared live SWIM adapter.
+	 * 
+	 * @return the shared live SWIM adapter
+	 */
+	public static LiveSwimAdapter getLiveSwimAdapter() {
+		return AdapterRegistry.liveSwimAdapter;
+	}
+	
+	/**
+	 * Gets the shared location adapter.
+	 * 
+	 * @return the shared location adapter
+	 */
+	public static LocationAdapter getLocationAdapter() {
+		return AdapterRegistry.locationAdapter;
+	}
+	
+	/**
+	 * Gets the shared obstacle box adapter.
+	 * 
+	 * @return the shared obstacle box adapter
+	 */
+	public static ObstacleBoxAdapter getObstacleBoxAdapter() {
+		return AdapterRegistry.obstacleBoxAdapter;
+	}
+	
+	/**
+	 * Gets the shared obstacle cylinder adapter.
+	 * 
+	 * @return the shared obstacle cylinder adapter
+	 */
+	public static ObstacleCylinderAdapter getObstacleCylinderAdapter() {
+		return AdapterRegistry.obstacleCylinderAdapter;
+	}
+	
+	/**
+	 * Gets the shared obstacle sphere adapter.
+	 * 
+	 * @return the shared obstacle sphere adapter
+	 */
+	public static ObstacleSphereAdapter getObstacleSphereAdapter() {
+		return AdapterRegistry.obstacleSphereAdapter;
+	}
+	
+	/**
+	 * Gets the shared obstacles adapter.
+	 * 
+	 * @return the shared obstacles adapter
+	 */
+	public static ObstaclesAdapter getObstaclesAdapter() {
+		return AdapterRegistry.obstaclesAdapter;
+	}
+	
+	/**
+	 * Gets the shared position adapter.
+	 * 
+	 * @return the shared position adapter
+	 */
+	public static PositionAdapter getPositionAdapter() {
+		return AdapterRegistry.positionAdapter;
+	}
+	
+	/**
+	 * Gets the shared scenario adapter.
+	 * 
+	 * @return the shared scenario adapter
+	 */
+	public static ScenarioAdapter getScenarioAdapter() {
+		return AdapterRegistry.scenarioAdapter;
+	}
+	
+	/**
+	 * Gets the shared parallel scenario adapter adapting independent
+	 * scenario sections concurrently.
+	 * 
+	 * @return the shared parallel scenario adapter
+	 */
+	public static ScenarioAdapter getParallelScenarioAdapter() {
+		return AdapterRegistry.parallelScenarioAdapter;
+	}
+	
+	/**
+	 * Gets the shared sector adapter.
+	 * 
+	 * @return the shared sector adapter
+	 */
+	public static SectorAdapter getSectorAdapter() {
+		return AdapterRegistry.sectorAdapter;
+	}
+	
+	/**
+	 * Gets the shared simulated datalink adapter.
+	 * 
+	 * @return the shared simulated datalink adapter
+	 */
+	public static SimulatedDatalinkAdapter getSimulatedDatalinkAdapter() {
+		return AdapterRegistry.simulatedDatalinkAdapter;
+	}
+	
+	/**
+	 * Gets the shared simulated SWIM adapter.
+	 * 
+	 * @return the shared simulated SWIM adapter
+	 */
+	public static SimulatedSwimAdapter getSimulatedSwimAdapter() {
+		return AdapterRegistry.simulatedSwimAdapter;
+	}
+	
+	/**
+	 * Gets the shared sphere adapter.
+	 * 
+	 * @return the shared sphere adapter
+	 */
+	public static SphereAdapter getSphereAdapter() {
+		return AdapterRegistry.sphereAdapter;
+	}
+	
+	/**
+	 * Gets the shared SWIM adapter.
+	 * 
+	 * @return the shared SWIM adapter
+	 */
+	public static SwimAdapter getSwimAdapter() {
+		return AdapterRegistry.swimAdapter;
+	}
+	
+	/**
+	 * Gets the shared time adapter.
+	 * 
+	 * @return the shared time adapter
+	 */
+	public static TimeAdapter getTimeAdapter() {
+		return AdapterRegistry.timeAdapter;
+	}
+	
+	/**
+	 * Gets the shared time interval adapter.
+	 * 
+	 * @return the shared time interval adapter
+	 */
+	public static TimeIntervalAdapter getTimeIntervalAdapter() {
+		return AdapterRegistry.timeIntervalAdapter;
+	}
+	
+	/**
+	 * Gets the shared track error adapter.
+	 * 
+	 * @return the shared track error adapter
+	 */
+	public static TrackErrorAdapter getTrackErrorAdapter() {
+		return AdapterRegistry.trackErrorAdapter;
+	}
+	
+	/**
+	 * Gets the shared track point error adapter.
+	 * 
+	 * @return the shared track point error adapter
+	 */
+	public static TrackPointErrorAdapter getTrackPointErrorAdapter() {
+		return AdapterRegistry.trackPointErrorAdapter;
+	}
+	
+	/**
+	 * Gets the shared trajectory adapter.
+	 * 
+	 * @return the shared trajectory adapter
+	 */
+	public static TrajectoryAdapter getTrajectoryAdapter() {
+		return AdapterRegistry.trajectoryAdapter;
+	}
+	
+	/**
+	 * Gets the shared waypoint adapter.
+	 * 
+	 * @return the shared waypoint adapter
+	 */
+	public static WaypointAdapter getWaypointAdapter() {
+		return AdapterRegistry.waypointAdapter;
+	}
+	
+	/**
+	 * Gets the shared waypoints adapter.
+	 * 
+	 * @return the shared waypoints adapter
+	 */
+	public static WaypointsAdapter getWaypointsAdapter() {
+		return AdapterRegistry.waypointsAdapter;
+	}
+	
+}
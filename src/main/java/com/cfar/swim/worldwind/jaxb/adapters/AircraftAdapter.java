@@ -66,19 +66,19 @@ public class AircraftAdapter extends XmlAdapter<Aircraft, com.cfar.swim.worldwin
 		switch (aircraft.getType()) {
 		case A_320:
 			unmarshalledAircraft = new A320(
-					new PositionAdapter().unmarshal(aircraft.getCenter()),
+					AdapterRegistry.getPositionAdapter().unmarshal(aircraft.getCenter()),
 					aircraft.getRadius(),
 					com.cfar.swim.worldwind.aircraft.CombatIdentification.valueOf(aircraft.getCid().name()));
 			break;
 		case H_135:
 			unmarshalledAircraft = new H135(
-					new PositionAdapter().unmarshal(aircraft.getCenter()),
+					AdapterRegistry.getPositionAdapter().unmarshal(aircraft.getCenter()),
 					aircraft.getRadius(),
 					com.cfar.swim.worldwind.aircraft.CombatIdentification.valueOf(aircraft.getCid().name()));
 			break;
 		case IRIS:
 			unmarshalledAircraft = new Iris(
-					new PositionAdapter().unmarshal(aircraft.getCenter()),
+					AdapterRegistry.getPositionAdapter().unmarshal(aircraft.getCenter()),
 					aircraft.getRadius(),
 					com.cfar.swim.worldwind.aircraft.CombatIdentification.valueOf(aircraft.getCid().name()));
 			break;
@@ -87,13 +87,13 @@ public class AircraftAdapter extends XmlAdapter<Aircraft, com.cfar.swim.worldwin
 		}
 		
 		com.cfar.swim.worldwind.render.airspaces.ObstacleSphere obstacleSphere =
-				new ObstacleSphereAdapter().unmarshal(aircraft);
+				AdapterRegistry.getObstacleSphereAdapter().unmarshal(aircraft);
 		unmarshalledAircraft.setCostInterval(obstacleSphere.getCostInterval());
 		unmarshalledAircraft.setDepiction(obstacleSphere.getDepiction());
 		
 		if (null != aircraft.getCapabilities()) {
 			unmarshalledAircraft.setCapabililities(
-					new CapabilitiesAdapter().unmarshal(aircraft.getCapabilities()));
+					AdapterRegistry.getCapabilitiesAdapter().unmarshal(aircraft.getCapabilities()));
 		}
 		
 		return unmarshalledAircraft;
@@ -114,7 +114,7 @@ public class AircraftAdapter extends XmlAdapter<Aircraft, com.cfar.swim.worldwin
 	public Aircraft marshal(com.cfar.swim.worldwind.aircraft.Aircraft aircraft) throws Exception {
 		Aircraft marshalledAircraft = new Aircraft();
 		
-		ObstacleSphere obstacleSphere = new ObstacleSphereAdapter().marshal(aircraft);
+		ObstacleSphere obstacleSphere = AdapterRegistry.getObstacleSphereAdapter().marshal(aircraft);
 		marshalledAircraft.setCenter(obstacleSphere.getCenter());
 		marshalledAircraft.setRadius(obstacleSphere.getRadius());
 		marshalledAircraft.setCenterDatum(obstacleSphere.getCenterDatum());
@@ -133,7 +133,7 @@ public class AircraftAdapter extends XmlAdapter<Aircraft, com.cfar.swim.worldwin
 		
 		marshalledAircraft.setCid(CombatIdentification.fromValue(aircraft.getCombatIdentification().name()));
 		marshalledAircraft.setCapabilities(
-				new CapabilitiesAdapter().marshal(aircraft.getCapabilities()));
+				AdapterRegistry.getCapabilitiesAdapter().marshal(aircraft.getCapabilities()));
 		
 		return marshalledAircraft;
 	}
@@ -56,13 +56,13 @@ public class BoxAdapter extends XmlAdapter<Box, gov.nasa.worldwind.render.airspa
 	public gov.nasa.worldwind.render.airspaces.Box unmarshal(Box box) throws Exception {
 		gov.nasa.worldwind.render.airspaces.Box unmarshalledBox =
 				new gov.nasa.worldwind.render.airspaces.Box(
-						new LocationAdapter().unmarshal(box.getBegin()),
-						new LocationAdapter().unmarshal(box.getEnd()),
+						AdapterRegistry.getLocationAdapter().unmarshal(box.getBegin()),
+						AdapterRegistry.getLocationAdapter().unmarshal(box.getEnd()),
 						box.getLeftWidth(), box.getRightWidth());
 		unmarshalledBox.setAltitudes(box.getBottom(), box.getTop());
 		unmarshalledBox.setAltitudeDatum(
-				new DatumAdapter().unmarshal(box.getBottomDatum()),
-				new DatumAdapter().unmarshal(box.getTopDatum()));
+				AdapterRegistry.getDatumAdapter().unmarshal(box.getBottomDatum()),
+				AdapterRegistry.getDatumAdapter().unmarshal(box.getTopDatum()));
 		
 		return unmarshalledBox;
 	}
@@ -82,14 +82,14 @@ public class BoxAdapter extends XmlAdapter<Box, gov.nasa.worldwind.render.airspa
 	public Box marshal(gov.nasa.worldwind.render.airspaces.Box box) throws Exception {
 		Box marshalledBox = new Box();
 		
-		marshalledBox.setBegin(new LocationAdapter().marshal(box.getLocations()[0]));
-		marshalledBox.setEnd(new LocationAdapter().marshal(box.getLocations()[1]));
+		marshalledBox.setBegin(AdapterRegistry.getLocationAdapter().marshal(box.getLocations()[0]));
+		marshalledBox.setEnd(AdapterRegistry.getLocationAdapter().marshal(box.getLocations()[1]));
 		marshalledBox.setLeftWidth(box.getWidths()[0]);
 		marshalledBox.setRightWidth(box.getWidths()[1]);
 		marshalledBox.setBottom(box.getAltitudes()[0]);
 		marshalledBox.setTop(box.getAltitudes()[1]);
-		marshalledBox.setBottomDatum(new DatumAdapter().marshal(box.getAltitudeDatum()[0]));
-		marshalledBox.setTopDatum(new DatumAdapter().marshal(box.getAltitudeDatum()[1]));
+		marshalledBox.setBottomDatum(AdapterRegistry.getDatumAdapter().marshal(box.getAltitudeDatum()[0]));
+		marshalledBox.setTopDatum(AdapterRegistry.getDatumAdapter().marshal(box.getAltitudeDatum()[1]));
 		
 		return marshalledBox;
 	}
@@ -31,6 +31,8 @@ package com.cfar.swim.worldwind.jaxb.adapters;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
 import com.cfar.swim.worldwind.jaxb.scenario.TimeInterval;
 
@@ -42,6 +44,14 @@ import com.cfar.swim.worldwind.jaxb.scenario.TimeInterval;
  */
 public class CostIntervalAdapter extends XmlAdapter<CostInterval, com.cfar.swim.worldwind.planning.CostInterval> {
 	
+	/** the unmarshalling stage metrics of cost interval adapters */
+	private static final StageMetrics UNMARSHAL_STAGE =
+			ScenarioMetrics.getStage("CostIntervalAdapter.unmarshal");
+	
+	/** the marshalling stage metrics of cost interval adapters */
+	private static final StageMetrics MARSHAL_STAGE =
+			ScenarioMetrics.getStage("CostIntervalAdapter.marshal");
+	
 	/**
 	 * Unmarshals a cost interval.
 	 * 
@@ -55,11 +65,29 @@ public class CostIntervalAdapter extends XmlAdapter<CostInterval, com.cfar.swim.
 	 */
 	@Override
 	public com.cfar.swim.worldwind.planning.CostInterval unmarshal(CostInterval costInterval) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doUnmarshal(costInterval);
+		} finally {
+			CostIntervalAdapter.UNMARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Unmarshals a cost interval without recording its stage metrics.
+	 * 
+	 * @param costInterval the cost interval to be unmarshalled
+	 * 
+	 * @return the unmarshalled cost interval
+	 * 
+	 * @throws Exception if the cost interval cannot be unmarshalled
+	 */
+	private com.cfar.swim.worldwind.planning.CostInterval doUnmarshal(CostInterval costInterval) throws Exception {
 		com.cfar.swim.worldwind.planning.CostInterval unmarshalledCostInterval =
 				new com.cfar.swim.worldwind.planning.CostInterval(costInterval.getId());
 		
 		com.cfar.swim.worldwind.planning.TimeInterval timeInterval =
-				new TimeIntervalAdapter().unmarshal(costInterval);
+				AdapterRegistry.getTimeIntervalAdapter().unmarshal(costInterval);
 		unmarshalledCostInterval.setLower(timeInterval.getLower());
 		unmarshalledCostInterval.setUpper(timeInterval.getUpper());
 		unmarshalledCostInterval.setCost(costInterval.getCost());
@@ -86,9 +114,27 @@ public class CostIntervalAdapter extends XmlAdapter<CostInterval, com.cfar.swim.
 	 */
 	@Override
 	public CostInterval marshal(com.cfar.swim.worldwind.planning.CostInterval costInterval) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doMarshal(costInterval);
+		} finally {
+			CostIntervalAdapter.MARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Marshals a cost interval without recording its stage metrics.
+	 * 
+	 * @param costInterval the cost interval to be marshalled
+	 * 
+	 * @return the marshalled cost interval
+	 * 
+	 * @throws Exception if the cost interval cannot be marshalled
+	 */
+	private CostInterval doMarshal(com.cfar.swim.worldwind.planning.CostInterval costInterval) throws Exception {
 		CostInterval marshalledCostInterval = new CostInterval();
 		
-		TimeInterval timeInterval = new TimeIntervalAdapter().marshal(costInterval);
+		TimeInterval timeInterval = AdapterRegistry.getTimeIntervalAdapter().marshal(costInterval);
 		marshalledCostInterval.setStart(timeInterval.getStart());
 		marshalledCostInterval.setEnd(timeInterval.getEnd());
 		marshalledCostInterval.setId(costInterval.getId());
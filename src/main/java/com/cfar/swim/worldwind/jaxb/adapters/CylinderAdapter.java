@@ -57,13 +57,13 @@ public class CylinderAdapter extends XmlAdapter<Cylinder, CappedCylinder> {
 	@Override
 	public CappedCylinder unmarshal(Cylinder cylinder) throws Exception {
 		CappedCylinder unmarshalledCylinder = new CappedCylinder(
-				new LocationAdapter().unmarshal(cylinder.getLocation()),
+				AdapterRegistry.getLocationAdapter().unmarshal(cylinder.getLocation()),
 				cylinder.getRadius());
 		
 		unmarshalledCylinder.setAltitudes(cylinder.getBottom(), cylinder.getTop());
 		unmarshalledCylinder.setAltitudeDatum(
-				new DatumAdapter().unmarshal(cylinder.getBottomDatum()),
-				new DatumAdapter().unmarshal(cylinder.getTopDatum()));
+				AdapterRegistry.getDatumAdapter().unmarshal(cylinder.getBottomDatum()),
+				AdapterRegistry.getDatumAdapter().unmarshal(cylinder.getTopDatum()));
 		
 		return unmarshalledCylinder;
 	}
@@ -83,12 +83,12 @@ public class CylinderAdapter extends XmlAdapter<Cylinder, CappedCylinder> {
 	public Cylinder marshal(CappedCylinder cylinder) throws Exception {
 		Cylinder marshalledCylinder = new Cylinder();
 		
-		marshalledCylinder.setLocation(new LocationAdapter().marshal(cylinder.getCenter()));
+		marshalledCylinder.setLocation(AdapterRegistry.getLocationAdapter().marshal(cylinder.getCenter()));
 		marshalledCylinder.setRadius(cylinder.getRadii()[1]);
 		marshalledCylinder.setBottom(cylinder.getAltitudes()[0]);
 		marshalledCylinder.setTop(cylinder.getAltitudes()[1]);
-		marshalledCylinder.setBottomDatum(new DatumAdapter().marshal(cylinder.getAltitudeDatum()[0]));
-		marshalledCylinder.setTopDatum(new DatumAdapter().marshal(cylinder.getAltitudeDatum()[1]));
+		marshalledCylinder.setBottomDatum(AdapterRegistry.getDatumAdapter().marshal(cylinder.getAltitudeDatum()[0]));
+		marshalledCylinder.setTopDatum(AdapterRegistry.getDatumAdapter().marshal(cylinder.getAltitudeDatum()[1]));
 		
 		return marshalledCylinder;
 	}
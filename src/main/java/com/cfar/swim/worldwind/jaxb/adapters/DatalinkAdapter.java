@@ -60,9 +60,9 @@ public class DatalinkAdapter extends XmlAdapter<Datalink, com.cfar.swim.worldwin
 		com.cfar.swim.worldwind.connections.Datalink unmarshalledDatalink = null;
 		
 		if (null != datalink.getSimulated()) {
-			unmarshalledDatalink = new SimulatedDatalinkAdapter().unmarshal(datalink.getSimulated());
+			unmarshalledDatalink = AdapterRegistry.getSimulatedDatalinkAdapter().unmarshal(datalink.getSimulated());
 		} else if (null != datalink.getDronekit()) {
-			unmarshalledDatalink = new DronekitDatalinkAdapter().unmarshal(datalink.getDronekit());
+			unmarshalledDatalink = AdapterRegistry.getDronekitDatalinkAdapter().unmarshal(datalink.getDronekit());
 		} else if (null != datalink.getMavlink()) {
 			// TODO: support MavlinkDatalink
 			throw new UnsupportedDataTypeException("unsupported datalink");
@@ -70,7 +70,7 @@ public class DatalinkAdapter extends XmlAdapter<Datalink, com.cfar.swim.worldwin
 			throw new UnsupportedDataTypeException("unsupported datalink");
 		}
 		
-		unmarshalledDatalink.setDownlinkPeriod(new DurationAdapter().unmarshal(datalink.getDownlinkPeriod()));
+		unmarshalledDatalink.setDownlinkPeriod(AdapterRegistry.getDurationAdapter().unmarshal(datalink.getDownlinkPeriod()));
 		
 		return unmarshalledDatalink;
 	}
@@ -90,12 +90,12 @@ public class DatalinkAdapter extends XmlAdapter<Datalink, com.cfar.swim.worldwin
 	public Datalink marshal(com.cfar.swim.worldwind.connections.Datalink datalink) throws Exception {
 		Datalink marshalledDatalink = new Datalink();
 		
-		marshalledDatalink.setDownlinkPeriod(new DurationAdapter().marshal(datalink.getDownlinkPeriod()));
+		marshalledDatalink.setDownlinkPeriod(AdapterRegistry.getDurationAdapter().marshal(datalink.getDownlinkPeriod()));
 		
 		if (datalink instanceof SimulatedDatalink) {
-			marshalledDatalink.setSimulated(new SimulatedDatalinkAdapter().marshal((SimulatedDatalink) datalink));
+			marshalledDatalink.setSimulated(AdapterRegistry.getSimulatedDatalinkAdapter().marshal((SimulatedDatalink) datalink));
 		} else if (datalink instanceof DronekitDatalink) {
-			marshalledDatalink.setDronekit(new DronekitDatalinkAdapter().marshal((DronekitDatalink) datalink));
+			marshalledDatalink.setDronekit(AdapterRegistry.getDronekitDatalinkAdapter().marshal((DronekitDatalink) datalink));
 		} else {
 			// TODO: support MavlinkDatalink
 			throw new UnsupportedDataTypeException("unsupported datalink");
@@ -32,6 +32,8 @@ package com.cfar.swim.worldwind.jaxb.adapters;
 import javax.activation.UnsupportedDataTypeException;
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.Depiction;
 import com.cfar.swim.worldwind.jaxb.scenario.Symbology;
 import com.cfar.swim.worldwind.render.annotations.DepictionAnnotation;
@@ -50,6 +52,14 @@ import gov.nasa.worldwind.symbology.milstd2525.MilStd2525TacticalSymbol;
  */
 public class DepictionAdapter extends XmlAdapter<Depiction, com.cfar.swim.worldwind.util.Depiction> {
 	
+	/** the unmarshalling stage metrics of depiction adapters */
+	private static final StageMetrics UNMARSHAL_STAGE =
+			ScenarioMetrics.getStage("DepictionAdapter.unmarshal");
+	
+	/** the marshalling stage metrics of depiction adapters */
+	private static final StageMetrics MARSHAL_STAGE =
+			ScenarioMetrics.getStage("DepictionAdapter.marshal");
+	
 	/** the position of this depiction adapter */
 	private final Position position;
 	
@@ -78,6 +88,24 @@ public class DepictionAdapter extends XmlAdapter<Depiction, com.cfar.swim.worldw
 	 */
 	@Override
 	public com.cfar.swim.worldwind.util.Depiction unmarshal(Depiction depiction) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doUnmarshal(depiction);
+		} finally {
+			DepictionAdapter.UNMARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Unmarshals a depiction without recording its stage metrics.
+	 * 
+	 * @param depiction the depiction to be unmarshalled
+	 * 
+	 * @return the unmarshalled depiction
+	 * 
+	 * @throws Exception if the depiction cannot be unmarshalled
+	 */
+	private com.cfar.swim.worldwind.util.Depiction doUnmarshal(Depiction depiction) throws Exception {
 		com.cfar.swim.worldwind.util.Depiction unmarshalledDepiction = null;
 		
 		if (Symbology.TACTICAL_POINT == depiction.getSymbology()) {
@@ -117,6 +145,24 @@ public class DepictionAdapter extends XmlAdapter<Depiction, com.cfar.swim.worldw
 	 */
 	@Override
 	public Depiction marshal(com.cfar.swim.worldwind.util.Depiction depiction) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doMarshal(depiction);
+		} finally {
+			DepictionAdapter.MARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Marshals a depiction without recording its stage metrics.
+	 * 
+	 * @param depiction the depiction to be marshalled
+	 * 
+	 * @return the marshalled depiction
+	 * 
+	 * @throws Exception if the depiction cannot be marshalled
+	 */
+	private Depiction doMarshal(com.cfar.swim.worldwind.util.Depiction depiction) throws Exception {
 		Depiction marshalledDepiction = new Depiction();
 		
 		if (depiction.getTacticalDepiction() instanceof TacticalPoint) {
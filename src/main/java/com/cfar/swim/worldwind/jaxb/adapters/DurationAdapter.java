@@ -30,7 +30,6 @@
 package com.cfar.swim.worldwind.jaxb.adapters;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
-import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.Duration;
 
 /**
@@ -54,7 +53,7 @@ public class DurationAdapter extends XmlAdapter<Duration, java.time.Duration> {
 	 */
 	@Override
 	public java.time.Duration unmarshal(Duration duration) throws Exception {
-		return java.time.Duration.parse(duration.toString());
+		return TemporalCodec.decodeDuration(duration);
 	}
 	
 	/**
@@ -70,7 +69,7 @@ public class DurationAdapter extends XmlAdapter<Duration, java.time.Duration> {
 	 */
 	@Override
 	public Duration marshal(java.time.Duration duration) throws Exception {
-		return DatatypeFactory.newInstance().newDuration(duration.toString());
+		return TemporalCodec.encodeDuration(duration);
 	}
 	
 }
@@ -32,6 +32,8 @@ package com.cfar.swim.worldwind.jaxb.adapters;
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
 import com.cfar.swim.worldwind.geom.Box;
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.GeometricBox;
 import com.cfar.swim.worldwind.jaxb.scenario.Location;
 
@@ -46,6 +48,14 @@ import gov.nasa.worldwind.globes.Globe;
  */
 public class GeometricBoxAdapter extends XmlAdapter<GeometricBox, Box> {
 	
+	/** the unmarshalling stage metrics of geometric box adapters */
+	private static final StageMetrics UNMARSHAL_STAGE =
+			ScenarioMetrics.getStage("GeometricBoxAdapter.unmarshal");
+	
+	/** the marshalling stage metrics of geometric box adapters */
+	private static final StageMetrics MARSHAL_STAGE =
+			ScenarioMetrics.getStage("GeometricBoxAdapter.marshal");
+	
 	/** the globe of this geometric box adapter */
 	private final Globe globe;
 	
@@ -71,7 +81,25 @@ public class GeometricBoxAdapter extends XmlAdapter<GeometricBox, Box> {
 	 */
 	@Override
 	public Box unmarshal(GeometricBox box) throws Exception {
-		Sector sector = new SectorAdapter().unmarshal(box);
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doUnmarshal(box);
+		} finally {
+			GeometricBoxAdapter.UNMARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Unmarshals a geometric box without recording its stage metrics.
+	 * 
+	 * @param box the geometric box to be unmarshalled
+	 * 
+	 * @return the unmarshalled geometric box
+	 * 
+	 * @throws Exception if the geometric box cannot be unmarshalled
+	 */
+	private Box doUnmarshal(GeometricBox box) throws Exception {
+		Sector sector = AdapterRegistry.getSectorAdapter().unmarshal(box);
 		return new Box(Sector.computeBoundingBox(this.globe, 1d, sector, box.getBottom(), box.getTop()));
 	}
 	
@@ -88,12 +116,30 @@ public class GeometricBoxAdapter extends XmlAdapter<GeometricBox, Box> {
 	 */
 	@Override
 	public GeometricBox marshal(Box box) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doMarshal(box);
+		} finally {
+			GeometricBoxAdapter.MARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Marshals a geometric box without recording its stage metrics.
+	 * 
+	 * @param box the geometric box to be marshalled
+	 * 
+	 * @return the marshalled geometric box
+	 * 
+	 * @throws Exception if the geometric box cannot be marshalled
+	 */
+	private GeometricBox doMarshal(Box box) throws Exception {
 		GeometricBox marshalledBox = new GeometricBox();
 		
-		Location southWest = new LocationAdapter().marshal(
+		Location southWest = AdapterRegistry.getLocationAdapter().marshal(
 				this.globe.computePositionFromPoint(
 						box.getCorners()[Box.CORNER_INDEX_BOTTOM_LOWER_LEFT]));
-		Location northEast = new LocationAdapter().marshal(
+		Location northEast = AdapterRegistry.getLocationAdapter().marshal(
 				this.globe.computePositionFromPoint(
 						box.getCorners()[Box.CORNER_INDEX_TOP_UPPER_RIGHT]));
 		marshalledBox.setSouthWest(southWest);
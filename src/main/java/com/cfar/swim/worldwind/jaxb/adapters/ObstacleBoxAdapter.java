@@ -31,6 +31,8 @@ package com.cfar.swim.worldwind.jaxb.adapters;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.Box;
 import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
 
@@ -42,6 +44,14 @@ import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
  */
 public class ObstacleBoxAdapter extends XmlAdapter<ObstacleBox, com.cfar.swim.worldwind.render.airspaces.ObstacleBox> {
 	
+	/** the unmarshalling stage metrics of obstacle box adapters */
+	private static final StageMetrics UNMARSHAL_STAGE =
+			ScenarioMetrics.getStage("ObstacleBoxAdapter.unmarshal");
+	
+	/** the marshalling stage metrics of obstacle box adapters */
+	private static final StageMetrics MARSHAL_STAGE =
+			ScenarioMetrics.getStage("ObstacleBoxAdapter.marshal");
+	
 	/**
 	 * Unmarshals an obstacle box.
 	 * 
@@ -55,10 +65,28 @@ public class ObstacleBoxAdapter extends XmlAdapter<ObstacleBox, com.cfar.swim.wo
 	 */
 	@Override
 	public com.cfar.swim.worldwind.render.airspaces.ObstacleBox unmarshal(ObstacleBox obstacleBox) throws Exception {
-		gov.nasa.worldwind.render.airspaces.Box box = new BoxAdapter().unmarshal(obstacleBox);
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doUnmarshal(obstacleBox);
+		} finally {
+			ObstacleBoxAdapter.UNMARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Unmarshals an obstacle box without recording its stage metrics.
+	 * 
+	 * @param obstacleBox the obstacle box to be unmarshalled
+	 * 
+	 * @return the unmarshalled obstacle box
+	 * 
+	 * @throws Exception if the obstacle box cannot be unmarshalled
+	 */
+	private com.cfar.swim.worldwind.render.airspaces.ObstacleBox doUnmarshal(ObstacleBox obstacleBox) throws Exception {
+		gov.nasa.worldwind.render.airspaces.Box box = AdapterRegistry.getBoxAdapter().unmarshal(obstacleBox);
 		com.cfar.swim.worldwind.render.airspaces.ObstacleBox unmarshalledObstacleBox =
 				new com.cfar.swim.worldwind.render.airspaces.ObstacleBox(box);
-		unmarshalledObstacleBox.setCostInterval(new CostIntervalAdapter().unmarshal(obstacleBox.getCostInterval()));
+		unmarshalledObstacleBox.setCostInterval(AdapterRegistry.getCostIntervalAdapter().unmarshal(obstacleBox.getCostInterval()));
 		
 		if (null != obstacleBox.getDepiction()) {
 			unmarshalledObstacleBox.setDepiction(new DepictionAdapter(
@@ -81,9 +109,27 @@ public class ObstacleBoxAdapter extends XmlAdapter<ObstacleBox, com.cfar.swim.wo
 	 */
 	@Override
 	public ObstacleBox marshal(com.cfar.swim.worldwind.render.airspaces.ObstacleBox obstacleBox) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doMarshal(obstacleBox);
+		} finally {
+			ObstacleBoxAdapter.MARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Marshals an obstacle box without recording its stage metrics.
+	 * 
+	 * @param obstacleBox the obstacle box to be marshalled
+	 * 
+	 * @return the marshalled obstacle box
+	 * 
+	 * @throws Exception if the obstacle box cannot be marshalled
+	 */
+	private ObstacleBox doMarshal(com.cfar.swim.worldwind.render.airspaces.ObstacleBox obstacleBox) throws Exception {
 		ObstacleBox marshalledObstacleBox = new ObstacleBox();
 		
-		Box box = new BoxAdapter().marshal(obstacleBox);
+		Box box = AdapterRegistry.getBoxAdapter().marshal(obstacleBox);
 		marshalledObstacleBox.setBegin(box.getBegin());
 		marshalledObstacleBox.setEnd(box.getEnd());
 		marshalledObstacleBox.setLeftWidth(box.getLeftWidth());
@@ -92,7 +138,7 @@ public class ObstacleBoxAdapter extends XmlAdapter<ObstacleBox, com.cfar.swim.wo
 		marshalledObstacleBox.setTop(box.getTop());
 		marshalledObstacleBox.setBottomDatum(box.getBottomDatum());
 		marshalledObstacleBox.setTopDatum(box.getTopDatum());
-		marshalledObstacleBox.setCostInterval(new CostIntervalAdapter().marshal(obstacleBox.getCostInterval()));
+		marshalledObstacleBox.setCostInterval(AdapterRegistry.getCostIntervalAdapter().marshal(obstacleBox.getCostInterval()));
 		
 		if (obstacleBox.hasDepiction()) {
 			marshalledObstacleBox.setDepiction(new DepictionAdapter(
@@ -31,6 +31,8 @@ package com.cfar.swim.worldwind.jaxb.adapters;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.Cylinder;
 import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
 
@@ -44,6 +46,14 @@ import gov.nasa.worldwind.render.airspaces.CappedCylinder;
  */
 public class ObstacleCylinderAdapter extends XmlAdapter<ObstacleCylinder, com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder> {
 	
+	/** the unmarshalling stage metrics of obstacle cylinder adapters */
+	private static final StageMetrics UNMARSHAL_STAGE =
+			ScenarioMetrics.getStage("ObstacleCylinderAdapter.unmarshal");
+	
+	/** the marshalling stage metrics of obstacle cylinder adapters */
+	private static final StageMetrics MARSHAL_STAGE =
+			ScenarioMetrics.getStage("ObstacleCylinderAdapter.marshal");
+	
 	/**
 	 * Unmarshals an obstacle cylinder.
 	 * 
@@ -57,7 +67,25 @@ public class ObstacleCylinderAdapter extends XmlAdapter<ObstacleCylinder, com.cf
 	 */
 	@Override
 	public com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder unmarshal(ObstacleCylinder obstacleCylinder) throws Exception {
-		CappedCylinder cylinder = new CylinderAdapter().unmarshal(obstacleCylinder);
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doUnmarshal(obstacleCylinder);
+		} finally {
+			ObstacleCylinderAdapter.UNMARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Unmarshals an obstacle cylinder without recording its stage metrics.
+	 * 
+	 * @param obstacleCylinder the obstacle cylinder to be unmarshalled
+	 * 
+	 * @return the unmarshalled obstacle cylinder
+	 * 
+	 * @throws Exception if the obstacle cylinder cannot be unmarshalled
+	 */
+	private com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder doUnmarshal(ObstacleCylinder obstacleCylinder) throws Exception {
+		CappedCylinder cylinder = AdapterRegistry.getCylinderAdapter().unmarshal(obstacleCylinder);
 		com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder unmarshalledObstacleCylinder =
 				new com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder(
 						cylinder.getCenter(),
@@ -66,7 +94,7 @@ public class ObstacleCylinderAdapter extends XmlAdapter<ObstacleCylinder, com.cf
 						cylinder.getRadii()[1]);
 		
 		unmarshalledObstacleCylinder.setAltitudeDatum(cylinder.getAltitudeDatum()[0], cylinder.getAltitudeDatum()[1]);
-		unmarshalledObstacleCylinder.setCostInterval(new CostIntervalAdapter().unmarshal(obstacleCylinder.getCostInterval()));
+		unmarshalledObstacleCylinder.setCostInterval(AdapterRegistry.getCostIntervalAdapter().unmarshal(obstacleCylinder.getCostInterval()));
 		
 		if (null != obstacleCylinder.getDepiction()) {
 			unmarshalledObstacleCylinder.setDepiction(new DepictionAdapter(
@@ -89,16 +117,34 @@ public class ObstacleCylinderAdapter extends XmlAdapter<ObstacleCylinder, com.cf
 	 */
 	@Override
 	public ObstacleCylinder marshal(com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder obstacleCylinder) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doMarshal(obstacleCylinder);
+		} finally {
+			ObstacleCylinderAdapter.MARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Marshals an obstacle cylinder without recording its stage metrics.
+	 * 
+	 * @param obstacleCylinder the obstacle cylinder to be marshalled
+	 * 
+	 * @return the marshalled obstacle cylinder
+	 * 
+	 * @throws Exception if the obstacle cylinder cannot be marshalled
+	 */
+	private ObstacleCylinder doMarshal(com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder obstacleCylinder) throws Exception {
 		ObstacleCylinder marshalledObstacleCylinder = new ObstacleCylinder();
 		
-		Cylinder cylinder = new CylinderAdapter().marshal(obstacleCylinder);
+		Cylinder cylinder = AdapterRegistry.getCylinderAdapter().marshal(obstacleCylinder);
 		marshalledObstacleCylinder.setLocation(cylinder.getLocation());
 		marshalledObstacleCylinder.setRadius(cylinder.getRadius());
 		marshalledObstacleCylinder.setBottom(cylinder.getBottom());
 		marshalledObstacleCylinder.setTop(cylinder.getTop());
 		marshalledObstacleCylinder.setBottomDatum(cylinder.getBottomDatum());
 		marshalledObstacleCylinder.setTopDatum(cylinder.getTopDatum());
-		marshalledObstacleCylinder.setCostInterval(new CostIntervalAdapter().marshal(obstacleCylinder.getCostInterval()));
+		marshalledObstacleCylinder.setCostInterval(AdapterRegistry.getCostIntervalAdapter().marshal(obstacleCylinder.getCostInterval()));
 		
 		if (obstacleCylinder.hasDepiction()) {
 			marshalledObstacleCylinder.setDepiction(
@@ -0,0 +1,450 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.adapters;
+
+import java.time.ZonedDateTime;
+
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.Datum;
+import com.cfar.swim.worldwind.jaxb.scenario.Location;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+
+import gov.nasa.worldwind.geom.Sector;
+import gov.nasa.worldwind.globes.Earth;
+
+/**
+ * Realizes an immutable obstacle filter which selects the marshalled
+ * obstacles within a region of interest and mission time window before they
+ * are unmarshalled. Obstacles are tested against a sector, an altitude band
+ * and a time interval using their raw attributes only, that is, their
+ * locations, radii, widths, altitudes and cost interval bounds, such that
+ * rejected obstacles never build any geometry, cost interval or depiction.
+ * 
+ * The spatial tests are conservative: obstacle extents are converted into
+ * degrees using the polar radius of the Earth and widened by a degree
+ * margin, the latitudes of box segments include the vertices of their great
+ * circles bulging towards the poles, longitudes are only tested away from
+ * the poles, and altitudes relative to the ground are widened by the range
+ * of terrain elevations.
+ * An obstacle filter may therefore accept obstacles just outside of its
+ * region of interest, but never rejects obstacles within it.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ObstaclesAdapter#unmarshal(com.cfar.swim.worldwind.jaxb.scenario.Obstacles, ObstacleFilter)
+ */
+public final class ObstacleFilter {
+	
+	/** the default margin of obstacle filters in degrees */
+	public static final double DEFAULT_MARGIN = 0.01d;
+	
+	/** the lowest terrain elevation below the mean sea level in meters including bathymetry */
+	private static final double MIN_ELEVATION = -11100d;
+	
+	/** the highest terrain elevation above the mean sea level in meters */
+	private static final double MAX_ELEVATION = 8900d;
+	
+	/** the minimum norm of the normal of a great circle through two locations */
+	private static final double EPSILON = 1E-12;
+	
+	/** the sector of this obstacle filter, null if unbounded */
+	private final Sector sector;
+	
+	/** the bottom of the altitude band of this obstacle filter in meters */
+	private final double bottom;
+	
+	/** the top of the altitude band of this obstacle filter in meters */
+	private final double top;
+	
+	/** the start of the time interval of this obstacle filter, null if unbounded */
+	private final ZonedDateTime start;
+	
+	/** the end of the time interval of this obstacle filter, null if unbounded */
+	private final ZonedDateTime end;
+	
+	/** the margin of this obstacle filter in degrees */
+	private final double margin;
+	
+	/**
+	 * Constructs a new obstacle filter with the default margin.
+	 * 
+	 * @param sector the sector, null if unbounded
+	 * @param bottom the bottom of the altitude band in meters, negative
+	 *        infinity if unbounded
+	 * @param top the top of the altitude band in meters, positive infinity if
+	 *        unbounded
+	 * @param start the start of the time interval, null if unbounded
+	 * @param end the end of the time interval, null if unbounded
+	 * 
+	 * @throws IllegalArgumentException if the altitude band or time interval
+	 *         is invalid
+	 */
+	public ObstacleFilter(Sector sector, double bottom, double top, ZonedDateTime start, ZonedDateTime end) {
+		this(sector, bottom, top, start, end, ObstacleFilter.DEFAULT_MARGIN);
+	}
+	
+	/**
+	 * Constructs a new obstacle filter.
+	 * 
+	 * @param sector the sector, null if unbounded
+	 * @param bottom the bottom of the altitude band in meters, negative
+	 *        infinity if unbounded
+	 * @param top the top of the altitude band in meters, positive infinity if
+	 *        unbounded
+	 * @param start the start of the time interval, null if unbounded
+	 * @param end the end of the time interval, null if unbounded
+	 * @param margin the margin of the sector in degrees
+	 * 
+	 * @throws IllegalArgumentException if the altitude band, time interval or
+	 *         margin is invalid
+	 */
+	public ObstacleFilter(Sector sector, double bottom, double top,
+			ZonedDateTime start, ZonedDateTime end, double margin) {
+		if (Double.isNaN(bottom) || Double.isNaN(top) || (bottom > top)) {
+			throw new IllegalArgumentException("invalid altitude band");
+		}
+		if ((null != start) && (null != end) && start.isAfter(end)) {
+			throw new IllegalArgumentException("invalid time interval");
+		}
+		if (Double.isNaN(margin) || (0d > margin)) {
+			throw new IllegalArgumentException("invalid margin");
+		}
+		this.sector = sector;
+		this.bottom = bottom;
+		this.top = top;
+		this.start = start;
+		this.end = end;
+		this.margin = margin;
+	}
+	
+	/**
+	 * Gets the sector of this obstacle filter.
+	 * 
+	 * @return the sector of this obstacle filter, null if unbounded
+	 */
+	public Sector getSector() {
+		return this.sector;
+	}
+	
+	/**
+	 * Gets the bottom of the altitude band of this obstacle filter.
+	 * 
+	 * @return the bottom of the altitude band in meters
+	 */
+	public double getBottom() {
+		return this.bottom;
+	}
+	
+	/**
+	 * Gets the top of the altitude band of this obstacle filter.
+	 * 
+	 * @return the top of the altitude band in meters
+	 */
+	public double getTop() {
+		return this.top;
+	}
+	
+	/**
+	 * Gets the start of the time interval of this obstacle filter.
+	 * 
+	 * @return the start of the time interval, null if unbounded
+	 */
+	public ZonedDateTime getStart() {
+		return this.start;
+	}
+	
+	/**
+	 * Gets the end of the time interval of this obstacle filter.
+	 * 
+	 * @return the end of the time interval, null if unbounded
+	 */
+	public ZonedDateTime getEnd() {
+		return this.end;
+	}
+	
+	/**
+	 * Gets the margin of this obstacle filter.
+	 * 
+	 * @return the margin of the sector in degrees
+	 */
+	public double getMargin() {
+		return this.margin;
+	}
+	
+	/**
+	 * Determines whether or not this obstacle filter accepts a marshalled
+	 * obstacle box, cylinder or sphere. Unsupported obstacles are accepted.
+	 * The cost interval is only tested if the obstacle passes the cheaper
+	 * spatial tests.
+	 * 
+	 * @param obstacle the marshalled obstacle
+	 * 
+	 * @return true if the obstacle may be within the region of interest and
+	 *         time window of this obstacle filter, false otherwise
+	 */
+	public boolean accepts(Object obstacle) {
+		boolean accepts = true;
+		
+		if (obstacle instanceof ObstacleBox) {
+			ObstacleBox box = (ObstacleBox) obstacle;
+			accepts = this.accepts(box.getBegin(), box.getEnd(), Math.max(box.getLeftWidth(), box.getRightWidth()))
+					&& this.accepts(box.getBottom(), box.getBottomDatum(), box.getTop(), box.getTopDatum())
+					&& this.accepts(box.getCostInterval());
+		} else if (obstacle instanceof ObstacleCylinder) {
+			ObstacleCylinder cylinder = (ObstacleCylinder) obstacle;
+			accepts = this.accepts(cylinder.getLocation(), cylinder.getLocation(), cylinder.getRadius())
+					&& this.accepts(cylinder.getBottom(), cylinder.getBottomDatum(), cylinder.getTop(), cylinder.getTopDatum())
+					&& this.accepts(cylinder.getCostInterval());
+		} else if (obstacle instanceof ObstacleSphere) {
+			ObstacleSphere sphere = (ObstacleSphere) obstacle;
+			double altitude = (null == sphere.getCenter()) ? 0d : sphere.getCenter().getAltitude();
+			accepts = this.accepts(sphere.getCenter(), sphere.getCenter(), sphere.getRadius())
+					&& this.accepts(altitude - sphere.getRadius(), sphere.getCenterDatum(),
+							altitude + sphere.getRadius(), sphere.getCenterDatum())
+					&& this.accepts(sphere.getCostInterval());
+		}
+		
+		return accepts;
+	}
+	
+	/**
+	 * Determines whether or not a cost interval overlaps the time interval
+	 * of this obstacle filter.
+	 * 
+	 * @param costInterval the marshalled cost interval, may be null
+	 * 
+	 * @return true if the cost interval overlaps the time interval, false
+	 *         otherwise
+	 */
+	private boolean accepts(CostInterval costInterval) {
+		boolean accepts = true;
+		
+		if (null != costInterval) {
+			if ((null != this.end) && (null != costInterval.getStart())) {
+				accepts = !TemporalCodec.decodeTime(costInterval.getStart()).isAfter(this.end);
+			}
+			if (accepts && (null != this.start) && (null != costInterval.getEnd())) {
+				accepts = !TemporalCodec.decodeTime(costInterval.getEnd()).isBefore(this.start);
+			}
+		}
+		
+		return accepts;
+	}
+	
+	/**
+	 * Determines whether or not an altitude range overlaps the altitude band
+	 * of this obstacle filter. Altitudes relative to the ground are widened
+	 * by the range of terrain elevations.
+	 * 
+	 * @param bottom the bottom of the altitude range in meters
+	 * @param bottomDatum the datum of the bottom, may be null
+	 * @param top the top of the altitude range in meters
+	 * @param topDatum the datum of the top, may be null
+	 * 
+	 * @return true if the altitude range overlaps the altitude band, false
+	 *         otherwise
+	 */
+	private boolean accepts(double bottom, Datum bottomDatum, double top, Datum topDatum) {
+		double lowest = ObstacleFilter.isAbsolute(bottomDatum) ? bottom : bottom + ObstacleFilter.MIN_ELEVATION;
+		double highest = ObstacleFilter.isAbsolute(topDatum) ? top : top + ObstacleFilter.MAX_ELEVATION;
+		
+		return (lowest <= this.top) && (highest >= this.bottom);
+	}
+	
+	/**
+	 * Determines whether or not the extent of a great circle segment between
+	 * two locations widened by a radius intersects the sector of this
+	 * obstacle filter.
+	 * 
+	 * @param begin the begin location, may be null
+	 * @param end the end location, may be null
+	 * @param radius the radius in meters
+	 * 
+	 * @return true if the widened extent may intersect the sector, false
+	 *         otherwise
+	 */
+	private boolean accepts(Location begin, Location end, double radius) {
+		if ((null == this.sector) || (null == begin) || (null == end)) {
+			return true;
+		}
+		
+		double[] latitudes = ObstacleFilter.getLatitudeRange(begin, end);
+		double latitudeMargin = Math.toDegrees(Math.abs(radius) / Earth.WGS84_POLAR_RADIUS) + this.margin;
+		double minLatitude = latitudes[0] - latitudeMargin;
+		double maxLatitude = latitudes[1] + latitudeMargin;
+		if ((maxLatitude < this.sector.getMinLatitude().degrees)
+				|| (minLatitude > this.sector.getMaxLatitude().degrees)) {
+			return false;
+		}
+		
+		// meridians converge at the poles
+		double maxAbsLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+		if (90d <= maxAbsLatitude) {
+			return true;
+		}
+		
+		// segments crossing the anti-meridian take the shorter way around
+		double beginLongitude = begin.getLongitude();
+		double endLongitude = end.getLongitude();
+		if (180d < Math.abs(beginLongitude - endLongitude)) {
+			endLongitude += (beginLongitude > endLongitude) ? 360d : -360d;
+		}
+		double longitudeMargin = latitudeMargin / Math.cos(Math.toRadians(maxAbsLatitude));
+		double minLongitude = Math.min(beginLongitude, endLongitude) - longitudeMargin;
+		double maxLongitude = Math.max(beginLongitude, endLongitude) + longitudeMargin;
+		if (360d <= (maxLongitude - minLongitude)) {
+			return true;
+		}
+		
+		// longitudes may wrap around the anti-meridian
+		for (double shift = -360d; shift <= 360d; shift += 360d) {
+			if (((minLongitude + shift) <= this.sector.getMaxLongitude().degrees)
+					&& ((maxLongitude + shift) >= this.sector.getMinLongitude().degrees)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Gets the latitude range of a great circle segment between two
+	 * locations. The segment exceeds the latitudes of its locations if it
+	 * passes the northern or southern vertex of its great circle, for
+	 * example, the segment between 60N/0E and 60N/90E reaches about 67N.
+	 * 
+	 * @param begin the begin location
+	 * @param end the end location
+	 * 
+	 * @return the minimum and maximum latitudes of the segment in degrees
+	 */
+	private static double[] getLatitudeRange(Location begin, Location end) {
+		double minLatitude = Math.min(begin.getLatitude(), end.getLatitude());
+		double maxLatitude = Math.max(begin.getLatitude(), end.getLatitude());
+		double[] from = ObstacleFilter.toVector(begin);
+		double[] to = ObstacleFilter.toVector(end);
+		double[] normal = ObstacleFilter.cross(from, to);
+		double norm = Math.sqrt(ObstacleFilter.dot(normal, normal));
+		
+		// coincident or antipodal locations do not define a great circle
+		if (ObstacleFilter.EPSILON < norm) {
+			// the northern vertex is the projection of the north pole onto the great circle
+			double z = normal[2] / norm;
+			double[] vertex = {-z * normal[0] / norm, -z * normal[1] / norm, 1d - (z * z)};
+			double vertexLatitude = Math.toDegrees(Math.acos(Math.min(1d, Math.abs(z))));
+			if (ObstacleFilter.isBetween(from, vertex, to, normal)) {
+				maxLatitude = Math.max(maxLatitude, vertexLatitude);
+			}
+			double[] antipode = {-vertex[0], -vertex[1], -vertex[2]};
+			if (ObstacleFilter.isBetween(from, antipode, to, normal)) {
+				minLatitude = Math.min(minLatitude, -vertexLatitude);
+			}
+		}
+		
+		return new double[] {minLatitude, maxLatitude};
+	}
+	
+	/**
+	 * Determines whether or not a point on a great circle lies on the
+	 * segment between two other points of the great circle.
+	 * 
+	 * @param from the begin of the segment
+	 * @param point the point on the great circle
+	 * @param to the end of the segment
+	 * @param normal the normal of the great circle oriented from the begin
+	 *        to the end of the segment
+	 * 
+	 * @return true if the point lies on the segment, false otherwise
+	 */
+	private static boolean isBetween(double[] from, double[] point, double[] to, double[] normal) {
+		return (0d <= ObstacleFilter.dot(ObstacleFilter.cross(from, point), normal))
+				&& (0d <= ObstacleFilter.dot(ObstacleFilter.cross(point, to), normal));
+	}
+	
+	/**
+	 * Converts a location into a unit vector on the sphere.
+	 * 
+	 * @param location the location
+	 * 
+	 * @return the unit vector of the location
+	 */
+	private static double[] toVector(Location location) {
+		double latitude = Math.toRadians(location.getLatitude());
+		double longitude = Math.toRadians(location.getLongitude());
+		return new double[] {
+				Math.cos(latitude) * Math.cos(longitude),
+				Math.cos(latitude) * Math.sin(longitude),
+				Math.sin(latitude)};
+	}
+	
+	/**
+	 * Computes the cross product of two vectors.
+	 * 
+	 * @param u the first vector
+	 * @param v the second vector
+	 * 
+	 * @return the cross product of the vectors
+	 */
+	private static double[] cross(double[] u, double[] v) {
+		return new double[] {
+				(u[1] * v[2]) - (u[2] * v[1]),
+				(u[2] * v[0]) - (u[0] * v[2]),
+				(u[0] * v[1]) - (u[1] * v[0])};
+	}
+	
+	/**
+	 * Computes the dot product of two vectors.
+	 * 
+	 * @param u the first vector
+	 * @param v the second vector
+	 * 
+	 * @return the dot product of the vectors
+	 */
+	private static double dot(double[] u, double[] v) {
+		return (u[0] * v[0]) + (u[1] * v[1]) + (u[2] * v[2]);
+	}
+	
+	/**
+	 * Determines whether or not an altitude datum is absolute, that is, not
+	 * relative to the ground.
+	 * 
+	 * @param datum the altitude datum, null if implied
+	 * 
+	 * @return true if the altitude datum is absolute, false otherwise
+	 * 
+	 * @see DatumAdapter#unmarshal(Datum)
+	 */
+	private static boolean isAbsolute(Datum datum) {
+		return (null == datum) || (Datum.ASL == datum);
+	}
+	
+}
@@ -31,6 +31,8 @@ package com.cfar.swim.worldwind.jaxb.adapters;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
 import com.cfar.swim.worldwind.jaxb.scenario.Sphere;
 
@@ -44,6 +46,14 @@ import gov.nasa.worldwind.render.airspaces.SphereAirspace;
  */
 public class ObstacleSphereAdapter extends XmlAdapter<ObstacleSphere, com.cfar.swim.worldwind.render.airspaces.ObstacleSphere> {
 	
+	/** the unmarshalling stage metrics of obstacle sphere adapters */
+	private static final StageMetrics UNMARSHAL_STAGE =
+			ScenarioMetrics.getStage("ObstacleSphereAdapter.unmarshal");
+	
+	/** the marshalling stage metrics of obstacle sphere adapters */
+	private static final StageMetrics MARSHAL_STAGE =
+			ScenarioMetrics.getStage("ObstacleSphereAdapter.marshal");
+	
 	/**
 	 * Unmarshals an obstacle sphere.
 	 * 
@@ -57,14 +67,32 @@ public class ObstacleSphereAdapter extends XmlAdapter<ObstacleSphere, com.cfar.s
 	 */
 	@Override
 	public com.cfar.swim.worldwind.render.airspaces.ObstacleSphere unmarshal(ObstacleSphere obstacleSphere) throws Exception {
-		SphereAirspace sphere = new SphereAdapter().unmarshal(obstacleSphere);
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doUnmarshal(obstacleSphere);
+		} finally {
+			ObstacleSphereAdapter.UNMARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Unmarshals an obstacle sphere without recording its stage metrics.
+	 * 
+	 * @param obstacleSphere the obstacle sphere to be unmarshalled
+	 * 
+	 * @return the unmarshalled obstacle sphere
+	 * 
+	 * @throws Exception if the obstacle sphere cannot be unmarshalled
+	 */
+	private com.cfar.swim.worldwind.render.airspaces.ObstacleSphere doUnmarshal(ObstacleSphere obstacleSphere) throws Exception {
+		SphereAirspace sphere = AdapterRegistry.getSphereAdapter().unmarshal(obstacleSphere);
 		com.cfar.swim.worldwind.render.airspaces.ObstacleSphere unmarshalledObstacleSphere =
 				new com.cfar.swim.worldwind.render.airspaces.ObstacleSphere(
 						sphere.getReferencePosition(),
 						sphere.getRadius());
 		
 		unmarshalledObstacleSphere.setAltitudeDatum(sphere.getAltitudeDatum()[0], sphere.getAltitudeDatum()[1]);
-		unmarshalledObstacleSphere.setCostInterval(new CostIntervalAdapter().unmarshal(obstacleSphere.getCostInterval()));
+		unmarshalledObstacleSphere.setCostInterval(AdapterRegistry.getCostIntervalAdapter().unmarshal(obstacleSphere.getCostInterval()));
 		
 		if (null != obstacleSphere.getDepiction()) {
 			unmarshalledObstacleSphere.setDepiction(new DepictionAdapter(
@@ -87,13 +115,31 @@ public class ObstacleSphereAdapter extends XmlAdapter<ObstacleSphere, com.cfar.s
 	 */
 	@Override
 	public ObstacleSphere marshal(com.cfar.swim.worldwind.render.airspaces.ObstacleSphere obstacleSphere) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doMarshal(obstacleSphere);
+		} finally {
+			ObstacleSphereAdapter.MARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Marshals an obstacle sphere without recording its stage metrics.
+	 * 
+	 * @param obstacleSphere the obstacle sphere to be marshalled
+	 * 
+	 * @return the marshalled obstacle sphere
+	 * 
+	 * @throws Exception if the obstacle sphere cannot be marshalled
+	 */
+	private ObstacleSphere doMarshal(com.cfar.swim.worldwind.render.airspaces.ObstacleSphere obstacleSphere) throws Exception {
 		ObstacleSphere marshalledObstacleSphere = new ObstacleSphere();
 		
-		Sphere sphere = new SphereAdapter().marshal(obstacleSphere);
+		Sphere sphere = AdapterRegistry.getSphereAdapter().marshal(obstacleSphere);
 		marshalledObstacleSphere.setCenter(sphere.getCenter());
 		marshalledObstacleSphere.setRadius(sphere.getRadius());
 		marshalledObstacleSphere.setCenterDatum(sphere.getCenterDatum());
-		marshalledObstacleSphere.setCostInterval(new CostIntervalAdapter().marshal(obstacleSphere.getCostInterval()));
+		marshalledObstacleSphere.setCostInterval(AdapterRegistry.getCostIntervalAdapter().marshal(obstacleSphere.getCostInterval()));
 		
 		if (obstacleSphere.hasDepiction()) {
 			marshalledObstacleSphere.setDepiction(new DepictionAdapter(
@@ -30,7 +30,12 @@
 package com.cfar.swim.worldwind.jaxb.adapters;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
@@ -47,6 +52,62 @@ import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
  */
 public class ObstaclesAdapter extends XmlAdapter<Obstacles, Set<com.cfar.swim.worldwind.render.Obstacle>> {
 	
+	/** the default number of obstacles below which obstacles are adapted sequentially */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+	
+	/** the fork-join pool of this obstacles adapter, null if sequential */
+	private final ForkJoinPool pool;
+	
+	/** the number of obstacles below which this obstacles adapter adapts sequentially */
+	private final int threshold;
+	
+	/**
+	 * Constructs a new sequential obstacles adapter.
+	 */
+	public ObstaclesAdapter() {
+		this(false);
+	}
+	
+	/**
+	 * Constructs a new obstacles adapter which adapts obstacles in parallel
+	 * using the common fork-join pool if enabled.
+	 * 
+	 * @param parallel the parallel adaptation flag
+	 */
+	public ObstaclesAdapter(boolean parallel) {
+		this(parallel ? ForkJoinPool.commonPool() : null, ObstaclesAdapter.DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	/**
+	 * Constructs a new obstacles adapter which adapts obstacles in parallel
+	 * using a fork-join pool if the number of obstacles reaches a threshold.
+	 * 
+	 * @param pool the fork-join pool, null for sequential adaptation
+	 * @param threshold the number of obstacles below which obstacles are
+	 *        adapted sequentially
+	 * 
+	 * @throws IllegalArgumentException if the threshold is not positive
+	 */
+	public ObstaclesAdapter(ForkJoinPool pool, int threshold) {
+		if (0 >= threshold) {
+			throw new IllegalArgumentException("invalid threshold");
+		}
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+	
+	/**
+	 * Determines whether or not this obstacles adapter adapts a number of
+	 * obstacles in parallel.
+	 * 
+	 * @param size the number of obstacles
+	 * 
+	 * @return true if the obstacles are adapted in parallel, false otherwise
+	 */
+	private boolean isParallel(int size) {
+		return (null != this.pool) && (this.threshold <= size);
+	}
+	
 	/**
 	 * Unmarshals obstacles.
 	 * 
@@ -60,21 +121,88 @@ public class ObstaclesAdapter extends XmlAdapter<Obstacles, Set<com.cfar.swim.wo
 	 */
 	@Override
 	public Set<com.cfar.swim.worldwind.render.Obstacle> unmarshal(Obstacles obstacles) throws Exception {
+		return this.unmarshal(obstacles, null);
+	}
+	
+	/**
+	 * Unmarshals the obstacles accepted by an obstacle filter. Rejected
+	 * obstacles are skipped before any of their parts are unmarshalled.
+	 * 
+	 * @param obstacles the obstacles to be unmarshalled
+	 * @param filter the obstacle filter, null if all obstacles are accepted
+	 * 
+	 * @return the unmarshalled accepted obstacles
+	 * 
+	 * @throws Exception if the obstacles cannot be unmarshalled
+	 */
+	public Set<com.cfar.swim.worldwind.render.Obstacle> unmarshal(Obstacles obstacles, ObstacleFilter filter)
+			throws Exception {
+		List<Object> marshalledObstacles = obstacles.getBoxOrCylinderOrSphere();
+		
+		if (this.isParallel(marshalledObstacles.size())) {
+			Set<com.cfar.swim.worldwind.render.Obstacle> unmarshalledObstacles = ConcurrentHashMap.newKeySet();
+			this.adapt(marshalledObstacles.size(), index -> {
+				com.cfar.swim.worldwind.render.Obstacle unmarshalledObstacle =
+						this.unmarshalObstacle(marshalledObstacles.get(index), filter);
+				if (null != unmarshalledObstacle) {
+					unmarshalledObstacles.add(unmarshalledObstacle);
+				}
+			});
+			return unmarshalledObstacles;
+		}
+		
 		Set<com.cfar.swim.worldwind.render.Obstacle> unmarshalledObstacles = new HashSet<>();
 		
 		for (Object obstacle : obstacles.getBoxOrCylinderOrSphere()) {
-			if (obstacle instanceof ObstacleBox) {
-				unmarshalledObstacles.add(new ObstacleBoxAdapter().unmarshal((ObstacleBox) obstacle));
-			} else if (obstacle instanceof ObstacleCylinder) {
-				unmarshalledObstacles.add(new ObstacleCylinderAdapter().unmarshal((ObstacleCylinder) obstacle));
-			} else if (obstacle instanceof ObstacleSphere) {
-				unmarshalledObstacles.add(new ObstacleSphereAdapter().unmarshal((ObstacleSphere) obstacle));
+			com.cfar.swim.worldwind.render.Obstacle unmarshalledObstacle = this.unmarshalObstacle(obstacle, filter);
+			if (null != unmarshalledObstacle) {
+				unmarshalledObstacles.add(unmarshalledObstacle);
 			}
 		}
 		
 		return unmarshalledObstacles;
 	}
 	
+	/**
+	 * Unmarshals a single obstacle box, cylinder or sphere.
+	 * 
+	 * @param obstacle the obstacle to be unmarshalled
+	 * 
+	 * @return the unmarshalled obstacle, null if the obstacle is not supported
+	 * 
+	 * @throws Exception if the obstacle cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.render.Obstacle unmarshalObstacle(Object obstacle) throws Exception {
+		com.cfar.swim.worldwind.render.Obstacle unmarshalledObstacle = null;
+		
+		if (obstacle instanceof ObstacleBox) {
+			unmarshalledObstacle = AdapterRegistry.getObstacleBoxAdapter().unmarshal((ObstacleBox) obstacle);
+		} else if (obstacle instanceof ObstacleCylinder) {
+			unmarshalledObstacle = AdapterRegistry.getObstacleCylinderAdapter().unmarshal((ObstacleCylinder) obstacle);
+		} else if (obstacle instanceof ObstacleSphere) {
+			unmarshalledObstacle = AdapterRegistry.getObstacleSphereAdapter().unmarshal((ObstacleSphere) obstacle);
+		}
+		
+		return unmarshalledObstacle;
+	}
+	
+	/**
+	 * Unmarshals a single obstacle box, cylinder or sphere if accepted by an
+	 * obstacle filter.
+	 * 
+	 * @param obstacle the obstacle to be unmarshalled
+	 * @param filter the obstacle filter, null if all obstacles are accepted
+	 * 
+	 * @return the unmarshalled obstacle, null if the obstacle is not supported
+	 *         or rejected by the obstacle filter
+	 * 
+	 * @throws Exception if the obstacle cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.render.Obstacle unmarshalObstacle(Object obstacle, ObstacleFilter filter)
+			throws Exception {
+		return ((null == filter) || filter.accepts(obstacle)) ? this.unmarshalObstacle(obstacle) : null;
+	}
+	
 	/**
 	 * Marshals obstacles.
 	 * 
@@ -90,20 +218,162 @@ public class ObstaclesAdapter extends XmlAdapter<Obstacles, Set<com.cfar.swim.wo
 	public Obstacles marshal(Set<com.cfar.swim.worldwind.render.Obstacle> obstacles) throws Exception {
 		Obstacles marshalledObstacles = new Obstacles();
 		
+		if (this.isParallel(obstacles.size())) {
+			// marshal into indexed slots to retain the iteration order
+			Object[] unmarshalledObstacles = obstacles.toArray();
+			Object[] marshalledSlots = new Object[unmarshalledObstacles.length];
+			this.adapt(unmarshalledObstacles.length, index -> {
+				marshalledSlots[index] = this.marshalObstacle(
+						(com.cfar.swim.worldwind.render.Obstacle) unmarshalledObstacles[index]);
+			});
+			for (Object marshalledObstacle : marshalledSlots) {
+				if (null != marshalledObstacle) {
+					marshalledObstacles.getBoxOrCylinderOrSphere().add(marshalledObstacle);
+				}
+			}
+			return marshalledObstacles;
+		}
+		
 		for (com.cfar.swim.worldwind.render.Obstacle obstacle : obstacles) {
-			if (obstacle instanceof com.cfar.swim.worldwind.render.airspaces.ObstacleBox) {
-				marshalledObstacles.getBoxOrCylinderOrSphere().add(
-						new ObstacleBoxAdapter().marshal((com.cfar.swim.worldwind.render.airspaces.ObstacleBox) obstacle));
-			} else if (obstacle instanceof com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder) {
-				marshalledObstacles.getBoxOrCylinderOrSphere().add(
-						new ObstacleCylinderAdapter().marshal((com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder) obstacle));
-			} else if (obstacle instanceof com.cfar.swim.worldwind.render.airspaces.ObstacleSphere) {
-				marshalledObstacles.getBoxOrCylinderOrSphere().add(
-						new ObstacleSphereAdapter().marshal((com.cfar.swim.worldwind.render.airspaces.ObstacleSphere) obstacle));
+			Object marshalledObstacle = this.marshalObstacle(obstacle);
+			if (null != marshalledObstacle) {
+				marshalledObstacles.getBoxOrCylinderOrSphere().add(marshalledObstacle);
 			}
 		}
 		
 		return marshalledObstacles;
 	}
 	
+	/**
+	 * Marshals a single obstacle box, cylinder or sphere.
+	 * 
+	 * @param obstacle the obstacle to be marshalled
+	 * 
+	 * @return the marshalled obstacle, null if the obstacle is not supported
+	 * 
+	 * @throws Exception if the obstacle cannot be marshalled
+	 */
+	public Object marshalObstacle(com.cfar.swim.worldwind.render.Obstacle obstacle) throws Exception {
+		Object marshalledObstacle = null;
+		
+		if (obstacle instanceof com.cfar.swim.worldwind.render.airspaces.ObstacleBox) {
+			marshalledObstacle = AdapterRegistry.getObstacleBoxAdapter().marshal(
+					(com.cfar.swim.worldwind.render.airspaces.ObstacleBox) obstacle);
+		} else if (obstacle instanceof com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder) {
+			marshalledObstacle = AdapterRegistry.getObstacleCylinderAdapter().marshal(
+					(com.cfar.swim.worldwind.render.airspaces.ObstacleCylinder) obstacle);
+		} else if (obstacle instanceof com.cfar.swim.worldwind.render.airspaces.ObstacleSphere) {
+			marshalledObstacle = AdapterRegistry.getObstacleSphereAdapter().marshal(
+					(com.cfar.swim.worldwind.render.airspaces.ObstacleSphere) obstacle);
+		}
+		
+		return marshalledObstacle;
+	}
+	
+	/**
+	 * Adapts a number of indexed obstacles in parallel using the fork-join
+	 * pool of this obstacles adapter.
+	 * 
+	 * @param size the number of obstacles
+	 * @param adaptation the adaptation of an indexed obstacle
+	 * 
+	 * @throws Exception if any obstacle cannot be adapted
+	 */
+	private void adapt(int size, IndexedAdaptation adaptation) throws Exception {
+		int chunk = Math.max(this.threshold / 4, size / (4 * this.pool.getParallelism()));
+		AdaptationTask task = new AdaptationTask(adaptation, 0, size, Math.max(1, chunk));
+		this.pool.invoke(task);
+		if (null != task.failure) {
+			throw task.failure;
+		}
+	}
+	
+	/**
+	 * Adapts an indexed obstacle.
+	 * 
+	 * @author Stephan Heinemann
+	 *
+	 */
+	@FunctionalInterface
+	private interface IndexedAdaptation {
+		
+		/**
+		 * Adapts the obstacle at an index.
+		 * 
+		 * @param index the index of the obstacle
+		 * 
+		 * @throws Exception if the obstacle cannot be adapted
+		 */
+		void adapt(int index) throws Exception;
+		
+	}
+	
+	/**
+	 * Realizes a fork-join task adapting a range of indexed obstacles by
+	 * recursively splitting the range into chunks.
+	 * 
+	 * @author Stephan Heinemann
+	 *
+	 */
+	private static final class AdaptationTask extends RecursiveAction {
+		
+		/** the default serial identification of this adaptation task */
+		private static final long serialVersionUID = 1L;
+		
+		/** the adaptation of an indexed obstacle of this adaptation task */
+		private final transient IndexedAdaptation adaptation;
+		
+		/** the first index (inclusive) of this adaptation task */
+		private final int from;
+		
+		/** the last index (exclusive) of this adaptation task */
+		private final int to;
+		
+		/** the maximum number of obstacles adapted without splitting */
+		private final int chunk;
+		
+		/** the first failure of this adaptation task, if any */
+		private volatile Exception failure = null;
+		
+		/**
+		 * Constructs a new adaptation task for a range of indexed obstacles.
+		 * 
+		 * @param adaptation the adaptation of an indexed obstacle
+		 * @param from the first index (inclusive)
+		 * @param to the last index (exclusive)
+		 * @param chunk the maximum number of obstacles adapted without splitting
+		 */
+		private AdaptationTask(IndexedAdaptation adaptation, int from, int to, int chunk) {
+			this.adaptation = adaptation;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+		}
+		
+		/**
+		 * Adapts the range of indexed obstacles of this adaptation task.
+		 * 
+		 * @see RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if ((this.to - this.from) <= this.chunk) {
+				try {
+					for (int index = this.from; index < this.to; index++) {
+						this.adaptation.adapt(index);
+					}
+				} catch (Exception e) {
+					this.failure = e;
+				}
+			} else {
+				int middle = (this.from + this.to) >>> 1;
+				AdaptationTask lower = new AdaptationTask(this.adaptation, this.from, middle, this.chunk);
+				AdaptationTask upper = new AdaptationTask(this.adaptation, middle, this.to, this.chunk);
+				ForkJoinTask.invokeAll(lower, upper);
+				this.failure = (null != lower.failure) ? lower.failure : upper.failure;
+			}
+		}
+		
+	}
+	
 }
@@ -36,6 +36,8 @@ import javax.xml.bind.annotation.adapters.XmlAdapter;
 
 import com.cfar.swim.worldwind.aircraft.Aircraft;
 import com.cfar.swim.worldwind.environments.Environment;
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.ADRRT;
 import com.cfar.swim.worldwind.jaxb.scenario.ADStar;
 import com.cfar.swim.worldwind.jaxb.scenario.ARAStar;
@@ -89,6 +91,14 @@ import com.cfar.swim.worldwind.planners.rrt.rrtstar.RRTreeStarPlanner;
  */
 public class PlannerAdapter extends XmlAdapter<Planner, com.cfar.swim.worldwind.planners.Planner> {
 	
+	/** the unmarshalling stage metrics of planner adapters */
+	private static final StageMetrics UNMARSHAL_STAGE =
+			ScenarioMetrics.getStage("PlannerAdapter.unmarshal");
+	
+	/** the marshalling stage metrics of planner adapters */
+	private static final StageMetrics MARSHAL_STAGE =
+			ScenarioMetrics.getStage("PlannerAdapter.marshal");
+	
 	/** the unmarshalled aircraft of this planner adapter */
 	private final Aircraft aircraft;
 	
@@ -130,6 +140,24 @@ public class PlannerAdapter extends XmlAdapter<Planner, com.cfar.swim.worldwind.
 	 */
 	@Override
 	public com.cfar.swim.worldwind.planners.Planner unmarshal(Planner planner) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doUnmarshal(planner);
+		} finally {
+			PlannerAdapter.UNMARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Unmarshals a planner without recording its stage metrics.
+	 * 
+	 * @param planner the planner to be unmarshalled
+	 * 
+	 * @return the unmarshalled planner
+	 * 
+	 * @throws Exception if the planner cannot be unmarshalled
+	 */
+	private com.cfar.swim.worldwind.planners.Planner doUnmarshal(Planner planner) throws Exception {
 		com.cfar.swim.worldwind.planners.Planner unmarshalledPlanner = null;
 		
 		if (null != planner.getAstar()) {
@@ -206,6 +234,24 @@ public class PlannerAdapter extends XmlAdapter<Planner, com.cfar.swim.worldwind.
 	 */
 	@Override
 	public Planner marshal(com.cfar.swim.worldwind.planners.Planner planner) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doMarshal(planner);
+		} finally {
+			PlannerAdapter.MARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Marshals a planner without recording its stage metrics.
+	 * 
+	 * @param planner the planner to be marshalled
+	 * 
+	 * @return the marshalled planner
+	 * 
+	 * @throws Exception if the planner cannot be marshalled
+	 */
+	private Planner doMarshal(com.cfar.swim.worldwind.planners.Planner planner) throws Exception {
 		Planner marshalledPlanner = new Planner();
 		
 		marshalledPlanner.setCostPolicy(CostPolicy.fromValue(planner.getCostPolicy().name()));
@@ -351,12 +397,12 @@ public class PlannerAdapter extends XmlAdapter<Planner, com.cfar.swim.worldwind.
 	 */
 	private static Online extractOnline(OnlinePlanner planner) throws Exception {
 		Online online = new Online();
-		online.setMinDeliberation(new DurationAdapter().marshal(planner.getMinDeliberation()));
-		online.setMaxDeliberation(new DurationAdapter().marshal(planner.getMaxDeliberation()));
+		online.setMinDeliberation(AdapterRegistry.getDurationAdapter().marshal(planner.getMinDeliberation()));
+		online.setMaxDeliberation(AdapterRegistry.getDurationAdapter().marshal(planner.getMaxDeliberation()));
 		Errors errors = new Errors();
-		errors.setMaxTrackError(new TrackErrorAdapter().marshal(planner.getMaxTrackError()));
-		errors.setMaxTakeOffError(new TrackPointErrorAdapter().marshal(planner.getMaxTakeOffError()));
-		errors.setMaxLandingError(new TrackPointErrorAdapter().marshal(planner.getMaxLandingError()));
+		errors.setMaxTrackError(AdapterRegistry.getTrackErrorAdapter().marshal(planner.getMaxTrackError()));
+		errors.setMaxTakeOffError(AdapterRegistry.getTrackPointErrorAdapter().marshal(planner.getMaxTakeOffError()));
+		errors.setMaxLandingError(AdapterRegistry.getTrackPointErrorAdapter().marshal(planner.getMaxLandingError()));
 		online.setErrors(errors);
 		return online;
 	}
@@ -371,14 +417,14 @@ public class PlannerAdapter extends XmlAdapter<Planner, com.cfar.swim.worldwind.
 	 */
 	private static void injectOnline(Online online, OnlinePlanner planner) throws Exception {
 		if (null != online.getMinDeliberation()) {
-			planner.setMinDeliberation(new DurationAdapter().unmarshal(online.getMinDeliberation()));
+			planner.setMinDeliberation(AdapterRegistry.getDurationAdapter().unmarshal(online.getMinDeliberation()));
 		}
 		if (null != online.getMaxDeliberation()) {
-			planner.setMaxDeliberation(new DurationAdapter().unmarshal(online.getMaxDeliberation()));
+			planner.setMaxDeliberation(AdapterRegistry.getDurationAdapter().unmarshal(online.getMaxDeliberation()));
 		}
-		planner.setMaxTrackError(new TrackErrorAdapter().unmarshal(online.getErrors().getMaxTrackError()));
-		planner.setMaxTakeOffError(new TrackPointErrorAdapter().unmarshal(online.getErrors().getMaxTakeOffError()));
-		planner.setMaxLandingError(new TrackPointErrorAdapter().unmarshal(online.getErrors().getMaxLandingError()));
+		planner.setMaxTrackError(AdapterRegistry.getTrackErrorAdapter().unmarshal(online.getErrors().getMaxTrackError()));
+		planner.setMaxTakeOffError(AdapterRegistry.getTrackPointErrorAdapter().unmarshal(online.getErrors().getMaxTakeOffError()));
+		planner.setMaxLandingError(AdapterRegistry.getTrackPointErrorAdapter().unmarshal(online.getErrors().getMaxLandingError()));
 	}
 	
 	/**
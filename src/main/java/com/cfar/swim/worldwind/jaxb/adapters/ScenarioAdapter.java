@@ -29,20 +29,178 @@
  */
 package com.cfar.swim.worldwind.jaxb.adapters;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.ToLongFunction;
+
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
+import com.cfar.swim.worldwind.connections.SwimConnection;
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
 import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
 
 /**
- * Adapts a scenario.
+ * Adapts a scenario. The time and element count of each adapted scenario
+ * section is recorded by the scenario metrics if enabled.
+ * 
+ * A sequential scenario adapter adapts and applies the sections of a
+ * scenario one after another in document order, that is, the header, the
+ * obstacles, aircraft, waypoints, trajectory, planner, datalink and SWIM
+ * connection.
+ * 
+ * A parallel scenario adapter models the sections of a scenario as a small
+ * task graph. Only the environment depends on the globe, and the planner on
+ * the aircraft and environment, such that the obstacles, aircraft,
+ * waypoints, trajectory, datalink and SWIM connection are adapted
+ * concurrently while the header, including its planning grid, is being
+ * adapted on the calling thread. The adapted sections are applied to the
+ * adapted scenario on the calling thread only.
  * 
  * @author Stephan Heinemann
  *
+ * @see ScenarioMetrics
  */
 public class ScenarioAdapter extends XmlAdapter<Scenario, com.cfar.swim.worldwind.session.Scenario> {
 	
 	/**
-	 * Unmarshals a scenario.
+	 * Enumerates the adapted scenario sections and their stage metrics.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static enum Section {
+		
+		/** the header section of attributes, globe, sector and environment */
+		HEADER,
+		
+		/** the obstacles section */
+		OBSTACLES,
+		
+		/** the aircraft section */
+		AIRCRAFT,
+		
+		/** the waypoints section */
+		WAYPOINTS,
+		
+		/** the trajectory section */
+		TRAJECTORY,
+		
+		/** the planner section */
+		PLANNER,
+		
+		/** the datalink section */
+		DATALINK,
+		
+		/** the SWIM section */
+		SWIM;
+		
+		/** the unmarshalling stage metrics of this section */
+		private final StageMetrics unmarshalStage = ScenarioMetrics.getStage(
+				"ScenarioAdapter.unmarshal." + this.name().toLowerCase());
+		
+		/** the marshalling stage metrics of this section */
+		private final StageMetrics marshalStage = ScenarioMetrics.getStage(
+				"ScenarioAdapter.marshal." + this.name().toLowerCase());
+		
+	}
+	
+	/** the executor adapting independent sections concurrently, null if sequential */
+	private final Executor executor;
+	
+	/** the filter of the unmarshalled obstacles, null if all obstacles are unmarshalled */
+	private final ObstacleFilter obstacleFilter;
+	
+	/**
+	 * Constructs a new sequential scenario adapter.
+	 */
+	public ScenarioAdapter() {
+		this(false);
+	}
+	
+	/**
+	 * Constructs a new scenario adapter which adapts independent sections
+	 * concurrently using the common fork-join pool if enabled.
+	 * 
+	 * @param parallel the parallel adaptation flag
+	 */
+	public ScenarioAdapter(boolean parallel) {
+		this(parallel, null);
+	}
+	
+	/**
+	 * Constructs a new scenario adapter which adapts independent sections
+	 * concurrently using the common fork-join pool if enabled, and only
+	 * unmarshals the obstacles accepted by an obstacle filter.
+	 * 
+	 * @param parallel the parallel adaptation flag
+	 * @param obstacleFilter the obstacle filter, null if all obstacles are
+	 *        unmarshalled
+	 */
+	public ScenarioAdapter(boolean parallel, ObstacleFilter obstacleFilter) {
+		this(parallel ? ForkJoinPool.commonPool() : null, obstacleFilter);
+	}
+	
+	/**
+	 * Constructs a new scenario adapter which adapts independent sections
+	 * concurrently using an executor.
+	 * 
+	 * @param executor the executor, null for sequential adaptation
+	 */
+	public ScenarioAdapter(Executor executor) {
+		this(executor, null);
+	}
+	
+	/**
+	 * Constructs a new scenario adapter which adapts independent sections
+	 * concurrently using an executor, and only unmarshals the obstacles
+	 * accepted by an obstacle filter.
+	 * 
+	 * @param executor the executor, null for sequential adaptation
+	 * @param obstacleFilter the obstacle filter, null if all obstacles are
+	 *        unmarshalled
+	 */
+	public ScenarioAdapter(Executor executor, ObstacleFilter obstacleFilter) {
+		this.executor = executor;
+		this.obstacleFilter = obstacleFilter;
+	}
+	
+	/**
+	 * Indicates whether or not this scenario adapter adapts independent
+	 * sections concurrently.
+	 * 
+	 * @return true if independent sections are adapted concurrently, false
+	 *         otherwise
+	 */
+	public boolean isParallel() {
+		return null != this.executor;
+	}
+	
+	/**
+	 * Gets the filter of the obstacles unmarshalled by this scenario adapter.
+	 * 
+	 * @return the obstacle filter, null if all obstacles are unmarshalled
+	 */
+	public ObstacleFilter getObstacleFilter() {
+		return this.obstacleFilter;
+	}
+	
+	/**
+	 * Unmarshals a scenario. The sections are adapted in document order if
+	 * this scenario adapter is sequential. Otherwise, the obstacles and body
+	 * sections are adapted while the header is being unmarshalled.
 	 * 
 	 * @param scenario the scenario to be unmarshalled
 	 * 
@@ -54,45 +212,147 @@ public class ScenarioAdapter extends XmlAdapter<Scenario, com.cfar.swim.worldwin
 	 */
 	@Override
 	public com.cfar.swim.worldwind.session.Scenario unmarshal(Scenario scenario) throws Exception {
+		if (null == this.executor) {
+			com.cfar.swim.worldwind.session.Scenario unmarshalledScenario = this.unmarshalHeader(scenario);
+			
+			if (null != scenario.getObstacles()) {
+				long start = ScenarioMetrics.start();
+				unmarshalledScenario.submitAddObstacles(AdapterRegistry.getObstaclesAdapter().unmarshal(
+						scenario.getObstacles(), this.obstacleFilter));
+				Section.OBSTACLES.unmarshalStage.stop(start, scenario.getObstacles().getBoxOrCylinderOrSphere().size());
+			}
+			this.unmarshalBody(scenario, unmarshalledScenario);
+			
+			return unmarshalledScenario;
+		}
+		
+		CompletableFuture<Set<com.cfar.swim.worldwind.render.Obstacle>> obstacles = (null == scenario.getObstacles())
+				? null : this.adapt(Section.OBSTACLES.unmarshalStage,
+						() -> AdapterRegistry.getObstaclesAdapter().unmarshal(scenario.getObstacles(), this.obstacleFilter),
+						unmarshalledObstacles -> scenario.getObstacles().getBoxOrCylinderOrSphere().size());
+		Body body = new Body(scenario, null, null);
+		com.cfar.swim.worldwind.session.Scenario unmarshalledScenario = this.unmarshalHeader(scenario);
+		
+		body.unmarshalPlanner(scenario, unmarshalledScenario);
+		if (null != obstacles) {
+			unmarshalledScenario.submitAddObstacles(ScenarioAdapter.await(obstacles));
+		}
+		body.apply(unmarshalledScenario);
+		
+		return unmarshalledScenario;
+	}
+	
+	/**
+	 * Unmarshals the header of a scenario, that is, its attributes, globe,
+	 * sector and environment.
+	 * 
+	 * @param scenario the scenario to be unmarshalled
+	 * 
+	 * @return the unmarshalled scenario without obstacles and body sections
+	 * 
+	 * @throws Exception if the scenario header cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalHeader(Scenario scenario) throws Exception {
+		long start = ScenarioMetrics.start();
 		com.cfar.swim.worldwind.session.Scenario unmarshalledScenario =
 				new com.cfar.swim.worldwind.session.Scenario(scenario.getId());
 		
 		if (null != scenario.getTime()) {
-			unmarshalledScenario.setTime(new TimeAdapter().unmarshal(scenario.getTime()));
+			unmarshalledScenario.setTime(AdapterRegistry.getTimeAdapter().unmarshal(scenario.getTime()));
 		}
 		unmarshalledScenario.setThreshold(scenario.getThreshold());
-		unmarshalledScenario.setGlobe(new GlobeAdapter().unmarshal(scenario.getGlobe()));
+		unmarshalledScenario.setGlobe(AdapterRegistry.getGlobeAdapter().unmarshal(scenario.getGlobe()));
 		if (null != scenario.getEnvironment().getGrid()) {
-			unmarshalledScenario.setSector(new SectorAdapter().unmarshal(scenario.getEnvironment().getGrid()));
+			unmarshalledScenario.setSector(AdapterRegistry.getSectorAdapter().unmarshal(scenario.getEnvironment().getGrid()));
 		} else if (null != scenario.getEnvironment().getContinuum()) {
-			unmarshalledScenario.setSector(new SectorAdapter().unmarshal(scenario.getEnvironment().getContinuum()));
+			unmarshalledScenario.setSector(AdapterRegistry.getSectorAdapter().unmarshal(scenario.getEnvironment().getContinuum()));
 		}
 		unmarshalledScenario.setEnvironment(new EnvironmentAdapter(
 				unmarshalledScenario.getGlobe()).unmarshal(scenario.getEnvironment()));
-		if (null != scenario.getObstacles()) {
-			unmarshalledScenario.submitAddObstacles(new ObstaclesAdapter().unmarshal(scenario.getObstacles()));
-		}
-		if (null != scenario.getAircraft()) {
-			unmarshalledScenario.setAircraft(new AircraftAdapter().unmarshal(scenario.getAircraft()));
-		}
-		if (null != scenario.getWaypoints()) {
-			unmarshalledScenario.addWaypoints(new WaypointsAdapter().unmarshal(scenario.getWaypoints()));
-		}
-		if (null != scenario.getTrajectory()) {
-			unmarshalledScenario.setTrajectory(new TrajectoryAdapter().unmarshal(scenario.getTrajectory()));
-		}
-		
-		unmarshalledScenario.setPlanner(new PlannerAdapter(
-				unmarshalledScenario.getAircraft(),
-				unmarshalledScenario.getEnvironment()).unmarshal(scenario.getPlanner()));
-		unmarshalledScenario.setDatalink(new DatalinkAdapter().unmarshal(scenario.getDatalink()));
-		unmarshalledScenario.setSwimConnection(new SwimAdapter().unmarshal(scenario.getSwim()));
+		Section.HEADER.unmarshalStage.stop(start, 1);
 		
 		return unmarshalledScenario;
 	}
 	
 	/**
-	 * Marshals a scenario.
+	 * Unmarshals the body of a scenario, that is, its aircraft, waypoints,
+	 * trajectory, planner, datalink and SWIM connection, into an unmarshalled
+	 * scenario header.
+	 * 
+	 * @param scenario the scenario to be unmarshalled
+	 * @param unmarshalledScenario the unmarshalled scenario header
+	 * 
+	 * @throws Exception if the scenario body cannot be unmarshalled
+	 * 
+	 * @see #unmarshalHeader(Scenario)
+	 */
+	public void unmarshalBody(Scenario scenario,
+			com.cfar.swim.worldwind.session.Scenario unmarshalledScenario) throws Exception {
+		this.unmarshalBody(scenario, unmarshalledScenario, null, null);
+	}
+	
+	/**
+	 * Unmarshals the body of a scenario into an unmarshalled scenario header
+	 * using waypoints and a trajectory which have already been adapted
+	 * elsewhere, for example, by the workers of a pipelined unmarshaller.
+	 * The waypoints and trajectory sections of the scenario are only adapted
+	 * if no adapted waypoints and trajectory are provided, respectively. The
+	 * sections are adapted in document order if this scenario adapter is
+	 * sequential.
+	 * 
+	 * @param scenario the scenario to be unmarshalled
+	 * @param unmarshalledScenario the unmarshalled scenario header
+	 * @param waypoints the adapted waypoints, may be null
+	 * @param trajectory the adapted trajectory, may be null
+	 * 
+	 * @throws Exception if the scenario body cannot be unmarshalled
+	 * 
+	 * @see #unmarshalHeader(Scenario)
+	 */
+	public void unmarshalBody(Scenario scenario,
+			com.cfar.swim.worldwind.session.Scenario unmarshalledScenario,
+			List<com.cfar.swim.worldwind.planning.Waypoint> waypoints,
+			com.cfar.swim.worldwind.planning.Trajectory trajectory) throws Exception {
+		if (null == this.executor) {
+			long start = ScenarioMetrics.start();
+			if (null != scenario.getAircraft()) {
+				unmarshalledScenario.setAircraft(AdapterRegistry.getAircraftAdapter().unmarshal(scenario.getAircraft()));
+				start = ScenarioAdapter.stop(Section.AIRCRAFT.unmarshalStage, start, 1);
+			}
+			// adapted elements have been recorded by the stage adapting them
+			if (null != waypoints) {
+				unmarshalledScenario.addWaypoints(waypoints);
+				start = ScenarioAdapter.stop(Section.WAYPOINTS.unmarshalStage, start, 0);
+			} else if (null != scenario.getWaypoints()) {
+				unmarshalledScenario.addWaypoints(AdapterRegistry.getWaypointsAdapter().unmarshal(scenario.getWaypoints()));
+				start = ScenarioAdapter.stop(Section.WAYPOINTS.unmarshalStage, start, scenario.getWaypoints().getWaypoint().size());
+			}
+			if (null != trajectory) {
+				unmarshalledScenario.setTrajectory(trajectory);
+				start = ScenarioAdapter.stop(Section.TRAJECTORY.unmarshalStage, start, 0);
+			} else if (null != scenario.getTrajectory()) {
+				unmarshalledScenario.setTrajectory(AdapterRegistry.getTrajectoryAdapter().unmarshal(scenario.getTrajectory()));
+				start = ScenarioAdapter.stop(Section.TRAJECTORY.unmarshalStage, start, scenario.getTrajectory().getWaypoint().size());
+			}
+			
+			unmarshalledScenario.setPlanner(new PlannerAdapter(
+					unmarshalledScenario.getAircraft(),
+					unmarshalledScenario.getEnvironment()).unmarshal(scenario.getPlanner()));
+			start = ScenarioAdapter.stop(Section.PLANNER.unmarshalStage, start, 1);
+			unmarshalledScenario.setDatalink(AdapterRegistry.getDatalinkAdapter().unmarshal(scenario.getDatalink()));
+			start = ScenarioAdapter.stop(Section.DATALINK.unmarshalStage, start, 1);
+			unmarshalledScenario.setSwimConnection(AdapterRegistry.getSwimAdapter().unmarshal(scenario.getSwim()));
+			ScenarioAdapter.stop(Section.SWIM.unmarshalStage, start, 1);
+		} else {
+			Body body = new Body(scenario, waypoints, trajectory);
+			body.unmarshalPlanner(scenario, unmarshalledScenario);
+			body.apply(unmarshalledScenario);
+		}
+	}
+	
+	/**
+	 * Marshals a scenario. All sections but the header are adapted while the
+	 * header is being marshalled if this scenario adapter is parallel.
 	 * 
 	 * @param scenario the scenario to be marshalled
 	 * 
@@ -104,32 +364,249 @@ public class ScenarioAdapter extends XmlAdapter<Scenario, com.cfar.swim.worldwin
 	 */
 	@Override
 	public Scenario marshal(com.cfar.swim.worldwind.session.Scenario scenario) throws Exception {
-		Scenario marshalledScenario = new Scenario();
+		CompletableFuture<Obstacles> obstacles = !scenario.hasObstacles() ? null
+				: this.adapt(Section.OBSTACLES.marshalStage,
+						() -> AdapterRegistry.getObstaclesAdapter().marshal(scenario.getObstacles()),
+						marshalledObstacles -> marshalledObstacles.getBoxOrCylinderOrSphere().size());
+		CompletableFuture<Aircraft> aircraft = !scenario.hasAircraft() ? null
+				: this.adapt(Section.AIRCRAFT.marshalStage,
+						() -> AdapterRegistry.getAircraftAdapter().marshal(scenario.getAircraft()),
+						marshalledAircraft -> 1);
+		CompletableFuture<Waypoints> waypoints = !scenario.hasWaypoints() ? null
+				: this.adapt(Section.WAYPOINTS.marshalStage,
+						() -> AdapterRegistry.getWaypointsAdapter().marshal(scenario.getWaypoints()),
+						marshalledWaypoints -> marshalledWaypoints.getWaypoint().size());
+		CompletableFuture<Trajectory> trajectory = !scenario.hasTrajectory() ? null
+				: this.adapt(Section.TRAJECTORY.marshalStage,
+						() -> AdapterRegistry.getTrajectoryAdapter().marshal(scenario.getTrajectory()),
+						marshalledTrajectory -> marshalledTrajectory.getWaypoint().size());
+		CompletableFuture<Planner> planner = this.adapt(Section.PLANNER.marshalStage,
+				() -> new PlannerAdapter(scenario.getAircraft(), scenario.getEnvironment()).marshal(scenario.getPlanner()),
+				marshalledPlanner -> 1);
+		CompletableFuture<Datalink> datalink = this.adapt(Section.DATALINK.marshalStage,
+				() -> AdapterRegistry.getDatalinkAdapter().marshal(scenario.getDatalink()),
+				marshalledDatalink -> 1);
+		CompletableFuture<Swim> swim = this.adapt(Section.SWIM.marshalStage,
+				() -> AdapterRegistry.getSwimAdapter().marshal(scenario.getSwimConnection()),
+				marshalledSwim -> 1);
 		
+		Scenario marshalledScenario = new Scenario();
+		long start = ScenarioMetrics.start();
 		marshalledScenario.setId(scenario.getId());
-		marshalledScenario.setTime(new TimeAdapter().marshal(scenario.getTime()));
+		marshalledScenario.setTime(AdapterRegistry.getTimeAdapter().marshal(scenario.getTime()));
 		marshalledScenario.setThreshold(scenario.getThreshold());
-		marshalledScenario.setGlobe(new GlobeAdapter().marshal(scenario.getGlobe()));
+		marshalledScenario.setGlobe(AdapterRegistry.getGlobeAdapter().marshal(scenario.getGlobe()));
 		marshalledScenario.setEnvironment(new EnvironmentAdapter(scenario.getGlobe()).marshal(scenario.getEnvironment()));
+		Section.HEADER.marshalStage.stop(start, 1);
 		
-		if (scenario.hasObstacles()) {
-			marshalledScenario.setObstacles(new ObstaclesAdapter().marshal(scenario.getObstacles()));
+		if (null != obstacles) {
+			marshalledScenario.setObstacles(ScenarioAdapter.await(obstacles));
 		}
-		if (scenario.hasAircraft()) {
-			marshalledScenario.setAircraft(new AircraftAdapter().marshal(scenario.getAircraft()));
+		if (null != aircraft) {
+			marshalledScenario.setAircraft(ScenarioAdapter.await(aircraft));
 		}
-		if (scenario.hasWaypoints()) {
-			marshalledScenario.setWaypoints(new WaypointsAdapter().marshal(scenario.getWaypoints()));
+		if (null != waypoints) {
+			marshalledScenario.setWaypoints(ScenarioAdapter.await(waypoints));
 		}
-		if (scenario.hasTrajectory()) {
-			marshalledScenario.setTrajectory(new TrajectoryAdapter().marshal(scenario.getTrajectory()));
+		if (null != trajectory) {
+			marshalledScenario.setTrajectory(ScenarioAdapter.await(trajectory));
 		}
-		marshalledScenario.setPlanner(new PlannerAdapter(
-				scenario.getAircraft(), scenario.getEnvironment()).marshal(scenario.getPlanner()));
-		marshalledScenario.setDatalink(new DatalinkAdapter().marshal(scenario.getDatalink()));
-		marshalledScenario.setSwim(new SwimAdapter().marshal(scenario.getSwimConnection()));
+		marshalledScenario.setPlanner(ScenarioAdapter.await(planner));
+		marshalledScenario.setDatalink(ScenarioAdapter.await(datalink));
+		marshalledScenario.setSwim(ScenarioAdapter.await(swim));
 		
 		return marshalledScenario;
 	}
 	
+	/**
+	 * Records an adapted scenario section and starts the timing of the next
+	 * section.
+	 * 
+	 * @param stage the stage metrics of the adapted section
+	 * @param start the start time of the adapted section
+	 * @param elements the number of adapted elements
+	 * 
+	 * @return the start time of the next section
+	 */
+	private static long stop(StageMetrics stage, long start, long elements) {
+		stage.stop(start, elements);
+		return ScenarioMetrics.start();
+	}
+	
+	/**
+	 * Adapts a scenario section using the executor of this scenario adapter,
+	 * or immediately if this scenario adapter is sequential, and records the
+	 * adapted section.
+	 * 
+	 * @param <T> the type of the adapted section
+	 * 
+	 * @param stage the stage metrics of the section
+	 * @param adaptation the adaptation of the section
+	 * @param elements the number of adapted elements of the adapted section
+	 * 
+	 * @return the future of the adapted section
+	 */
+	private <T> CompletableFuture<T> adapt(StageMetrics stage, Callable<T> adaptation, ToLongFunction<T> elements) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		Runnable task = () -> {
+			long start = ScenarioMetrics.start();
+			try {
+				T section = adaptation.call();
+				stage.stop(start, elements.applyAsLong(section));
+				future.complete(section);
+			} catch (Throwable t) {
+				future.completeExceptionally(t);
+			}
+		};
+		
+		if (null == this.executor) {
+			task.run();
+		} else {
+			try {
+				this.executor.execute(task);
+			} catch (RejectedExecutionException e) {
+				task.run();
+			}
+		}
+		
+		return future;
+	}
+	
+	/**
+	 * Awaits an adapted scenario section.
+	 * 
+	 * @param <T> the type of the adapted section
+	 * 
+	 * @param future the future of the adapted section
+	 * 
+	 * @return the adapted section
+	 * 
+	 * @throws Exception if the section cannot be adapted
+	 */
+	private static <T> T await(CompletableFuture<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Realizes the body of a scenario being unmarshalled by a parallel
+	 * scenario adapter. Its sections are adapted as soon as the body is
+	 * constructed, except for the planner, which depends on the unmarshalled
+	 * aircraft and environment. The adapted sections are applied to the
+	 * unmarshalled scenario in document order on the calling thread only.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private final class Body {
+		
+		/** the adapted aircraft of this body, null if absent */
+		private final CompletableFuture<com.cfar.swim.worldwind.aircraft.Aircraft> aircraft;
+		
+		/** the adapted waypoints of this body, null if absent */
+		private final CompletableFuture<List<com.cfar.swim.worldwind.planning.Waypoint>> waypoints;
+		
+		/** the adapted trajectory of this body, null if absent */
+		private final CompletableFuture<com.cfar.swim.worldwind.planning.Trajectory> trajectory;
+		
+		/** the adapted datalink of this body */
+		private final CompletableFuture<com.cfar.swim.worldwind.connections.Datalink> datalink;
+		
+		/** the adapted SWIM connection of this body */
+		private final CompletableFuture<SwimConnection> swim;
+		
+		/** the adapted planner of this body */
+		private com.cfar.swim.worldwind.planners.Planner planner = null;
+		
+		/**
+		 * Constructs a new body adapting the sections of a scenario besides
+		 * already adapted waypoints and trajectory.
+		 * 
+		 * @param scenario the scenario to be unmarshalled
+		 * @param waypoints the adapted waypoints, may be null
+		 * @param trajectory the adapted trajectory, may be null
+		 */
+		private Body(Scenario scenario, List<com.cfar.swim.worldwind.planning.Waypoint> waypoints,
+				com.cfar.swim.worldwind.planning.Trajectory trajectory) {
+			this.aircraft = (null == scenario.getAircraft()) ? null
+					: ScenarioAdapter.this.adapt(Section.AIRCRAFT.unmarshalStage,
+							() -> AdapterRegistry.getAircraftAdapter().unmarshal(scenario.getAircraft()),
+							unmarshalledAircraft -> 1);
+			if (null != waypoints) {
+				this.waypoints = CompletableFuture.completedFuture(waypoints);
+			} else if (null != scenario.getWaypoints()) {
+				this.waypoints = ScenarioAdapter.this.adapt(Section.WAYPOINTS.unmarshalStage,
+						() -> AdapterRegistry.getWaypointsAdapter().unmarshal(scenario.getWaypoints()),
+						unmarshalledWaypoints -> unmarshalledWaypoints.size());
+			} else {
+				this.waypoints = null;
+			}
+			if (null != trajectory) {
+				this.trajectory = CompletableFuture.completedFuture(trajectory);
+			} else if (null != scenario.getTrajectory()) {
+				this.trajectory = ScenarioAdapter.this.adapt(Section.TRAJECTORY.unmarshalStage,
+						() -> AdapterRegistry.getTrajectoryAdapter().unmarshal(scenario.getTrajectory()),
+						unmarshalledTrajectory -> scenario.getTrajectory().getWaypoint().size());
+			} else {
+				this.trajectory = null;
+			}
+			this.datalink = ScenarioAdapter.this.adapt(Section.DATALINK.unmarshalStage,
+					() -> AdapterRegistry.getDatalinkAdapter().unmarshal(scenario.getDatalink()),
+					unmarshalledDatalink -> 1);
+			this.swim = ScenarioAdapter.this.adapt(Section.SWIM.unmarshalStage,
+					() -> AdapterRegistry.getSwimAdapter().unmarshal(scenario.getSwim()),
+					unmarshalledSwim -> 1);
+		}
+		
+		/**
+		 * Applies the aircraft of this body to an unmarshalled scenario and
+		 * unmarshals the planner of this body for the unmarshalled aircraft
+		 * and environment while the remaining sections are being adapted.
+		 * 
+		 * @param scenario the scenario to be unmarshalled
+		 * @param unmarshalledScenario the unmarshalled scenario header
+		 * 
+		 * @throws Exception if the aircraft or planner cannot be unmarshalled
+		 */
+		private void unmarshalPlanner(Scenario scenario,
+				com.cfar.swim.worldwind.session.Scenario unmarshalledScenario) throws Exception {
+			if (null != this.aircraft) {
+				unmarshalledScenario.setAircraft(ScenarioAdapter.await(this.aircraft));
+			}
+			long start = ScenarioMetrics.start();
+			this.planner = new PlannerAdapter(
+					unmarshalledScenario.getAircraft(),
+					unmarshalledScenario.getEnvironment()).unmarshal(scenario.getPlanner());
+			Section.PLANNER.unmarshalStage.stop(start, 1);
+		}
+		
+		/**
+		 * Applies the remaining sections of this body to an unmarshalled
+		 * scenario.
+		 * 
+		 * @param unmarshalledScenario the unmarshalled scenario
+		 * 
+		 * @throws Exception if a section cannot be unmarshalled
+		 */
+		private void apply(com.cfar.swim.worldwind.session.Scenario unmarshalledScenario) throws Exception {
+			if (null != this.waypoints) {
+				unmarshalledScenario.addWaypoints(ScenarioAdapter.await(this.waypoints));
+			}
+			if (null != this.trajectory) {
+				unmarshalledScenario.setTrajectory(ScenarioAdapter.await(this.trajectory));
+			}
+			unmarshalledScenario.setPlanner(this.planner);
+			unmarshalledScenario.setDatalink(ScenarioAdapter.await(this.datalink));
+			unmarshalledScenario.setSwimConnection(ScenarioAdapter.await(this.swim));
+		}
+		
+	}
+	
 }
@@ -56,8 +56,8 @@ public class SectorAdapter extends XmlAdapter<Sector, gov.nasa.worldwind.geom.Se
 	 */
 	@Override
 	public gov.nasa.worldwind.geom.Sector unmarshal(Sector sector) throws Exception {
-		LatLon southWest = new LocationAdapter().unmarshal(sector.getSouthWest());
-		LatLon northEast = new LocationAdapter().unmarshal(sector.getNorthEast());
+		LatLon southWest = AdapterRegistry.getLocationAdapter().unmarshal(sector.getSouthWest());
+		LatLon northEast = AdapterRegistry.getLocationAdapter().unmarshal(sector.getNorthEast());
 		
 		return new gov.nasa.worldwind.geom.Sector(
 						southWest.getLatitude(),
@@ -83,8 +83,8 @@ public class SectorAdapter extends XmlAdapter<Sector, gov.nasa.worldwind.geom.Se
 		
 		LatLon southWest = new LatLon(sector.getMinLatitude(), sector.getMinLongitude());
 		LatLon northEast = new LatLon(sector.getMaxLatitude(), sector.getMaxLongitude());
-		marshalledSector.setSouthWest(new LocationAdapter().marshal(southWest));
-		marshalledSector.setNorthEast(new LocationAdapter().marshal(northEast));
+		marshalledSector.setSouthWest(AdapterRegistry.getLocationAdapter().marshal(southWest));
+		marshalledSector.setNorthEast(AdapterRegistry.getLocationAdapter().marshal(northEast));
 		
 		return marshalledSector;
 	}
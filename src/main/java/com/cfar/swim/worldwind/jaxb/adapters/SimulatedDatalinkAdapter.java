@@ -62,10 +62,10 @@ public class SimulatedDatalinkAdapter extends XmlAdapter<SimulatedDatalink, com.
 			unmarshalledDatalink.setErrorProbablity(datalink.getErrorProbability());
 		}
 		if (null != datalink.getErrors()) {
-			unmarshalledDatalink.setMaxTrackError(new TrackErrorAdapter().unmarshal(datalink.getErrors().getMaxTrackError()));
+			unmarshalledDatalink.setMaxTrackError(AdapterRegistry.getTrackErrorAdapter().unmarshal(datalink.getErrors().getMaxTrackError()));
 			// TODO: support track point errors
 		}
-		unmarshalledDatalink.setUplinkDelay(new DurationAdapter().unmarshal(datalink.getUplinkDelay()));
+		unmarshalledDatalink.setUplinkDelay(AdapterRegistry.getDurationAdapter().unmarshal(datalink.getUplinkDelay()));
 		
 		return unmarshalledDatalink;
 	}
@@ -87,12 +87,12 @@ public class SimulatedDatalinkAdapter extends XmlAdapter<SimulatedDatalink, com.
 		
 		marshalledDatalink.setErrorProbability(datalink.getErrorProbablilty());
 		Errors errors = new Errors();
-		errors.setMaxTrackError(new TrackErrorAdapter().marshal(datalink.getMaxTrackError()));
+		errors.setMaxTrackError(AdapterRegistry.getTrackErrorAdapter().marshal(datalink.getMaxTrackError()));
 		// TODO: support track point errors
-		errors.setMaxTakeOffError(new TrackPointErrorAdapter().marshal(com.cfar.swim.worldwind.tracks.AircraftTrackPointError.ZERO));
-		errors.setMaxLandingError(new TrackPointErrorAdapter().marshal(com.cfar.swim.worldwind.tracks.AircraftTrackPointError.ZERO));
+		errors.setMaxTakeOffError(AdapterRegistry.getTrackPointErrorAdapter().marshal(com.cfar.swim.worldwind.tracks.AircraftTrackPointError.ZERO));
+		errors.setMaxLandingError(AdapterRegistry.getTrackPointErrorAdapter().marshal(com.cfar.swim.worldwind.tracks.AircraftTrackPointError.ZERO));
 		marshalledDatalink.setErrors(errors);
-		marshalledDatalink.setUplinkDelay(new DurationAdapter().marshal(datalink.getUplinkDelay()));
+		marshalledDatalink.setUplinkDelay(AdapterRegistry.getDurationAdapter().marshal(datalink.getUplinkDelay()));
 		
 		return marshalledDatalink;
 	}
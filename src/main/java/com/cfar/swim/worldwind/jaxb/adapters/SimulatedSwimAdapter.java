@@ -59,7 +59,7 @@ public class SimulatedSwimAdapter extends XmlAdapter<SimulatedSwim, SimulatedSwi
 	public SimulatedSwimConnection unmarshal(SimulatedSwim swim) throws Exception {
 		SimulatedSwimConnection unmarshalledSwim = new SimulatedSwimConnection(
 				swim.getResourceDirectory(),
-				new DurationAdapter().unmarshal(swim.getUpdatePeriod()),
+				AdapterRegistry.getDurationAdapter().unmarshal(swim.getUpdatePeriod()),
 				swim.getUpdateProbability(),
 				swim.getUpdateQuantity().intValue());
 		return unmarshalledSwim;
@@ -81,7 +81,7 @@ public class SimulatedSwimAdapter extends XmlAdapter<SimulatedSwim, SimulatedSwi
 		SimulatedSwim marshalledSwim = new SimulatedSwim();
 		
 		marshalledSwim.setResourceDirectory(swim.getResourceDirectory());	
-		marshalledSwim.setUpdatePeriod(new DurationAdapter().marshal(swim.getUpdatePeriod()));
+		marshalledSwim.setUpdatePeriod(AdapterRegistry.getDurationAdapter().marshal(swim.getUpdatePeriod()));
 		marshalledSwim.setUpdateProbability(swim.getUpdateProbability());
 		marshalledSwim.setUpdateQuantity(BigInteger.valueOf(swim.getUpdateQuantity()));
 		
@@ -57,13 +57,13 @@ public class SphereAdapter extends XmlAdapter<Sphere, SphereAirspace> {
 	@Override
 	public SphereAirspace unmarshal(Sphere sphere) throws Exception {
 		SphereAirspace unmarshalledSphere = new SphereAirspace(
-				new PositionAdapter().unmarshal(sphere.getCenter()),
+				AdapterRegistry.getPositionAdapter().unmarshal(sphere.getCenter()),
 				sphere.getRadius());
 		unmarshalledSphere.setAltitudes(
 				sphere.getCenter().getAltitude(),
 				sphere.getCenter().getAltitude() + sphere.getRadius());
 		
-		String centerDatum = new DatumAdapter().unmarshal(sphere.getCenterDatum());
+		String centerDatum = AdapterRegistry.getDatumAdapter().unmarshal(sphere.getCenterDatum());
 		unmarshalledSphere.setAltitudeDatum(centerDatum, centerDatum);
 		
 		return unmarshalledSphere;
@@ -86,8 +86,8 @@ public class SphereAdapter extends XmlAdapter<Sphere, SphereAirspace> {
 		
 		marshalledSphere.setRadius(sphere.getRadius());
 		marshalledSphere.setCenter(
-				new PositionAdapter().marshal(sphere.getReferencePosition()));
-		marshalledSphere.setCenterDatum(new DatumAdapter().marshal(sphere.getAltitudeDatum()[0]));
+				AdapterRegistry.getPositionAdapter().marshal(sphere.getReferencePosition()));
+		marshalledSphere.setCenterDatum(AdapterRegistry.getDatumAdapter().marshal(sphere.getAltitudeDatum()[0]));
 		
 		return marshalledSphere;
 	}
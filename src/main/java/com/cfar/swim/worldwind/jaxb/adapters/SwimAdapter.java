@@ -63,9 +63,9 @@ public class SwimAdapter extends XmlAdapter<Swim, SwimConnection> {
 		SwimConnection unmarshalledSwim = null;
 		
 		if (null != swim.getSimulated()) {
-			unmarshalledSwim = new SimulatedSwimAdapter().unmarshal(swim.getSimulated());
+			unmarshalledSwim = AdapterRegistry.getSimulatedSwimAdapter().unmarshal(swim.getSimulated());
 		} else if (null != swim.getLive()) {
-			unmarshalledSwim = new LiveSwimAdapter().unmarshal(swim.getLive());
+			unmarshalledSwim = AdapterRegistry.getLiveSwimAdapter().unmarshal(swim.getLive());
 		} else {
 			throw new UnsupportedDataTypeException("unsupported SWIM connection");
 		}
@@ -115,9 +115,9 @@ public class SwimAdapter extends XmlAdapter<Swim, SwimConnection> {
 		}
 		
 		if (swim instanceof SimulatedSwimConnection) {
-			marshalledSwim.setSimulated(new SimulatedSwimAdapter().marshal((SimulatedSwimConnection) swim));
+			marshalledSwim.setSimulated(AdapterRegistry.getSimulatedSwimAdapter().marshal((SimulatedSwimConnection) swim));
 		} else if (swim instanceof LiveSwimConnection) {
-			marshalledSwim.setLive(new LiveSwimAdapter().marshal((LiveSwimConnection) swim));
+			marshalledSwim.setLive(AdapterRegistry.getLiveSwimAdapter().marshal((LiveSwimConnection) swim));
 		} else {
 			throw new UnsupportedDataTypeException("unsupported SWIM connection");
 		}
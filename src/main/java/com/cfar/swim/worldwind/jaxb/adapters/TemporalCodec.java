@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.adapters;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.GregorianCalendar;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Realizes a codec converting directly between java.time values and their
+ * XML schema representations. Common values are converted field by field
+ * without intermediate calendars or lexical re-parsing, whereas uncommon
+ * values, such as times before the common era or with zone offsets that are
+ * not whole minutes, fall back to the calendar conversions using a cached
+ * datatype factory of the current thread.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+public final class TemporalCodec {
+	
+	/** the number of seconds per minute */
+	private static final long SECONDS_PER_MINUTE = 60L;
+	
+	/** the number of seconds per hour */
+	private static final long SECONDS_PER_HOUR = 3600L;
+	
+	/** the number of seconds per day */
+	private static final long SECONDS_PER_DAY = 86400L;
+	
+	/** the zone prefix of calendar time zones */
+	private static final String ZONE_PREFIX = "GMT";
+	
+	/** the cached datatype factory of each thread */
+	private static final ThreadLocal<DatatypeFactory> datatypeFactory = ThreadLocal.withInitial(() -> {
+		try {
+			return DatatypeFactory.newInstance();
+		} catch (DatatypeConfigurationException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+	
+	/**
+	 * Prevents the construction of a temporal codec.
+	 */
+	private TemporalCodec() {
+	}
+	
+	/**
+	 * Gets the cached datatype factory of the current thread.
+	 * 
+	 * @return the cached datatype factory of the current thread
+	 * 
+	 * @throws IllegalStateException if no datatype factory is available
+	 */
+	public static DatatypeFactory getDatatypeFactory() {
+		return TemporalCodec.datatypeFactory.get();
+	}
+	
+	/**
+	 * Encodes a zoned date time as an XML calendar with millisecond
+	 * precision and a time zone offset.
+	 * 
+	 * @param time the zoned date time to be encoded
+	 * 
+	 * @return the encoded XML calendar
+	 */
+	public static XMLGregorianCalendar encodeTime(ZonedDateTime time) {
+		XMLGregorianCalendar calendar = null;
+		
+		if (TemporalCodec.isEncodable(time)) {
+			calendar = TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar(
+					time.getYear(), time.getMonthValue(), time.getDayOfMonth(),
+					time.getHour(), time.getMinute(), time.getSecond(),
+					time.getNano() / 1000000,
+					time.getOffset().getTotalSeconds() / (int) TemporalCodec.SECONDS_PER_MINUTE);
+		} else {
+			// eras and sub-minute zone offsets are only resolved by the calendar conversion
+			calendar = TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar(GregorianCalendar.from(time));
+		}
+		
+		return calendar;
+	}
+	
+	/**
+	 * Decodes an XML calendar as a zoned date time. Calendars lacking any
+	 * date or time field are decoded via the calendar conversion.
+	 * 
+	 * @param calendar the XML calendar to be decoded
+	 * 
+	 * @return the decoded zoned date time
+	 */
+	public static ZonedDateTime decodeTime(XMLGregorianCalendar calendar) {
+		ZonedDateTime time = null;
+		
+		if ((0 < calendar.getYear())
+				&& (DatatypeConstants.FIELD_UNDEFINED != calendar.getMonth())
+				&& (DatatypeConstants.FIELD_UNDEFINED != calendar.getDay())
+				&& (DatatypeConstants.FIELD_UNDEFINED != calendar.getHour())
+				&& (DatatypeConstants.FIELD_UNDEFINED != calendar.getMinute())
+				&& (DatatypeConstants.FIELD_UNDEFINED != calendar.getSecond())
+				&& (DatatypeConstants.FIELD_UNDEFINED != calendar.getTimezone())
+				&& (24 > calendar.getHour())) {
+			int millisecond = (null == calendar.getFractionalSecond()) ? 0 : calendar.getMillisecond();
+			// calendar time zones are identified by their GMT offset
+			ZoneId zone = ZoneId.ofOffset(TemporalCodec.ZONE_PREFIX,
+					ZoneOffset.ofTotalSeconds(calendar.getTimezone() * (int) TemporalCodec.SECONDS_PER_MINUTE));
+			time = ZonedDateTime.of(
+					calendar.getYear(), calendar.getMonth(), calendar.getDay(),
+					calendar.getHour(), calendar.getMinute(), calendar.getSecond(),
+					millisecond * 1000000, zone);
+		} else {
+			time = calendar.toGregorianCalendar().toZonedDateTime();
+		}
+		
+		return time;
+	}
+	
+	/**
+	 * Prints a zoned date time in the lexical form of an XML date time.
+	 * 
+	 * @param time the zoned date time to be printed
+	 * 
+	 * @return the lexical form of the zoned date time
+	 */
+	public static String printTime(ZonedDateTime time) {
+		String lexical = null;
+		
+		if (TemporalCodec.isEncodable(time) && (9999 >= time.getYear())) {
+			StringBuilder builder = new StringBuilder(29);
+			TemporalCodec.appendPadded(builder, time.getYear(), 4).append('-');
+			TemporalCodec.appendPadded(builder, time.getMonthValue(), 2).append('-');
+			TemporalCodec.appendPadded(builder, time.getDayOfMonth(), 2).append('T');
+			TemporalCodec.appendPadded(builder, time.getHour(), 2).append(':');
+			TemporalCodec.appendPadded(builder, time.getMinute(), 2).append(':');
+			TemporalCodec.appendPadded(builder, time.getSecond(), 2).append('.');
+			TemporalCodec.appendPadded(builder, time.getNano() / 1000000, 3);
+			int offset = time.getOffset().getTotalSeconds() / (int) TemporalCodec.SECONDS_PER_MINUTE;
+			if (0 == offset) {
+				builder.append('Z');
+			} else {
+				builder.append((0 > offset) ? '-' : '+');
+				TemporalCodec.appendPadded(builder, Math.abs(offset) / 60, 2).append(':');
+				TemporalCodec.appendPadded(builder, Math.abs(offset) % 60, 2);
+			}
+			lexical = builder.toString();
+		} else {
+			lexical = TemporalCodec.encodeTime(time).toXMLFormat();
+		}
+		
+		return lexical;
+	}
+	
+	/**
+	 * Parses a zoned date time from the lexical form of an XML date time or
+	 * time.
+	 * 
+	 * @param lexical the lexical form of the zoned date time
+	 * 
+	 * @return the parsed zoned date time
+	 * 
+	 * @throws IllegalArgumentException if the lexical form is invalid
+	 */
+	public static ZonedDateTime parseTime(String lexical) {
+		return TemporalCodec.decodeTime(TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar(lexical));
+	}
+	
+	/**
+	 * Encodes a duration as an XML duration. Only non-zero hours, minutes
+	 * and seconds are set, which corresponds to the ISO-8601 representation
+	 * of the duration.
+	 * 
+	 * @param duration the duration to be encoded
+	 * 
+	 * @return the encoded XML duration
+	 */
+	public static Duration encodeDuration(java.time.Duration duration) {
+		java.time.Duration magnitude = duration.abs();
+		long seconds = magnitude.getSeconds();
+		long hours = seconds / TemporalCodec.SECONDS_PER_HOUR;
+		long minutes = (seconds % TemporalCodec.SECONDS_PER_HOUR) / TemporalCodec.SECONDS_PER_MINUTE;
+		BigDecimal remainder = BigDecimal.valueOf(seconds % TemporalCodec.SECONDS_PER_MINUTE)
+				.add(BigDecimal.valueOf(magnitude.getNano(), 9).stripTrailingZeros());
+		boolean zero = duration.isZero();
+		
+		return TemporalCodec.getDatatypeFactory().newDuration(!duration.isNegative(), null, null, null,
+				(0 == hours) ? null : BigInteger.valueOf(hours),
+				(0 == minutes) ? null : BigInteger.valueOf(minutes),
+				((0 == remainder.signum()) && !zero) ? null : remainder);
+	}
+	
+	/**
+	 * Decodes an XML duration as a duration. XML durations with year or
+	 * month fields have no fixed length and are rejected.
+	 * 
+	 * @param duration the XML duration to be decoded
+	 * 
+	 * @return the decoded duration
+	 * 
+	 * @throws java.time.format.DateTimeParseException if the XML duration
+	 *         has year or month fields
+	 * @throws ArithmeticException if the XML duration exceeds the duration
+	 *         range
+	 */
+	public static java.time.Duration decodeDuration(Duration duration) {
+		if (duration.isSet(DatatypeConstants.YEARS) || duration.isSet(DatatypeConstants.MONTHS)) {
+			return java.time.Duration.parse(duration.toString());
+		}
+		
+		long seconds = Math.multiplyExact(
+				TemporalCodec.getField(duration, DatatypeConstants.DAYS), TemporalCodec.SECONDS_PER_DAY);
+		seconds = Math.addExact(seconds, Math.multiplyExact(
+				TemporalCodec.getField(duration, DatatypeConstants.HOURS), TemporalCodec.SECONDS_PER_HOUR));
+		seconds = Math.addExact(seconds, Math.multiplyExact(
+				TemporalCodec.getField(duration, DatatypeConstants.MINUTES), TemporalCodec.SECONDS_PER_MINUTE));
+		java.time.Duration decoded = java.time.Duration.ofSeconds(seconds);
+		
+		Number fieldSeconds = duration.getField(DatatypeConstants.SECONDS);
+		if (null != fieldSeconds) {
+			BigDecimal exactSeconds = (fieldSeconds instanceof BigDecimal)
+					? (BigDecimal) fieldSeconds : new BigDecimal(fieldSeconds.toString());
+			BigDecimal wholeSeconds = exactSeconds.setScale(0, RoundingMode.DOWN);
+			decoded = decoded.plusSeconds(wholeSeconds.longValueExact()).plusNanos(
+					exactSeconds.subtract(wholeSeconds).movePointRight(9).longValue());
+		}
+		
+		return (0 > duration.getSign()) ? decoded.negated() : decoded;
+	}
+	
+	/**
+	 * Prints a duration in the lexical form of an XML duration.
+	 * 
+	 * @param duration the duration to be printed
+	 * 
+	 * @return the lexical form of the duration
+	 */
+	public static String printDuration(java.time.Duration duration) {
+		return TemporalCodec.encodeDuration(duration).toString();
+	}
+	
+	/**
+	 * Parses a duration from the lexical form of an XML duration.
+	 * 
+	 * @param lexical the lexical form of the duration
+	 * 
+	 * @return the parsed duration
+	 * 
+	 * @throws IllegalArgumentException if the lexical form is invalid
+	 */
+	public static java.time.Duration parseDuration(String lexical) {
+		return TemporalCodec.decodeDuration(TemporalCodec.getDatatypeFactory().newDuration(lexical));
+	}
+	
+	/**
+	 * Determines whether or not a zoned date time can be encoded field by
+	 * field. XML calendars have no era and their time zone offsets are whole
+	 * minutes, such that the local time fields of other zoned date times
+	 * would denote a different instant.
+	 * 
+	 * @param time the zoned date time
+	 * 
+	 * @return true if the zoned date time can be encoded field by field,
+	 *         false otherwise
+	 */
+	private static boolean isEncodable(ZonedDateTime time) {
+		return (0 < time.getYear())
+				&& (0 == (time.getOffset().getTotalSeconds() % TemporalCodec.SECONDS_PER_MINUTE));
+	}
+	
+	/**
+	 * Gets an integral field of an XML duration.
+	 * 
+	 * @param duration the XML duration
+	 * @param field the integral field
+	 * 
+	 * @return the value of the integral field, zero if not set
+	 * 
+	 * @throws ArithmeticException if the field value exceeds a long value
+	 */
+	private static long getField(Duration duration, DatatypeConstants.Field field) {
+		Number value = duration.getField(field);
+		return (null == value) ? 0L : ((value instanceof BigInteger)
+				? ((BigInteger) value).longValueExact() : value.longValue());
+	}
+	
+	/**
+	 * Appends a non-negative number padded with leading zeros.
+	 * 
+	 * @param builder the string builder to append to
+	 * @param number the non-negative number to be appended
+	 * @param digits the minimum number of digits
+	 * 
+	 * @return the string builder
+	 */
+	private static StringBuilder appendPadded(StringBuilder builder, int number, int digits) {
+		String value = Integer.toString(number);
+		for (int padding = digits - value.length(); padding > 0; padding--) {
+			builder.append('0');
+		}
+		return builder.append(value);
+	}
+	
+}
@@ -30,10 +30,8 @@
 package com.cfar.swim.worldwind.jaxb.adapters;
 
 import java.time.ZonedDateTime;
-import java.util.GregorianCalendar;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
-import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 
 /**
@@ -57,7 +55,7 @@ public class TimeAdapter extends XmlAdapter<XMLGregorianCalendar, ZonedDateTime>
 	 */
 	@Override
 	public ZonedDateTime unmarshal(XMLGregorianCalendar time) throws Exception {
-		return time.toGregorianCalendar().toZonedDateTime();
+		return TemporalCodec.decodeTime(time);
 	}
 	
 	/**
@@ -73,10 +71,7 @@ public class TimeAdapter extends XmlAdapter<XMLGregorianCalendar, ZonedDateTime>
 	 */
 	@Override
 	public XMLGregorianCalendar marshal(ZonedDateTime time) throws Exception {
-		GregorianCalendar gregorianCalendar = GregorianCalendar.from(time);
-		XMLGregorianCalendar xmlGregorianCalendar;
-		xmlGregorianCalendar = DatatypeFactory.newInstance().newXMLGregorianCalendar(gregorianCalendar);
-		return xmlGregorianCalendar;
+		return TemporalCodec.encodeTime(time);
 	}
 	
 }
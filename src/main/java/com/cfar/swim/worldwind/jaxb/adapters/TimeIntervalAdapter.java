@@ -57,8 +57,8 @@ public class TimeIntervalAdapter extends XmlAdapter<TimeInterval, com.cfar.swim.
 		com.cfar.swim.worldwind.planning.TimeInterval unmarshalledTimeInterval =
 				new com.cfar.swim.worldwind.planning.TimeInterval();
 		
-		unmarshalledTimeInterval.setLower(new TimeAdapter().unmarshal(timeInterval.getStart()));
-		unmarshalledTimeInterval.setUpper(new TimeAdapter().unmarshal(timeInterval.getEnd()));
+		unmarshalledTimeInterval.setLower(AdapterRegistry.getTimeAdapter().unmarshal(timeInterval.getStart()));
+		unmarshalledTimeInterval.setUpper(AdapterRegistry.getTimeAdapter().unmarshal(timeInterval.getEnd()));
 		
 		return unmarshalledTimeInterval;
 	}
@@ -78,8 +78,8 @@ public class TimeIntervalAdapter extends XmlAdapter<TimeInterval, com.cfar.swim.
 	public TimeInterval marshal(com.cfar.swim.worldwind.planning.TimeInterval timeInterval) throws Exception {
 		TimeInterval marshalledTimeInterval = new TimeInterval();
 		
-		marshalledTimeInterval.setStart(new TimeAdapter().marshal(timeInterval.getLower()));
-		marshalledTimeInterval.setEnd(new TimeAdapter().marshal(timeInterval.getUpper()));
+		marshalledTimeInterval.setStart(AdapterRegistry.getTimeAdapter().marshal(timeInterval.getLower()));
+		marshalledTimeInterval.setEnd(AdapterRegistry.getTimeAdapter().marshal(timeInterval.getUpper()));
 		
 		return marshalledTimeInterval;
 	}
@@ -63,7 +63,7 @@ public class TrackErrorAdapter extends XmlAdapter<TrackError, AircraftTrackError
 		unmarshalledTrackError.setAltitudeError(trackError.getAltitudeError());
 		unmarshalledTrackError.setOpeningBearingError(Angle.fromDegrees(trackError.getOpeningBearingError()));
 		unmarshalledTrackError.setClosingBearingError(Angle.fromDegrees(trackError.getClosingBearingError()));
-		unmarshalledTrackError.setTimingError(new DurationAdapter().unmarshal(trackError.getTimingError()));
+		unmarshalledTrackError.setTimingError(AdapterRegistry.getDurationAdapter().unmarshal(trackError.getTimingError()));
 		
 		return unmarshalledTrackError;
 	}
@@ -87,7 +87,7 @@ public class TrackErrorAdapter extends XmlAdapter<TrackError, AircraftTrackError
 		marshalledTrackError.setAltitudeError(trackError.getAltitudeError());
 		marshalledTrackError.setOpeningBearingError(trackError.getOpeningBearingError().getDegrees());
 		marshalledTrackError.setClosingBearingError(trackError.getClosingBearingError().getDegrees());
-		marshalledTrackError.setTimingError(new DurationAdapter().marshal(trackError.getTimingError()));
+		marshalledTrackError.setTimingError(AdapterRegistry.getDurationAdapter().marshal(trackError.getTimingError()));
 		
 		return marshalledTrackError;
 	}
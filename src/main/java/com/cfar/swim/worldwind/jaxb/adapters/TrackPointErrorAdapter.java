@@ -59,7 +59,7 @@ public class TrackPointErrorAdapter extends XmlAdapter<TrackPointError, Aircraft
 		
 		unmarshalledTrackPointError.setHorizontalError(trackPointError.getHorizontalError());
 		unmarshalledTrackPointError.setVerticalError(trackPointError.getVerticalError());
-		unmarshalledTrackPointError.setTimingError(new DurationAdapter().unmarshal(trackPointError.getTimingError()));
+		unmarshalledTrackPointError.setTimingError(AdapterRegistry.getDurationAdapter().unmarshal(trackPointError.getTimingError()));
 		
 		return unmarshalledTrackPointError;
 	}
@@ -81,7 +81,7 @@ public class TrackPointErrorAdapter extends XmlAdapter<TrackPointError, Aircraft
 		
 		marshalledTrackPointError.setHorizontalError(trackPointError.getHorizontalError());
 		marshalledTrackPointError.setVerticalError(trackPointError.getVerticalError());
-		marshalledTrackPointError.setTimingError(new DurationAdapter().marshal(trackPointError.getTimingError()));
+		marshalledTrackPointError.setTimingError(AdapterRegistry.getDurationAdapter().marshal(trackPointError.getTimingError()));
 		
 		return marshalledTrackPointError;
 	}
@@ -30,10 +30,12 @@
 package com.cfar.swim.worldwind.jaxb.adapters;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
 import com.cfar.swim.worldwind.javafx.TrajectoryStylist;
+import com.cfar.swim.worldwind.jaxb.scenario.Depiction;
 import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
 import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
 
@@ -61,13 +63,30 @@ public class TrajectoryAdapter extends XmlAdapter<Trajectory, com.cfar.swim.worl
 		ArrayList<com.cfar.swim.worldwind.planning.Waypoint> waypoints = new ArrayList<>();
 		
 		for (Waypoint waypoint : trajectory.getWaypoint()) {
-			waypoints.add(new WaypointAdapter().unmarshal(waypoint));
+			waypoints.add(AdapterRegistry.getWaypointAdapter().unmarshal(waypoint));
 		}
+		
+		return this.unmarshal(waypoints, trajectory.getDepiction());
+	}
+	
+	/**
+	 * Unmarshals a trajectory from already unmarshalled waypoints and a
+	 * trajectory depiction.
+	 * 
+	 * @param waypoints the unmarshalled waypoints of the trajectory
+	 * @param depiction the depiction of the trajectory, may be null
+	 * 
+	 * @return the unmarshalled trajectory
+	 * 
+	 * @throws Exception if the trajectory cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.planning.Trajectory unmarshal(
+			List<com.cfar.swim.worldwind.planning.Waypoint> waypoints, Depiction depiction) throws Exception {
 		com.cfar.swim.worldwind.planning.Trajectory unmarshalledTrajectory =
 				new com.cfar.swim.worldwind.planning.Trajectory(waypoints);
-		if (null != trajectory.getDepiction()) {
+		if (null != depiction) {
 			unmarshalledTrajectory.setDepiction(new DepictionAdapter(
-					unmarshalledTrajectory.getReferencePosition()).unmarshal(trajectory.getDepiction()));
+					unmarshalledTrajectory.getReferencePosition()).unmarshal(depiction));
 		}
 		TrajectoryStylist.styleTrajectory(unmarshalledTrajectory);
 		
@@ -90,7 +109,7 @@ public class TrajectoryAdapter extends XmlAdapter<Trajectory, com.cfar.swim.worl
 		Trajectory marshalledTrajectory = new Trajectory();
 		
 		for (com.cfar.swim.worldwind.planning.Waypoint waypoint : trajectory.getWaypoints()) {
-			marshalledTrajectory.getWaypoint().add(new WaypointAdapter().marshal(waypoint));
+			marshalledTrajectory.getWaypoint().add(AdapterRegistry.getWaypointAdapter().marshal(waypoint));
 		}
 		if (trajectory.hasDepiction()) {
 			marshalledTrajectory.setDepiction(new DepictionAdapter(
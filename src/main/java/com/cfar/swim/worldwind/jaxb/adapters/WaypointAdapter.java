@@ -31,6 +31,8 @@ package com.cfar.swim.worldwind.jaxb.adapters;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
 import com.cfar.swim.worldwind.jaxb.scenario.Position;
 import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
 
@@ -42,6 +44,14 @@ import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
  */
 public class WaypointAdapter extends XmlAdapter<Waypoint, com.cfar.swim.worldwind.planning.Waypoint> {
 	
+	/** the unmarshalling stage metrics of waypoint adapters */
+	private static final StageMetrics UNMARSHAL_STAGE =
+			ScenarioMetrics.getStage("WaypointAdapter.unmarshal");
+	
+	/** the marshalling stage metrics of waypoint adapters */
+	private static final StageMetrics MARSHAL_STAGE =
+			ScenarioMetrics.getStage("WaypointAdapter.marshal");
+	
 	/**
 	 * Unmarshals a waypoint.
 	 * 
@@ -55,7 +65,25 @@ public class WaypointAdapter extends XmlAdapter<Waypoint, com.cfar.swim.worldwin
 	 */
 	@Override
 	public com.cfar.swim.worldwind.planning.Waypoint unmarshal(Waypoint waypoint) throws Exception {
-		gov.nasa.worldwind.geom.Position position = new PositionAdapter().unmarshal(waypoint);
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doUnmarshal(waypoint);
+		} finally {
+			WaypointAdapter.UNMARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Unmarshals a waypoint without recording its stage metrics.
+	 * 
+	 * @param waypoint the waypoint to be unmarshalled
+	 * 
+	 * @return the unmarshalled waypoint
+	 * 
+	 * @throws Exception if the waypoint cannot be unmarshalled
+	 */
+	private com.cfar.swim.worldwind.planning.Waypoint doUnmarshal(Waypoint waypoint) throws Exception {
+		gov.nasa.worldwind.geom.Position position = AdapterRegistry.getPositionAdapter().unmarshal(waypoint);
 		com.cfar.swim.worldwind.planning.Waypoint unmarshalledWaypoint =
 				new com.cfar.swim.worldwind.planning.Waypoint(position);
 		unmarshalledWaypoint.setDesignator(waypoint.getDesignator());
@@ -66,13 +94,13 @@ public class WaypointAdapter extends XmlAdapter<Waypoint, com.cfar.swim.worldwin
 			unmarshalledWaypoint.setDtg(waypoint.getDtg());
 		}
 		if (null != waypoint.getTtg()) {
-			unmarshalledWaypoint.setTtg(new DurationAdapter().unmarshal(waypoint.getTtg()));
+			unmarshalledWaypoint.setTtg(AdapterRegistry.getDurationAdapter().unmarshal(waypoint.getTtg()));
 		}
 		if (null != waypoint.getEto()) {
-			unmarshalledWaypoint.setEto(new TimeAdapter().unmarshal(waypoint.getEto()));
+			unmarshalledWaypoint.setEto(AdapterRegistry.getTimeAdapter().unmarshal(waypoint.getEto()));
 		}
 		if (null != waypoint.getAto()) {
-			unmarshalledWaypoint.setAto(new TimeAdapter().unmarshal(waypoint.getAto()));
+			unmarshalledWaypoint.setAto(AdapterRegistry.getTimeAdapter().unmarshal(waypoint.getAto()));
 		}
 		
 		if (null != waypoint.getDepiction()) {
@@ -96,9 +124,27 @@ public class WaypointAdapter extends XmlAdapter<Waypoint, com.cfar.swim.worldwin
 	 */
 	@Override
 	public Waypoint marshal(com.cfar.swim.worldwind.planning.Waypoint waypoint) throws Exception {
+		long start = ScenarioMetrics.start();
+		try {
+			return this.doMarshal(waypoint);
+		} finally {
+			WaypointAdapter.MARSHAL_STAGE.stop(start);
+		}
+	}
+	
+	/**
+	 * Marshals a waypoint without recording its stage metrics.
+	 * 
+	 * @param waypoint the waypoint to be marshalled
+	 * 
+	 * @return the marshalled waypoint
+	 * 
+	 * @throws Exception if the waypoint cannot be marshalled
+	 */
+	private Waypoint doMarshal(com.cfar.swim.worldwind.planning.Waypoint waypoint) throws Exception {
 		Waypoint marshalledWaypoint = new Waypoint();
 		
-		Position position = new PositionAdapter().marshal(waypoint);
+		Position position = AdapterRegistry.getPositionAdapter().marshal(waypoint);
 		marshalledWaypoint.setLatitude(position.getLatitude());
 		marshalledWaypoint.setLongitude(position.getLongitude());
 		marshalledWaypoint.setAltitude(position.getAltitude());
@@ -107,13 +153,13 @@ public class WaypointAdapter extends XmlAdapter<Waypoint, com.cfar.swim.worldwin
 		marshalledWaypoint.setDtg(waypoint.getDtg());
 		
 		if (waypoint.hasTtg()) {
-			marshalledWaypoint.setTtg(new DurationAdapter().marshal(waypoint.getTtg()));
+			marshalledWaypoint.setTtg(AdapterRegistry.getDurationAdapter().marshal(waypoint.getTtg()));
 		}
 		if (waypoint.hasEto()) {
-			marshalledWaypoint.setEto(new TimeAdapter().marshal(waypoint.getEto()));
+			marshalledWaypoint.setEto(AdapterRegistry.getTimeAdapter().marshal(waypoint.getEto()));
 		}
 		if (waypoint.hasAto()) {
-			marshalledWaypoint.setAto(new TimeAdapter().marshal(waypoint.getAto()));
+			marshalledWaypoint.setAto(AdapterRegistry.getTimeAdapter().marshal(waypoint.getAto()));
 		}
 		if (waypoint.hasDepiction()) {
 			marshalledWaypoint.setDepiction(
@@ -61,7 +61,7 @@ public class WaypointsAdapter extends XmlAdapter<Waypoints, List<com.cfar.swim.w
 		List<com.cfar.swim.worldwind.planning.Waypoint> unmarshalledWaypoints = new ArrayList<>();
 		
 		for (Waypoint waypoint : waypoints.getWaypoint()) {
-			unmarshalledWaypoints.add(new WaypointAdapter().unmarshal(waypoint));
+			unmarshalledWaypoints.add(AdapterRegistry.getWaypointAdapter().unmarshal(waypoint));
 		}
 		
 		return unmarshalledWaypoints;
@@ -83,7 +83,7 @@ public class WaypointsAdapter extends XmlAdapter<Waypoints, List<com.cfar.swim.w
 		Waypoints marshalledWaypoints = new Waypoints();
 		
 		for (com.cfar.swim.worldwind.planning.Waypoint waypoint : waypoints) {
-			marshalledWaypoints.getWaypoint().add(new WaypointAdapter().marshal(waypoint));
+			marshalledWaypoints.getWaypoint().add(AdapterRegistry.getWaypointAdapter().marshal(waypoint));
 		}
 		
 		return marshalledWaypoints;
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.binary;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Realizes a binary input of the binary scenario format. A binary input
+ * either reads from a byte buffer holding the complete input or from a
+ * byte channel refilling an internal buffer on demand.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see BinaryOutput
+ */
+public final class BinaryInput {
+	
+	/** the default buffer capacity of channel binary inputs */
+	private static final int DEFAULT_CAPACITY = 65536;
+	
+	/** the buffer of this binary input */
+	private final ByteBuffer buffer;
+	
+	/** the channel of this binary input, null if the buffer is complete */
+	private final ReadableByteChannel channel;
+	
+	/** the number of bytes consumed before the current buffer content */
+	private long consumed = 0;
+	
+	/**
+	 * Constructs a new binary input reading from a complete byte buffer.
+	 * 
+	 * @param buffer the complete byte buffer
+	 */
+	public BinaryInput(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.channel = null;
+	}
+	
+	/**
+	 * Constructs a new binary input reading from an input stream. The input
+	 * stream is not closed.
+	 * 
+	 * @param input the input stream
+	 */
+	public BinaryInput(InputStream input) {
+		this(Channels.newChannel(input));
+	}
+	
+	/**
+	 * Constructs a new binary input reading from a byte channel. The byte
+	 * channel is not closed.
+	 * 
+	 * @param channel the byte channel
+	 */
+	public BinaryInput(ReadableByteChannel channel) {
+		this.buffer = ByteBuffer.allocate(BinaryInput.DEFAULT_CAPACITY);
+		this.buffer.flip();
+		this.channel = channel;
+	}
+	
+	/**
+	 * Gets the number of bytes read from this binary input.
+	 * 
+	 * @return the number of bytes read from this binary input
+	 */
+	public long position() {
+		return this.consumed + this.buffer.position();
+	}
+	
+	/**
+	 * Ensures a number of bytes to be available in the buffer of this binary
+	 * input.
+	 * 
+	 * @param length the number of bytes, at most the buffer capacity
+	 * 
+	 * @throws IOException if the bytes cannot be read
+	 */
+	private void ensure(int length) throws IOException {
+		if (this.buffer.remaining() < length) {
+			if (null == this.channel) {
+				throw new EOFException("unexpected end of binary scenario");
+			}
+			this.consumed += this.buffer.position();
+			this.buffer.compact();
+			while (this.buffer.position() < length) {
+				if (0 > this.channel.read(this.buffer)) {
+					this.buffer.flip();
+					throw new EOFException("unexpected end of binary scenario");
+				}
+			}
+			this.buffer.flip();
+		}
+	}
+	
+	/**
+	 * Reads a byte from this binary input.
+	 * 
+	 * @return the read byte
+	 * 
+	 * @throws IOException if the byte cannot be read
+	 */
+	public byte readByte() throws IOException {
+		this.ensure(1);
+		return this.buffer.get();
+	}
+	
+	/**
+	 * Reads bytes from this binary input.
+	 * 
+	 * @param value the array of the read bytes
+	 * @param offset the offset of the read bytes
+	 * @param length the number of bytes to be read
+	 * 
+	 * @throws IOException if the bytes cannot be read
+	 */
+	public void readBytes(byte[] value, int offset, int length) throws IOException {
+		while (0 < length) {
+			this.ensure(1);
+			int chunk = Math.min(length, this.buffer.remaining());
+			this.buffer.get(value, offset, chunk);
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+	
+	/**
+	 * Skips bytes of this binary input.
+	 * 
+	 * @param length the number of bytes to be skipped
+	 * 
+	 * @throws IOException if the bytes cannot be skipped
+	 */
+	public void skip(long length) throws IOException {
+		while (0 < length) {
+			this.ensure(1);
+			int chunk = (int) Math.min(length, this.buffer.remaining());
+			this.buffer.position(this.buffer.position() + chunk);
+			length -= chunk;
+		}
+	}
+	
+	/**
+	 * Reads a boolean from this binary input.
+	 * 
+	 * @return the read boolean
+	 * 
+	 * @throws IOException if the boolean cannot be read
+	 */
+	public boolean readBoolean() throws IOException {
+		return (0 != this.readByte());
+	}
+	
+	/**
+	 * Reads an unsigned varint from this binary input.
+	 * 
+	 * @return the read unsigned varint
+	 * 
+	 * @throws IOException if the varint cannot be read or is malformed
+	 */
+	public long readVarint() throws IOException {
+		long value = 0;
+		
+		for (int shift = 0; 64 > shift; shift += 7) {
+			byte next = this.readByte();
+			value |= (long) (next & 0x7F) << shift;
+			if (0 == (next & 0x80)) {
+				return value;
+			}
+		}
+		
+		throw new IOException("malformed varint");
+	}
+	
+	/**
+	 * Reads an unsigned varint within the integer range from this binary
+	 * input.
+	 * 
+	 * @return the read unsigned varint
+	 * 
+	 * @throws IOException if the varint cannot be read, is malformed or
+	 *         exceeds the integer range
+	 */
+	public int readCount() throws IOException {
+		long count = this.readVarint();
+		if ((0 > count) || (Integer.MAX_VALUE < count)) {
+			throw new IOException("invalid count " + count);
+		}
+		return (int) count;
+	}
+	
+	/**
+	 * Reads a signed zigzag varint from this binary input.
+	 * 
+	 * @return the read signed zigzag varint
+	 * 
+	 * @throws IOException if the varint cannot be read or is malformed
+	 */
+	public long readZigzag() throws IOException {
+		long value = this.readVarint();
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	/**
+	 * Reads a raw big-endian IEEE 754 double from this binary input.
+	 * 
+	 * @return the read double
+	 * 
+	 * @throws IOException if the double cannot be read
+	 */
+	public double readDouble() throws IOException {
+		this.ensure(8);
+		return this.buffer.getDouble();
+	}
+	
+	/**
+	 * Reads a raw big-endian IEEE 754 float from this binary input.
+	 * 
+	 * @return the read float
+	 * 
+	 * @throws IOException if the float cannot be read
+	 */
+	public float readFloat() throws IOException {
+		this.ensure(4);
+		return this.buffer.getFloat();
+	}
+	
+	/**
+	 * Reads a big-endian long from this binary input.
+	 * 
+	 * @return the read long
+	 * 
+	 * @throws IOException if the long cannot be read
+	 */
+	public long readLong() throws IOException {
+		this.ensure(8);
+		return this.buffer.getLong();
+	}
+	
+	/**
+	 * Reads a nullable string from this binary input.
+	 * 
+	 * @return the read string, null if absent
+	 * 
+	 * @throws IOException if the string cannot be read
+	 */
+	public String readString() throws IOException {
+		int length = this.readCount();
+		String value = null;
+		
+		if (0 < length) {
+			length--;
+			if (this.buffer.hasArray() && (length <= this.buffer.capacity())) {
+				this.ensure(length);
+				int offset = this.buffer.arrayOffset() + this.buffer.position();
+				value = new String(this.buffer.array(), offset, length, StandardCharsets.UTF_8);
+				this.buffer.position(this.buffer.position() + length);
+			} else {
+				byte[] utf8 = new byte[length];
+				this.readBytes(utf8, 0, length);
+				value = new String(utf8, StandardCharsets.UTF_8);
+			}
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Reads a nullable enumeration constant from this binary input.
+	 * 
+	 * @param <E> the enumeration type
+	 * 
+	 * @param values the constants of the enumeration type in ordinal order
+	 * 
+	 * @return the read enumeration constant, null if absent
+	 * 
+	 * @throws IOException if the enumeration constant cannot be read or is
+	 *         unknown
+	 */
+	public <E extends Enum<E>> E readEnum(E[] values) throws IOException {
+		int ordinal = this.readCount();
+		E value = null;
+		
+		if (0 < ordinal) {
+			if (values.length < ordinal) {
+				throw new IOException("invalid ordinal " + ordinal);
+			}
+			value = values[ordinal - 1];
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Reads a nullable big integer from this binary input.
+	 * 
+	 * @return the read big integer, null if absent
+	 * 
+	 * @throws IOException if the big integer cannot be read
+	 */
+	public BigInteger readBigInteger() throws IOException {
+		int length = this.readCount();
+		BigInteger value = null;
+		
+		if (1 == length) {
+			value = BigInteger.valueOf(this.readVarint());
+		} else if (1 < length) {
+			byte[] magnitude = new byte[length - 1];
+			this.readBytes(magnitude, 0, magnitude.length);
+			value = new BigInteger(magnitude);
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Reads the presence of a nullable value from this binary input.
+	 * 
+	 * @return true if the value is present and has to be read, false
+	 *         otherwise
+	 * 
+	 * @throws IOException if the presence cannot be read
+	 */
+	public boolean readPresence() throws IOException {
+		return this.readBoolean();
+	}
+	
+	/**
+	 * Reads a nullable boolean from this binary input.
+	 * 
+	 * @return the read boolean, null if absent
+	 * 
+	 * @throws IOException if the boolean cannot be read
+	 */
+	public Boolean readNullableBoolean() throws IOException {
+		byte value = this.readByte();
+		return (0 == value) ? null : Boolean.valueOf(2 == value);
+	}
+	
+	/**
+	 * Reads a nullable double from this binary input.
+	 * 
+	 * @return the read double, null if absent
+	 * 
+	 * @throws IOException if the double cannot be read
+	 */
+	public Double readNullableDouble() throws IOException {
+		return this.readPresence() ? this.readDouble() : null;
+	}
+	
+	/**
+	 * Reads a nullable float from this binary input.
+	 * 
+	 * @return the read float, null if absent
+	 * 
+	 * @throws IOException if the float cannot be read
+	 */
+	public Float readNullableFloat() throws IOException {
+		return this.readPresence() ? this.readFloat() : null;
+	}
+	
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Realizes a growable binary output buffer of the binary scenario format.
+ * Integers are encoded as unsigned or zigzag varints, floating point
+ * numbers as raw big-endian IEEE 754 values and strings as length-prefixed
+ * UTF-8. Absent values of nullable types are encoded in the length or
+ * ordinal prefix, such that all values are encoded losslessly.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+public final class BinaryOutput {
+	
+	/** the default initial capacity of binary outputs */
+	private static final int DEFAULT_CAPACITY = 8192;
+	
+	/** the bytes of this binary output */
+	private byte[] bytes;
+	
+	/** the number of bytes written to this binary output */
+	private int size = 0;
+	
+	/**
+	 * Constructs a new binary output with a default initial capacity.
+	 */
+	public BinaryOutput() {
+		this(BinaryOutput.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructs a new binary output with an initial capacity.
+	 * 
+	 * @param capacity the initial capacity of the binary output
+	 * 
+	 * @throws IllegalArgumentException if the capacity is not positive
+	 */
+	public BinaryOutput(int capacity) {
+		if (0 >= capacity) {
+			throw new IllegalArgumentException("invalid capacity");
+		}
+		this.bytes = new byte[capacity];
+	}
+	
+	/**
+	 * Gets the number of bytes written to this binary output.
+	 * 
+	 * @return the number of bytes written to this binary output
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Resets this binary output discarding all written bytes but retaining
+	 * its capacity.
+	 */
+	public void reset() {
+		this.size = 0;
+	}
+	
+	/**
+	 * Gets a copy of the bytes written to this binary output.
+	 * 
+	 * @return a copy of the bytes written to this binary output
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(this.bytes, this.size);
+	}
+	
+	/**
+	 * Writes the bytes written to this binary output to an output stream.
+	 * 
+	 * @param output the output stream
+	 * 
+	 * @throws IOException if the bytes cannot be written
+	 */
+	public void writeTo(OutputStream output) throws IOException {
+		output.write(this.bytes, 0, this.size);
+	}
+	
+	/**
+	 * Computes a 64-bit FNV-1a hash of the bytes written to this binary
+	 * output, for example, to fingerprint encoded scenario fragments.
+	 * 
+	 * @return the 64-bit FNV-1a hash of the bytes written to this binary
+	 *         output
+	 */
+	public long hash() {
+		long hash = 0xCBF29CE484222325L;
+		for (int index = 0; index < this.size; index++) {
+			hash ^= (this.bytes[index] & 0xFF);
+			hash *= 0x100000001B3L;
+		}
+		return hash;
+	}
+	
+	/**
+	 * Ensures the capacity of this binary output for a number of additional
+	 * bytes.
+	 * 
+	 * @param length the number of additional bytes
+	 */
+	private void ensure(int length) {
+		int required = this.size + length;
+		if (0 > required) {
+			throw new IllegalStateException("binary output overflow");
+		}
+		if (this.bytes.length < required) {
+			int capacity = Math.max(required, this.bytes.length << 1);
+			this.bytes = Arrays.copyOf(this.bytes, (0 > capacity) ? Integer.MAX_VALUE - 8 : capacity);
+		}
+	}
+	
+	/**
+	 * Writes a byte to this binary output.
+	 * 
+	 * @param value the byte to be written
+	 */
+	public void writeByte(int value) {
+		this.ensure(1);
+		this.bytes[this.size++] = (byte) value;
+	}
+	
+	/**
+	 * Writes bytes to this binary output.
+	 * 
+	 * @param value the bytes to be written
+	 * @param offset the offset of the bytes to be written
+	 * @param length the number of bytes to be written
+	 */
+	public void writeBytes(byte[] value, int offset, int length) {
+		this.ensure(length);
+		System.arraycopy(value, offset, this.bytes, this.size, length);
+		this.size += length;
+	}
+	
+	/**
+	 * Writes the bytes of another binary output to this binary output.
+	 * 
+	 * @param output the other binary output
+	 */
+	public void writeBytes(BinaryOutput output) {
+		this.writeBytes(output.bytes, 0, output.size);
+	}
+	
+	/**
+	 * Writes a boolean to this binary output.
+	 * 
+	 * @param value the boolean to be written
+	 */
+	public void writeBoolean(boolean value) {
+		this.writeByte(value ? 1 : 0);
+	}
+	
+	/**
+	 * Writes an unsigned varint to this binary output.
+	 * 
+	 * @param value the unsigned varint to be written
+	 */
+	public void writeVarint(long value) {
+		this.ensure(10);
+		while (0 != (value & ~0x7FL)) {
+			this.bytes[this.size++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		this.bytes[this.size++] = (byte) value;
+	}
+	
+	/**
+	 * Writes a signed zigzag varint to this binary output.
+	 * 
+	 * @param value the signed zigzag varint to be written
+	 */
+	public void writeZigzag(long value) {
+		this.writeVarint((value << 1) ^ (value >> 63));
+	}
+	
+	/**
+	 * Writes a raw big-endian IEEE 754 double to this binary output.
+	 * 
+	 * @param value the double to be written
+	 */
+	public void writeDouble(double value) {
+		this.writeLong(Double.doubleToRawLongBits(value));
+	}
+	
+	/**
+	 * Writes a raw big-endian IEEE 754 float to this binary output.
+	 * 
+	 * @param value the float to be written
+	 */
+	public void writeFloat(float value) {
+		int bits = Float.floatToRawIntBits(value);
+		this.ensure(4);
+		this.bytes[this.size++] = (byte) (bits >>> 24);
+		this.bytes[this.size++] = (byte) (bits >>> 16);
+		this.bytes[this.size++] = (byte) (bits >>> 8);
+		this.bytes[this.size++] = (byte) bits;
+	}
+	
+	/**
+	 * Writes a big-endian long to this binary output.
+	 * 
+	 * @param value the long to be written
+	 */
+	public void writeLong(long value) {
+		this.ensure(8);
+		for (int shift = 56; 0 <= shift; shift -= 8) {
+			this.bytes[this.size++] = (byte) (value >>> shift);
+		}
+	}
+	
+	/**
+	 * Writes a nullable string to this binary output.
+	 * 
+	 * @param value the string to be written, may be null
+	 */
+	public void writeString(String value) {
+		if (null == value) {
+			this.writeVarint(0);
+		} else {
+			byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+			this.writeVarint(utf8.length + 1L);
+			this.writeBytes(utf8, 0, utf8.length);
+		}
+	}
+	
+	/**
+	 * Writes a nullable enumeration constant to this binary output.
+	 * 
+	 * @param value the enumeration constant to be written, may be null
+	 */
+	public void writeEnum(Enum<?> value) {
+		this.writeVarint((null == value) ? 0 : value.ordinal() + 1L);
+	}
+	
+	/**
+	 * Writes a nullable big integer to this binary output.
+	 * 
+	 * @param value the big integer to be written, may be null
+	 */
+	public void writeBigInteger(BigInteger value) {
+		if (null == value) {
+			this.writeVarint(0);
+		} else if (0 < value.signum() && 63 > value.bitLength()) {
+			this.writeVarint(1);
+			this.writeVarint(value.longValue());
+		} else {
+			byte[] magnitude = value.toByteArray();
+			this.writeVarint(magnitude.length + 1L);
+			this.writeBytes(magnitude, 0, magnitude.length);
+		}
+	}
+	
+	/**
+	 * Writes the presence of a nullable value to this binary output.
+	 * 
+	 * @param value the nullable value
+	 * 
+	 * @return true if the value is present and has to be written, false
+	 *         otherwise
+	 */
+	public boolean writePresence(Object value) {
+		this.writeBoolean(null != value);
+		return (null != value);
+	}
+	
+	/**
+	 * Writes a nullable boolean to this binary output.
+	 * 
+	 * @param value the boolean to be written, may be null
+	 */
+	public void writeNullableBoolean(Boolean value) {
+		this.writeByte((null == value) ? 0 : (value ? 2 : 1));
+	}
+	
+	/**
+	 * Writes a nullable double to this binary output.
+	 * 
+	 * @param value the double to be written, may be null
+	 */
+	public void writeNullableDouble(Double value) {
+		if (this.writePresence(value)) {
+			this.writeDouble(value);
+		}
+	}
+	
+	/**
+	 * Writes a nullable float to this binary output.
+	 * 
+	 * @param value the float to be written, may be null
+	 */
+	public void writeNullableFloat(Float value) {
+		if (this.writePresence(value)) {
+			this.writeFloat(value);
+		}
+	}
+	
+	/**
+	 * Gets the number of bytes of an unsigned varint.
+	 * 
+	 * @param value the unsigned varint
+	 * 
+	 * @return the number of bytes of the unsigned varint
+	 */
+	public static int sizeOfVarint(long value) {
+		int size = 1;
+		while (0 != (value & ~0x7FL)) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+	
+}
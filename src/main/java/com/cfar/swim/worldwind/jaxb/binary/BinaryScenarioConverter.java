@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.binary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioContext;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a binary scenario converter which converts XML scenarios into
+ * binary scenarios and vice versa. Conversions stream the scenario sections
+ * and obstacles one at a time and never build a complete JAXB scenario.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see BinaryScenarioFormat
+ */
+public class BinaryScenarioConverter {
+	
+	/** the binary scenario encoder of this binary scenario converter */
+	private final BinaryScenarioEncoder encoder = new BinaryScenarioEncoder();
+	
+	/** the binary scenario decoder of this binary scenario converter */
+	private final BinaryScenarioDecoder decoder = new BinaryScenarioDecoder();
+	
+	/**
+	 * Constructs a binary scenario converter using the shared scenario
+	 * context.
+	 * 
+	 * @throws JAXBException if the binary scenario converter cannot be
+	 *         constructed
+	 * 
+	 * @see ScenarioContext#getInstance()
+	 */
+	public BinaryScenarioConverter() throws JAXBException {
+		ScenarioContext.getInstance();
+	}
+	
+	/**
+	 * Converts an XML scenario file into a binary scenario file.
+	 * 
+	 * @param input the XML scenario file
+	 * @param output the binary scenario file
+	 * 
+	 * @throws JAXBException if the scenario cannot be converted
+	 */
+	public void toBinary(File input, File output) throws JAXBException {
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(input));
+				OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(output))) {
+			this.toBinary(inputStream, input.toURI().toString(), outputStream);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Converts an XML scenario stream into a binary scenario stream. Neither
+	 * stream is closed.
+	 * 
+	 * @param input the XML scenario stream
+	 * @param systemId the system identifier of the XML scenario stream, may
+	 *        be null
+	 * @param output the binary scenario stream
+	 * 
+	 * @throws JAXBException if the scenario cannot be converted
+	 */
+	public void toBinary(InputStream input, String systemId, OutputStream output) throws JAXBException {
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		BinaryOutput section = new BinaryOutput();
+		XMLStreamReader reader = null;
+		
+		try {
+			reader = ScenarioStreams.createReader(input, systemId);
+			if ((XMLStreamConstants.START_ELEMENT != ScenarioStreams.toTag(reader))
+					|| !"scenario".equals(reader.getLocalName())) {
+				throw new JAXBException("scenario element expected at " + reader.getLocation());
+			}
+			
+			BinaryScenarioMarshaller.writeHeader(output);
+			this.encoder.encodeAttributes(section, ScenarioStreams.unmarshalAttributes(reader));
+			BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_ATTRIBUTES, section);
+			reader.nextTag();
+			
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				section.reset();
+				switch (reader.getLocalName()) {
+				case "environment":
+					this.encoder.encodeEnvironment(section, unmarshaller.unmarshal(reader, Environment.class).getValue());
+					BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_ENVIRONMENT, section);
+					break;
+				case "obstacles":
+					long count = this.encodeObstacles(reader, unmarshaller, section);
+					BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_OBSTACLES, count, section);
+					break;
+				case "aircraft":
+					this.encoder.encodeAircraft(section, unmarshaller.unmarshal(reader, Aircraft.class).getValue());
+					BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_AIRCRAFT, section);
+					break;
+				case "waypoints":
+					this.encoder.encodeWaypoints(section, unmarshaller.unmarshal(reader, Waypoints.class).getValue());
+					BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_WAYPOINTS, section);
+					break;
+				case "trajectory":
+					this.encoder.encodeTrajectory(section, unmarshaller.unmarshal(reader, Trajectory.class).getValue());
+					BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_TRAJECTORY, section);
+					break;
+				case "planner":
+					this.encoder.encodePlanner(section, unmarshaller.unmarshal(reader, Planner.class).getValue());
+					BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_PLANNER, section);
+					break;
+				case "datalink":
+					this.encoder.encodeDatalink(section, unmarshaller.unmarshal(reader, Datalink.class).getValue());
+					BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_DATALINK, section);
+					break;
+				case "swim":
+					this.encoder.encodeSwim(section, unmarshaller.unmarshal(reader, Swim.class).getValue());
+					BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_SWIM, section);
+					break;
+				default:
+					ScenarioStreams.skipElement(reader);
+				}
+			}
+			
+			output.write(BinaryScenarioFormat.SECTION_END);
+			output.flush();
+		} catch (XMLStreamException | IOException e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+			if (null != reader) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					// the underlying input stream remains open
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Encodes the obstacles of an XML scenario one at a time.
+	 * 
+	 * @param reader the XML stream reader positioned at the obstacles element
+	 * @param unmarshaller the unmarshaller of the individual obstacles
+	 * @param output the binary output of the encoded obstacles
+	 * 
+	 * @return the number of encoded obstacles
+	 * 
+	 * @throws JAXBException if an obstacle cannot be unmarshalled
+	 * @throws XMLStreamException if the XML scenario cannot be read
+	 */
+	private long encodeObstacles(XMLStreamReader reader, Unmarshaller unmarshaller, BinaryOutput output)
+			throws JAXBException, XMLStreamException {
+		long count = 0;
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			Object obstacle = ScenarioStreams.unmarshalObstacle(reader, unmarshaller);
+			
+			if (this.encoder.encodeObstacle(output, obstacle)) {
+				count++;
+			}
+		}
+		reader.next();
+		
+		return count;
+	}
+	
+	/**
+	 * Converts a binary scenario file into an XML scenario file.
+	 * 
+	 * @param input the binary scenario file
+	 * @param output the XML scenario file
+	 * 
+	 * @throws JAXBException if the scenario cannot be converted
+	 */
+	public void toXml(File input, File output) throws JAXBException {
+		try (InputStream inputStream = new FileInputStream(input);
+				OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(output))) {
+			this.toXml(inputStream, outputStream);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Converts a binary scenario stream into an XML scenario stream. Neither
+	 * stream is closed.
+	 * 
+	 * @param input the binary scenario stream
+	 * @param output the XML scenario stream
+	 * 
+	 * @throws JAXBException if the scenario cannot be converted
+	 */
+	public void toXml(InputStream input, OutputStream output) throws JAXBException {
+		Marshaller marshaller = ScenarioContext.acquireMarshaller();
+		BinaryInput binaryInput = new BinaryInput(input);
+		XMLStreamWriter writer = null;
+		
+		try {
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+			BinaryScenarioUnmarshaller.readHeader(binaryInput);
+			if (BinaryScenarioFormat.SECTION_ATTRIBUTES != binaryInput.readByte()) {
+				throw new IOException("missing binary scenario attributes");
+			}
+			binaryInput.readVarint();
+			Scenario scenario = this.decoder.decodeAttributes(binaryInput);
+			
+			writer = ScenarioStreams.createWriter(output);
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.setPrefix(ScenarioStreams.NAMESPACE_PREFIX, ScenarioStreams.NAMESPACE_URI);
+			this.writeStartElement(writer, "scenario");
+			writer.writeNamespace(ScenarioStreams.NAMESPACE_PREFIX, ScenarioStreams.NAMESPACE_URI);
+			ScenarioStreams.marshalAttributes(writer, scenario);
+			
+			byte tag = binaryInput.readByte();
+			while (BinaryScenarioFormat.SECTION_END != tag) {
+				long length = binaryInput.readVarint();
+				switch (tag) {
+				case BinaryScenarioFormat.SECTION_ENVIRONMENT:
+					this.marshalFragment(marshaller, writer, "environment", Environment.class,
+							this.decoder.decodeEnvironment(binaryInput));
+					break;
+				case BinaryScenarioFormat.SECTION_OBSTACLES:
+					this.marshalObstacles(marshaller, writer, binaryInput);
+					break;
+				case BinaryScenarioFormat.SECTION_AIRCRAFT:
+					this.marshalFragment(marshaller, writer, "aircraft", Aircraft.class,
+							this.decoder.decodeAircraft(binaryInput));
+					break;
+				case BinaryScenarioFormat.SECTION_WAYPOINTS:
+					this.marshalFragment(marshaller, writer, "waypoints", Waypoints.class,
+							this.decoder.decodeWaypoints(binaryInput));
+					break;
+				case BinaryScenarioFormat.SECTION_TRAJECTORY:
+					this.marshalFragment(marshaller, writer, "trajectory", Trajectory.class,
+							this.decoder.decodeTrajectory(binaryInput));
+					break;
+				case BinaryScenarioFormat.SECTION_PLANNER:
+					this.marshalFragment(marshaller, writer, "planner", Planner.class,
+							this.decoder.decodePlanner(binaryInput));
+					break;
+				case BinaryScenarioFormat.SECTION_DATALINK:
+					this.marshalFragment(marshaller, writer, "datalink", Datalink.class,
+							this.decoder.decodeDatalink(binaryInput));
+					break;
+				case BinaryScenarioFormat.SECTION_SWIM:
+					this.marshalFragment(marshaller, writer, "swim", Swim.class,
+							this.decoder.decodeSwim(binaryInput));
+					break;
+				default:
+					binaryInput.skip(length);
+				}
+				tag = binaryInput.readByte();
+			}
+			
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.flush();
+		} catch (XMLStreamException | IOException e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseMarshaller(marshaller);
+			if (null != writer) {
+				try {
+					writer.close();
+				} catch (XMLStreamException e) {
+					// the underlying output stream remains open
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Marshals the decoded obstacles of a binary scenario one at a time.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param input the binary input positioned at the obstacles payload
+	 * 
+	 * @throws JAXBException if an obstacle cannot be marshalled
+	 * @throws XMLStreamException if the XML scenario cannot be written
+	 * @throws IOException if an obstacle cannot be decoded
+	 */
+	private void marshalObstacles(Marshaller marshaller, XMLStreamWriter writer, BinaryInput input)
+			throws JAXBException, XMLStreamException, IOException {
+		long count = input.readVarint();
+		
+		this.writeStartElement(writer, "obstacles");
+		for (long index = 0; index < count; index++) {
+			Object obstacle = this.decoder.decodeObstacle(input);
+			if (obstacle instanceof ObstacleBox) {
+				this.marshalFragment(marshaller, writer, "box", ObstacleBox.class, (ObstacleBox) obstacle);
+			} else if (obstacle instanceof ObstacleCylinder) {
+				this.marshalFragment(marshaller, writer, "cylinder", ObstacleCylinder.class, (ObstacleCylinder) obstacle);
+			} else if (obstacle instanceof ObstacleSphere) {
+				this.marshalFragment(marshaller, writer, "sphere", ObstacleSphere.class, (ObstacleSphere) obstacle);
+			}
+		}
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Writes a start element of the scenario namespace.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the start element
+	 * 
+	 * @throws XMLStreamException if the start element cannot be written
+	 */
+	private void writeStartElement(XMLStreamWriter writer, String localName) throws XMLStreamException {
+		writer.writeStartElement(ScenarioStreams.NAMESPACE_PREFIX, localName, ScenarioStreams.NAMESPACE_URI);
+	}
+	
+	/**
+	 * Marshals a scenario fragment into an XML stream writer.
+	 * 
+	 * @param <T> the type of the scenario fragment
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the scenario fragment element
+	 * @param type the type of the scenario fragment
+	 * @param fragment the scenario fragment to be marshalled
+	 * 
+	 * @throws JAXBException if the scenario fragment cannot be marshalled
+	 */
+	private <T> void marshalFragment(Marshaller marshaller, XMLStreamWriter writer,
+			String localName, Class<T> type, T fragment) throws JAXBException {
+		marshaller.marshal(new JAXBElement<T>(
+				new QName(ScenarioStreams.NAMESPACE_URI, localName), type, fragment), writer);
+	}
+	
+}
@@ -0,0 +1,892 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.binary;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import com.cfar.swim.worldwind.jaxb.adapters.TemporalCodec;
+import com.cfar.swim.worldwind.jaxb.scenario.ADRRT;
+import com.cfar.swim.worldwind.jaxb.scenario.ADStar;
+import com.cfar.swim.worldwind.jaxb.scenario.ARAStar;
+import com.cfar.swim.worldwind.jaxb.scenario.ARRT;
+import com.cfar.swim.worldwind.jaxb.scenario.AStar;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.AircraftType;
+import com.cfar.swim.worldwind.jaxb.scenario.Algorithm;
+import com.cfar.swim.worldwind.jaxb.scenario.Anytime;
+import com.cfar.swim.worldwind.jaxb.scenario.Capabilities;
+import com.cfar.swim.worldwind.jaxb.scenario.CombatIdentification;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.CostPolicy;
+import com.cfar.swim.worldwind.jaxb.scenario.DRRT;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Datum;
+import com.cfar.swim.worldwind.jaxb.scenario.Depiction;
+import com.cfar.swim.worldwind.jaxb.scenario.Distribution;
+import com.cfar.swim.worldwind.jaxb.scenario.DronekitDatalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Dynamic;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.Errors;
+import com.cfar.swim.worldwind.jaxb.scenario.Extension;
+import com.cfar.swim.worldwind.jaxb.scenario.GeometricBox;
+import com.cfar.swim.worldwind.jaxb.scenario.Globe;
+import com.cfar.swim.worldwind.jaxb.scenario.HRRT;
+import com.cfar.swim.worldwind.jaxb.scenario.Heuristic;
+import com.cfar.swim.worldwind.jaxb.scenario.LiveSwim;
+import com.cfar.swim.worldwind.jaxb.scenario.Location;
+import com.cfar.swim.worldwind.jaxb.scenario.MavlinkDatalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Neighbors;
+import com.cfar.swim.worldwind.jaxb.scenario.OADRRT;
+import com.cfar.swim.worldwind.jaxb.scenario.OADStar;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Online;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.PlanningContinuum;
+import com.cfar.swim.worldwind.jaxb.scenario.PlanningGrid;
+import com.cfar.swim.worldwind.jaxb.scenario.Position;
+import com.cfar.swim.worldwind.jaxb.scenario.RRT;
+import com.cfar.swim.worldwind.jaxb.scenario.RRTStar;
+import com.cfar.swim.worldwind.jaxb.scenario.RiskPolicy;
+import com.cfar.swim.worldwind.jaxb.scenario.Sampling;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.SimulatedDatalink;
+import com.cfar.swim.worldwind.jaxb.scenario.SimulatedSwim;
+import com.cfar.swim.worldwind.jaxb.scenario.Strategy;
+import com.cfar.swim.worldwind.jaxb.scenario.Subscriptions;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.SwimProtocol;
+import com.cfar.swim.worldwind.jaxb.scenario.Symbology;
+import com.cfar.swim.worldwind.jaxb.scenario.ThetaStar;
+import com.cfar.swim.worldwind.jaxb.scenario.TrackError;
+import com.cfar.swim.worldwind.jaxb.scenario.TrackPointError;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Variant;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a binary scenario decoder which decodes the sections of a JAXB
+ * scenario from binary inputs.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see BinaryScenarioEncoder
+ * @see BinaryScenarioFormat
+ */
+public class BinaryScenarioDecoder {
+	
+	/** the globes in ordinal order */
+	private static final Globe[] GLOBES = Globe.values();
+	
+	/** the datums in ordinal order */
+	private static final Datum[] DATUMS = Datum.values();
+	
+	/** the aircraft types in ordinal order */
+	private static final AircraftType[] AIRCRAFT_TYPES = AircraftType.values();
+	
+	/** the combat identifications in ordinal order */
+	private static final CombatIdentification[] COMBAT_IDENTIFICATIONS = CombatIdentification.values();
+	
+	/** the risk policies in ordinal order */
+	private static final RiskPolicy[] RISK_POLICIES = RiskPolicy.values();
+	
+	/** the cost policies in ordinal order */
+	private static final CostPolicy[] COST_POLICIES = CostPolicy.values();
+	
+	/** the sampling distributions in ordinal order */
+	private static final Distribution[] DISTRIBUTIONS = Distribution.values();
+	
+	/** the sampling strategies in ordinal order */
+	private static final Strategy[] STRATEGIES = Strategy.values();
+	
+	/** the sampling extensions in ordinal order */
+	private static final Extension[] EXTENSIONS = Extension.values();
+	
+	/** the heuristic algorithms in ordinal order */
+	private static final Algorithm[] ALGORITHMS = Algorithm.values();
+	
+	/** the heuristic variants in ordinal order */
+	private static final Variant[] VARIANTS = Variant.values();
+	
+	/** the depiction symbologies in ordinal order */
+	private static final Symbology[] SYMBOLOGIES = Symbology.values();
+	
+	/** the SWIM protocols in ordinal order */
+	private static final SwimProtocol[] SWIM_PROTOCOLS = SwimProtocol.values();
+	
+	/**
+	 * Decodes the attributes of a scenario into an otherwise empty scenario.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the scenario holding the decoded attributes
+	 * 
+	 * @throws IOException if the attributes cannot be decoded
+	 */
+	public Scenario decodeAttributes(BinaryInput input) throws IOException {
+		Scenario scenario = new Scenario();
+		scenario.setId(input.readString());
+		scenario.setTime(this.decodeCalendar(input));
+		scenario.setThreshold(input.readNullableDouble());
+		scenario.setGlobe(input.readEnum(BinaryScenarioDecoder.GLOBES));
+		return scenario;
+	}
+	
+	/**
+	 * Decodes an environment.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded environment
+	 * 
+	 * @throws IOException if the environment cannot be decoded
+	 */
+	public Environment decodeEnvironment(BinaryInput input) throws IOException {
+		Environment environment = new Environment();
+		byte type = input.readByte();
+		
+		if (BinaryScenarioFormat.ENVIRONMENT_GRID == type) {
+			PlanningGrid grid = new PlanningGrid();
+			this.decodeGeometricBox(input, grid);
+			grid.setDivision(input.readBigInteger());
+			environment.setGrid(grid);
+		} else if (BinaryScenarioFormat.ENVIRONMENT_CONTINUUM == type) {
+			PlanningContinuum continuum = new PlanningContinuum();
+			this.decodeGeometricBox(input, continuum);
+			continuum.setResolution(input.readDouble());
+			environment.setContinuum(continuum);
+		} else if (BinaryScenarioFormat.TYPE_NONE != type) {
+			throw new IOException("unsupported environment type " + type);
+		}
+		
+		return environment;
+	}
+	
+	/**
+	 * Decodes a single obstacle including its type tag.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded obstacle
+	 * 
+	 * @throws IOException if the obstacle cannot be decoded
+	 */
+	public Object decodeObstacle(BinaryInput input) throws IOException {
+		Object obstacle = null;
+		byte type = input.readByte();
+		
+		if (BinaryScenarioFormat.OBSTACLE_BOX == type) {
+			ObstacleBox box = new ObstacleBox();
+			box.setBegin(this.decodeLocation(input));
+			box.setEnd(this.decodeLocation(input));
+			box.setLeftWidth(input.readDouble());
+			box.setRightWidth(input.readDouble());
+			box.setBottom(input.readDouble());
+			box.setTop(input.readDouble());
+			box.setBottomDatum(input.readEnum(BinaryScenarioDecoder.DATUMS));
+			box.setTopDatum(input.readEnum(BinaryScenarioDecoder.DATUMS));
+			box.setCostInterval(this.decodeCostInterval(input));
+			box.setDepiction(this.decodeDepiction(input));
+			obstacle = box;
+		} else if (BinaryScenarioFormat.OBSTACLE_CYLINDER == type) {
+			ObstacleCylinder cylinder = new ObstacleCylinder();
+			cylinder.setLocation(this.decodeLocation(input));
+			cylinder.setRadius(input.readDouble());
+			cylinder.setBottom(input.readDouble());
+			cylinder.setTop(input.readDouble());
+			cylinder.setBottomDatum(input.readEnum(BinaryScenarioDecoder.DATUMS));
+			cylinder.setTopDatum(input.readEnum(BinaryScenarioDecoder.DATUMS));
+			cylinder.setCostInterval(this.decodeCostInterval(input));
+			cylinder.setDepiction(this.decodeDepiction(input));
+			obstacle = cylinder;
+		} else if (BinaryScenarioFormat.OBSTACLE_SPHERE == type) {
+			ObstacleSphere sphere = new ObstacleSphere();
+			this.decodeObstacleSphere(input, sphere);
+			obstacle = sphere;
+		} else {
+			throw new IOException("unsupported obstacle type " + type);
+		}
+		
+		return obstacle;
+	}
+	
+	/**
+	 * Decodes an aircraft.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded aircraft
+	 * 
+	 * @throws IOException if the aircraft cannot be decoded
+	 */
+	public Aircraft decodeAircraft(BinaryInput input) throws IOException {
+		Aircraft aircraft = new Aircraft();
+		this.decodeObstacleSphere(input, aircraft);
+		if (input.readPresence()) {
+			Capabilities capabilities = new Capabilities();
+			capabilities.setApproachRateOfDescent(input.readDouble());
+			capabilities.setApproachSpeed(input.readDouble());
+			capabilities.setCruiseClimbSpeed(input.readDouble());
+			capabilities.setCruiseDescentSpeed(input.readDouble());
+			capabilities.setCruiseRateOfClimb(input.readDouble());
+			capabilities.setCruiseRateOfDescent(input.readDouble());
+			capabilities.setCruiseSpeed(input.readDouble());
+			capabilities.setMaximumAngleOfClimb(input.readDouble());
+			capabilities.setMaximumAngleOfClimbSpeed(input.readDouble());
+			capabilities.setMaximumGlideSpeed(input.readDouble());
+			capabilities.setMaximumRateOfClimb(input.readDouble());
+			capabilities.setMaximumRateOfClimbSpeed(input.readDouble());
+			capabilities.setMaximumRateOfDescent(input.readDouble());
+			capabilities.setMaximumRateOfDescentSpeed(input.readDouble());
+			capabilities.setMaximumSpeed(input.readDouble());
+			aircraft.setCapabilities(capabilities);
+		}
+		aircraft.setType(input.readEnum(BinaryScenarioDecoder.AIRCRAFT_TYPES));
+		aircraft.setCid(input.readEnum(BinaryScenarioDecoder.COMBAT_IDENTIFICATIONS));
+		return aircraft;
+	}
+	
+	/**
+	 * Decodes waypoints.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded waypoints
+	 * 
+	 * @throws IOException if the waypoints cannot be decoded
+	 */
+	public Waypoints decodeWaypoints(BinaryInput input) throws IOException {
+		Waypoints waypoints = new Waypoints();
+		this.decodeWaypointList(input, waypoints.getWaypoint());
+		return waypoints;
+	}
+	
+	/**
+	 * Decodes a trajectory.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded trajectory
+	 * 
+	 * @throws IOException if the trajectory cannot be decoded
+	 */
+	public Trajectory decodeTrajectory(BinaryInput input) throws IOException {
+		Trajectory trajectory = new Trajectory();
+		this.decodeWaypointList(input, trajectory.getWaypoint());
+		trajectory.setDepiction(this.decodeDepiction(input));
+		return trajectory;
+	}
+	
+	/**
+	 * Decodes a single waypoint.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded waypoint
+	 * 
+	 * @throws IOException if the waypoint cannot be decoded
+	 */
+	public Waypoint decodeWaypoint(BinaryInput input) throws IOException {
+		Waypoint waypoint = new Waypoint();
+		waypoint.setLatitude(input.readDouble());
+		waypoint.setLongitude(input.readDouble());
+		waypoint.setAltitude(input.readNullableDouble());
+		waypoint.setDepiction(this.decodeDepiction(input));
+		waypoint.setDesignator(input.readString());
+		waypoint.setCost(input.readNullableDouble());
+		waypoint.setDtg(input.readNullableDouble());
+		waypoint.setTtg(this.decodeDuration(input));
+		waypoint.setEto(this.decodeCalendar(input));
+		waypoint.setAto(this.decodeCalendar(input));
+		return waypoint;
+	}
+	
+	/**
+	 * Decodes a planner.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded planner
+	 * 
+	 * @throws IOException if the planner cannot be decoded
+	 */
+	public Planner decodePlanner(BinaryInput input) throws IOException {
+		Planner planner = new Planner();
+		planner.setRiskPolicy(input.readEnum(BinaryScenarioDecoder.RISK_POLICIES));
+		planner.setCostPolicy(input.readEnum(BinaryScenarioDecoder.COST_POLICIES));
+		byte type = input.readByte();
+		
+		switch (type) {
+		case BinaryScenarioFormat.TYPE_NONE:
+			break;
+		case BinaryScenarioFormat.PLANNER_ASTAR:
+			planner.setAstar(new AStar());
+			break;
+		case BinaryScenarioFormat.PLANNER_THETASTAR:
+			planner.setThetastar(new ThetaStar());
+			break;
+		case BinaryScenarioFormat.PLANNER_ARASTAR:
+			ARAStar arastar = new ARAStar();
+			arastar.setAnytime(this.decodeAnytime(input));
+			planner.setArastar(arastar);
+			break;
+		case BinaryScenarioFormat.PLANNER_ADSTAR:
+			ADStar adstar = new ADStar();
+			adstar.setAnytime(this.decodeAnytime(input));
+			adstar.setDynamic(this.decodeDynamic(input));
+			planner.setAdstar(adstar);
+			break;
+		case BinaryScenarioFormat.PLANNER_OADSTAR:
+			OADStar oadstar = new OADStar();
+			oadstar.setAnytime(this.decodeAnytime(input));
+			oadstar.setDynamic(this.decodeDynamic(input));
+			oadstar.setOnline(this.decodeOnline(input));
+			planner.setOadstar(oadstar);
+			break;
+		case BinaryScenarioFormat.PLANNER_BRRT:
+			RRT brrt = new RRT();
+			brrt.setSampling(this.decodeSampling(input));
+			planner.setBrrt(brrt);
+			break;
+		case BinaryScenarioFormat.PLANNER_ARRT:
+			ARRT arrt = new ARRT();
+			arrt.setSampling(this.decodeSampling(input));
+			arrt.setNeighbors(this.decodeNeighbors(input));
+			arrt.setAnytime(this.decodeAnytime(input));
+			planner.setArrt(arrt);
+			break;
+		case BinaryScenarioFormat.PLANNER_DRRT:
+			DRRT drrt = new DRRT();
+			drrt.setSampling(this.decodeSampling(input));
+			drrt.setNeighbors(this.decodeNeighbors(input));
+			drrt.setHeuristic(this.decodeHeuristic(input));
+			drrt.setDynamic(this.decodeDynamic(input));
+			planner.setDrrt(drrt);
+			break;
+		case BinaryScenarioFormat.PLANNER_HRRT:
+			HRRT hrrt = new HRRT();
+			hrrt.setSampling(this.decodeSampling(input));
+			hrrt.setNeighbors(this.decodeNeighbors(input));
+			hrrt.setHeuristic(this.decodeHeuristic(input));
+			planner.setHrrt(hrrt);
+			break;
+		case BinaryScenarioFormat.PLANNER_ADRRT:
+			ADRRT adrrt = new ADRRT();
+			adrrt.setSampling(this.decodeSampling(input));
+			adrrt.setNeighbors(this.decodeNeighbors(input));
+			adrrt.setAnytime(this.decodeAnytime(input));
+			adrrt.setDynamic(this.decodeDynamic(input));
+			planner.setAdrrt(adrrt);
+			break;
+		case BinaryScenarioFormat.PLANNER_OADRRT:
+			OADRRT oadrrt = new OADRRT();
+			oadrrt.setSampling(this.decodeSampling(input));
+			oadrrt.setNeighbors(this.decodeNeighbors(input));
+			oadrrt.setAnytime(this.decodeAnytime(input));
+			oadrrt.setDynamic(this.decodeDynamic(input));
+			oadrrt.setOnline(this.decodeOnline(input));
+			planner.setOadrrt(oadrrt);
+			break;
+		case BinaryScenarioFormat.PLANNER_RRTSTAR:
+			RRTStar rrtstar = new RRTStar();
+			rrtstar.setSampling(this.decodeSampling(input));
+			planner.setRrtstar(rrtstar);
+			break;
+		default:
+			throw new IOException("unsupported planner type " + type);
+		}
+		
+		return planner;
+	}
+	
+	/**
+	 * Decodes a datalink.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded datalink
+	 * 
+	 * @throws IOException if the datalink cannot be decoded
+	 */
+	public Datalink decodeDatalink(BinaryInput input) throws IOException {
+		Datalink datalink = new Datalink();
+		datalink.setDownlinkPeriod(this.decodeDuration(input));
+		byte type = input.readByte();
+		
+		if (BinaryScenarioFormat.DATALINK_SIMULATED == type) {
+			SimulatedDatalink simulated = new SimulatedDatalink();
+			simulated.setErrors(this.decodeErrors(input));
+			simulated.setUplinkDelay(this.decodeDuration(input));
+			simulated.setErrorProbability(input.readNullableFloat());
+			datalink.setSimulated(simulated);
+		} else if (BinaryScenarioFormat.DATALINK_DRONEKIT == type) {
+			DronekitDatalink dronekit = new DronekitDatalink();
+			dronekit.setHost(input.readString());
+			dronekit.setPort(input.readBigInteger());
+			dronekit.setPeer(input.readBigInteger());
+			datalink.setDronekit(dronekit);
+		} else if (BinaryScenarioFormat.DATALINK_MAVLINK == type) {
+			MavlinkDatalink mavlink = new MavlinkDatalink();
+			mavlink.setPeer(input.readBigInteger());
+			datalink.setMavlink(mavlink);
+		} else if (BinaryScenarioFormat.TYPE_NONE != type) {
+			throw new IOException("unsupported datalink type " + type);
+		}
+		
+		return datalink;
+	}
+	
+	/**
+	 * Decodes a SWIM connection.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded SWIM connection
+	 * 
+	 * @throws IOException if the SWIM connection cannot be decoded
+	 */
+	public Swim decodeSwim(BinaryInput input) throws IOException {
+		Swim swim = new Swim();
+		
+		if (input.readPresence()) {
+			Subscriptions subscriptions = new Subscriptions();
+			int count = input.readCount();
+			for (int index = 0; index < count; index++) {
+				subscriptions.getProtocol().add(input.readEnum(BinaryScenarioDecoder.SWIM_PROTOCOLS));
+			}
+			swim.setSubscriptions(subscriptions);
+		}
+		
+		byte type = input.readByte();
+		if (BinaryScenarioFormat.SWIM_SIMULATED == type) {
+			SimulatedSwim simulated = new SimulatedSwim();
+			simulated.setUpdatePeriod(this.decodeDuration(input));
+			simulated.setUpdateProbability(input.readFloat());
+			simulated.setUpdateQuantity(input.readBigInteger());
+			simulated.setResourceDirectory(input.readString());
+			swim.setSimulated(simulated);
+		} else if (BinaryScenarioFormat.SWIM_LIVE == type) {
+			swim.setLive(new LiveSwim());
+		} else if (BinaryScenarioFormat.TYPE_NONE != type) {
+			throw new IOException("unsupported swim type " + type);
+		}
+		
+		return swim;
+	}
+	
+	/**
+	 * Decodes a list of waypoints prefixed by its size.
+	 * 
+	 * @param input the binary input
+	 * @param waypoints the list to add the decoded waypoints to
+	 * 
+	 * @throws IOException if the waypoints cannot be decoded
+	 */
+	private void decodeWaypointList(BinaryInput input, List<Waypoint> waypoints) throws IOException {
+		int count = input.readCount();
+		for (int index = 0; index < count; index++) {
+			waypoints.add(this.decodeWaypoint(input));
+		}
+	}
+	
+	/**
+	 * Decodes a geometric box.
+	 * 
+	 * @param input the binary input
+	 * @param box the geometric box to decode into
+	 * 
+	 * @throws IOException if the geometric box cannot be decoded
+	 */
+	private void decodeGeometricBox(BinaryInput input, GeometricBox box) throws IOException {
+		box.setSouthWest(this.decodeLocation(input));
+		box.setNorthEast(this.decodeLocation(input));
+		box.setBottom(input.readDouble());
+		box.setTop(input.readDouble());
+	}
+	
+	/**
+	 * Decodes a sphere obstacle without type tag.
+	 * 
+	 * @param input the binary input
+	 * @param sphere the sphere obstacle to decode into
+	 * 
+	 * @throws IOException if the sphere obstacle cannot be decoded
+	 */
+	private void decodeObstacleSphere(BinaryInput input, ObstacleSphere sphere) throws IOException {
+		if (input.readPresence()) {
+			Position center = new Position();
+			center.setLatitude(input.readDouble());
+			center.setLongitude(input.readDouble());
+			center.setAltitude(input.readNullableDouble());
+			sphere.setCenter(center);
+		}
+		sphere.setRadius(input.readDouble());
+		sphere.setCenterDatum(input.readEnum(BinaryScenarioDecoder.DATUMS));
+		sphere.setCostInterval(this.decodeCostInterval(input));
+		sphere.setDepiction(this.decodeDepiction(input));
+	}
+	
+	/**
+	 * Decodes a nullable location.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded location, null if absent
+	 * 
+	 * @throws IOException if the location cannot be decoded
+	 */
+	private Location decodeLocation(BinaryInput input) throws IOException {
+		Location location = null;
+		
+		if (input.readPresence()) {
+			location = new Location();
+			location.setLatitude(input.readDouble());
+			location.setLongitude(input.readDouble());
+		}
+		
+		return location;
+	}
+	
+	/**
+	 * Decodes a nullable cost interval.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded cost interval, null if absent
+	 * 
+	 * @throws IOException if the cost interval cannot be decoded
+	 */
+	private CostInterval decodeCostInterval(BinaryInput input) throws IOException {
+		CostInterval costInterval = null;
+		
+		if (input.readPresence()) {
+			costInterval = new CostInterval();
+			costInterval.setStart(this.decodeCalendar(input));
+			costInterval.setEnd(this.decodeCalendar(input));
+			costInterval.setId(input.readString());
+			costInterval.setCost(input.readNullableDouble());
+			costInterval.setEnabled(input.readNullableBoolean());
+		}
+		
+		return costInterval;
+	}
+	
+	/**
+	 * Decodes a nullable depiction.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded depiction, null if absent
+	 * 
+	 * @throws IOException if the depiction cannot be decoded
+	 */
+	private Depiction decodeDepiction(BinaryInput input) throws IOException {
+		Depiction depiction = null;
+		
+		if (input.readPresence()) {
+			depiction = new Depiction();
+			depiction.setSymbology(input.readEnum(BinaryScenarioDecoder.SYMBOLOGIES));
+			depiction.setSidc(input.readString());
+			depiction.setText(input.readString());
+			depiction.setImage(input.readString());
+		}
+		
+		return depiction;
+	}
+	
+	/**
+	 * Decodes nullable anytime planner properties.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded anytime planner properties, null if absent
+	 * 
+	 * @throws IOException if the anytime planner properties cannot be
+	 *         decoded
+	 */
+	private Anytime decodeAnytime(BinaryInput input) throws IOException {
+		Anytime anytime = null;
+		
+		if (input.readPresence()) {
+			anytime = new Anytime();
+			anytime.setMinimumQuality(input.readDouble());
+			anytime.setMaximumQuality(input.readDouble());
+			anytime.setQualityImprovement(input.readDouble());
+		}
+		
+		return anytime;
+	}
+	
+	/**
+	 * Decodes nullable dynamic planner properties.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded dynamic planner properties, null if absent
+	 * 
+	 * @throws IOException if the dynamic planner properties cannot be
+	 *         decoded
+	 */
+	private Dynamic decodeDynamic(BinaryInput input) throws IOException {
+		Dynamic dynamic = null;
+		
+		if (input.readPresence()) {
+			dynamic = new Dynamic();
+			dynamic.setSignificantChange(input.readDouble());
+		}
+		
+		return dynamic;
+	}
+	
+	/**
+	 * Decodes nullable online planner properties.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded online planner properties, null if absent
+	 * 
+	 * @throws IOException if the online planner properties cannot be decoded
+	 */
+	private Online decodeOnline(BinaryInput input) throws IOException {
+		Online online = null;
+		
+		if (input.readPresence()) {
+			online = new Online();
+			online.setErrors(this.decodeErrors(input));
+			online.setMinDeliberation(this.decodeDuration(input));
+			online.setMaxDeliberation(this.decodeDuration(input));
+		}
+		
+		return online;
+	}
+	
+	/**
+	 * Decodes nullable sampling planner properties.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded sampling planner properties, null if absent
+	 * 
+	 * @throws IOException if the sampling planner properties cannot be
+	 *         decoded
+	 */
+	private Sampling decodeSampling(BinaryInput input) throws IOException {
+		Sampling sampling = null;
+		
+		if (input.readPresence()) {
+			sampling = new Sampling();
+			sampling.setDistribution(input.readEnum(BinaryScenarioDecoder.DISTRIBUTIONS));
+			sampling.setStrategy(input.readEnum(BinaryScenarioDecoder.STRATEGIES));
+			sampling.setExtension(input.readEnum(BinaryScenarioDecoder.EXTENSIONS));
+			sampling.setMaxIterations(input.readBigInteger());
+			sampling.setEpsilon(input.readDouble());
+			sampling.setBias(input.readBigInteger());
+			sampling.setGoalThreshold(input.readDouble());
+		}
+		
+		return sampling;
+	}
+	
+	/**
+	 * Decodes nullable neighbors planner properties.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded neighbors planner properties, null if absent
+	 * 
+	 * @throws IOException if the neighbors planner properties cannot be
+	 *         decoded
+	 */
+	private Neighbors decodeNeighbors(BinaryInput input) throws IOException {
+		Neighbors neighbors = null;
+		
+		if (input.readPresence()) {
+			neighbors = new Neighbors();
+			neighbors.setNeighborLimit(input.readBigInteger());
+		}
+		
+		return neighbors;
+	}
+	
+	/**
+	 * Decodes nullable heuristic planner properties.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded heuristic planner properties, null if absent
+	 * 
+	 * @throws IOException if the heuristic planner properties cannot be
+	 *         decoded
+	 */
+	private Heuristic decodeHeuristic(BinaryInput input) throws IOException {
+		Heuristic heuristic = null;
+		
+		if (input.readPresence()) {
+			heuristic = new Heuristic();
+			heuristic.setAlgorithm(input.readEnum(BinaryScenarioDecoder.ALGORITHMS));
+			heuristic.setVariant(input.readEnum(BinaryScenarioDecoder.VARIANTS));
+			heuristic.setQualityBound(input.readDouble());
+		}
+		
+		return heuristic;
+	}
+	
+	/**
+	 * Decodes nullable errors.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded errors, null if absent
+	 * 
+	 * @throws IOException if the errors cannot be decoded
+	 */
+	private Errors decodeErrors(BinaryInput input) throws IOException {
+		Errors errors = null;
+		
+		if (input.readPresence()) {
+			errors = new Errors();
+			if (input.readPresence()) {
+				TrackError trackError = new TrackError();
+				trackError.setCrossTrackError(input.readDouble());
+				trackError.setAltitudeError(input.readDouble());
+				trackError.setOpeningBearingError(input.readDouble());
+				trackError.setClosingBearingError(input.readDouble());
+				trackError.setTimingError(this.decodeDuration(input));
+				errors.setMaxTrackError(trackError);
+			}
+			errors.setMaxTakeOffError(this.decodeTrackPointError(input));
+			errors.setMaxLandingError(this.decodeTrackPointError(input));
+		}
+		
+		return errors;
+	}
+	
+	/**
+	 * Decodes a nullable track point error.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded track point error, null if absent
+	 * 
+	 * @throws IOException if the track point error cannot be decoded
+	 */
+	private TrackPointError decodeTrackPointError(BinaryInput input) throws IOException {
+		TrackPointError trackPointError = null;
+		
+		if (input.readPresence()) {
+			trackPointError = new TrackPointError();
+			trackPointError.setHorizontalError(input.readDouble());
+			trackPointError.setVerticalError(input.readDouble());
+			trackPointError.setTimingError(this.decodeDuration(input));
+		}
+		
+		return trackPointError;
+	}
+	
+	/**
+	 * Decodes a nullable XML calendar.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded XML calendar, null if absent
+	 * 
+	 * @throws IOException if the XML calendar cannot be decoded
+	 */
+	public XMLGregorianCalendar decodeCalendar(BinaryInput input) throws IOException {
+		XMLGregorianCalendar calendar = null;
+		byte encoding = input.readByte();
+		
+		if (1 == encoding) {
+			calendar = TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar();
+			calendar.setYear(this.decodeField(input));
+			calendar.setMonth(this.decodeField(input));
+			calendar.setDay(this.decodeField(input));
+			int hour = this.decodeField(input);
+			int minute = this.decodeField(input);
+			int second = this.decodeField(input);
+			calendar.setTime(hour, minute, second);
+			calendar.setTimezone(this.decodeField(input));
+			String fractionalSecond = input.readString();
+			if (null != fractionalSecond) {
+				calendar.setFractionalSecond(new BigDecimal(fractionalSecond));
+			}
+		} else if (2 == encoding) {
+			calendar = TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar(input.readString());
+		} else if (0 != encoding) {
+			throw new IOException("unsupported calendar encoding " + encoding);
+		}
+		
+		return calendar;
+	}
+	
+	/**
+	 * Decodes a possibly undefined XML calendar field.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded XML calendar field
+	 * 
+	 * @throws IOException if the XML calendar field cannot be decoded
+	 */
+	private int decodeField(BinaryInput input) throws IOException {
+		long value = input.readVarint();
+		int field = DatatypeConstants.FIELD_UNDEFINED;
+		
+		if (0 != value) {
+			value--;
+			field = (int) ((value >>> 1) ^ -(value & 1));
+		}
+		
+		return field;
+	}
+	
+	/**
+	 * Decodes a nullable XML duration.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the decoded XML duration, null if absent
+	 * 
+	 * @throws IOException if the XML duration cannot be decoded
+	 */
+	public Duration decodeDuration(BinaryInput input) throws IOException {
+		String lexical = input.readString();
+		return (null == lexical) ? null : TemporalCodec.getDatatypeFactory().newDuration(lexical);
+	}
+	
+}
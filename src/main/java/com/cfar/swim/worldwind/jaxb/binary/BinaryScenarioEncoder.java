@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.binary;
+
+import java.util.List;
+
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioAttributes;
+import com.cfar.swim.worldwind.jaxb.scenario.ADRRT;
+import com.cfar.swim.worldwind.jaxb.scenario.ADStar;
+import com.cfar.swim.worldwind.jaxb.scenario.ARAStar;
+import com.cfar.swim.worldwind.jaxb.scenario.ARRT;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.Anytime;
+import com.cfar.swim.worldwind.jaxb.scenario.Capabilities;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.DRRT;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Depiction;
+import com.cfar.swim.worldwind.jaxb.scenario.DronekitDatalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Dynamic;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.Errors;
+import com.cfar.swim.worldwind.jaxb.scenario.GeometricBox;
+import com.cfar.swim.worldwind.jaxb.scenario.HRRT;
+import com.cfar.swim.worldwind.jaxb.scenario.Heuristic;
+import com.cfar.swim.worldwind.jaxb.scenario.Location;
+import com.cfar.swim.worldwind.jaxb.scenario.MavlinkDatalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Neighbors;
+import com.cfar.swim.worldwind.jaxb.scenario.OADRRT;
+import com.cfar.swim.worldwind.jaxb.scenario.OADStar;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Online;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Position;
+import com.cfar.swim.worldwind.jaxb.scenario.Sampling;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.SimulatedDatalink;
+import com.cfar.swim.worldwind.jaxb.scenario.SimulatedSwim;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.SwimProtocol;
+import com.cfar.swim.worldwind.jaxb.scenario.TrackError;
+import com.cfar.swim.worldwind.jaxb.scenario.TrackPointError;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a binary scenario encoder which encodes the sections of a JAXB
+ * scenario into binary outputs. The encoding is lossless with respect to
+ * the scenario schema, that is, absent optional values remain absent and
+ * absent values with a schema default are decoded as their default.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see BinaryScenarioDecoder
+ * @see BinaryScenarioFormat
+ */
+public class BinaryScenarioEncoder {
+	
+	/**
+	 * Encodes the attributes of a scenario.
+	 * 
+	 * @param output the binary output
+	 * @param scenario the scenario whose attributes are to be encoded
+	 */
+	public void encodeAttributes(BinaryOutput output, Scenario scenario) {
+		output.writeString(scenario.getId());
+		this.encodeCalendar(output, scenario.getTime());
+		output.writeNullableDouble(ScenarioAttributes.isPresent(scenario, "threshold") ? scenario.getThreshold() : null);
+		output.writeEnum(ScenarioAttributes.isPresent(scenario, "globe") ? scenario.getGlobe() : null);
+	}
+	
+	/**
+	 * Encodes an environment.
+	 * 
+	 * @param output the binary output
+	 * @param environment the environment to be encoded
+	 */
+	public void encodeEnvironment(BinaryOutput output, Environment environment) {
+		if (null != environment.getGrid()) {
+			output.writeByte(BinaryScenarioFormat.ENVIRONMENT_GRID);
+			this.encodeGeometricBox(output, environment.getGrid());
+			output.writeBigInteger(environment.getGrid().getDivision());
+		} else if (null != environment.getContinuum()) {
+			output.writeByte(BinaryScenarioFormat.ENVIRONMENT_CONTINUUM);
+			this.encodeGeometricBox(output, environment.getContinuum());
+			output.writeDouble(environment.getContinuum().getResolution());
+		} else {
+			output.writeByte(BinaryScenarioFormat.TYPE_NONE);
+		}
+	}
+	
+	/**
+	 * Encodes a single obstacle including its type tag.
+	 * 
+	 * @param output the binary output
+	 * @param obstacle the obstacle to be encoded
+	 * 
+	 * @return true if the obstacle has been encoded, false if its type is
+	 *         not supported
+	 */
+	public boolean encodeObstacle(BinaryOutput output, Object obstacle) {
+		boolean encoded = true;
+		
+		if (obstacle instanceof ObstacleBox) {
+			ObstacleBox box = (ObstacleBox) obstacle;
+			output.writeByte(BinaryScenarioFormat.OBSTACLE_BOX);
+			this.encodeLocation(output, box.getBegin());
+			this.encodeLocation(output, box.getEnd());
+			output.writeDouble(box.getLeftWidth());
+			output.writeDouble(box.getRightWidth());
+			output.writeDouble(box.getBottom());
+			output.writeDouble(box.getTop());
+			output.writeEnum(ScenarioAttributes.isPresent(box, "bottomDatum") ? box.getBottomDatum() : null);
+			output.writeEnum(ScenarioAttributes.isPresent(box, "topDatum") ? box.getTopDatum() : null);
+			this.encodeCostInterval(output, box.getCostInterval());
+			this.encodeDepiction(output, box.getDepiction());
+		} else if (obstacle instanceof ObstacleCylinder) {
+			ObstacleCylinder cylinder = (ObstacleCylinder) obstacle;
+			output.writeByte(BinaryScenarioFormat.OBSTACLE_CYLINDER);
+			this.encodeLocation(output, cylinder.getLocation());
+			output.writeDouble(cylinder.getRadius());
+			output.writeDouble(cylinder.getBottom());
+			output.writeDouble(cylinder.getTop());
+			output.writeEnum(ScenarioAttributes.isPresent(cylinder, "bottomDatum") ? cylinder.getBottomDatum() : null);
+			output.writeEnum(ScenarioAttributes.isPresent(cylinder, "topDatum") ? cylinder.getTopDatum() : null);
+			this.encodeCostInterval(output, cylinder.getCostInterval());
+			this.encodeDepiction(output, cylinder.getDepiction());
+		} else if (obstacle instanceof ObstacleSphere) {
+			output.writeByte(BinaryScenarioFormat.OBSTACLE_SPHERE);
+			this.encodeObstacleSphere(output, (ObstacleSphere) obstacle);
+		} else {
+			encoded = false;
+		}
+		
+		return encoded;
+	}
+	
+	/**
+	 * Encodes an aircraft.
+	 * 
+	 * @param output the binary output
+	 * @param aircraft the aircraft to be encoded
+	 */
+	public void encodeAircraft(BinaryOutput output, Aircraft aircraft) {
+		this.encodeObstacleSphere(output, aircraft);
+		if (output.writePresence(aircraft.getCapabilities())) {
+			Capabilities capabilities = aircraft.getCapabilities();
+			output.writeDouble(capabilities.getApproachRateOfDescent());
+			output.writeDouble(capabilities.getApproachSpeed());
+			output.writeDouble(capabilities.getCruiseClimbSpeed());
+			output.writeDouble(capabilities.getCruiseDescentSpeed());
+			output.writeDouble(capabilities.getCruiseRateOfClimb());
+			output.writeDouble(capabilities.getCruiseRateOfDescent());
+			output.writeDouble(capabilities.getCruiseSpeed());
+			output.writeDouble(capabilities.getMaximumAngleOfClimb());
+			output.writeDouble(capabilities.getMaximumAngleOfClimbSpeed());
+			output.writeDouble(capabilities.getMaximumGlideSpeed());
+			output.writeDouble(capabilities.getMaximumRateOfClimb());
+			output.writeDouble(capabilities.getMaximumRateOfClimbSpeed());
+			output.writeDouble(capabilities.getMaximumRateOfDescent());
+			output.writeDouble(capabilities.getMaximumRateOfDescentSpeed());
+			output.writeDouble(capabilities.getMaximumSpeed());
+		}
+		output.writeEnum(aircraft.getType());
+		output.writeEnum(ScenarioAttributes.isPresent(aircraft, "cid") ? aircraft.getCid() : null);
+	}
+	
+	/**
+	 * Encodes waypoints.
+	 * 
+	 * @param output the binary output
+	 * @param waypoints the waypoints to be encoded
+	 */
+	public void encodeWaypoints(BinaryOutput output, Waypoints waypoints) {
+		this.encodeWaypointList(output, waypoints.getWaypoint());
+	}
+	
+	/**
+	 * Encodes a trajectory.
+	 * 
+	 * @param output the binary output
+	 * @param trajectory the trajectory to be encoded
+	 */
+	public void encodeTrajectory(BinaryOutput output, Trajectory trajectory) {
+		this.encodeWaypointList(output, trajectory.getWaypoint());
+		this.encodeDepiction(output, trajectory.getDepiction());
+	}
+	
+	/**
+	 * Encodes a single waypoint.
+	 * 
+	 * @param output the binary output
+	 * @param waypoint the waypoint to be encoded
+	 */
+	public void encodeWaypoint(BinaryOutput output, Waypoint waypoint) {
+		output.writeDouble(waypoint.getLatitude());
+		output.writeDouble(waypoint.getLongitude());
+		output.writeNullableDouble(ScenarioAttributes.isPresent(waypoint, "altitude") ? waypoint.getAltitude() : null);
+		this.encodeDepiction(output, waypoint.getDepiction());
+		output.writeString(ScenarioAttributes.isPresent(waypoint, "designator") ? waypoint.getDesignator() : null);
+		output.writeNullableDouble(waypoint.getCost());
+		output.writeNullableDouble(waypoint.getDtg());
+		this.encodeDuration(output, waypoint.getTtg());
+		this.encodeCalendar(output, waypoint.getEto());
+		this.encodeCalendar(output, waypoint.getAto());
+	}
+	
+	/**
+	 * Encodes a planner.
+	 * 
+	 * @param output the binary output
+	 * @param planner the planner to be encoded
+	 */
+	public void encodePlanner(BinaryOutput output, Planner planner) {
+		output.writeEnum(planner.getRiskPolicy());
+		output.writeEnum(planner.getCostPolicy());
+		
+		if (null != planner.getAstar()) {
+			output.writeByte(BinaryScenarioFormat.PLANNER_ASTAR);
+		} else if (null != planner.getThetastar()) {
+			output.writeByte(BinaryScenarioFormat.PLANNER_THETASTAR);
+		} else if (null != planner.getArastar()) {
+			ARAStar arastar = planner.getArastar();
+			output.writeByte(BinaryScenarioFormat.PLANNER_ARASTAR);
+			this.encodeAnytime(output, arastar.getAnytime());
+		} else if (null != planner.getAdstar()) {
+			ADStar adstar = planner.getAdstar();
+			output.writeByte(BinaryScenarioFormat.PLANNER_ADSTAR);
+			this.encodeAnytime(output, adstar.getAnytime());
+			this.encodeDynamic(output, adstar.getDynamic());
+		} else if (null != planner.getOadstar()) {
+			OADStar oadstar = planner.getOadstar();
+			output.writeByte(BinaryScenarioFormat.PLANNER_OADSTAR);
+			this.encodeAnytime(output, oadstar.getAnytime());
+			this.encodeDynamic(output, oadstar.getDynamic());
+			this.encodeOnline(output, oadstar.getOnline());
+		} else if (null != planner.getBrrt()) {
+			output.writeByte(BinaryScenarioFormat.PLANNER_BRRT);
+			this.encodeSampling(output, planner.getBrrt().getSampling());
+		} else if (null != planner.getArrt()) {
+			ARRT arrt = planner.getArrt();
+			output.writeByte(BinaryScenarioFormat.PLANNER_ARRT);
+			this.encodeSampling(output, arrt.getSampling());
+			this.encodeNeighbors(output, arrt.getNeighbors());
+			this.encodeAnytime(output, arrt.getAnytime());
+		} else if (null != planner.getDrrt()) {
+			DRRT drrt = planner.getDrrt();
+			output.writeByte(BinaryScenarioFormat.PLANNER_DRRT);
+			this.encodeSampling(output, drrt.getSampling());
+			this.encodeNeighbors(output, drrt.getNeighbors());
+			this.encodeHeuristic(output, drrt.getHeuristic());
+			this.encodeDynamic(output, drrt.getDynamic());
+		} else if (null != planner.getHrrt()) {
+			HRRT hrrt = planner.getHrrt();
+			output.writeByte(BinaryScenarioFormat.PLANNER_HRRT);
+			this.encodeSampling(output, hrrt.getSampling());
+			this.encodeNeighbors(output, hrrt.getNeighbors());
+			this.encodeHeuristic(output, hrrt.getHeuristic());
+		} else if (null != planner.getAdrrt()) {
+			ADRRT adrrt = planner.getAdrrt();
+			output.writeByte(BinaryScenarioFormat.PLANNER_ADRRT);
+			this.encodeSampling(output, adrrt.getSampling());
+			this.encodeNeighbors(output, adrrt.getNeighbors());
+			this.encodeAnytime(output, adrrt.getAnytime());
+			this.encodeDynamic(output, adrrt.getDynamic());
+		} else if (null != planner.getOadrrt()) {
+			OADRRT oadrrt = planner.getOadrrt();
+			output.writeByte(BinaryScenarioFormat.PLANNER_OADRRT);
+			this.encodeSampling(output, oadrrt.getSampling());
+			this.encodeNeighbors(output, oadrrt.getNeighbors());
+			this.encodeAnytime(output, oadrrt.getAnytime());
+			this.encodeDynamic(output, oadrrt.getDynamic());
+			this.encodeOnline(output, oadrrt.getOnline());
+		} else if (null != planner.getRrtstar()) {
+			output.writeByte(BinaryScenarioFormat.PLANNER_RRTSTAR);
+			this.encodeSampling(output, planner.getRrtstar().getSampling());
+		} else {
+			output.writeByte(BinaryScenarioFormat.TYPE_NONE);
+		}
+	}
+	
+	/**
+	 * Encodes a datalink.
+	 * 
+	 * @param output the binary output
+	 * @param datalink the datalink to be encoded
+	 */
+	public void encodeDatalink(BinaryOutput output, Datalink datalink) {
+		this.encodeDuration(output, datalink.getDownlinkPeriod());
+		
+		if (null != datalink.getSimulated()) {
+			SimulatedDatalink simulated = datalink.getSimulated();
+			output.writeByte(BinaryScenarioFormat.DATALINK_SIMULATED);
+			this.encodeErrors(output, simulated.getErrors());
+			this.encodeDuration(output, simulated.getUplinkDelay());
+			output.writeNullableFloat(simulated.getErrorProbability());
+		} else if (null != datalink.getDronekit()) {
+			DronekitDatalink dronekit = datalink.getDronekit();
+			output.writeByte(BinaryScenarioFormat.DATALINK_DRONEKIT);
+			output.writeString(dronekit.getHost());
+			output.writeBigInteger(dronekit.getPort());
+			output.writeBigInteger(dronekit.getPeer());
+		} else if (null != datalink.getMavlink()) {
+			MavlinkDatalink mavlink = datalink.getMavlink();
+			output.writeByte(BinaryScenarioFormat.DATALINK_MAVLINK);
+			output.writeBigInteger(mavlink.getPeer());
+		} else {
+			output.writeByte(BinaryScenarioFormat.TYPE_NONE);
+		}
+	}
+	
+	/**
+	 * Encodes a SWIM connection.
+	 * 
+	 * @param output the binary output
+	 * @param swim the SWIM connection to be encoded
+	 */
+	public void encodeSwim(BinaryOutput output, Swim swim) {
+		if (output.writePresence(swim.getSubscriptions())) {
+			List<SwimProtocol> protocols = swim.getSubscriptions().getProtocol();
+			output.writeVarint(protocols.size());
+			for (SwimProtocol protocol : protocols) {
+				output.writeEnum(protocol);
+			}
+		}
+		
+		if (null != swim.getSimulated()) {
+			SimulatedSwim simulated = swim.getSimulated();
+			output.writeByte(BinaryScenarioFormat.SWIM_SIMULATED);
+			this.encodeDuration(output, simulated.getUpdatePeriod());
+			output.writeFloat(simulated.getUpdateProbability());
+			output.writeBigInteger(simulated.getUpdateQuantity());
+			output.writeString(simulated.getResourceDirectory());
+		} else if (null != swim.getLive()) {
+			output.writeByte(BinaryScenarioFormat.SWIM_LIVE);
+		} else {
+			output.writeByte(BinaryScenarioFormat.TYPE_NONE);
+		}
+	}
+	
+	/**
+	 * Encodes a list of waypoints prefixed by its size.
+	 * 
+	 * @param output the binary output
+	 * @param waypoints the list of waypoints to be encoded
+	 */
+	private void encodeWaypointList(BinaryOutput output, List<Waypoint> waypoints) {
+		output.writeVarint(waypoints.size());
+		for (Waypoint waypoint : waypoints) {
+			this.encodeWaypoint(output, waypoint);
+		}
+	}
+	
+	/**
+	 * Encodes a geometric box.
+	 * 
+	 * @param output the binary output
+	 * @param box the geometric box to be encoded
+	 */
+	private void encodeGeometricBox(BinaryOutput output, GeometricBox box) {
+		this.encodeLocation(output, box.getSouthWest());
+		this.encodeLocation(output, box.getNorthEast());
+		output.writeDouble(box.getBottom());
+		output.writeDouble(box.getTop());
+	}
+	
+	/**
+	 * Encodes a sphere obstacle without type tag.
+	 * 
+	 * @param output the binary output
+	 * @param sphere the sphere obstacle to be encoded
+	 */
+	private void encodeObstacleSphere(BinaryOutput output, ObstacleSphere sphere) {
+		if (output.writePresence(sphere.getCenter())) {
+			Position center = sphere.getCenter();
+			output.writeDouble(center.getLatitude());
+			output.writeDouble(center.getLongitude());
+			output.writeNullableDouble(ScenarioAttributes.isPresent(center, "altitude") ? center.getAltitude() : null);
+		}
+		output.writeDouble(sphere.getRadius());
+		output.writeEnum(ScenarioAttributes.isPresent(sphere, "centerDatum") ? sphere.getCenterDatum() : null);
+		this.encodeCostInterval(output, sphere.getCostInterval());
+		this.encodeDepiction(output, sphere.getDepiction());
+	}
+	
+	/**
+	 * Encodes a nullable location.
+	 * 
+	 * @param output the binary output
+	 * @param location the location to be encoded, may be null
+	 */
+	private void encodeLocation(BinaryOutput output, Location location) {
+		if (output.writePresence(location)) {
+			output.writeDouble(location.getLatitude());
+			output.writeDouble(location.getLongitude());
+		}
+	}
+	
+	/**
+	 * Encodes a nullable cost interval.
+	 * 
+	 * @param output the binary output
+	 * @param costInterval the cost interval to be encoded, may be null
+	 */
+	public void encodeCostInterval(BinaryOutput output, CostInterval costInterval) {
+		if (output.writePresence(costInterval)) {
+			this.encodeCalendar(output, costInterval.getStart());
+			this.encodeCalendar(output, costInterval.getEnd());
+			output.writeString(costInterval.getId());
+			output.writeNullableDouble(ScenarioAttributes.isPresent(costInterval, "cost") ? costInterval.getCost() : null);
+			output.writeNullableBoolean(ScenarioAttributes.isPresent(costInterval, "enabled") ? costInterval.isEnabled() : null);
+		}
+	}
+	
+	/**
+	 * Encodes a nullable depiction.
+	 * 
+	 * @param output the binary output
+	 * @param depiction the depiction to be encoded, may be null
+	 */
+	public void encodeDepiction(BinaryOutput output, Depiction depiction) {
+		if (output.writePresence(depiction)) {
+			output.writeEnum(depiction.getSymbology());
+			output.writeString(depiction.getSidc());
+			output.writeString(depiction.getText());
+			output.writeString(depiction.getImage());
+		}
+	}
+	
+	/**
+	 * Encodes nullable anytime planner properties.
+	 * 
+	 * @param output the binary output
+	 * @param anytime the anytime planner properties to be encoded, may be
+	 *        null
+	 */
+	private void encodeAnytime(BinaryOutput output, Anytime anytime) {
+		if (output.writePresence(anytime)) {
+			output.writeDouble(anytime.getMinimumQuality());
+			output.writeDouble(anytime.getMaximumQuality());
+			output.writeDouble(anytime.getQualityImprovement());
+		}
+	}
+	
+	/**
+	 * Encodes nullable dynamic planner properties.
+	 * 
+	 * @param output the binary output
+	 * @param dynamic the dynamic planner properties to be encoded, may be
+	 *        null
+	 */
+	private void encodeDynamic(BinaryOutput output, Dynamic dynamic) {
+		if (output.writePresence(dynamic)) {
+			output.writeDouble(dynamic.getSignificantChange());
+		}
+	}
+	
+	/**
+	 * Encodes nullable online planner properties.
+	 * 
+	 * @param output the binary output
+	 * @param online the online planner properties to be encoded, may be null
+	 */
+	private void encodeOnline(BinaryOutput output, Online online) {
+		if (output.writePresence(online)) {
+			this.encodeErrors(output, online.getErrors());
+			this.encodeDuration(output, online.getMinDeliberation());
+			this.encodeDuration(output, online.getMaxDeliberation());
+		}
+	}
+	
+	/**
+	 * Encodes nullable sampling planner properties.
+	 * 
+	 * @param output the binary output
+	 * @param sampling the sampling planner properties to be encoded, may be
+	 *        null
+	 */
+	private void encodeSampling(BinaryOutput output, Sampling sampling) {
+		if (output.writePresence(sampling)) {
+			output.writeEnum(sampling.getDistribution());
+			output.writeEnum(sampling.getStrategy());
+			output.writeEnum(sampling.getExtension());
+			output.writeBigInteger(sampling.getMaxIterations());
+			output.writeDouble(sampling.getEpsilon());
+			output.writeBigInteger(sampling.getBias());
+			output.writeDouble(sampling.getGoalThreshold());
+		}
+	}
+	
+	/**
+	 * Encodes nullable neighbors planner properties.
+	 * 
+	 * @param output the binary output
+	 * @param neighbors the neighbors planner properties to be encoded, may be
+	 *        null
+	 */
+	private void encodeNeighbors(BinaryOutput output, Neighbors neighbors) {
+		if (output.writePresence(neighbors)) {
+			output.writeBigInteger(neighbors.getNeighborLimit());
+		}
+	}
+	
+	/**
+	 * Encodes nullable heuristic planner properties.
+	 * 
+	 * @param output the binary output
+	 * @param heuristic the heuristic planner properties to be encoded, may be
+	 *        null
+	 */
+	private void encodeHeuristic(BinaryOutput output, Heuristic heuristic) {
+		if (output.writePresence(heuristic)) {
+			output.writeEnum(heuristic.getAlgorithm());
+			output.writeEnum(heuristic.getVariant());
+			output.writeDouble(heuristic.getQualityBound());
+		}
+	}
+	
+	/**
+	 * Encodes nullable errors.
+	 * 
+	 * @param output the binary output
+	 * @param errors the errors to be encoded, may be null
+	 */
+	private void encodeErrors(BinaryOutput output, Errors errors) {
+		if (output.writePresence(errors)) {
+			if (output.writePresence(errors.getMaxTrackError())) {
+				TrackError trackError = errors.getMaxTrackError();
+				output.writeDouble(trackError.getCrossTrackError());
+				output.writeDouble(trackError.getAltitudeError());
+				output.writeDouble(trackError.getOpeningBearingError());
+				output.writeDouble(trackError.getClosingBearingError());
+				this.encodeDuration(output, trackError.getTimingError());
+			}
+			this.encodeTrackPointError(output, errors.getMaxTakeOffError());
+			this.encodeTrackPointError(output, errors.getMaxLandingError());
+		}
+	}
+	
+	/**
+	 * Encodes a nullable track point error.
+	 * 
+	 * @param output the binary output
+	 * @param trackPointError the track point error to be encoded, may be null
+	 */
+	private void encodeTrackPointError(BinaryOutput output, TrackPointError trackPointError) {
+		if (output.writePresence(trackPointError)) {
+			output.writeDouble(trackPointError.getHorizontalError());
+			output.writeDouble(trackPointError.getVerticalError());
+			this.encodeDuration(output, trackPointError.getTimingError());
+		}
+	}
+	
+	/**
+	 * Encodes a nullable XML calendar field by field. Calendars with an eon
+	 * are encoded lexically.
+	 * 
+	 * @param output the binary output
+	 * @param calendar the XML calendar to be encoded, may be null
+	 */
+	public void encodeCalendar(BinaryOutput output, XMLGregorianCalendar calendar) {
+		if (null == calendar) {
+			output.writeByte(0);
+		} else if (null != calendar.getEon()) {
+			output.writeByte(2);
+			output.writeString(calendar.toXMLFormat());
+		} else {
+			output.writeByte(1);
+			this.encodeField(output, calendar.getYear());
+			this.encodeField(output, calendar.getMonth());
+			this.encodeField(output, calendar.getDay());
+			this.encodeField(output, calendar.getHour());
+			this.encodeField(output, calendar.getMinute());
+			this.encodeField(output, calendar.getSecond());
+			this.encodeField(output, calendar.getTimezone());
+			output.writeString((null == calendar.getFractionalSecond())
+					? null : calendar.getFractionalSecond().toString());
+		}
+	}
+	
+	/**
+	 * Encodes a possibly undefined XML calendar field.
+	 * 
+	 * @param output the binary output
+	 * @param field the XML calendar field to be encoded
+	 */
+	private void encodeField(BinaryOutput output, int field) {
+		if (DatatypeConstants.FIELD_UNDEFINED == field) {
+			output.writeVarint(0);
+		} else {
+			output.writeVarint(((((long) field) << 1) ^ (((long) field) >> 63)) + 1L);
+		}
+	}
+	
+	/**
+	 * Encodes a nullable XML duration lexically.
+	 * 
+	 * @param output the binary output
+	 * @param duration the XML duration to be encoded, may be null
+	 */
+	public void encodeDuration(BinaryOutput output, Duration duration) {
+		output.writeString((null == duration) ? null : duration.toString());
+	}
+	
+}
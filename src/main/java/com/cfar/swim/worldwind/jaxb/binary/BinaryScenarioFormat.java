@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.binary;
+
+/**
+ * Defines the binary scenario format. A binary scenario starts with a magic
+ * number and a format version followed by length-prefixed sections in
+ * schema order and an end tag. Each section consists of a section tag, the
+ * varint length of its payload and the payload itself, such that unknown
+ * or unwanted sections can be skipped. Counts are encoded as varints,
+ * positions and other doubles as raw IEEE 754 doubles and the obstacle,
+ * environment, planner, datalink and SWIM variants as type tags.
+ * 
+ * @author Stephan Heinemann
+ *
+ */
+public final class BinaryScenarioFormat {
+	
+	/** the magic number of binary scenarios */
+	public static final byte[] MAGIC = {'S', 'A', 'F', 'C'};
+	
+	/** the current version of the binary scenario format */
+	public static final int VERSION = 1;
+	
+	/** the tag terminating the sections of a binary scenario */
+	public static final byte SECTION_END = 0;
+	
+	/** the tag of the scenario attributes section */
+	public static final byte SECTION_ATTRIBUTES = 1;
+	
+	/** the tag of the environment section */
+	public static final byte SECTION_ENVIRONMENT = 2;
+	
+	/** the tag of the obstacles section */
+	public static final byte SECTION_OBSTACLES = 3;
+	
+	/** the tag of the aircraft section */
+	public static final byte SECTION_AIRCRAFT = 4;
+	
+	/** the tag of the waypoints section */
+	public static final byte SECTION_WAYPOINTS = 5;
+	
+	/** the tag of the trajectory section */
+	public static final byte SECTION_TRAJECTORY = 6;
+	
+	/** the tag of the planner section */
+	public static final byte SECTION_PLANNER = 7;
+	
+	/** the tag of the datalink section */
+	public static final byte SECTION_DATALINK = 8;
+	
+	/** the tag of the SWIM section */
+	public static final byte SECTION_SWIM = 9;
+	
+	/** the type tag of absent variants */
+	public static final byte TYPE_NONE = 0;
+	
+	/** the type tag of box obstacles */
+	public static final byte OBSTACLE_BOX = 1;
+	
+	/** the type tag of cylinder obstacles */
+	public static final byte OBSTACLE_CYLINDER = 2;
+	
+	/** the type tag of sphere obstacles */
+	public static final byte OBSTACLE_SPHERE = 3;
+	
+	/** the type tag of planning grid environments */
+	public static final byte ENVIRONMENT_GRID = 1;
+	
+	/** the type tag of planning continuum environments */
+	public static final byte ENVIRONMENT_CONTINUUM = 2;
+	
+	/** the type tag of A* planners */
+	public static final byte PLANNER_ASTAR = 1;
+	
+	/** the type tag of Theta* planners */
+	public static final byte PLANNER_THETASTAR = 2;
+	
+	/** the type tag of ARA* planners */
+	public static final byte PLANNER_ARASTAR = 3;
+	
+	/** the type tag of AD* planners */
+	public static final byte PLANNER_ADSTAR = 4;
+	
+	/** the type tag of OAD* planners */
+	public static final byte PLANNER_OADSTAR = 5;
+	
+	/** the type tag of basic RRT planners */
+	public static final byte PLANNER_BRRT = 6;
+	
+	/** the type tag of anytime RRT planners */
+	public static final byte PLANNER_ARRT = 7;
+	
+	/** the type tag of dynamic RRT planners */
+	public static final byte PLANNER_DRRT = 8;
+	
+	/** the type tag of heuristic RRT planners */
+	public static final byte PLANNER_HRRT = 9;
+	
+	/** the type tag of anytime dynamic RRT planners */
+	public static final byte PLANNER_ADRRT = 10;
+	
+	/** the type tag of online anytime dynamic RRT planners */
+	public static final byte PLANNER_OADRRT = 11;
+	
+	/** the type tag of RRT* planners */
+	public static final byte PLANNER_RRTSTAR = 12;
+	
+	/** the type tag of simulated datalinks */
+	public static final byte DATALINK_SIMULATED = 1;
+	
+	/** the type tag of Dronekit datalinks */
+	public static final byte DATALINK_DRONEKIT = 2;
+	
+	/** the type tag of MAVLink datalinks */
+	public static final byte DATALINK_MAVLINK = 3;
+	
+	/** the type tag of simulated SWIM connections */
+	public static final byte SWIM_SIMULATED = 1;
+	
+	/** the type tag of live SWIM connections */
+	public static final byte SWIM_LIVE = 2;
+	
+	/**
+	 * Prevents the construction of a binary scenario format.
+	 */
+	private BinaryScenarioFormat() {
+	}
+	
+}
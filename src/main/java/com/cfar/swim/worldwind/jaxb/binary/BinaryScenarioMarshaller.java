@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.bind.JAXBException;
+
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.DepictionAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.EnvironmentAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstaclesAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.PlannerAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.TemporalCodec;
+import com.cfar.swim.worldwind.jaxb.adapters.WaypointAdapter;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+/**
+ * Realizes a binary scenario marshaller which writes scenarios in the
+ * binary scenario format. Obstacles and waypoints of scenarios are adapted
+ * and encoded one at a time without building a complete JAXB scenario.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see BinaryScenarioFormat
+ * @see BinaryScenarioUnmarshaller
+ */
+public class BinaryScenarioMarshaller {
+	
+	/** the binary scenario encoder of this binary scenario marshaller */
+	private final BinaryScenarioEncoder encoder = new BinaryScenarioEncoder();
+	
+	/**
+	 * Marshals a JAXB scenario into an output file.
+	 * 
+	 * @param scenario the JAXB scenario to be marshalled
+	 * @param output the output file
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be marshalled
+	 */
+	public void marshal(Scenario scenario, File output) throws JAXBException {
+		try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(output))) {
+			this.marshal(scenario, stream);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Marshals a JAXB scenario into an output stream. The output stream is
+	 * flushed but not closed.
+	 * 
+	 * @param scenario the JAXB scenario to be marshalled
+	 * @param output the output stream
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be marshalled
+	 */
+	public void marshal(Scenario scenario, OutputStream output) throws JAXBException {
+		BinaryOutput section = new BinaryOutput();
+		
+		try {
+			BinaryScenarioMarshaller.writeHeader(output);
+			this.encoder.encodeAttributes(section, scenario);
+			BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_ATTRIBUTES, section);
+			
+			if (null != scenario.getEnvironment()) {
+				section.reset();
+				this.encoder.encodeEnvironment(section, scenario.getEnvironment());
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_ENVIRONMENT, section);
+			}
+			if (null != scenario.getObstacles()) {
+				section.reset();
+				long count = 0;
+				for (Object obstacle : scenario.getObstacles().getBoxOrCylinderOrSphere()) {
+					if (this.encoder.encodeObstacle(section, obstacle)) {
+						count++;
+					}
+				}
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_OBSTACLES, count, section);
+			}
+			if (null != scenario.getAircraft()) {
+				section.reset();
+				this.encoder.encodeAircraft(section, scenario.getAircraft());
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_AIRCRAFT, section);
+			}
+			if (null != scenario.getWaypoints()) {
+				section.reset();
+				this.encoder.encodeWaypoints(section, scenario.getWaypoints());
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_WAYPOINTS, section);
+			}
+			if (null != scenario.getTrajectory()) {
+				section.reset();
+				this.encoder.encodeTrajectory(section, scenario.getTrajectory());
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_TRAJECTORY, section);
+			}
+			if (null != scenario.getPlanner()) {
+				section.reset();
+				this.encoder.encodePlanner(section, scenario.getPlanner());
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_PLANNER, section);
+			}
+			if (null != scenario.getDatalink()) {
+				section.reset();
+				this.encoder.encodeDatalink(section, scenario.getDatalink());
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_DATALINK, section);
+			}
+			if (null != scenario.getSwim()) {
+				section.reset();
+				this.encoder.encodeSwim(section, scenario.getSwim());
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_SWIM, section);
+			}
+			
+			output.write(BinaryScenarioFormat.SECTION_END);
+			output.flush();
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Marshals a scenario into an output file.
+	 * 
+	 * @param scenario the scenario to be marshalled
+	 * @param output the output file
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	public void marshalScenario(com.cfar.swim.worldwind.session.Scenario scenario, File output)
+			throws JAXBException {
+		try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(output))) {
+			this.marshalScenario(scenario, stream);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Marshals a scenario into an output stream. The output stream is flushed
+	 * but not closed.
+	 * 
+	 * @param scenario the scenario to be marshalled
+	 * @param output the output stream
+	 * 
+	 * @throws JAXBException if the scenario cannot be marshalled
+	 */
+	public void marshalScenario(com.cfar.swim.worldwind.session.Scenario scenario, OutputStream output)
+			throws JAXBException {
+		BinaryOutput section = new BinaryOutput();
+		
+		try {
+			BinaryScenarioMarshaller.writeHeader(output);
+			Scenario attributes = new Scenario();
+			attributes.setId(scenario.getId());
+			if (null != scenario.getTime()) {
+				attributes.setTime(TemporalCodec.encodeTime(scenario.getTime()));
+			}
+			attributes.setThreshold(scenario.getThreshold());
+			attributes.setGlobe(AdapterRegistry.getGlobeAdapter().marshal(scenario.getGlobe()));
+			this.encoder.encodeAttributes(section, attributes);
+			BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_ATTRIBUTES, section);
+			
+			section.reset();
+			this.encoder.encodeEnvironment(section,
+					new EnvironmentAdapter(scenario.getGlobe()).marshal(scenario.getEnvironment()));
+			BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_ENVIRONMENT, section);
+			
+			if (scenario.hasObstacles()) {
+				ObstaclesAdapter obstaclesAdapter = AdapterRegistry.getObstaclesAdapter();
+				section.reset();
+				long count = 0;
+				for (com.cfar.swim.worldwind.render.Obstacle obstacle : scenario.getObstacles()) {
+					if (this.encoder.encodeObstacle(section, obstaclesAdapter.marshalObstacle(obstacle))) {
+						count++;
+					}
+				}
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_OBSTACLES, count, section);
+			}
+			if (scenario.hasAircraft()) {
+				section.reset();
+				this.encoder.encodeAircraft(section, AdapterRegistry.getAircraftAdapter().marshal(scenario.getAircraft()));
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_AIRCRAFT, section);
+			}
+			if (scenario.hasWaypoints()) {
+				section.reset();
+				this.encodeWaypoints(section, scenario.getWaypoints());
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_WAYPOINTS, section);
+			}
+			if (scenario.hasTrajectory()) {
+				com.cfar.swim.worldwind.planning.Trajectory trajectory = scenario.getTrajectory();
+				section.reset();
+				this.encodeWaypoints(section, trajectory.getWaypoints());
+				this.encoder.encodeDepiction(section, trajectory.hasDepiction()
+						? new DepictionAdapter(trajectory.getReferencePosition()).marshal(trajectory.getDepiction())
+						: null);
+				BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_TRAJECTORY, section);
+			}
+			
+			section.reset();
+			this.encoder.encodePlanner(section,
+					new PlannerAdapter(scenario.getAircraft(), scenario.getEnvironment()).marshal(scenario.getPlanner()));
+			BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_PLANNER, section);
+			section.reset();
+			this.encoder.encodeDatalink(section, AdapterRegistry.getDatalinkAdapter().marshal(scenario.getDatalink()));
+			BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_DATALINK, section);
+			section.reset();
+			this.encoder.encodeSwim(section, AdapterRegistry.getSwimAdapter().marshal(scenario.getSwimConnection()));
+			BinaryScenarioMarshaller.writeSection(output, BinaryScenarioFormat.SECTION_SWIM, section);
+			
+			output.write(BinaryScenarioFormat.SECTION_END);
+			output.flush();
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Encodes waypoints one at a time prefixed by their number.
+	 * 
+	 * @param output the binary output
+	 * @param waypoints the waypoints to be encoded
+	 * 
+	 * @throws Exception if the waypoints cannot be encoded
+	 */
+	private void encodeWaypoints(BinaryOutput output,
+			Iterable<? extends com.cfar.swim.worldwind.planning.Waypoint> waypoints) throws Exception {
+		WaypointAdapter waypointAdapter = AdapterRegistry.getWaypointAdapter();
+		BinaryOutput records = new BinaryOutput();
+		long count = 0;
+		
+		for (com.cfar.swim.worldwind.planning.Waypoint waypoint : waypoints) {
+			this.encoder.encodeWaypoint(records, waypointAdapter.marshal(waypoint));
+			count++;
+		}
+		output.writeVarint(count);
+		output.writeBytes(records);
+	}
+	
+	/**
+	 * Writes the magic number and format version of a binary scenario.
+	 * 
+	 * @param output the output stream
+	 * 
+	 * @throws IOException if the header cannot be written
+	 */
+	public static void writeHeader(OutputStream output) throws IOException {
+		BinaryOutput header = new BinaryOutput(16);
+		header.writeBytes(BinaryScenarioFormat.MAGIC, 0, BinaryScenarioFormat.MAGIC.length);
+		header.writeVarint(BinaryScenarioFormat.VERSION);
+		header.writeTo(output);
+	}
+	
+	/**
+	 * Writes a length-prefixed section of a binary scenario.
+	 * 
+	 * @param output the output stream
+	 * @param tag the section tag
+	 * @param payload the section payload
+	 * 
+	 * @throws IOException if the section cannot be written
+	 */
+	public static void writeSection(OutputStream output, byte tag, BinaryOutput payload) throws IOException {
+		BinaryOutput prefix = new BinaryOutput(16);
+		prefix.writeByte(tag);
+		prefix.writeVarint(payload.size());
+		prefix.writeTo(output);
+		payload.writeTo(output);
+	}
+	
+	/**
+	 * Writes a length-prefixed section of a binary scenario whose payload
+	 * is preceded by the number of its records.
+	 * 
+	 * @param output the output stream
+	 * @param tag the section tag
+	 * @param count the number of records of the section payload
+	 * @param payload the section payload
+	 * 
+	 * @throws IOException if the section cannot be written
+	 */
+	public static void writeSection(OutputStream output, byte tag, long count, BinaryOutput payload)
+			throws IOException {
+		BinaryOutput prefix = new BinaryOutput(32);
+		prefix.writeByte(tag);
+		prefix.writeVarint(BinaryOutput.sizeOfVarint(count) + (long) payload.size());
+		prefix.writeVarint(count);
+		prefix.writeTo(output);
+		payload.writeTo(output);
+	}
+	
+}
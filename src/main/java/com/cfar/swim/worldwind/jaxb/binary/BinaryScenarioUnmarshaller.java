@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.binary;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.xml.bind.JAXBException;
+
+import com.cfar.swim.worldwind.jaxb.MappedFileInputStream;
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstaclesAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.ScenarioAdapter;
+import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+/**
+ * Realizes a binary scenario unmarshaller which reads scenarios in the
+ * binary scenario format. When unmarshalling scenarios, obstacles are
+ * decoded and adapted one at a time and submitted to the unmarshalled
+ * scenario in batches.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see BinaryScenarioFormat
+ * @see BinaryScenarioMarshaller
+ */
+public class BinaryScenarioUnmarshaller {
+	
+	/** the default number of obstacles submitted to a scenario at once */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+	
+	/** the binary scenario decoder of this binary scenario unmarshaller */
+	private final BinaryScenarioDecoder decoder = new BinaryScenarioDecoder();
+	
+	/** the number of obstacles submitted to a scenario at once */
+	private int batchSize = BinaryScenarioUnmarshaller.DEFAULT_BATCH_SIZE;
+	
+	/** indicates whether or not this binary scenario unmarshaller memory maps input files */
+	private boolean mapped = false;
+	
+	/**
+	 * Gets the number of obstacles submitted to a scenario at once by this
+	 * binary scenario unmarshaller.
+	 * 
+	 * @return the number of obstacles submitted to a scenario at once
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+	
+	/**
+	 * Sets the number of obstacles submitted to a scenario at once by this
+	 * binary scenario unmarshaller.
+	 * 
+	 * @param batchSize the number of obstacles submitted to a scenario at once
+	 * 
+	 * @throws IllegalArgumentException if the batch size is not positive
+	 */
+	public void setBatchSize(int batchSize) {
+		if (0 >= batchSize) {
+			throw new IllegalArgumentException("invalid batch size");
+		}
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * Indicates whether or not this binary scenario unmarshaller memory maps
+	 * input files.
+	 * 
+	 * @return true if input files are memory mapped, false otherwise
+	 */
+	public boolean isMapped() {
+		return this.mapped;
+	}
+	
+	/**
+	 * Sets whether or not this binary scenario unmarshaller memory maps input
+	 * files. Input files of at most 2 GB are decoded directly from a single
+	 * mapping, larger input files from chunked mappings.
+	 * 
+	 * @param mapped true if input files are to be memory mapped, false
+	 *        otherwise
+	 * 
+	 * @see MappedFileInputStream
+	 */
+	public void setMapped(boolean mapped) {
+		this.mapped = mapped;
+	}
+	
+	/**
+	 * Unmarshals a JAXB scenario from an input file.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled JAXB scenario
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be unmarshalled
+	 */
+	public Scenario unmarshal(File input) throws JAXBException {
+		if (this.mapped && (Integer.MAX_VALUE >= input.length())) {
+			return this.unmarshal(new BinaryInput(BinaryScenarioUnmarshaller.map(input)));
+		}
+		
+		try (InputStream stream = this.openInput(input)) {
+			return this.unmarshal(new BinaryInput(stream));
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Opens an input file of this binary scenario unmarshaller.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the opened input stream
+	 * 
+	 * @throws IOException if the input file cannot be opened
+	 */
+	private InputStream openInput(File input) throws IOException {
+		return this.mapped ? new MappedFileInputStream(input) : new FileInputStream(input);
+	}
+	
+	/**
+	 * Maps a complete input file of at most 2 GB.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the mapped input file
+	 * 
+	 * @throws JAXBException if the input file cannot be mapped
+	 */
+	private static ByteBuffer map(File input) throws JAXBException {
+		try (FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Unmarshals a JAXB scenario from an input stream. The input stream is
+	 * not closed.
+	 * 
+	 * @param input the input stream
+	 * 
+	 * @return the unmarshalled JAXB scenario
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be unmarshalled
+	 */
+	public Scenario unmarshal(InputStream input) throws JAXBException {
+		return this.unmarshal(new BinaryInput(input));
+	}
+	
+	/**
+	 * Unmarshals a JAXB scenario from a binary input.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the unmarshalled JAXB scenario
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be unmarshalled
+	 */
+	public Scenario unmarshal(BinaryInput input) throws JAXBException {
+		Scenario scenario = null;
+		
+		try {
+			BinaryScenarioUnmarshaller.readHeader(input);
+			byte tag = input.readByte();
+			while (BinaryScenarioFormat.SECTION_END != tag) {
+				long length = input.readVarint();
+				long start = input.position();
+				
+				switch (tag) {
+				case BinaryScenarioFormat.SECTION_ATTRIBUTES:
+					scenario = this.decoder.decodeAttributes(input);
+					break;
+				case BinaryScenarioFormat.SECTION_OBSTACLES:
+					Obstacles obstacles = new Obstacles();
+					long count = input.readVarint();
+					for (long index = 0; index < count; index++) {
+						obstacles.getBoxOrCylinderOrSphere().add(this.decoder.decodeObstacle(input));
+					}
+					BinaryScenarioUnmarshaller.requireScenario(scenario).setObstacles(obstacles);
+					break;
+				default:
+					this.decodeSection(input, tag, length, BinaryScenarioUnmarshaller.requireScenario(scenario));
+				}
+				
+				BinaryScenarioUnmarshaller.checkSection(input, tag, start, length);
+				tag = input.readByte();
+			}
+			
+			return BinaryScenarioUnmarshaller.requireScenario(scenario);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(File input) throws JAXBException {
+		if (this.mapped && (Integer.MAX_VALUE >= input.length())) {
+			return this.unmarshalScenario(new BinaryInput(BinaryScenarioUnmarshaller.map(input)));
+		}
+		
+		try (InputStream stream = this.openInput(input)) {
+			return this.unmarshalScenario(new BinaryInput(stream));
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input stream. The input stream is not
+	 * closed.
+	 * 
+	 * @param input the input stream
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(InputStream input) throws JAXBException {
+		return this.unmarshalScenario(new BinaryInput(input));
+	}
+	
+	/**
+	 * Unmarshals a scenario from a binary input.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(BinaryInput input) throws JAXBException {
+		ScenarioAdapter scenarioAdapter = AdapterRegistry.getScenarioAdapter();
+		com.cfar.swim.worldwind.session.Scenario unmarshalledScenario = null;
+		Scenario scenario = null;
+		
+		try {
+			BinaryScenarioUnmarshaller.readHeader(input);
+			byte tag = input.readByte();
+			while (BinaryScenarioFormat.SECTION_END != tag) {
+				long length = input.readVarint();
+				long start = input.position();
+				
+				switch (tag) {
+				case BinaryScenarioFormat.SECTION_ATTRIBUTES:
+					scenario = this.decoder.decodeAttributes(input);
+					break;
+				case BinaryScenarioFormat.SECTION_OBSTACLES:
+					unmarshalledScenario = scenarioAdapter.unmarshalHeader(
+							BinaryScenarioUnmarshaller.requireScenario(scenario));
+					this.unmarshalObstacles(input, unmarshalledScenario);
+					break;
+				default:
+					this.decodeSection(input, tag, length, BinaryScenarioUnmarshaller.requireScenario(scenario));
+				}
+				
+				BinaryScenarioUnmarshaller.checkSection(input, tag, start, length);
+				tag = input.readByte();
+			}
+			
+			if (null == unmarshalledScenario) {
+				unmarshalledScenario = scenarioAdapter.unmarshalHeader(
+						BinaryScenarioUnmarshaller.requireScenario(scenario));
+			}
+			scenarioAdapter.unmarshalBody(scenario, unmarshalledScenario);
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		}
+		
+		return unmarshalledScenario;
+	}
+	
+	/**
+	 * Decodes a section other than the attributes and obstacles sections
+	 * into a JAXB scenario. Unknown sections are skipped.
+	 * 
+	 * @param input the binary input positioned at the section payload
+	 * @param tag the section tag
+	 * @param length the length of the section payload
+	 * @param scenario the JAXB scenario to decode the section into
+	 * 
+	 * @throws IOException if the section cannot be decoded
+	 */
+	private void decodeSection(BinaryInput input, byte tag, long length, Scenario scenario) throws IOException {
+		switch (tag) {
+		case BinaryScenarioFormat.SECTION_ENVIRONMENT:
+			scenario.setEnvironment(this.decoder.decodeEnvironment(input));
+			break;
+		case BinaryScenarioFormat.SECTION_AIRCRAFT:
+			scenario.setAircraft(this.decoder.decodeAircraft(input));
+			break;
+		case BinaryScenarioFormat.SECTION_WAYPOINTS:
+			scenario.setWaypoints(this.decoder.decodeWaypoints(input));
+			break;
+		case BinaryScenarioFormat.SECTION_TRAJECTORY:
+			scenario.setTrajectory(this.decoder.decodeTrajectory(input));
+			break;
+		case BinaryScenarioFormat.SECTION_PLANNER:
+			scenario.setPlanner(this.decoder.decodePlanner(input));
+			break;
+		case BinaryScenarioFormat.SECTION_DATALINK:
+			scenario.setDatalink(this.decoder.decodeDatalink(input));
+			break;
+		case BinaryScenarioFormat.SECTION_SWIM:
+			scenario.setSwim(this.decoder.decodeSwim(input));
+			break;
+		default:
+			input.skip(length);
+		}
+	}
+	
+	/**
+	 * Unmarshals the obstacles section of a scenario submitting the obstacles
+	 * in batches.
+	 * 
+	 * @param input the binary input positioned at the obstacles payload
+	 * @param unmarshalledScenario the scenario to submit the obstacles to
+	 * 
+	 * @throws Exception if the obstacles cannot be unmarshalled
+	 */
+	private void unmarshalObstacles(BinaryInput input,
+			com.cfar.swim.worldwind.session.Scenario unmarshalledScenario) throws Exception {
+		ObstaclesAdapter obstaclesAdapter = AdapterRegistry.getObstaclesAdapter();
+		Set<com.cfar.swim.worldwind.render.Obstacle> batch = new HashSet<>();
+		long count = input.readVarint();
+		
+		for (long index = 0; index < count; index++) {
+			com.cfar.swim.worldwind.render.Obstacle unmarshalledObstacle =
+					obstaclesAdapter.unmarshalObstacle(this.decoder.decodeObstacle(input));
+			if (null != unmarshalledObstacle) {
+				batch.add(unmarshalledObstacle);
+				if (this.batchSize <= batch.size()) {
+					unmarshalledScenario.submitAddObstacles(batch);
+					batch = new HashSet<>();
+				}
+			}
+		}
+		
+		if (!batch.isEmpty()) {
+			unmarshalledScenario.submitAddObstacles(batch);
+		}
+	}
+	
+	/**
+	 * Reads and verifies the magic number and format version of a binary
+	 * scenario.
+	 * 
+	 * @param input the binary input
+	 * 
+	 * @throws IOException if the header cannot be read, the input is not a
+	 *         binary scenario or its version is not supported
+	 */
+	public static void readHeader(BinaryInput input) throws IOException {
+		byte[] magic = new byte[BinaryScenarioFormat.MAGIC.length];
+		input.readBytes(magic, 0, magic.length);
+		if (!Arrays.equals(BinaryScenarioFormat.MAGIC, magic)) {
+			throw new IOException("not a binary scenario");
+		}
+		
+		long version = input.readVarint();
+		if (BinaryScenarioFormat.VERSION != version) {
+			throw new IOException("unsupported binary scenario version " + version);
+		}
+	}
+	
+	/**
+	 * Verifies that a section has been consumed exactly.
+	 * 
+	 * @param input the binary input
+	 * @param tag the section tag
+	 * @param start the position of the section payload
+	 * @param length the length of the section payload
+	 * 
+	 * @throws IOException if the section has not been consumed exactly
+	 */
+	private static void checkSection(BinaryInput input, byte tag, long start, long length) throws IOException {
+		if ((input.position() - start) != length) {
+			throw new IOException("corrupt binary scenario section " + tag);
+		}
+	}
+	
+	/**
+	 * Requires the attributes section to precede all other sections.
+	 * 
+	 * @param scenario the JAXB scenario holding the decoded attributes
+	 * 
+	 * @return the JAXB scenario
+	 * 
+	 * @throws IOException if the attributes section is missing
+	 */
+	private static Scenario requireScenario(Scenario scenario) throws IOException {
+		if (null == scenario) {
+			throw new IOException("missing binary scenario attributes");
+		}
+		return scenario;
+	}
+	
+}
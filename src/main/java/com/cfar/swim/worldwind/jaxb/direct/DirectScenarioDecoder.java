@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.direct;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.bind.annotation.adapters.CollapsedStringAdapter;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.adapters.TemporalCodec;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.Datum;
+import com.cfar.swim.worldwind.jaxb.scenario.Depiction;
+import com.cfar.swim.worldwind.jaxb.scenario.Location;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
+import com.cfar.swim.worldwind.jaxb.scenario.Position;
+import com.cfar.swim.worldwind.jaxb.scenario.Symbology;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a direct scenario decoder which decodes the bulk sections of a
+ * JAXB scenario, that is, its obstacles, waypoints and trajectory, directly
+ * from an XML stream reader without involving the JAXB runtime. Attributes
+ * are only set if they are present in order to preserve the same defaults
+ * as JAXB unmarshalling. Each decoding method expects the reader to be
+ * positioned at the start element of the decoded fragment and leaves it at
+ * the event following the corresponding end element. Direct scenario
+ * decoders cache recently parsed calendars, which are typically shared by
+ * many cost intervals, and are therefore not thread-safe.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see DirectScenarioEncoder
+ */
+public class DirectScenarioDecoder {
+	
+	/** the maximum number of cached calendars of a direct scenario decoder */
+	public static final int CALENDAR_CACHE_SIZE = 64;
+	
+	/** the collapsed string adapter of identifiers */
+	private static final CollapsedStringAdapter collapsedStringAdapter = new CollapsedStringAdapter();
+	
+	/** the parsed calendars of this direct scenario decoder keyed by their lexical representations */
+	private final Map<String, XMLGregorianCalendar> calendars = new HashMap<>();
+	
+	/**
+	 * Decodes the obstacles section of a scenario.
+	 * 
+	 * @param reader the XML stream reader positioned at the obstacles element
+	 * 
+	 * @return the decoded obstacles
+	 * 
+	 * @throws XMLStreamException if the obstacles cannot be decoded
+	 */
+	public Obstacles decodeObstacles(XMLStreamReader reader) throws XMLStreamException {
+		Obstacles obstacles = new Obstacles();
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			Object obstacle = this.decodeObstacle(reader);
+			if (null != obstacle) {
+				obstacles.getBoxOrCylinderOrSphere().add(obstacle);
+			}
+		}
+		reader.next();
+		
+		return obstacles;
+	}
+	
+	/**
+	 * Decodes a single obstacle. Unknown obstacle elements are skipped.
+	 * 
+	 * @param reader the XML stream reader positioned at the obstacle element
+	 * 
+	 * @return the decoded obstacle, null if the obstacle element is unknown
+	 * 
+	 * @throws XMLStreamException if the obstacle cannot be decoded
+	 */
+	public Object decodeObstacle(XMLStreamReader reader) throws XMLStreamException {
+		Object obstacle = null;
+		
+		switch (reader.getLocalName()) {
+		case "box":
+			obstacle = this.decodeObstacleBox(reader);
+			break;
+		case "cylinder":
+			obstacle = this.decodeObstacleCylinder(reader);
+			break;
+		case "sphere":
+			obstacle = this.decodeObstacleSphere(reader);
+			break;
+		default:
+			ScenarioStreams.skipElement(reader);
+		}
+		
+		return obstacle;
+	}
+	
+	/**
+	 * Decodes a box obstacle.
+	 * 
+	 * @param reader the XML stream reader positioned at the box element
+	 * 
+	 * @return the decoded box obstacle
+	 * 
+	 * @throws XMLStreamException if the box obstacle cannot be decoded
+	 */
+	public ObstacleBox decodeObstacleBox(XMLStreamReader reader) throws XMLStreamException {
+		ObstacleBox box = new ObstacleBox();
+		
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String value = reader.getAttributeValue(index);
+			switch (reader.getAttributeLocalName(index)) {
+			case "leftWidth":
+				box.setLeftWidth(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "rightWidth":
+				box.setRightWidth(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "bottom":
+				box.setBottom(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "top":
+				box.setTop(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "bottomDatum":
+				box.setBottomDatum(Datum.fromValue(value));
+				break;
+			case "topDatum":
+				box.setTopDatum(Datum.fromValue(value));
+				break;
+			default:
+				break;
+			}
+		}
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			switch (reader.getLocalName()) {
+			case "begin":
+				box.setBegin(this.decodeLocation(reader));
+				break;
+			case "end":
+				box.setEnd(this.decodeLocation(reader));
+				break;
+			case "costInterval":
+				box.setCostInterval(this.decodeCostInterval(reader));
+				break;
+			case "depiction":
+				box.setDepiction(this.decodeDepiction(reader));
+				break;
+			default:
+				ScenarioStreams.skipElement(reader);
+			}
+		}
+		reader.next();
+		
+		return box;
+	}
+	
+	/**
+	 * Decodes a cylinder obstacle.
+	 * 
+	 * @param reader the XML stream reader positioned at the cylinder element
+	 * 
+	 * @return the decoded cylinder obstacle
+	 * 
+	 * @throws XMLStreamException if the cylinder obstacle cannot be decoded
+	 */
+	public ObstacleCylinder decodeObstacleCylinder(XMLStreamReader reader) throws XMLStreamException {
+		ObstacleCylinder cylinder = new ObstacleCylinder();
+		
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String value = reader.getAttributeValue(index);
+			switch (reader.getAttributeLocalName(index)) {
+			case "radius":
+				cylinder.setRadius(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "bottom":
+				cylinder.setBottom(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "top":
+				cylinder.setTop(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "bottomDatum":
+				cylinder.setBottomDatum(Datum.fromValue(value));
+				break;
+			case "topDatum":
+				cylinder.setTopDatum(Datum.fromValue(value));
+				break;
+			default:
+				break;
+			}
+		}
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			switch (reader.getLocalName()) {
+			case "location":
+				cylinder.setLocation(this.decodeLocation(reader));
+				break;
+			case "costInterval":
+				cylinder.setCostInterval(this.decodeCostInterval(reader));
+				break;
+			case "depiction":
+				cylinder.setDepiction(this.decodeDepiction(reader));
+				break;
+			default:
+				ScenarioStreams.skipElement(reader);
+			}
+		}
+		reader.next();
+		
+		return cylinder;
+	}
+	
+	/**
+	 * Decodes a sphere obstacle.
+	 * 
+	 * @param reader the XML stream reader positioned at the sphere element
+	 * 
+	 * @return the decoded sphere obstacle
+	 * 
+	 * @throws XMLStreamException if the sphere obstacle cannot be decoded
+	 */
+	public ObstacleSphere decodeObstacleSphere(XMLStreamReader reader) throws XMLStreamException {
+		ObstacleSphere sphere = new ObstacleSphere();
+		
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String value = reader.getAttributeValue(index);
+			switch (reader.getAttributeLocalName(index)) {
+			case "radius":
+				sphere.setRadius(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "centerDatum":
+				sphere.setCenterDatum(Datum.fromValue(value));
+				break;
+			default:
+				break;
+			}
+		}
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			switch (reader.getLocalName()) {
+			case "center":
+				Position center = new Position();
+				this.decodePosition(reader, center);
+				ScenarioStreams.skipElement(reader);
+				sphere.setCenter(center);
+				break;
+			case "costInterval":
+				sphere.setCostInterval(this.decodeCostInterval(reader));
+				break;
+			case "depiction":
+				sphere.setDepiction(this.decodeDepiction(reader));
+				break;
+			default:
+				ScenarioStreams.skipElement(reader);
+			}
+		}
+		reader.next();
+		
+		return sphere;
+	}
+	
+	/**
+	 * Decodes the waypoints section of a scenario.
+	 * 
+	 * @param reader the XML stream reader positioned at the waypoints element
+	 * 
+	 * @return the decoded waypoints
+	 * 
+	 * @throws XMLStreamException if the waypoints cannot be decoded
+	 */
+	public Waypoints decodeWaypoints(XMLStreamReader reader) throws XMLStreamException {
+		Waypoints waypoints = new Waypoints();
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			if ("waypoint".equals(reader.getLocalName())) {
+				waypoints.getWaypoint().add(this.decodeWaypoint(reader));
+			} else {
+				ScenarioStreams.skipElement(reader);
+			}
+		}
+		reader.next();
+		
+		return waypoints;
+	}
+	
+	/**
+	 * Decodes the trajectory section of a scenario.
+	 * 
+	 * @param reader the XML stream reader positioned at the trajectory element
+	 * 
+	 * @return the decoded trajectory
+	 * 
+	 * @throws XMLStreamException if the trajectory cannot be decoded
+	 */
+	public Trajectory decodeTrajectory(XMLStreamReader reader) throws XMLStreamException {
+		Trajectory trajectory = new Trajectory();
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			switch (reader.getLocalName()) {
+			case "waypoint":
+				trajectory.getWaypoint().add(this.decodeWaypoint(reader));
+				break;
+			case "depiction":
+				trajectory.setDepiction(this.decodeDepiction(reader));
+				break;
+			default:
+				ScenarioStreams.skipElement(reader);
+			}
+		}
+		reader.next();
+		
+		return trajectory;
+	}
+	
+	/**
+	 * Decodes a single waypoint.
+	 * 
+	 * @param reader the XML stream reader positioned at the waypoint element
+	 * 
+	 * @return the decoded waypoint
+	 * 
+	 * @throws XMLStreamException if the waypoint cannot be decoded
+	 */
+	public Waypoint decodeWaypoint(XMLStreamReader reader) throws XMLStreamException {
+		Waypoint waypoint = new Waypoint();
+		this.decodePosition(reader, waypoint);
+		
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String value = reader.getAttributeValue(index);
+			switch (reader.getAttributeLocalName(index)) {
+			case "designator":
+				waypoint.setDesignator(value);
+				break;
+			case "cost":
+				waypoint.setCost(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "dtg":
+				waypoint.setDtg(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "ttg":
+				waypoint.setTtg(DirectScenarioDecoder.parseDuration(value));
+				break;
+			case "eto":
+				waypoint.setEto(this.parseCalendar(value));
+				break;
+			case "ato":
+				waypoint.setAto(this.parseCalendar(value));
+				break;
+			default:
+				break;
+			}
+		}
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			if ("depiction".equals(reader.getLocalName())) {
+				waypoint.setDepiction(this.decodeDepiction(reader));
+			} else {
+				ScenarioStreams.skipElement(reader);
+			}
+		}
+		reader.next();
+		
+		return waypoint;
+	}
+	
+	/**
+	 * Decodes a location.
+	 * 
+	 * @param reader the XML stream reader positioned at the location element
+	 * 
+	 * @return the decoded location
+	 * 
+	 * @throws XMLStreamException if the location cannot be decoded
+	 */
+	private Location decodeLocation(XMLStreamReader reader) throws XMLStreamException {
+		Location location = new Location();
+		this.decodePosition(reader, location);
+		ScenarioStreams.skipElement(reader);
+		return location;
+	}
+	
+	/**
+	 * Decodes the location and, for positions, the altitude attributes of
+	 * the current element without advancing the XML stream reader.
+	 * 
+	 * @param reader the XML stream reader positioned at a location element
+	 * @param location the location or position to decode into
+	 */
+	private void decodePosition(XMLStreamReader reader, Location location) {
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String value = reader.getAttributeValue(index);
+			switch (reader.getAttributeLocalName(index)) {
+			case "latitude":
+				location.setLatitude(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "longitude":
+				location.setLongitude(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "altitude":
+				if (location instanceof Position) {
+					((Position) location).setAltitude(DirectScenarioDecoder.parseDouble(value));
+				}
+				break;
+			default:
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Decodes a cost interval.
+	 * 
+	 * @param reader the XML stream reader positioned at the cost interval
+	 *        element
+	 * 
+	 * @return the decoded cost interval
+	 * 
+	 * @throws XMLStreamException if the cost interval cannot be decoded
+	 */
+	private CostInterval decodeCostInterval(XMLStreamReader reader) throws XMLStreamException {
+		CostInterval costInterval = new CostInterval();
+		
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String value = reader.getAttributeValue(index);
+			switch (reader.getAttributeLocalName(index)) {
+			case "id":
+				costInterval.setId(DirectScenarioDecoder.collapsedStringAdapter.unmarshal(value));
+				break;
+			case "start":
+				costInterval.setStart(this.parseCalendar(value));
+				break;
+			case "end":
+				costInterval.setEnd(this.parseCalendar(value));
+				break;
+			case "cost":
+				costInterval.setCost(DirectScenarioDecoder.parseDouble(value));
+				break;
+			case "enabled":
+				costInterval.setEnabled(DatatypeConverter.parseBoolean(value));
+				break;
+			default:
+				break;
+			}
+		}
+		ScenarioStreams.skipElement(reader);
+		
+		return costInterval;
+	}
+	
+	/**
+	 * Decodes a depiction.
+	 * 
+	 * @param reader the XML stream reader positioned at the depiction element
+	 * 
+	 * @return the decoded depiction
+	 * 
+	 * @throws XMLStreamException if the depiction cannot be decoded
+	 */
+	private Depiction decodeDepiction(XMLStreamReader reader) throws XMLStreamException {
+		Depiction depiction = new Depiction();
+		
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String value = reader.getAttributeValue(index);
+			switch (reader.getAttributeLocalName(index)) {
+			case "symbology":
+				depiction.setSymbology(Symbology.fromValue(value));
+				break;
+			case "sidc":
+				depiction.setSidc(value);
+				break;
+			case "text":
+				depiction.setText(value);
+				break;
+			case "image":
+				depiction.setImage(value);
+				break;
+			default:
+				break;
+			}
+		}
+		ScenarioStreams.skipElement(reader);
+		
+		return depiction;
+	}
+	
+	/**
+	 * Parses a double attribute value.
+	 * 
+	 * @param value the attribute value
+	 * 
+	 * @return the parsed double
+	 * 
+	 * @throws NumberFormatException if the attribute value cannot be parsed
+	 */
+	private static double parseDouble(String value) {
+		return DatatypeConverter.parseDouble(value.trim());
+	}
+	
+	/**
+	 * Parses a date, time or date time attribute value. Calendars are
+	 * mutable, hence, a copy of a cached calendar is returned for a
+	 * recurring lexical representation.
+	 * 
+	 * @param value the attribute value
+	 * 
+	 * @return the parsed calendar
+	 * 
+	 * @throws IllegalArgumentException if the attribute value cannot be
+	 *         parsed
+	 */
+	private XMLGregorianCalendar parseCalendar(String value) {
+		XMLGregorianCalendar calendar = this.calendars.get(value);
+		
+		if (null == calendar) {
+			calendar = TemporalCodec.getDatatypeFactory().newXMLGregorianCalendar(value.trim());
+			if (DirectScenarioDecoder.CALENDAR_CACHE_SIZE <= this.calendars.size()) {
+				this.calendars.clear();
+			}
+			this.calendars.put(value, calendar);
+		}
+		
+		return (XMLGregorianCalendar) calendar.clone();
+	}
+	
+	/**
+	 * Parses a duration attribute value.
+	 * 
+	 * @param value the attribute value
+	 * 
+	 * @return the parsed duration
+	 * 
+	 * @throws IllegalArgumentException if the attribute value cannot be
+	 *         parsed
+	 */
+	private static Duration parseDuration(String value) {
+		return TemporalCodec.getDatatypeFactory().newDuration(value.trim());
+	}
+	
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.direct;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.Depiction;
+import com.cfar.swim.worldwind.jaxb.scenario.Location;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Obstacles;
+import com.cfar.swim.worldwind.jaxb.scenario.Position;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a direct scenario encoder which encodes the bulk sections of a
+ * JAXB scenario, that is, its obstacles, waypoints and trajectory, directly
+ * into an XML stream writer without involving the JAXB runtime. Optional
+ * attributes with schema defaults are always encoded with their effective
+ * values, all other optional attributes only if they are present.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see DirectScenarioDecoder
+ */
+public class DirectScenarioEncoder {
+	
+	/**
+	 * Encodes the obstacles section of a scenario.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param obstacles the obstacles to be encoded
+	 * 
+	 * @throws XMLStreamException if the obstacles cannot be encoded
+	 */
+	public void encodeObstacles(XMLStreamWriter writer, Obstacles obstacles) throws XMLStreamException {
+		DirectScenarioEncoder.writeStartElement(writer, "obstacles");
+		for (Object obstacle : obstacles.getBoxOrCylinderOrSphere()) {
+			this.encodeObstacle(writer, obstacle);
+		}
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Encodes a single obstacle.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param obstacle the obstacle to be encoded, ignored if null or unknown
+	 * 
+	 * @return true if the obstacle has been encoded, false otherwise
+	 * 
+	 * @throws XMLStreamException if the obstacle cannot be encoded
+	 */
+	public boolean encodeObstacle(XMLStreamWriter writer, Object obstacle) throws XMLStreamException {
+		boolean encoded = true;
+		
+		if (obstacle instanceof ObstacleBox) {
+			this.encodeObstacleBox(writer, (ObstacleBox) obstacle);
+		} else if (obstacle instanceof ObstacleCylinder) {
+			this.encodeObstacleCylinder(writer, (ObstacleCylinder) obstacle);
+		} else if (obstacle instanceof ObstacleSphere) {
+			this.encodeObstacleSphere(writer, (ObstacleSphere) obstacle);
+		} else {
+			encoded = false;
+		}
+		
+		return encoded;
+	}
+	
+	/**
+	 * Encodes a box obstacle.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param box the box obstacle to be encoded
+	 * 
+	 * @throws XMLStreamException if the box obstacle cannot be encoded
+	 */
+	public void encodeObstacleBox(XMLStreamWriter writer, ObstacleBox box) throws XMLStreamException {
+		DirectScenarioEncoder.writeStartElement(writer, "box");
+		DirectScenarioEncoder.writeDouble(writer, "leftWidth", box.getLeftWidth());
+		DirectScenarioEncoder.writeDouble(writer, "rightWidth", box.getRightWidth());
+		DirectScenarioEncoder.writeDouble(writer, "bottom", box.getBottom());
+		DirectScenarioEncoder.writeDouble(writer, "top", box.getTop());
+		writer.writeAttribute("bottomDatum", box.getBottomDatum().value());
+		writer.writeAttribute("topDatum", box.getTopDatum().value());
+		this.encodeLocation(writer, "begin", box.getBegin());
+		this.encodeLocation(writer, "end", box.getEnd());
+		this.encodeCostInterval(writer, box.getCostInterval());
+		this.encodeDepiction(writer, box.getDepiction());
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Encodes a cylinder obstacle.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param cylinder the cylinder obstacle to be encoded
+	 * 
+	 * @throws XMLStreamException if the cylinder obstacle cannot be encoded
+	 */
+	public void encodeObstacleCylinder(XMLStreamWriter writer, ObstacleCylinder cylinder) throws XMLStreamException {
+		DirectScenarioEncoder.writeStartElement(writer, "cylinder");
+		DirectScenarioEncoder.writeDouble(writer, "radius", cylinder.getRadius());
+		DirectScenarioEncoder.writeDouble(writer, "bottom", cylinder.getBottom());
+		DirectScenarioEncoder.writeDouble(writer, "top", cylinder.getTop());
+		writer.writeAttribute("bottomDatum", cylinder.getBottomDatum().value());
+		writer.writeAttribute("topDatum", cylinder.getTopDatum().value());
+		this.encodeLocation(writer, "location", cylinder.getLocation());
+		this.encodeCostInterval(writer, cylinder.getCostInterval());
+		this.encodeDepiction(writer, cylinder.getDepiction());
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Encodes a sphere obstacle.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param sphere the sphere obstacle to be encoded
+	 * 
+	 * @throws XMLStreamException if the sphere obstacle cannot be encoded
+	 */
+	public void encodeObstacleSphere(XMLStreamWriter writer, ObstacleSphere sphere) throws XMLStreamException {
+		DirectScenarioEncoder.writeStartElement(writer, "sphere");
+		DirectScenarioEncoder.writeDouble(writer, "radius", sphere.getRadius());
+		writer.writeAttribute("centerDatum", sphere.getCenterDatum().value());
+		this.encodeLocation(writer, "center", sphere.getCenter());
+		this.encodeCostInterval(writer, sphere.getCostInterval());
+		this.encodeDepiction(writer, sphere.getDepiction());
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Encodes the waypoints section of a scenario.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param waypoints the waypoints to be encoded
+	 * 
+	 * @throws XMLStreamException if the waypoints cannot be encoded
+	 */
+	public void encodeWaypoints(XMLStreamWriter writer, Waypoints waypoints) throws XMLStreamException {
+		DirectScenarioEncoder.writeStartElement(writer, "waypoints");
+		for (Waypoint waypoint : waypoints.getWaypoint()) {
+			this.encodeWaypoint(writer, waypoint);
+		}
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Encodes the trajectory section of a scenario.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param trajectory the trajectory to be encoded
+	 * 
+	 * @throws XMLStreamException if the trajectory cannot be encoded
+	 */
+	public void encodeTrajectory(XMLStreamWriter writer, Trajectory trajectory) throws XMLStreamException {
+		DirectScenarioEncoder.writeStartElement(writer, "trajectory");
+		for (Waypoint waypoint : trajectory.getWaypoint()) {
+			this.encodeWaypoint(writer, waypoint);
+		}
+		this.encodeDepiction(writer, trajectory.getDepiction());
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Encodes a single waypoint.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param waypoint the waypoint to be encoded
+	 * 
+	 * @throws XMLStreamException if the waypoint cannot be encoded
+	 */
+	public void encodeWaypoint(XMLStreamWriter writer, Waypoint waypoint) throws XMLStreamException {
+		DirectScenarioEncoder.writeStartElement(writer, "waypoint");
+		DirectScenarioEncoder.writeDouble(writer, "latitude", waypoint.getLatitude());
+		DirectScenarioEncoder.writeDouble(writer, "longitude", waypoint.getLongitude());
+		DirectScenarioEncoder.writeDouble(writer, "altitude", waypoint.getAltitude());
+		writer.writeAttribute("designator", waypoint.getDesignator());
+		if (null != waypoint.getCost()) {
+			DirectScenarioEncoder.writeDouble(writer, "cost", waypoint.getCost());
+		}
+		if (null != waypoint.getDtg()) {
+			DirectScenarioEncoder.writeDouble(writer, "dtg", waypoint.getDtg());
+		}
+		if (null != waypoint.getTtg()) {
+			writer.writeAttribute("ttg", waypoint.getTtg().toString());
+		}
+		if (null != waypoint.getEto()) {
+			writer.writeAttribute("eto", DirectScenarioEncoder.printTime(waypoint.getEto()));
+		}
+		if (null != waypoint.getAto()) {
+			writer.writeAttribute("ato", DirectScenarioEncoder.printTime(waypoint.getAto()));
+		}
+		this.encodeDepiction(writer, waypoint.getDepiction());
+		writer.writeEndElement();
+	}
+	
+	/**
+	 * Encodes a location or position as an empty element.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the location element
+	 * @param location the location or position to be encoded, ignored if null
+	 * 
+	 * @throws XMLStreamException if the location cannot be encoded
+	 */
+	private void encodeLocation(XMLStreamWriter writer, String localName, Location location)
+			throws XMLStreamException {
+		if (null != location) {
+			writer.writeEmptyElement(ScenarioStreams.NAMESPACE_PREFIX, localName, ScenarioStreams.NAMESPACE_URI);
+			DirectScenarioEncoder.writeDouble(writer, "latitude", location.getLatitude());
+			DirectScenarioEncoder.writeDouble(writer, "longitude", location.getLongitude());
+			if (location instanceof Position) {
+				DirectScenarioEncoder.writeDouble(writer, "altitude", ((Position) location).getAltitude());
+			}
+		}
+	}
+	
+	/**
+	 * Encodes a cost interval as an empty element.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param costInterval the cost interval to be encoded, ignored if null
+	 * 
+	 * @throws XMLStreamException if the cost interval cannot be encoded
+	 */
+	private void encodeCostInterval(XMLStreamWriter writer, CostInterval costInterval) throws XMLStreamException {
+		if (null != costInterval) {
+			writer.writeEmptyElement(ScenarioStreams.NAMESPACE_PREFIX, "costInterval", ScenarioStreams.NAMESPACE_URI);
+			if (null != costInterval.getStart()) {
+				writer.writeAttribute("start", costInterval.getStart().toXMLFormat());
+			}
+			if (null != costInterval.getEnd()) {
+				writer.writeAttribute("end", costInterval.getEnd().toXMLFormat());
+			}
+			if (null != costInterval.getId()) {
+				writer.writeAttribute("id", costInterval.getId());
+			}
+			DirectScenarioEncoder.writeDouble(writer, "cost", costInterval.getCost());
+			writer.writeAttribute("enabled", DatatypeConverter.printBoolean(costInterval.isEnabled()));
+		}
+	}
+	
+	/**
+	 * Encodes a depiction as an empty element.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param depiction the depiction to be encoded, ignored if null
+	 * 
+	 * @throws XMLStreamException if the depiction cannot be encoded
+	 */
+	public void encodeDepiction(XMLStreamWriter writer, Depiction depiction) throws XMLStreamException {
+		if (null != depiction) {
+			writer.writeEmptyElement(ScenarioStreams.NAMESPACE_PREFIX, "depiction", ScenarioStreams.NAMESPACE_URI);
+			if (null != depiction.getSymbology()) {
+				writer.writeAttribute("symbology", depiction.getSymbology().value());
+			}
+			if (null != depiction.getSidc()) {
+				writer.writeAttribute("sidc", depiction.getSidc());
+			}
+			if (null != depiction.getText()) {
+				writer.writeAttribute("text", depiction.getText());
+			}
+			if (null != depiction.getImage()) {
+				writer.writeAttribute("image", depiction.getImage());
+			}
+		}
+	}
+	
+	/**
+	 * Writes a start element of the scenario namespace.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the start element
+	 * 
+	 * @throws XMLStreamException if the start element cannot be written
+	 */
+	private static void writeStartElement(XMLStreamWriter writer, String localName) throws XMLStreamException {
+		writer.writeStartElement(ScenarioStreams.NAMESPACE_PREFIX, localName, ScenarioStreams.NAMESPACE_URI);
+	}
+	
+	/**
+	 * Writes a double attribute.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the attribute
+	 * @param value the double value of the attribute
+	 * 
+	 * @throws XMLStreamException if the attribute cannot be written
+	 */
+	private static void writeDouble(XMLStreamWriter writer, String localName, double value)
+			throws XMLStreamException {
+		writer.writeAttribute(localName, DatatypeConverter.printDouble(value));
+	}
+	
+	/**
+	 * Prints a calendar as schema time omitting any date fields.
+	 * 
+	 * @param calendar the calendar to be printed
+	 * 
+	 * @return the printed schema time
+	 */
+	private static String printTime(XMLGregorianCalendar calendar) {
+		XMLGregorianCalendar time = (XMLGregorianCalendar) calendar.clone();
+		time.setYear(DatatypeConstants.FIELD_UNDEFINED);
+		time.setMonth(DatatypeConstants.FIELD_UNDEFINED);
+		time.setDay(DatatypeConstants.FIELD_UNDEFINED);
+		return time.toXMLFormat();
+	}
+	
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.direct;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.cfar.swim.worldwind.jaxb.MappedFileInputStream;
+import com.cfar.swim.worldwind.jaxb.ScenarioContext;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstacleFilter;
+import com.cfar.swim.worldwind.jaxb.adapters.ScenarioAdapter;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+
+/**
+ * Realizes a direct scenario unmarshaller which reads scenarios in a single
+ * pass over an XML stream reader. The bulk sections of a scenario, that is,
+ * its obstacles, waypoints and trajectory, are decoded directly without
+ * involving the JAXB runtime, whereas its remaining sections of constant
+ * size are unmarshalled as individual JAXB fragments. When unmarshalling
+ * scenarios, obstacles are adapted as soon as they have been decoded and
+ * submitted to the unmarshalled scenario in batches, while waypoints,
+ * trajectory and planner are adapted by the same adapters as for any other
+ * scenario unmarshaller.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see DirectScenarioDecoder
+ * @see DirectScenarioMarshaller
+ */
+public class DirectScenarioUnmarshaller {
+	
+	/** the default number of obstacles submitted to a scenario at once */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+	
+	/** the number of obstacles submitted to a scenario at once */
+	private int batchSize = DirectScenarioUnmarshaller.DEFAULT_BATCH_SIZE;
+	
+	/** indicates whether or not this direct scenario unmarshaller memory maps input files */
+	private boolean mapped = false;
+	
+	/** the filter of the obstacles unmarshalled by this direct scenario unmarshaller, null if unfiltered */
+	private ObstacleFilter obstacleFilter = null;
+	
+	/**
+	 * Constructs a direct scenario unmarshaller using the shared scenario
+	 * context.
+	 * 
+	 * @throws JAXBException if the direct scenario unmarshaller cannot be
+	 *         constructed
+	 * 
+	 * @see ScenarioContext#getInstance()
+	 */
+	public DirectScenarioUnmarshaller() throws JAXBException {
+		ScenarioContext.getInstance();
+	}
+	
+	/**
+	 * Gets the number of obstacles submitted to a scenario at once by this
+	 * direct scenario unmarshaller.
+	 * 
+	 * @return the number of obstacles submitted to a scenario at once
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+	
+	/**
+	 * Sets the number of obstacles submitted to a scenario at once by this
+	 * direct scenario unmarshaller.
+	 * 
+	 * @param batchSize the number of obstacles submitted to a scenario at once
+	 * 
+	 * @throws IllegalArgumentException if the batch size is not positive
+	 */
+	public void setBatchSize(int batchSize) {
+		if (0 >= batchSize) {
+			throw new IllegalArgumentException("invalid batch size");
+		}
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * Indicates whether or not this direct scenario unmarshaller memory maps
+	 * input files.
+	 * 
+	 * @return true if input files are memory mapped, false otherwise
+	 */
+	public boolean isMapped() {
+		return this.mapped;
+	}
+	
+	/**
+	 * Sets whether or not this direct scenario unmarshaller memory maps input
+	 * files.
+	 * 
+	 * @param mapped true if input files are to be memory mapped, false
+	 *        otherwise
+	 * 
+	 * @see MappedFileInputStream
+	 */
+	public void setMapped(boolean mapped) {
+		this.mapped = mapped;
+	}
+	
+	/**
+	 * Gets the filter of the obstacles unmarshalled by this direct scenario
+	 * unmarshaller.
+	 * 
+	 * @return the obstacle filter, null if all obstacles are unmarshalled
+	 */
+	public ObstacleFilter getObstacleFilter() {
+		return this.obstacleFilter;
+	}
+	
+	/**
+	 * Sets the filter of the obstacles unmarshalled by this direct scenario
+	 * unmarshaller. Obstacles outside of the region of interest or time
+	 * window of the obstacle filter are rejected as soon as they have been
+	 * decoded. JAXB scenarios are not filtered.
+	 * 
+	 * @param obstacleFilter the obstacle filter, null if all obstacles are
+	 *        to be unmarshalled
+	 */
+	public void setObstacleFilter(ObstacleFilter obstacleFilter) {
+		this.obstacleFilter = obstacleFilter;
+	}
+	
+	/**
+	 * Unmarshals a JAXB scenario from an input file.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled JAXB scenario
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be unmarshalled
+	 */
+	public Scenario unmarshal(File input) throws JAXBException {
+		try (InputStream stream = ScenarioStreams.openInput(input, this.mapped)) {
+			return this.unmarshal(stream, input.toURI().toString());
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Unmarshals a JAXB scenario from an input stream. The input stream is
+	 * not closed.
+	 * 
+	 * @param input the input stream
+	 * @param systemId the system identifier of the input stream, may be null
+	 * 
+	 * @return the unmarshalled JAXB scenario
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be unmarshalled
+	 */
+	public Scenario unmarshal(InputStream input, String systemId) throws JAXBException {
+		XMLStreamReader reader = null;
+		
+		try {
+			reader = ScenarioStreams.createReader(input, systemId);
+			return this.unmarshal(reader);
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			DirectScenarioUnmarshaller.close(reader);
+		}
+	}
+	
+	/**
+	 * Unmarshals a JAXB scenario from an XML stream reader positioned at or
+	 * before the scenario element. The reader is left after the scenario
+	 * element.
+	 * 
+	 * @param reader the XML stream reader
+	 * 
+	 * @return the unmarshalled JAXB scenario
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be unmarshalled
+	 */
+	public Scenario unmarshal(XMLStreamReader reader) throws JAXBException {
+		DirectScenarioDecoder decoder = new DirectScenarioDecoder();
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		Scenario scenario = null;
+		
+		try {
+			scenario = DirectScenarioUnmarshaller.startScenario(reader);
+			
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				if ("obstacles".equals(reader.getLocalName())) {
+					scenario.setObstacles(decoder.decodeObstacles(reader));
+				} else {
+					DirectScenarioUnmarshaller.unmarshalSection(reader, decoder, unmarshaller, scenario);
+				}
+			}
+			reader.next();
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+		}
+		
+		return scenario;
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(File input) throws JAXBException {
+		try (InputStream stream = ScenarioStreams.openInput(input, this.mapped)) {
+			return this.unmarshalScenario(stream, input.toURI().toString());
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input stream. The input stream is not
+	 * closed.
+	 * 
+	 * @param input the input stream
+	 * @param systemId the system identifier of the input stream, may be null
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(InputStream input, String systemId)
+			throws JAXBException {
+		XMLStreamReader reader = null;
+		
+		try {
+			reader = ScenarioStreams.createReader(input, systemId);
+			return this.unmarshalScenario(reader);
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			DirectScenarioUnmarshaller.close(reader);
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario from an XML stream reader positioned at or before
+	 * the scenario element. The reader is left after the scenario element.
+	 * 
+	 * @param reader the XML stream reader
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(XMLStreamReader reader)
+			throws JAXBException {
+		ScenarioAdapter scenarioAdapter = AdapterRegistry.getScenarioAdapter();
+		com.cfar.swim.worldwind.session.Scenario unmarshalledScenario = null;
+		DirectScenarioDecoder decoder = new DirectScenarioDecoder();
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		
+		try {
+			Scenario scenario = DirectScenarioUnmarshaller.startScenario(reader);
+			
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				if ("obstacles".equals(reader.getLocalName())) {
+					unmarshalledScenario = scenarioAdapter.unmarshalHeader(scenario);
+					ScenarioStreams.unmarshalObstacles(reader,
+							decoder::decodeObstacle, this.obstacleFilter, this.batchSize, unmarshalledScenario);
+				} else {
+					DirectScenarioUnmarshaller.unmarshalSection(reader, decoder, unmarshaller, scenario);
+				}
+			}
+			reader.next();
+			
+			if (null == unmarshalledScenario) {
+				unmarshalledScenario = scenarioAdapter.unmarshalHeader(scenario);
+			}
+			scenarioAdapter.unmarshalBody(scenario, unmarshalledScenario);
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+		}
+		
+		return unmarshalledScenario;
+	}
+	
+	/**
+	 * Advances an XML stream reader to the scenario element and unmarshals
+	 * its attributes. The reader is left at the event following the
+	 * scenario start element.
+	 * 
+	 * @param reader the XML stream reader positioned at or before the
+	 *        scenario element
+	 * 
+	 * @return the JAXB scenario holding the unmarshalled attributes
+	 * 
+	 * @throws JAXBException if the scenario element is missing
+	 * @throws XMLStreamException if the XML stream cannot be read
+	 */
+	static Scenario startScenario(XMLStreamReader reader) throws JAXBException, XMLStreamException {
+		if ((XMLStreamConstants.START_ELEMENT != ScenarioStreams.toTag(reader))
+				|| !"scenario".equals(reader.getLocalName())) {
+			throw new JAXBException("scenario element expected at " + reader.getLocation());
+		}
+		Scenario scenario = ScenarioStreams.unmarshalAttributes(reader);
+		reader.next();
+		return scenario;
+	}
+	
+	/**
+	 * Unmarshals a section other than the obstacles section into a JAXB
+	 * scenario. Unknown sections are skipped.
+	 * 
+	 * @param reader the XML stream reader positioned at the section element
+	 * @param decoder the decoder of the bulk sections
+	 * @param unmarshaller the unmarshaller of the constant size sections
+	 * @param scenario the JAXB scenario to unmarshal the section into
+	 * 
+	 * @throws JAXBException if a constant size section cannot be unmarshalled
+	 * @throws XMLStreamException if a bulk section cannot be decoded
+	 */
+	static void unmarshalSection(XMLStreamReader reader, DirectScenarioDecoder decoder,
+			Unmarshaller unmarshaller, Scenario scenario) throws JAXBException, XMLStreamException {
+		switch (reader.getLocalName()) {
+		case "environment":
+			scenario.setEnvironment(unmarshaller.unmarshal(reader, Environment.class).getValue());
+			break;
+		case "aircraft":
+			scenario.setAircraft(unmarshaller.unmarshal(reader, Aircraft.class).getValue());
+			break;
+		case "waypoints":
+			scenario.setWaypoints(decoder.decodeWaypoints(reader));
+			break;
+		case "trajectory":
+			scenario.setTrajectory(decoder.decodeTrajectory(reader));
+			break;
+		case "planner":
+			scenario.setPlanner(unmarshaller.unmarshal(reader, Planner.class).getValue());
+			break;
+		case "datalink":
+			scenario.setDatalink(unmarshaller.unmarshal(reader, Datalink.class).getValue());
+			break;
+		case "swim":
+			scenario.setSwim(unmarshaller.unmarshal(reader, Swim.class).getValue());
+			break;
+		default:
+			ScenarioStreams.skipElement(reader);
+		}
+	}
+	
+	/**
+	 * Closes an XML stream reader leaving its underlying input stream open.
+	 * 
+	 * @param reader the XML stream reader to be closed, ignored if null
+	 */
+	static void close(XMLStreamReader reader) {
+		if (null != reader) {
+			try {
+				reader.close();
+			} catch (XMLStreamException e) {
+				// the underlying input stream remains open
+			}
+		}
+	}
+	
+}
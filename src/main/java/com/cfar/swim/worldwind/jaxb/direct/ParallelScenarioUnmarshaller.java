@@ -0,0 +1,832 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.direct;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioContext;
+import com.cfar.swim.worldwind.jaxb.ScenarioExecutors;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstacleFilter;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstaclesAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.ScenarioAdapter;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+/**
+ * Realizes a parallel scenario unmarshaller which tokenizes the obstacles
+ * section of a scenario file on several threads. The byte range of the
+ * obstacles section is located by scanning the file, split at the start
+ * tags of sibling box, cylinder and sphere obstacles, and each chunk is
+ * parsed by a worker thread into its own obstacle fragments, wrapped into
+ * an obstacles element declaring the namespaces in scope of the original
+ * obstacles element. The remaining sections of the scenario file are
+ * parsed as a skeleton document without the obstacles on the calling
+ * thread.
+ * 
+ * Scenario files which cannot be split safely, for example, because they
+ * are not encoded in UTF-8 or a chunk boundary falls into a comment, are
+ * detected by the failing skeleton or chunk parsers. The remaining chunks
+ * are cancelled and such scenario files are unmarshalled sequentially by a
+ * direct scenario unmarshaller instead. Any other failure of a worker, for
+ * example, an obstacle which cannot be adapted, fails the load.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see DirectScenarioUnmarshaller
+ */
+public class ParallelScenarioUnmarshaller implements AutoCloseable {
+	
+	/** the default minimum number of bytes of a chunk of the obstacles section */
+	public static final long DEFAULT_MIN_CHUNK_SIZE = 1L << 20;
+	
+	/** the maximum number of chunks per worker */
+	private static final int CHUNKS_PER_WORKER = 4;
+	
+	/** the number of bytes scanned at once */
+	private static final int BLOCK_SIZE = 1 << 16;
+	
+	/** the number of bytes beyond a scanned block available to match a tag */
+	private static final int LOOKAHEAD = 256;
+	
+	/** the local name of the obstacles element */
+	private static final String OBSTACLES = "obstacles";
+	
+	/** the local names of the obstacle elements */
+	private static final String[] OBSTACLE_NAMES = {"box", "cylinder", "sphere"};
+	
+	/** the number of workers of this parallel scenario unmarshaller */
+	private final int workers;
+	
+	/** the worker pool of this parallel scenario unmarshaller */
+	private final ExecutorService pool;
+	
+	/** the minimum number of bytes of a chunk of this parallel scenario unmarshaller */
+	private long minChunkSize = ParallelScenarioUnmarshaller.DEFAULT_MIN_CHUNK_SIZE;
+	
+	/** the filter of the obstacles unmarshalled by this parallel scenario unmarshaller, null if unfiltered */
+	private ObstacleFilter obstacleFilter = null;
+	
+	/** the number of chunks of the last load of this parallel scenario unmarshaller */
+	private volatile int chunks = 0;
+	
+	/**
+	 * Constructs a new parallel scenario unmarshaller with one worker per
+	 * available processor.
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 */
+	public ParallelScenarioUnmarshaller() throws JAXBException {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Constructs a new parallel scenario unmarshaller with a specified number
+	 * of workers.
+	 * 
+	 * @param workers the number of workers
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 * @throws IllegalArgumentException if the number of workers is not
+	 *         positive
+	 */
+	public ParallelScenarioUnmarshaller(int workers) throws JAXBException {
+		if (0 >= workers) {
+			throw new IllegalArgumentException("invalid number of workers");
+		}
+		ScenarioContext.getInstance();
+		this.workers = workers;
+		this.pool = ScenarioExecutors.newWorkerPool(workers);
+	}
+	
+	/**
+	 * Gets the number of workers of this parallel scenario unmarshaller.
+	 * 
+	 * @return the number of workers
+	 */
+	public int getWorkers() {
+		return this.workers;
+	}
+	
+	/**
+	 * Gets the minimum number of bytes of a chunk of the obstacles section
+	 * parsed by a single worker of this parallel scenario unmarshaller.
+	 * 
+	 * @return the minimum number of bytes of a chunk
+	 */
+	public long getMinChunkSize() {
+		return this.minChunkSize;
+	}
+	
+	/**
+	 * Sets the minimum number of bytes of a chunk of the obstacles section
+	 * parsed by a single worker of this parallel scenario unmarshaller.
+	 * 
+	 * @param minChunkSize the minimum number of bytes of a chunk
+	 * 
+	 * @throws IllegalArgumentException if the minimum chunk size is not
+	 *         positive
+	 */
+	public void setMinChunkSize(long minChunkSize) {
+		if (0 >= minChunkSize) {
+			throw new IllegalArgumentException("invalid minimum chunk size");
+		}
+		this.minChunkSize = minChunkSize;
+	}
+	
+	/**
+	 * Gets the filter of the obstacles unmarshalled by this parallel
+	 * scenario unmarshaller.
+	 * 
+	 * @return the obstacle filter, null if all obstacles are unmarshalled
+	 */
+	public ObstacleFilter getObstacleFilter() {
+		return this.obstacleFilter;
+	}
+	
+	/**
+	 * Sets the filter of the obstacles unmarshalled by this parallel
+	 * scenario unmarshaller. Obstacles outside of the region of interest or
+	 * time window of the obstacle filter are rejected by the workers as soon
+	 * as they have been parsed. JAXB scenarios are not filtered.
+	 * 
+	 * @param obstacleFilter the obstacle filter, null if all obstacles are
+	 *        to be unmarshalled
+	 */
+	public void setObstacleFilter(ObstacleFilter obstacleFilter) {
+		this.obstacleFilter = obstacleFilter;
+	}
+	
+	/**
+	 * Gets the number of chunks the obstacles section has been split into
+	 * by the last load of this parallel scenario unmarshaller.
+	 * 
+	 * @return the number of chunks of the last load, 0 if no scenario has
+	 *         been loaded yet or the last scenario file has been unmarshalled
+	 *         sequentially
+	 */
+	public int getChunks() {
+		return this.chunks;
+	}
+	
+	/**
+	 * Unmarshals a JAXB scenario from an input file. The obstacles are kept
+	 * in document order.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled JAXB scenario
+	 * 
+	 * @throws JAXBException if the JAXB scenario cannot be unmarshalled
+	 */
+	public Scenario unmarshal(File input) throws JAXBException {
+		try (FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ)) {
+			Skeleton skeleton = this.parseSkeleton(channel, input.toURI().toString());
+			
+			if (null != skeleton) {
+				List<Future<List<Object>>> chunks = new ArrayList<>();
+				this.chunks = skeleton.boundaries.size() - 1;
+				
+				try {
+					for (int index = 1; index < skeleton.boundaries.size(); index++) {
+						long from = skeleton.boundaries.get(index - 1);
+						long to = skeleton.boundaries.get(index);
+						chunks.add(this.pool.submit(() -> ParallelScenarioUnmarshaller.parseChunk(channel, from, to, skeleton)));
+					}
+					
+					List<Object> obstacles = skeleton.scenario.getObstacles().getBoxOrCylinderOrSphere();
+					if (ParallelScenarioUnmarshaller.await(chunks, obstacles::addAll)) {
+						return skeleton.scenario;
+					}
+				} finally {
+					ParallelScenarioUnmarshaller.cancel(chunks);
+				}
+			}
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+		
+		this.chunks = 0;
+		return new DirectScenarioUnmarshaller().unmarshal(input);
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file. The chunks of the obstacles
+	 * section are parsed and adapted by the workers while the scenario
+	 * header is adapted on the calling thread. Adapted obstacles are
+	 * submitted to the unmarshalled scenario chunk by chunk on the calling
+	 * thread.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(File input) throws JAXBException {
+		try (FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ)) {
+			Skeleton skeleton = this.parseSkeleton(channel, input.toURI().toString());
+			
+			if (null != skeleton) {
+				ObstaclesAdapter obstaclesAdapter = AdapterRegistry.getObstaclesAdapter();
+				ObstacleFilter obstacleFilter = this.obstacleFilter;
+				List<Future<Set<com.cfar.swim.worldwind.render.Obstacle>>> chunks = new ArrayList<>();
+				this.chunks = skeleton.boundaries.size() - 1;
+				
+				try {
+					for (int index = 1; index < skeleton.boundaries.size(); index++) {
+						long from = skeleton.boundaries.get(index - 1);
+						long to = skeleton.boundaries.get(index);
+						chunks.add(this.pool.submit(() -> {
+							Set<com.cfar.swim.worldwind.render.Obstacle> obstacles = new HashSet<>();
+							for (Object obstacle : ParallelScenarioUnmarshaller.parseChunk(channel, from, to, skeleton)) {
+								com.cfar.swim.worldwind.render.Obstacle unmarshalledObstacle =
+										obstaclesAdapter.unmarshalObstacle(obstacle, obstacleFilter);
+								if (null != unmarshalledObstacle) {
+									obstacles.add(unmarshalledObstacle);
+								}
+							}
+							return obstacles;
+						}));
+					}
+					
+					ScenarioAdapter scenarioAdapter = AdapterRegistry.getScenarioAdapter();
+					com.cfar.swim.worldwind.session.Scenario unmarshalledScenario =
+							scenarioAdapter.unmarshalHeader(skeleton.scenario);
+					if (ParallelScenarioUnmarshaller.await(chunks, obstacles -> {
+						if (!obstacles.isEmpty()) {
+							unmarshalledScenario.submitAddObstacles(obstacles);
+						}
+					})) {
+						scenarioAdapter.unmarshalBody(skeleton.scenario, unmarshalledScenario);
+						return unmarshalledScenario;
+					}
+				} finally {
+					ParallelScenarioUnmarshaller.cancel(chunks);
+				}
+			}
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		}
+		
+		this.chunks = 0;
+		DirectScenarioUnmarshaller unmarshaller = new DirectScenarioUnmarshaller();
+		unmarshaller.setObstacleFilter(this.obstacleFilter);
+		return unmarshaller.unmarshalScenario(input);
+	}
+	
+	/**
+	 * Closes this parallel scenario unmarshaller shutting down its workers.
+	 * 
+	 * @see AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+	
+	/**
+	 * Consumes the results of parsed chunks in document order. Only chunks
+	 * which cannot be parsed, because the obstacles section has not been
+	 * split safely, are reported to be unmarshalled sequentially. Any other
+	 * failure of a chunk is rethrown.
+	 * 
+	 * @param <T> the result type of a parsed chunk
+	 * 
+	 * @param chunks the futures of the parsed chunks in document order
+	 * @param consumer the consumer of the chunk results
+	 * 
+	 * @return true if all chunks have been parsed, false if any chunk cannot
+	 *         be parsed
+	 * 
+	 * @throws JAXBException if any chunk has failed otherwise or the calling
+	 *         thread has been interrupted
+	 */
+	private static <T> boolean await(List<Future<T>> chunks, Consumer<T> consumer) throws JAXBException {
+		try {
+			for (Future<T> chunk : chunks) {
+				consumer.accept(chunk.get());
+			}
+			return true;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof XMLStreamException) {
+				return false;
+			} else if (e.getCause() instanceof JAXBException) {
+				throw (JAXBException) e.getCause();
+			}
+			throw new JAXBException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Cancels the chunks which have not been parsed yet interrupting the
+	 * workers parsing them. Parsed chunks are not affected.
+	 * 
+	 * @param <T> the result type of a parsed chunk
+	 * 
+	 * @param chunks the futures of the chunks
+	 */
+	private static <T> void cancel(List<Future<T>> chunks) {
+		for (Future<T> chunk : chunks) {
+			chunk.cancel(true);
+		}
+	}
+	
+	/**
+	 * Locates and splits the obstacles section of a scenario file and parses
+	 * the remaining sections as a skeleton document.
+	 * 
+	 * @param channel the file channel of the scenario file
+	 * @param systemId the system identifier of the scenario file
+	 * 
+	 * @return the parsed skeleton, null if the scenario file cannot be split
+	 * 
+	 * @throws IOException if the scenario file cannot be read
+	 * @throws JAXBException if no unmarshaller can be acquired
+	 */
+	private Skeleton parseSkeleton(FileChannel channel, String systemId) throws IOException, JAXBException {
+		long size = channel.size();
+		long start = ParallelScenarioUnmarshaller.findStartTag(channel, 0, size, ParallelScenarioUnmarshaller.OBSTACLES);
+		if (-1 == start) {
+			return null;
+		}
+		long contentStart = ParallelScenarioUnmarshaller.findTagEnd(channel, start, size);
+		long contentEnd = ParallelScenarioUnmarshaller.findLastEndTag(channel, size, ParallelScenarioUnmarshaller.OBSTACLES);
+		if ((-1 == contentStart) || (contentEnd <= contentStart)) {
+			return null;
+		}
+		
+		Skeleton skeleton = new Skeleton();
+		skeleton.boundaries = this.split(channel, contentStart, contentEnd);
+		
+		List<InputStream> streams = Arrays.asList(
+				new RangeInputStream(channel, 0, contentStart),
+				new RangeInputStream(channel, contentEnd, size));
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		XMLStreamReader reader = null;
+		
+		try {
+			reader = ScenarioStreams.createReader(new SequenceInputStream(Collections.enumeration(streams)), systemId);
+			String encoding = reader.getEncoding();
+			if ((null != encoding) && !StandardCharsets.UTF_8.name().equalsIgnoreCase(encoding)
+					&& !StandardCharsets.US_ASCII.name().equalsIgnoreCase(encoding)) {
+				return null;
+			}
+			
+			DirectScenarioDecoder decoder = new DirectScenarioDecoder();
+			Map<String, String> namespaces = new LinkedHashMap<>();
+			ScenarioStreams.toTag(reader);
+			ParallelScenarioUnmarshaller.declareNamespaces(reader, namespaces);
+			skeleton.scenario = DirectScenarioUnmarshaller.startScenario(reader);
+			
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				if (ParallelScenarioUnmarshaller.OBSTACLES.equals(reader.getLocalName())
+						&& (null == skeleton.scenario.getObstacles())) {
+					ParallelScenarioUnmarshaller.declareNamespaces(reader, namespaces);
+					skeleton.wrap(reader.getPrefix(), namespaces);
+					skeleton.scenario.setObstacles(decoder.decodeObstacles(reader));
+					if (!skeleton.scenario.getObstacles().getBoxOrCylinderOrSphere().isEmpty()) {
+						return null;
+					}
+				} else {
+					DirectScenarioUnmarshaller.unmarshalSection(reader, decoder, unmarshaller, skeleton.scenario);
+				}
+			}
+			reader.next();
+		} catch (JAXBException | XMLStreamException | RuntimeException e) {
+			// the scenario file is unmarshalled sequentially
+			return null;
+		} finally {
+			DirectScenarioUnmarshaller.close(reader);
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+		}
+		
+		return (null == skeleton.scenario.getObstacles()) ? null : skeleton;
+	}
+	
+	/**
+	 * Splits the content of the obstacles section into chunks at the start
+	 * tags of obstacles.
+	 * 
+	 * @param channel the file channel of the scenario file
+	 * @param contentStart the file position of the obstacles content
+	 * @param contentEnd the file position of the obstacles end tag
+	 * 
+	 * @return the chunk boundaries including the content start and end
+	 * 
+	 * @throws IOException if the scenario file cannot be read
+	 */
+	private List<Long> split(FileChannel channel, long contentStart, long contentEnd) throws IOException {
+		long length = contentEnd - contentStart;
+		long chunks = Math.max(1, Math.min(this.workers * ParallelScenarioUnmarshaller.CHUNKS_PER_WORKER,
+				length / this.minChunkSize));
+		List<Long> boundaries = new ArrayList<>();
+		boundaries.add(contentStart);
+		
+		for (long chunk = 1; chunk < chunks; chunk++) {
+			long from = Math.max(contentStart + ((length * chunk) / chunks), boundaries.get(boundaries.size() - 1) + 1);
+			long boundary = ParallelScenarioUnmarshaller.findStartTag(channel, from, contentEnd,
+					ParallelScenarioUnmarshaller.OBSTACLE_NAMES);
+			if (-1 == boundary) {
+				break;
+			}
+			boundaries.add(boundary);
+		}
+		boundaries.add(contentEnd);
+		
+		return boundaries;
+	}
+	
+	/**
+	 * Parses the obstacles of a chunk of the obstacles section.
+	 * 
+	 * @param channel the file channel of the scenario file
+	 * @param from the file position of the chunk (inclusive)
+	 * @param to the file position of the chunk end (exclusive)
+	 * @param skeleton the skeleton providing the obstacles element wrapper
+	 * 
+	 * @return the parsed obstacles of the chunk in document order
+	 * 
+	 * @throws XMLStreamException if the chunk cannot be parsed
+	 */
+	private static List<Object> parseChunk(FileChannel channel, long from, long to, Skeleton skeleton)
+			throws XMLStreamException {
+		List<InputStream> streams = Arrays.asList(
+				new ByteArrayInputStream(skeleton.startTag),
+				new RangeInputStream(channel, from, to),
+				new ByteArrayInputStream(skeleton.endTag));
+		XMLStreamReader reader = ScenarioStreams.createReader(new SequenceInputStream(Collections.enumeration(streams)), null);
+		
+		try {
+			ScenarioStreams.toTag(reader);
+			List<Object> obstacles = new DirectScenarioDecoder().decodeObstacles(reader).getBoxOrCylinderOrSphere();
+			while (XMLStreamConstants.END_DOCUMENT != reader.getEventType()) {
+				reader.next();
+			}
+			return obstacles;
+		} finally {
+			DirectScenarioUnmarshaller.close(reader);
+		}
+	}
+	
+	/**
+	 * Records the namespaces declared by the element an XML stream reader is
+	 * positioned at.
+	 * 
+	 * @param reader the XML stream reader positioned at a start element
+	 * @param namespaces the namespace URIs in scope by prefix
+	 */
+	private static void declareNamespaces(XMLStreamReader reader, Map<String, String> namespaces) {
+		for (int index = 0; index < reader.getNamespaceCount(); index++) {
+			String prefix = reader.getNamespacePrefix(index);
+			namespaces.put((null == prefix) ? "" : prefix, reader.getNamespaceURI(index));
+		}
+	}
+	
+	/**
+	 * Finds the first start tag of an element within a range of a scenario
+	 * file.
+	 * 
+	 * @param channel the file channel of the scenario file
+	 * @param from the file position to start searching at (inclusive)
+	 * @param to the file position to stop searching at (exclusive)
+	 * @param names the local names of the element
+	 * 
+	 * @return the file position of the start tag, -1 if not found
+	 * 
+	 * @throws IOException if the scenario file cannot be read
+	 */
+	private static long findStartTag(FileChannel channel, long from, long to, String... names) throws IOException {
+		byte[] block = new byte[ParallelScenarioUnmarshaller.BLOCK_SIZE + ParallelScenarioUnmarshaller.LOOKAHEAD];
+		
+		for (long position = from; position < to; position += ParallelScenarioUnmarshaller.BLOCK_SIZE) {
+			int length = ParallelScenarioUnmarshaller.read(channel, position, block);
+			int limit = (int) Math.min(Math.min(ParallelScenarioUnmarshaller.BLOCK_SIZE, length), to - position);
+			for (int index = 0; index < limit; index++) {
+				if (('<' == block[index]) && ParallelScenarioUnmarshaller.matches(block, index + 1, length, names)) {
+					return position + index;
+				}
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Finds the last end tag of an element in a scenario file.
+	 * 
+	 * @param channel the file channel of the scenario file
+	 * @param size the size of the scenario file
+	 * @param name the local name of the element
+	 * 
+	 * @return the file position of the end tag, -1 if not found
+	 * 
+	 * @throws IOException if the scenario file cannot be read
+	 */
+	private static long findLastEndTag(FileChannel channel, long size, String name) throws IOException {
+		byte[] block = new byte[ParallelScenarioUnmarshaller.BLOCK_SIZE + ParallelScenarioUnmarshaller.LOOKAHEAD];
+		
+		for (long end = size; 0 < end; end -= ParallelScenarioUnmarshaller.BLOCK_SIZE) {
+			long position = Math.max(0, end - ParallelScenarioUnmarshaller.BLOCK_SIZE);
+			int length = ParallelScenarioUnmarshaller.read(channel, position, block);
+			for (int index = (int) (end - position) - 1; 0 <= index; index--) {
+				if (('<' == block[index]) && (index + 1 < length) && ('/' == block[index + 1])
+						&& ParallelScenarioUnmarshaller.matches(block, index + 2, length, name)) {
+					return position + index;
+				}
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Finds the end of a start tag which is not an empty element tag.
+	 * 
+	 * @param channel the file channel of the scenario file
+	 * @param start the file position of the start tag
+	 * @param size the size of the scenario file
+	 * 
+	 * @return the file position following the start tag, -1 if not found
+	 *         within a single block or the start tag is an empty element tag
+	 * 
+	 * @throws IOException if the scenario file cannot be read
+	 */
+	private static long findTagEnd(FileChannel channel, long start, long size) throws IOException {
+		byte[] block = new byte[ParallelScenarioUnmarshaller.BLOCK_SIZE];
+		int length = ParallelScenarioUnmarshaller.read(channel, start, block);
+		byte quote = 0;
+		
+		for (int index = 0; index < length; index++) {
+			byte b = block[index];
+			if (0 != quote) {
+				quote = (quote == b) ? 0 : quote;
+			} else if (('"' == b) || ('\'' == b)) {
+				quote = b;
+			} else if ('>' == b) {
+				return ('/' == block[index - 1]) ? -1 : start + index + 1;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Determines whether or not the bytes at an index hold a qualified
+	 * element name with one of several local names followed by white space,
+	 * the end of the tag or an empty element tag.
+	 * 
+	 * @param block the bytes
+	 * @param index the index of the qualified element name
+	 * @param length the number of valid bytes
+	 * @param names the local names
+	 * 
+	 * @return true if the bytes hold a matching element name, false otherwise
+	 */
+	private static boolean matches(byte[] block, int index, int length, String... names) {
+		int end = index;
+		int local = index;
+		
+		while ((end < length) && !ParallelScenarioUnmarshaller.isDelimiter(block[end])) {
+			if (':' == block[end]) {
+				local = end + 1;
+			}
+			end++;
+		}
+		if ((end == length) || (end == index)) {
+			return false;
+		}
+		
+		for (String name : names) {
+			if ((end - local) == name.length()) {
+				boolean equal = true;
+				for (int offset = 0; equal && (offset < name.length()); offset++) {
+					equal = (name.charAt(offset) == block[local + offset]);
+				}
+				if (equal) {
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Determines whether or not a byte delimits an element name.
+	 * 
+	 * @param b the byte
+	 * 
+	 * @return true if the byte delimits an element name, false otherwise
+	 */
+	private static boolean isDelimiter(byte b) {
+		return (' ' == b) || ('\t' == b) || ('\r' == b) || ('\n' == b) || ('>' == b) || ('/' == b) || ('<' == b);
+	}
+	
+	/**
+	 * Reads bytes of a scenario file at a file position.
+	 * 
+	 * @param channel the file channel of the scenario file
+	 * @param position the file position
+	 * @param block the bytes to be read
+	 * 
+	 * @return the number of bytes read, less than the block size only at the
+	 *         end of the file
+	 * 
+	 * @throws IOException if the scenario file cannot be read
+	 */
+	private static int read(FileChannel channel, long position, byte[] block) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(block);
+		
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (-1 == read) {
+				break;
+			}
+		}
+		
+		return buffer.position();
+	}
+	
+	/**
+	 * Realizes the skeleton of a split scenario file, that is, its sections
+	 * other than the obstacles, the chunk boundaries of its obstacles section
+	 * and the wrapper of its obstacle chunks.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static final class Skeleton {
+		
+		/** the scenario of this skeleton holding an empty obstacles section */
+		private Scenario scenario = null;
+		
+		/** the chunk boundaries of this skeleton including the content start and end */
+		private List<Long> boundaries = null;
+		
+		/** the start tag of the obstacles element wrapping the chunks of this skeleton */
+		private byte[] startTag = null;
+		
+		/** the end tag of the obstacles element wrapping the chunks of this skeleton */
+		private byte[] endTag = null;
+		
+		/**
+		 * Creates the obstacles element wrapper of the chunks of this
+		 * skeleton declaring all namespaces in scope.
+		 * 
+		 * @param prefix the prefix of the obstacles element, may be null or
+		 *        empty
+		 * @param namespaces the namespace URIs in scope by prefix
+		 */
+		private void wrap(String prefix, Map<String, String> namespaces) {
+			String name = ((null == prefix) || prefix.isEmpty())
+					? ParallelScenarioUnmarshaller.OBSTACLES
+					: prefix + ":" + ParallelScenarioUnmarshaller.OBSTACLES;
+			StringBuilder startTag = new StringBuilder("<").append(name);
+			
+			for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+				startTag.append(namespace.getKey().isEmpty() ? " xmlns" : " xmlns:" + namespace.getKey())
+						.append("=\"")
+						.append(namespace.getValue().replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;"))
+						.append('"');
+			}
+			
+			this.startTag = startTag.append('>').toString().getBytes(StandardCharsets.UTF_8);
+			this.endTag = ("</" + name + ">").getBytes(StandardCharsets.UTF_8);
+		}
+		
+	}
+	
+	/**
+	 * Realizes an input stream reading a range of a file channel using
+	 * positional reads, such that several range input streams can read the
+	 * same file channel concurrently.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static final class RangeInputStream extends InputStream {
+		
+		/** the file channel of this range input stream */
+		private final FileChannel channel;
+		
+		/** the file position of the end of this range input stream (exclusive) */
+		private final long end;
+		
+		/** the current file position of this range input stream */
+		private long position;
+		
+		/**
+		 * Constructs a new range input stream.
+		 * 
+		 * @param channel the file channel
+		 * @param start the file position of the range (inclusive)
+		 * @param end the file position of the range end (exclusive)
+		 */
+		private RangeInputStream(FileChannel channel, long start, long end) {
+			this.channel = channel;
+			this.position = start;
+			this.end = end;
+		}
+		
+		/**
+		 * Reads the next byte of this range input stream.
+		 * 
+		 * @return the next byte or -1 if the end of the range has been reached
+		 * 
+		 * @throws IOException if the byte cannot be read
+		 * 
+		 * @see InputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return (-1 == this.read(b, 0, 1)) ? -1 : (b[0] & 0xff);
+		}
+		
+		/**
+		 * Reads bytes of this range input stream into a buffer.
+		 * 
+		 * @param buffer the buffer
+		 * @param offset the buffer offset
+		 * @param length the maximum number of bytes to be read
+		 * 
+		 * @return the number of bytes read or -1 if the end of the range has
+		 *         been reached
+		 * 
+		 * @throws IOException if the bytes cannot be read
+		 * 
+		 * @see InputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (this.position >= this.end) {
+				return -1;
+			}
+			int read = this.channel.read(ByteBuffer.wrap(buffer, offset,
+					(int) Math.min(length, this.end - this.position)), this.position);
+			if (0 < read) {
+				this.position += read;
+			}
+			return read;
+		}
+		
+	}
+	
+}
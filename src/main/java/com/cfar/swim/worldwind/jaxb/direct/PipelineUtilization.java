@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.direct;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Realizes an immutable report of the stage utilization of a single
+ * pipelined scenario load. The parse stage is utilized while it tokenizes
+ * and decodes fragments, and blocked while the queue of the pipeline is
+ * full. The adapt stage is utilized while its workers adapt fragments, and
+ * idle while the queue of the pipeline is empty. The stage which is blocked
+ * or idle less of its time is the bottleneck of the pipeline.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see PipelinedScenarioUnmarshaller#getUtilization()
+ */
+public final class PipelineUtilization {
+	
+	/** the number of adapter workers of this pipeline utilization */
+	private final int workers;
+	
+	/** the elapsed time of this pipeline utilization in nanoseconds */
+	private final long elapsedTime;
+	
+	/** the busy time of the parse stage of this pipeline utilization in nanoseconds */
+	private final long parseTime;
+	
+	/** the blocked time of the parse stage of this pipeline utilization in nanoseconds */
+	private final long parseBlockedTime;
+	
+	/** the cumulative busy time of the adapt stage of this pipeline utilization in nanoseconds */
+	private final long adaptTime;
+	
+	/** the cumulative idle time of the adapt stage of this pipeline utilization in nanoseconds */
+	private final long adaptIdleTime;
+	
+	/** the number of pipelined fragments of this pipeline utilization */
+	private final long fragments;
+	
+	/** the number of pipelined chunks of this pipeline utilization */
+	private final long chunks;
+	
+	/**
+	 * Constructs a new pipeline utilization.
+	 * 
+	 * @param workers the number of adapter workers
+	 * @param elapsedTime the elapsed time in nanoseconds
+	 * @param parseTime the busy time of the parse stage in nanoseconds
+	 * @param parseBlockedTime the blocked time of the parse stage in nanoseconds
+	 * @param adaptTime the cumulative busy time of the adapt stage in nanoseconds
+	 * @param adaptIdleTime the cumulative idle time of the adapt stage in nanoseconds
+	 * @param fragments the number of pipelined fragments
+	 * @param chunks the number of pipelined chunks
+	 */
+	@ConstructorProperties({"workers", "elapsedTime", "parseTime", "parseBlockedTime",
+		"adaptTime", "adaptIdleTime", "fragments", "chunks"})
+	public PipelineUtilization(int workers, long elapsedTime, long parseTime, long parseBlockedTime,
+			long adaptTime, long adaptIdleTime, long fragments, long chunks) {
+		this.workers = workers;
+		this.elapsedTime = elapsedTime;
+		this.parseTime = parseTime;
+		this.parseBlockedTime = parseBlockedTime;
+		this.adaptTime = adaptTime;
+		this.adaptIdleTime = adaptIdleTime;
+		this.fragments = fragments;
+		this.chunks = chunks;
+	}
+	
+	/**
+	 * Gets the number of adapter workers of this pipeline utilization.
+	 * 
+	 * @return the number of adapter workers of this pipeline utilization
+	 */
+	public int getWorkers() {
+		return this.workers;
+	}
+	
+	/**
+	 * Gets the elapsed time of this pipeline utilization.
+	 * 
+	 * @return the elapsed time of this pipeline utilization in nanoseconds
+	 */
+	public long getElapsedTime() {
+		return this.elapsedTime;
+	}
+	
+	/**
+	 * Gets the busy time of the parse stage of this pipeline utilization.
+	 * 
+	 * @return the busy time of the parse stage in nanoseconds
+	 */
+	public long getParseTime() {
+		return this.parseTime;
+	}
+	
+	/**
+	 * Gets the time the parse stage of this pipeline utilization was blocked
+	 * by a full queue.
+	 * 
+	 * @return the blocked time of the parse stage in nanoseconds
+	 */
+	public long getParseBlockedTime() {
+		return this.parseBlockedTime;
+	}
+	
+	/**
+	 * Gets the cumulative busy time of the adapt stage of this pipeline
+	 * utilization.
+	 * 
+	 * @return the cumulative busy time of the adapt stage in nanoseconds
+	 */
+	public long getAdaptTime() {
+		return this.adaptTime;
+	}
+	
+	/**
+	 * Gets the cumulative time the adapt stage of this pipeline utilization
+	 * was idle waiting on an empty queue.
+	 * 
+	 * @return the cumulative idle time of the adapt stage in nanoseconds
+	 */
+	public long getAdaptIdleTime() {
+		return this.adaptIdleTime;
+	}
+	
+	/**
+	 * Gets the number of pipelined fragments of this pipeline utilization.
+	 * 
+	 * @return the number of pipelined fragments of this pipeline utilization
+	 */
+	public long getFragments() {
+		return this.fragments;
+	}
+	
+	/**
+	 * Gets the number of pipelined chunks of this pipeline utilization.
+	 * 
+	 * @return the number of pipelined chunks of this pipeline utilization
+	 */
+	public long getChunks() {
+		return this.chunks;
+	}
+	
+	/**
+	 * Gets the utilization of the parse stage of this pipeline utilization,
+	 * that is, the fraction of the elapsed time the parse stage was busy.
+	 * 
+	 * @return the utilization of the parse stage between 0 and 1
+	 */
+	public double getParseUtilization() {
+		return (0 == this.elapsedTime) ? 0d : ((double) this.parseTime / this.elapsedTime);
+	}
+	
+	/**
+	 * Gets the utilization of the adapt stage of this pipeline utilization,
+	 * that is, the fraction of the elapsed time of all workers the adapt
+	 * stage was busy.
+	 * 
+	 * @return the utilization of the adapt stage between 0 and 1
+	 */
+	public double getAdaptUtilization() {
+		return (0 == this.elapsedTime) ? 0d
+				: ((double) this.adaptTime / ((double) this.elapsedTime * this.workers));
+	}
+	
+	/**
+	 * Indicates whether or not the parse stage is the bottleneck of this
+	 * pipeline utilization, that is, whether the adapt stage was idle for a
+	 * larger fraction of its time than the parse stage was blocked.
+	 * 
+	 * @return true if the parse stage is the bottleneck, false if the adapt
+	 *         stage is the bottleneck
+	 */
+	public boolean isParseBound() {
+		return ((double) this.adaptIdleTime / this.workers) >= this.parseBlockedTime;
+	}
+	
+	/**
+	 * Gets a string representation of this pipeline utilization.
+	 * 
+	 * @return a string representation of this pipeline utilization
+	 * 
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "workers=" + this.workers + " fragments=" + this.fragments + " chunks=" + this.chunks
+				+ " elapsedTime=" + this.elapsedTime + "ns"
+				+ String.format(" parse=%.2f adapt=%.2f", this.getParseUtilization(), this.getAdaptUtilization())
+				+ " parseBlockedTime=" + this.parseBlockedTime + "ns adaptIdleTime=" + this.adaptIdleTime
+				+ "ns bottleneck=" + (this.isParseBound() ? "parse" : "adapt");
+	}
+	
+}
@@ -0,0 +1,707 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.direct;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.cfar.swim.worldwind.jaxb.MappedFileInputStream;
+import com.cfar.swim.worldwind.jaxb.ScenarioContext;
+import com.cfar.swim.worldwind.jaxb.ScenarioExecutors;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstacleFilter;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstaclesAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.ScenarioAdapter;
+import com.cfar.swim.worldwind.jaxb.adapters.WaypointAdapter;
+import com.cfar.swim.worldwind.jaxb.metrics.ScenarioMetrics;
+import com.cfar.swim.worldwind.jaxb.metrics.StageMetrics;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+
+/**
+ * Realizes a pipelined scenario unmarshaller which tokenizes and adapts
+ * scenarios concurrently. The calling thread parses the scenario in a
+ * single pass as a direct scenario unmarshaller does, and emits chunks of
+ * decoded obstacle and waypoint fragments into a bounded queue, from which
+ * a pool of adapter workers adapts them into domain obstacles and
+ * waypoints. Adapted obstacles are submitted to the unmarshalled scenario
+ * chunk by chunk, whereas adapted waypoints are collected in document
+ * order. The queue applies back-pressure to the parser once the workers
+ * fall behind, such that at most a bounded number of fragments is pending
+ * regardless of the size of the scenario.
+ * 
+ * The stage utilization of the last load is reported to identify whether
+ * parsing or adaptation is the bottleneck of the pipeline.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see DirectScenarioUnmarshaller
+ * @see PipelineUtilization
+ */
+public class PipelinedScenarioUnmarshaller implements AutoCloseable {
+	
+	/** the default number of fragments of a pipelined chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 512;
+	
+	/** the default number of queued chunks per adapter worker */
+	private static final int CHUNKS_PER_WORKER = 2;
+	
+	/** the stage metrics of parsing a pipelined scenario including back-pressure */
+	private static final StageMetrics PARSE_STAGE =
+			ScenarioMetrics.getStage("PipelinedScenarioUnmarshaller.parse");
+	
+	/** the stage metrics of adapting pipelined chunks */
+	private static final StageMetrics ADAPT_STAGE =
+			ScenarioMetrics.getStage("PipelinedScenarioUnmarshaller.adapt");
+	
+	/** the chunk terminating a pipeline */
+	private static final Chunk END = new Chunk(null, Collections.emptyList());
+	
+	/** the number of adapter workers of this pipelined scenario unmarshaller */
+	private final int workers;
+	
+	/** the adapter worker pool of this pipelined scenario unmarshaller */
+	private final ExecutorService pool;
+	
+	/** the number of fragments of a chunk of this pipelined scenario unmarshaller */
+	private int chunkSize = PipelinedScenarioUnmarshaller.DEFAULT_CHUNK_SIZE;
+	
+	/** the maximum number of queued chunks of this pipelined scenario unmarshaller */
+	private int queueCapacity;
+	
+	/** indicates whether or not this pipelined scenario unmarshaller memory maps input files */
+	private boolean mapped = false;
+	
+	/** the filter of the obstacles unmarshalled by this pipelined scenario unmarshaller, null if unfiltered */
+	private ObstacleFilter obstacleFilter = null;
+	
+	/** the stage utilization of the last load of this pipelined scenario unmarshaller */
+	private volatile PipelineUtilization utilization = null;
+	
+	/**
+	 * Constructs a new pipelined scenario unmarshaller with one adapter
+	 * worker per available processor besides the parsing thread.
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 */
+	public PipelinedScenarioUnmarshaller() throws JAXBException {
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+	}
+	
+	/**
+	 * Constructs a new pipelined scenario unmarshaller with a specified
+	 * number of adapter workers.
+	 * 
+	 * @param workers the number of adapter workers
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 * @throws IllegalArgumentException if the number of adapter workers is
+	 *         not positive
+	 */
+	public PipelinedScenarioUnmarshaller(int workers) throws JAXBException {
+		if (0 >= workers) {
+			throw new IllegalArgumentException("invalid number of workers");
+		}
+		ScenarioContext.getInstance();
+		this.workers = workers;
+		this.queueCapacity = workers * PipelinedScenarioUnmarshaller.CHUNKS_PER_WORKER;
+		this.pool = ScenarioExecutors.newWorkerPool(workers);
+	}
+	
+	/**
+	 * Gets the number of adapter workers of this pipelined scenario
+	 * unmarshaller.
+	 * 
+	 * @return the number of adapter workers
+	 */
+	public int getWorkers() {
+		return this.workers;
+	}
+	
+	/**
+	 * Gets the number of fragments of a chunk of this pipelined scenario
+	 * unmarshaller. Adapted obstacles are submitted to the unmarshalled
+	 * scenario chunk by chunk.
+	 * 
+	 * @return the number of fragments of a chunk
+	 */
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+	
+	/**
+	 * Sets the number of fragments of a chunk of this pipelined scenario
+	 * unmarshaller.
+	 * 
+	 * @param chunkSize the number of fragments of a chunk
+	 * 
+	 * @throws IllegalArgumentException if the chunk size is not positive
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (0 >= chunkSize) {
+			throw new IllegalArgumentException("invalid chunk size");
+		}
+		this.chunkSize = chunkSize;
+	}
+	
+	/**
+	 * Gets the maximum number of queued chunks of this pipelined scenario
+	 * unmarshaller before the parser is blocked.
+	 * 
+	 * @return the maximum number of queued chunks
+	 */
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+	
+	/**
+	 * Sets the maximum number of queued chunks of this pipelined scenario
+	 * unmarshaller before the parser is blocked.
+	 * 
+	 * @param queueCapacity the maximum number of queued chunks
+	 * 
+	 * @throws IllegalArgumentException if the queue capacity is not positive
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		if (0 >= queueCapacity) {
+			throw new IllegalArgumentException("invalid queue capacity");
+		}
+		this.queueCapacity = queueCapacity;
+	}
+	
+	/**
+	 * Indicates whether or not this pipelined scenario unmarshaller memory
+	 * maps input files.
+	 * 
+	 * @return true if input files are memory mapped, false otherwise
+	 */
+	public boolean isMapped() {
+		return this.mapped;
+	}
+	
+	/**
+	 * Sets whether or not this pipelined scenario unmarshaller memory maps
+	 * input files.
+	 * 
+	 * @param mapped true if input files are to be memory mapped, false
+	 *        otherwise
+	 * 
+	 * @see MappedFileInputStream
+	 */
+	public void setMapped(boolean mapped) {
+		this.mapped = mapped;
+	}
+	
+	/**
+	 * Gets the filter of the obstacles unmarshalled by this pipelined
+	 * scenario unmarshaller.
+	 * 
+	 * @return the obstacle filter, null if all obstacles are unmarshalled
+	 */
+	public ObstacleFilter getObstacleFilter() {
+		return this.obstacleFilter;
+	}
+	
+	/**
+	 * Sets the filter of the obstacles unmarshalled by this pipelined
+	 * scenario unmarshaller. Obstacles outside of the region of interest or
+	 * time window of the obstacle filter are rejected by the adapter workers
+	 * before they are adapted.
+	 * 
+	 * @param obstacleFilter the obstacle filter, null if all obstacles are
+	 *        to be unmarshalled
+	 */
+	public void setObstacleFilter(ObstacleFilter obstacleFilter) {
+		this.obstacleFilter = obstacleFilter;
+	}
+	
+	/**
+	 * Gets the stage utilization of the last successful load of this
+	 * pipelined scenario unmarshaller.
+	 * 
+	 * @return the stage utilization of the last load, null if no scenario
+	 *         has been unmarshalled yet
+	 */
+	public PipelineUtilization getUtilization() {
+		return this.utilization;
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input file.
+	 * 
+	 * @param input the input file
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(File input) throws JAXBException {
+		try (InputStream stream = ScenarioStreams.openInput(input, this.mapped)) {
+			return this.unmarshalScenario(stream, input.toURI().toString());
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario from an input stream. The input stream is not
+	 * closed.
+	 * 
+	 * @param input the input stream
+	 * @param systemId the system identifier of the input stream, may be null
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(InputStream input, String systemId)
+			throws JAXBException {
+		XMLStreamReader reader = null;
+		
+		try {
+			reader = ScenarioStreams.createReader(input, systemId);
+			return this.unmarshalScenario(reader);
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			DirectScenarioUnmarshaller.close(reader);
+		}
+	}
+	
+	/**
+	 * Unmarshals a scenario from an XML stream reader positioned at or before
+	 * the scenario element. The reader is left after the scenario element.
+	 * The adapter workers are released once the scenario element has been
+	 * parsed and its pipelined fragments have been adapted, before the
+	 * remaining sections of constant size are adapted.
+	 * 
+	 * @param reader the XML stream reader
+	 * 
+	 * @return the unmarshalled scenario
+	 * 
+	 * @throws JAXBException if the scenario cannot be unmarshalled
+	 */
+	public com.cfar.swim.worldwind.session.Scenario unmarshalScenario(XMLStreamReader reader)
+			throws JAXBException {
+		ScenarioAdapter scenarioAdapter = AdapterRegistry.getScenarioAdapter();
+		com.cfar.swim.worldwind.session.Scenario unmarshalledScenario = null;
+		DirectScenarioDecoder decoder = new DirectScenarioDecoder();
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		Pipeline pipeline = new Pipeline();
+		
+		try {
+			Scenario scenario = DirectScenarioUnmarshaller.startScenario(reader);
+			List<Chunk> waypoints = null;
+			List<Chunk> trajectory = null;
+			
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				switch (reader.getLocalName()) {
+				case "obstacles":
+					unmarshalledScenario = scenarioAdapter.unmarshalHeader(scenario);
+					pipeline.parseObstacles(reader, decoder, unmarshalledScenario);
+					break;
+				case "waypoints":
+					scenario.setWaypoints(decoder.decodeWaypoints(reader));
+					waypoints = pipeline.parseWaypoints(scenario.getWaypoints().getWaypoint());
+					break;
+				case "trajectory":
+					scenario.setTrajectory(decoder.decodeTrajectory(reader));
+					trajectory = pipeline.parseWaypoints(scenario.getTrajectory().getWaypoint());
+					break;
+				default:
+					DirectScenarioUnmarshaller.unmarshalSection(reader, decoder, unmarshaller, scenario);
+				}
+			}
+			reader.next();
+			this.utilization = pipeline.finish();
+			
+			if (null == unmarshalledScenario) {
+				unmarshalledScenario = scenarioAdapter.unmarshalHeader(scenario);
+			}
+			scenarioAdapter.unmarshalBody(scenario, unmarshalledScenario,
+					(null == waypoints) ? null : PipelinedScenarioUnmarshaller.collect(waypoints),
+					(null == trajectory) ? null : AdapterRegistry.getTrajectoryAdapter().unmarshal(
+							PipelinedScenarioUnmarshaller.collect(trajectory),
+							scenario.getTrajectory().getDepiction()));
+		} catch (JAXBException e) {
+			throw e;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JAXBException(e);
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		} finally {
+			pipeline.abort();
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+		}
+		
+		return unmarshalledScenario;
+	}
+	
+	/**
+	 * Closes this pipelined scenario unmarshaller shutting down its adapter
+	 * workers.
+	 * 
+	 * @see AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+	
+	/**
+	 * Collects the adapted waypoints of pipelined waypoint chunks in
+	 * document order.
+	 * 
+	 * @param chunks the adapted waypoint chunks in document order
+	 * 
+	 * @return the adapted waypoints
+	 */
+	private static List<com.cfar.swim.worldwind.planning.Waypoint> collect(List<Chunk> chunks) {
+		List<com.cfar.swim.worldwind.planning.Waypoint> waypoints = new ArrayList<>();
+		
+		for (Chunk chunk : chunks) {
+			waypoints.addAll(Arrays.asList(chunk.waypoints));
+		}
+		
+		return waypoints;
+	}
+	
+	/**
+	 * Realizes a chunk of pipelined fragments, either obstacles to be
+	 * submitted to an unmarshalled scenario or waypoints to be adapted in
+	 * place.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static final class Chunk {
+		
+		/** the scenario receiving the obstacles of this chunk, null for waypoints */
+		private final com.cfar.swim.worldwind.session.Scenario scenario;
+		
+		/** the fragments of this chunk */
+		private final List<?> fragments;
+		
+		/** the adapted waypoints of this chunk, null for obstacles */
+		private final com.cfar.swim.worldwind.planning.Waypoint[] waypoints;
+		
+		/**
+		 * Constructs a new chunk.
+		 * 
+		 * @param scenario the scenario receiving the obstacles, null for
+		 *        waypoints
+		 * @param fragments the fragments
+		 */
+		private Chunk(com.cfar.swim.worldwind.session.Scenario scenario, List<?> fragments) {
+			this.scenario = scenario;
+			this.fragments = fragments;
+			this.waypoints = (null == scenario)
+					? new com.cfar.swim.worldwind.planning.Waypoint[fragments.size()] : null;
+		}
+		
+	}
+	
+	/**
+	 * Realizes the pipeline of a single load connecting the parsing thread
+	 * with the adapter workers of this pipelined scenario unmarshaller. The
+	 * first adapter error is reported to the parsing thread at its next
+	 * emitted chunk, while the workers keep draining the queue.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private final class Pipeline {
+		
+		/** the bounded chunk queue of this pipeline */
+		private final BlockingQueue<Chunk> queue =
+				new ArrayBlockingQueue<>(PipelinedScenarioUnmarshaller.this.queueCapacity);
+		
+		/** the number of fragments of a chunk of this pipeline */
+		private final int chunkSize = PipelinedScenarioUnmarshaller.this.chunkSize;
+		
+		/** the obstacle filter of this pipeline, null if unfiltered */
+		private final ObstacleFilter obstacleFilter = PipelinedScenarioUnmarshaller.this.obstacleFilter;
+		
+		/** the adapter worker futures of this pipeline */
+		private final List<Future<?>> futures = new ArrayList<>();
+		
+		/** the first adapter error of this pipeline */
+		private final AtomicReference<Exception> error = new AtomicReference<>();
+		
+		/** the lock serializing the obstacle submissions of this pipeline */
+		private final Object submissions = new Object();
+		
+		/** the cumulative busy time of the adapter workers of this pipeline */
+		private final LongAdder adaptTime = new LongAdder();
+		
+		/** the cumulative idle time of the adapter workers of this pipeline */
+		private final LongAdder adaptIdleTime = new LongAdder();
+		
+		/** the start time of this pipeline */
+		private final long start = System.nanoTime();
+		
+		/** the start time of this pipeline for the scenario metrics */
+		private final long metricsStart = ScenarioMetrics.start();
+		
+		/** the time the parsing thread of this pipeline was blocked */
+		private long parseBlockedTime = 0;
+		
+		/** the number of emitted fragments of this pipeline */
+		private long fragments = 0;
+		
+		/** the number of emitted chunks of this pipeline */
+		private long chunks = 0;
+		
+		/** indicates whether or not this pipeline has been finished */
+		private boolean finished = false;
+		
+		/** indicates whether or not this pipeline has been aborted */
+		private volatile boolean aborted = false;
+		
+		/**
+		 * Constructs a new pipeline starting the adapter workers.
+		 */
+		private Pipeline() {
+			for (int worker = 0; worker < PipelinedScenarioUnmarshaller.this.workers; worker++) {
+				this.futures.add(PipelinedScenarioUnmarshaller.this.pool.submit(this::work));
+			}
+		}
+		
+		/**
+		 * Parses the obstacles of a scenario emitting them in chunks.
+		 * 
+		 * @param reader the XML stream reader positioned at the obstacles
+		 *        element
+		 * @param decoder the decoder of the individual obstacles
+		 * @param unmarshalledScenario the scenario to submit the obstacles to
+		 * 
+		 * @throws Exception if the obstacles cannot be parsed or adapted
+		 */
+		private void parseObstacles(XMLStreamReader reader, DirectScenarioDecoder decoder,
+				com.cfar.swim.worldwind.session.Scenario unmarshalledScenario) throws Exception {
+			List<Object> obstacles = new ArrayList<>(this.chunkSize);
+			reader.nextTag();
+			
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				Object obstacle = decoder.decodeObstacle(reader);
+				if (null != obstacle) {
+					obstacles.add(obstacle);
+					if (this.chunkSize <= obstacles.size()) {
+						this.put(new Chunk(unmarshalledScenario, obstacles));
+						obstacles = new ArrayList<>(this.chunkSize);
+					}
+				}
+			}
+			reader.next();
+			
+			if (!obstacles.isEmpty()) {
+				this.put(new Chunk(unmarshalledScenario, obstacles));
+			}
+		}
+		
+		/**
+		 * Emits decoded waypoints in chunks.
+		 * 
+		 * @param waypoints the decoded waypoints
+		 * 
+		 * @return the emitted waypoint chunks in document order
+		 * 
+		 * @throws Exception if the waypoints cannot be adapted
+		 */
+		private List<Chunk> parseWaypoints(List<Waypoint> waypoints) throws Exception {
+			List<Chunk> waypointChunks = new ArrayList<>();
+			
+			for (int from = 0; from < waypoints.size(); from += this.chunkSize) {
+				Chunk chunk = new Chunk(null, waypoints.subList(from, Math.min(waypoints.size(), from + this.chunkSize)));
+				this.put(chunk);
+				waypointChunks.add(chunk);
+			}
+			
+			return waypointChunks;
+		}
+		
+		/**
+		 * Emits a chunk into the queue of this pipeline blocking while the
+		 * queue is full.
+		 * 
+		 * @param chunk the chunk to be emitted
+		 * 
+		 * @throws Exception if an adapter worker has failed
+		 */
+		private void put(Chunk chunk) throws Exception {
+			Exception e = this.error.get();
+			if (null != e) {
+				throw e;
+			}
+			if (!this.queue.offer(chunk)) {
+				long blocked = System.nanoTime();
+				this.queue.put(chunk);
+				this.parseBlockedTime += System.nanoTime() - blocked;
+			}
+			this.fragments += chunk.fragments.size();
+			this.chunks++;
+		}
+		
+		/**
+		 * Finishes this pipeline after all chunks have been emitted and waits
+		 * for the adapter workers to complete.
+		 * 
+		 * @return the stage utilization of this pipeline
+		 * 
+		 * @throws Exception if an adapter worker has failed
+		 */
+		private PipelineUtilization finish() throws Exception {
+			this.queue.put(PipelinedScenarioUnmarshaller.END);
+			long parsed = System.nanoTime();
+			PipelinedScenarioUnmarshaller.PARSE_STAGE.stop(this.metricsStart, this.fragments);
+			
+			for (Future<?> future : this.futures) {
+				future.get();
+			}
+			this.finished = true;
+			Exception e = this.error.get();
+			if (null != e) {
+				throw e;
+			}
+			
+			return new PipelineUtilization(PipelinedScenarioUnmarshaller.this.workers,
+					System.nanoTime() - this.start, parsed - this.start - this.parseBlockedTime,
+					this.parseBlockedTime, this.adaptTime.sum(), this.adaptIdleTime.sum(),
+					this.fragments, this.chunks);
+		}
+		
+		/**
+		 * Aborts this pipeline unless it has been finished. Queued chunks are
+		 * discarded and the adapter workers are released after their current
+		 * chunk.
+		 */
+		private void abort() {
+			if (!this.finished) {
+				this.aborted = true;
+				this.queue.clear();
+				this.queue.offer(PipelinedScenarioUnmarshaller.END);
+			}
+		}
+		
+		/**
+		 * Runs an adapter worker of this pipeline taking chunks from the queue
+		 * until the pipeline ends. The end chunk is passed on to the remaining
+		 * workers.
+		 */
+		private void work() {
+			long busy = 0;
+			long idle = 0;
+			
+			try {
+				while (true) {
+					long waiting = System.nanoTime();
+					Chunk chunk = this.queue.take();
+					long taken = System.nanoTime();
+					idle += taken - waiting;
+					
+					if (PipelinedScenarioUnmarshaller.END == chunk) {
+						this.queue.put(chunk);
+						break;
+					}
+					if (!this.aborted && (null == this.error.get())) {
+						try {
+							this.adapt(chunk);
+						} catch (Exception e) {
+							this.error.compareAndSet(null, e);
+						}
+					}
+					busy += System.nanoTime() - taken;
+				}
+			} catch (InterruptedException e) {
+				this.error.compareAndSet(null, e);
+				Thread.currentThread().interrupt();
+			} finally {
+				this.adaptTime.add(busy);
+				this.adaptIdleTime.add(idle);
+			}
+		}
+		
+		/**
+		 * Adapts the fragments of a chunk.
+		 * 
+		 * @param chunk the chunk to be adapted
+		 * 
+		 * @throws Exception if the fragments cannot be adapted
+		 */
+		private void adapt(Chunk chunk) throws Exception {
+			long stageStart = ScenarioMetrics.start();
+			
+			if (null == chunk.scenario) {
+				WaypointAdapter waypointAdapter = AdapterRegistry.getWaypointAdapter();
+				for (int index = 0; index < chunk.waypoints.length; index++) {
+					chunk.waypoints[index] = waypointAdapter.unmarshal((Waypoint) chunk.fragments.get(index));
+				}
+			} else {
+				ObstaclesAdapter obstaclesAdapter = AdapterRegistry.getObstaclesAdapter();
+				Set<com.cfar.swim.worldwind.render.Obstacle> obstacles = new HashSet<>();
+				for (Object obstacle : chunk.fragments) {
+					com.cfar.swim.worldwind.render.Obstacle unmarshalledObstacle =
+							obstaclesAdapter.unmarshalObstacle(obstacle, this.obstacleFilter);
+					if (null != unmarshalledObstacle) {
+						obstacles.add(unmarshalledObstacle);
+					}
+				}
+				if (!obstacles.isEmpty()) {
+					synchronized (this.submissions) {
+						chunk.scenario.submitAddObstacles(obstacles);
+					}
+				}
+			}
+			
+			PipelinedScenarioUnmarshaller.ADAPT_STAGE.stop(stageStart, chunk.fragments.size());
+		}
+		
+	}
+	
+}
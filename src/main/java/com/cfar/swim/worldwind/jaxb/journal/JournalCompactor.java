@@ -0,0 +1,550 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioContext;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a journal compactor which folds journal records into a scenario
+ * snapshot. The journal records are folded into a compact change set first,
+ * such that later records supersede earlier ones, and the snapshot is then
+ * streamed section by section and obstacle by obstacle applying the change
+ * set without materializing the complete snapshot.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioJournal#compact(File)
+ */
+public class JournalCompactor {
+	
+	/** the scenario sections in schema order */
+	private static final List<String> SECTIONS = Arrays.asList(
+			"environment", "obstacles", "aircraft", "waypoints", "trajectory", "planner", "datalink", "swim");
+	
+	/** the scenario sections replaceable by section records */
+	private static final List<String> REPLACEABLE_SECTIONS = Arrays.asList(
+			"environment", "aircraft", "planner", "datalink", "swim");
+	
+	/** the identifiers of the snapshot obstacles removed or replaced by this journal compactor */
+	private final Set<String> removedObstacles = new HashSet<>();
+	
+	/** the updated cost intervals of the snapshot obstacles by identifier */
+	private final Map<String, CostInterval> costIntervals = new HashMap<>();
+	
+	/** the added obstacles of this journal compactor by identifier */
+	private final Map<String, Object> addedObstacles = new LinkedHashMap<>();
+	
+	/** the waypoint records of this journal compactor in append order */
+	private final List<JournalRecord> waypointRecords = new ArrayList<>();
+	
+	/** indicates whether or not the trajectory is replaced by this journal compactor */
+	private boolean trajectoryReplaced = false;
+	
+	/** the replacing trajectory of this journal compactor, may be null */
+	private Trajectory trajectory = null;
+	
+	/** the replacing sections of this journal compactor by name */
+	private final Map<String, Object> sections = new HashMap<>();
+	
+	/**
+	 * Constructs a new journal compactor folding journal records.
+	 * 
+	 * @param records the journal records in append order
+	 * 
+	 * @throws IllegalArgumentException if a journal record is invalid
+	 */
+	public JournalCompactor(List<JournalRecord> records) {
+		for (JournalRecord record : records) {
+			this.fold(record);
+		}
+	}
+	
+	/**
+	 * Folds a journal record into the change set of this journal compactor.
+	 * 
+	 * @param record the journal record to be folded
+	 * 
+	 * @throws IllegalArgumentException if the journal record is invalid
+	 */
+	private void fold(JournalRecord record) {
+		switch (record.getOperation()) {
+		case ADD_OBSTACLE:
+			if (null == JournalRecord.getCostInterval(record.getFragment())) {
+				throw new IllegalArgumentException("invalid obstacle record");
+			}
+			this.removedObstacles.add(record.getId());
+			this.costIntervals.remove(record.getId());
+			this.addedObstacles.put(record.getId(), record.getFragment());
+			break;
+		case REMOVE_OBSTACLE:
+			this.removedObstacles.add(record.getId());
+			this.costIntervals.remove(record.getId());
+			this.addedObstacles.remove(record.getId());
+			break;
+		case UPDATE_COST_INTERVAL:
+			if (!(record.getFragment() instanceof CostInterval)) {
+				throw new IllegalArgumentException("invalid cost interval record");
+			}
+			CostInterval costInterval = (CostInterval) record.getFragment();
+			if (this.addedObstacles.containsKey(record.getId())) {
+				JournalRecord.setCostInterval(this.addedObstacles.get(record.getId()), costInterval);
+			} else {
+				this.costIntervals.put(record.getId(), costInterval);
+			}
+			break;
+		case ADD_WAYPOINT:
+		case UPDATE_WAYPOINT:
+		case REMOVE_WAYPOINT:
+			this.waypointRecords.add(record);
+			break;
+		case REPLACE_TRAJECTORY:
+			this.trajectoryReplaced = true;
+			this.trajectory = (Trajectory) record.getFragment();
+			break;
+		case REPLACE_SECTION:
+			if (!JournalCompactor.REPLACEABLE_SECTIONS.contains(record.getId())
+					|| ((null == record.getFragment()) && !"aircraft".equals(record.getId()))) {
+				throw new IllegalArgumentException("invalid section record " + record.getId());
+			}
+			this.sections.put(record.getId(), record.getFragment());
+			break;
+		}
+	}
+	
+	/**
+	 * Compacts a scenario snapshot file into a compacted scenario file.
+	 * 
+	 * @param snapshot the scenario snapshot file
+	 * @param output the compacted scenario file
+	 * 
+	 * @throws JAXBException if the scenario snapshot cannot be compacted
+	 */
+	public void compact(File snapshot, File output) throws JAXBException {
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(snapshot));
+				OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(output))) {
+			this.compact(inputStream, snapshot.toURI().toString(), outputStream);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Compacts a scenario snapshot stream into a compacted scenario stream.
+	 * Neither stream is closed.
+	 * 
+	 * @param input the scenario snapshot stream
+	 * @param systemId the system identifier of the scenario snapshot stream,
+	 *        may be null
+	 * @param output the compacted scenario stream
+	 * 
+	 * @throws JAXBException if the scenario snapshot cannot be compacted
+	 */
+	public void compact(InputStream input, String systemId, OutputStream output) throws JAXBException {
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		Marshaller marshaller = ScenarioContext.acquireMarshaller();
+		XMLStreamReader reader = null;
+		XMLStreamWriter writer = null;
+		
+		try {
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+			reader = ScenarioStreams.createReader(input, systemId);
+			if ((XMLStreamConstants.START_ELEMENT != ScenarioStreams.toTag(reader))
+					|| !"scenario".equals(reader.getLocalName())) {
+				throw new JAXBException("scenario element expected at " + reader.getLocation());
+			}
+			
+			writer = ScenarioStreams.createWriter(output);
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.setPrefix(ScenarioStreams.NAMESPACE_PREFIX, ScenarioStreams.NAMESPACE_URI);
+			this.writeStartElement(writer, "scenario");
+			writer.writeNamespace(ScenarioStreams.NAMESPACE_PREFIX, ScenarioStreams.NAMESPACE_URI);
+			ScenarioStreams.marshalAttributes(writer, ScenarioStreams.unmarshalAttributes(reader));
+			reader.nextTag();
+			
+			int next = 0;
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				String section = reader.getLocalName();
+				int order = JournalCompactor.SECTIONS.indexOf(section);
+				if (-1 == order) {
+					ScenarioStreams.skipElement(reader);
+					continue;
+				}
+				next = this.writeAddedSections(marshaller, writer, next, order);
+				
+				if (this.sections.containsKey(section)) {
+					ScenarioStreams.skipElement(reader);
+					this.writeSection(marshaller, writer, section);
+					next = order + 1;
+					continue;
+				}
+				
+				switch (section) {
+				case "environment":
+					this.marshalFragment(marshaller, writer, section, Environment.class,
+							unmarshaller.unmarshal(reader, Environment.class).getValue());
+					break;
+				case "obstacles":
+					this.compactObstacles(reader, unmarshaller, marshaller, writer);
+					break;
+				case "aircraft":
+					this.marshalFragment(marshaller, writer, section, Aircraft.class,
+							unmarshaller.unmarshal(reader, Aircraft.class).getValue());
+					break;
+				case "waypoints":
+					this.compactWaypoints(marshaller, writer,
+							unmarshaller.unmarshal(reader, Waypoints.class).getValue().getWaypoint());
+					break;
+				case "trajectory":
+					if (this.trajectoryReplaced) {
+						ScenarioStreams.skipElement(reader);
+						this.writeTrajectory(marshaller, writer);
+					} else {
+						this.marshalFragment(marshaller, writer, section, Trajectory.class,
+								unmarshaller.unmarshal(reader, Trajectory.class).getValue());
+					}
+					break;
+				case "planner":
+					this.marshalFragment(marshaller, writer, section, Planner.class,
+							unmarshaller.unmarshal(reader, Planner.class).getValue());
+					break;
+				case "datalink":
+					this.marshalFragment(marshaller, writer, section, Datalink.class,
+							unmarshaller.unmarshal(reader, Datalink.class).getValue());
+					break;
+				case "swim":
+					this.marshalFragment(marshaller, writer, section, Swim.class,
+							unmarshaller.unmarshal(reader, Swim.class).getValue());
+					break;
+				}
+				next = order + 1;
+			}
+			this.writeAddedSections(marshaller, writer, next, JournalCompactor.SECTIONS.size());
+			
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.flush();
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+			ScenarioContext.releaseMarshaller(marshaller);
+			if (null != reader) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					// the underlying input stream remains open
+				}
+			}
+			if (null != writer) {
+				try {
+					writer.close();
+				} catch (XMLStreamException e) {
+					// the underlying output stream remains open
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Writes the sections added by the journal records which are absent in
+	 * the scenario snapshot and precede a snapshot section in schema order.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param from the schema order of the first section to be considered
+	 * @param to the schema order of the snapshot section
+	 * 
+	 * @return the schema order of the snapshot section
+	 * 
+	 * @throws JAXBException if an added section cannot be marshalled
+	 * @throws XMLStreamException if an added section cannot be written
+	 */
+	private int writeAddedSections(Marshaller marshaller, XMLStreamWriter writer, int from, int to)
+			throws JAXBException, XMLStreamException {
+		for (int order = from; order < to; order++) {
+			switch (JournalCompactor.SECTIONS.get(order)) {
+			case "obstacles":
+				if (!this.addedObstacles.isEmpty()) {
+					this.writeStartElement(writer, "obstacles");
+					this.writeAddedObstacles(marshaller, writer);
+					writer.writeEndElement();
+				}
+				break;
+			case "waypoints":
+				if (!this.waypointRecords.isEmpty()) {
+					this.compactWaypoints(marshaller, writer, new ArrayList<>());
+				}
+				break;
+			case "trajectory":
+				this.writeTrajectory(marshaller, writer);
+				break;
+			default:
+				this.writeSection(marshaller, writer, JournalCompactor.SECTIONS.get(order));
+			}
+		}
+		return to;
+	}
+	
+	/**
+	 * Compacts the obstacles of a scenario snapshot one at a time.
+	 * 
+	 * @param reader the XML stream reader positioned at the obstacles element
+	 * @param unmarshaller the unmarshaller of the individual obstacles
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws JAXBException if an obstacle cannot be compacted
+	 * @throws XMLStreamException if an obstacle cannot be read or written
+	 */
+	private void compactObstacles(XMLStreamReader reader, Unmarshaller unmarshaller,
+			Marshaller marshaller, XMLStreamWriter writer) throws JAXBException, XMLStreamException {
+		boolean started = false;
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			Object obstacle = ScenarioStreams.unmarshalObstacle(reader, unmarshaller);
+			
+			CostInterval costInterval = JournalRecord.getCostInterval(obstacle);
+			if ((null != costInterval) && !this.removedObstacles.contains(costInterval.getId())) {
+				if (this.costIntervals.containsKey(costInterval.getId())) {
+					JournalRecord.setCostInterval(obstacle, this.costIntervals.get(costInterval.getId()));
+				}
+				if (!started) {
+					this.writeStartElement(writer, "obstacles");
+					started = true;
+				}
+				this.marshalObstacle(marshaller, writer, obstacle);
+			}
+		}
+		reader.next();
+		
+		if (!started && !this.addedObstacles.isEmpty()) {
+			this.writeStartElement(writer, "obstacles");
+			started = true;
+		}
+		this.writeAddedObstacles(marshaller, writer);
+		if (started) {
+			writer.writeEndElement();
+		}
+	}
+	
+	/**
+	 * Writes the obstacles added by the journal records.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws JAXBException if an added obstacle cannot be marshalled
+	 */
+	private void writeAddedObstacles(Marshaller marshaller, XMLStreamWriter writer) throws JAXBException {
+		for (Object obstacle : this.addedObstacles.values()) {
+			this.marshalObstacle(marshaller, writer, obstacle);
+		}
+	}
+	
+	/**
+	 * Compacts the waypoints of a scenario snapshot applying the waypoint
+	 * records in append order.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param waypoints the waypoints of the scenario snapshot
+	 * 
+	 * @throws JAXBException if a waypoint record is invalid or the waypoints
+	 *         cannot be marshalled
+	 * @throws XMLStreamException if the waypoints cannot be written
+	 */
+	private void compactWaypoints(Marshaller marshaller, XMLStreamWriter writer, List<Waypoint> waypoints)
+			throws JAXBException, XMLStreamException {
+		try {
+			for (JournalRecord record : this.waypointRecords) {
+				switch (record.getOperation()) {
+				case ADD_WAYPOINT:
+					if (JournalRecord.NO_INDEX == record.getIndex()) {
+						waypoints.add((Waypoint) record.getFragment());
+					} else {
+						waypoints.add(record.getIndex(), (Waypoint) record.getFragment());
+					}
+					break;
+				case UPDATE_WAYPOINT:
+					waypoints.set(record.getIndex(), (Waypoint) record.getFragment());
+					break;
+				case REMOVE_WAYPOINT:
+					waypoints.remove(record.getIndex());
+					break;
+				default:
+					// only waypoint records are applied
+				}
+			}
+		} catch (IndexOutOfBoundsException | ClassCastException e) {
+			throw new JAXBException(e);
+		}
+		
+		if (!waypoints.isEmpty()) {
+			this.writeStartElement(writer, "waypoints");
+			for (Waypoint waypoint : waypoints) {
+				this.marshalFragment(marshaller, writer, "waypoint", Waypoint.class, waypoint);
+			}
+			writer.writeEndElement();
+		}
+	}
+	
+	/**
+	 * Writes the replacing trajectory of the journal records if present.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * 
+	 * @throws JAXBException if the trajectory cannot be marshalled
+	 */
+	private void writeTrajectory(Marshaller marshaller, XMLStreamWriter writer) throws JAXBException {
+		if (this.trajectoryReplaced && (null != this.trajectory)) {
+			this.marshalFragment(marshaller, writer, "trajectory", Trajectory.class, this.trajectory);
+		}
+	}
+	
+	/**
+	 * Writes a replacing section of the journal records if present.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param section the name of the section
+	 * 
+	 * @throws JAXBException if the section cannot be marshalled
+	 */
+	private void writeSection(Marshaller marshaller, XMLStreamWriter writer, String section)
+			throws JAXBException {
+		Object fragment = this.sections.get(section);
+		
+		if (fragment instanceof Environment) {
+			this.marshalFragment(marshaller, writer, section, Environment.class, (Environment) fragment);
+		} else if (fragment instanceof Aircraft) {
+			this.marshalFragment(marshaller, writer, section, Aircraft.class, (Aircraft) fragment);
+		} else if (fragment instanceof Planner) {
+			this.marshalFragment(marshaller, writer, section, Planner.class, (Planner) fragment);
+		} else if (fragment instanceof Datalink) {
+			this.marshalFragment(marshaller, writer, section, Datalink.class, (Datalink) fragment);
+		} else if (fragment instanceof Swim) {
+			this.marshalFragment(marshaller, writer, section, Swim.class, (Swim) fragment);
+		}
+	}
+	
+	/**
+	 * Marshals an obstacle fragment into an XML stream writer.
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param obstacle the obstacle fragment to be marshalled
+	 * 
+	 * @throws JAXBException if the obstacle fragment cannot be marshalled
+	 */
+	private void marshalObstacle(Marshaller marshaller, XMLStreamWriter writer, Object obstacle)
+			throws JAXBException {
+		if (obstacle instanceof ObstacleBox) {
+			this.marshalFragment(marshaller, writer, "box", ObstacleBox.class, (ObstacleBox) obstacle);
+		} else if (obstacle instanceof ObstacleCylinder) {
+			this.marshalFragment(marshaller, writer, "cylinder", ObstacleCylinder.class, (ObstacleCylinder) obstacle);
+		} else if (obstacle instanceof ObstacleSphere) {
+			this.marshalFragment(marshaller, writer, "sphere", ObstacleSphere.class, (ObstacleSphere) obstacle);
+		}
+	}
+	
+	/**
+	 * Writes a start element of the scenario namespace.
+	 * 
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the start element
+	 * 
+	 * @throws XMLStreamException if the start element cannot be written
+	 */
+	private void writeStartElement(XMLStreamWriter writer, String localName) throws XMLStreamException {
+		writer.writeStartElement(ScenarioStreams.NAMESPACE_PREFIX, localName, ScenarioStreams.NAMESPACE_URI);
+	}
+	
+	/**
+	 * Marshals a scenario fragment into an XML stream writer.
+	 * 
+	 * @param <T> the type of the scenario fragment
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param writer the XML stream writer
+	 * @param localName the local name of the scenario fragment element
+	 * @param type the type of the scenario fragment
+	 * @param fragment the scenario fragment to be marshalled
+	 * 
+	 * @throws JAXBException if the scenario fragment cannot be marshalled
+	 */
+	private <T> void marshalFragment(Marshaller marshaller, XMLStreamWriter writer,
+			String localName, Class<T> type, T fragment) throws JAXBException {
+		marshaller.marshal(new JAXBElement<T>(
+				new QName(ScenarioStreams.NAMESPACE_URI, localName), type, fragment), writer);
+	}
+	
+}
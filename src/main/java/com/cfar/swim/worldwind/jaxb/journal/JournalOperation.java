@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.journal;
+
+/**
+ * Enumerates the operations of scenario journal records.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see JournalRecord
+ */
+public enum JournalOperation {
+	
+	/** adds or replaces an obstacle identified by its cost interval */
+	ADD_OBSTACLE((byte) 1),
+	
+	/** removes an obstacle identified by its cost interval */
+	REMOVE_OBSTACLE((byte) 2),
+	
+	/** updates the cost interval of an obstacle, for example, to enable or disable it */
+	UPDATE_COST_INTERVAL((byte) 3),
+	
+	/** inserts or appends a waypoint */
+	ADD_WAYPOINT((byte) 4),
+	
+	/** replaces a waypoint at an index */
+	UPDATE_WAYPOINT((byte) 5),
+	
+	/** removes a waypoint at an index */
+	REMOVE_WAYPOINT((byte) 6),
+	
+	/** replaces or removes the trajectory */
+	REPLACE_TRAJECTORY((byte) 7),
+	
+	/** replaces the environment, aircraft, planner, datalink or SWIM section identified by its name */
+	REPLACE_SECTION((byte) 8);
+	
+	/** the operations of this enumeration in ordinal order */
+	private static final JournalOperation[] OPERATIONS = JournalOperation.values();
+	
+	/** the tag of this journal operation */
+	private final byte tag;
+	
+	/**
+	 * Constructs a new journal operation with a tag.
+	 * 
+	 * @param tag the tag of the journal operation
+	 */
+	private JournalOperation(byte tag) {
+		this.tag = tag;
+	}
+	
+	/**
+	 * Gets the tag of this journal operation.
+	 * 
+	 * @return the tag of this journal operation
+	 */
+	public byte getTag() {
+		return this.tag;
+	}
+	
+	/**
+	 * Gets the journal operation of a tag.
+	 * 
+	 * @param tag the tag of the journal operation
+	 * 
+	 * @return the journal operation of the tag
+	 * 
+	 * @throws IllegalArgumentException if the tag is unknown
+	 */
+	public static JournalOperation fromTag(byte tag) {
+		for (JournalOperation operation : JournalOperation.OPERATIONS) {
+			if (operation.tag == tag) {
+				return operation;
+			}
+		}
+		throw new IllegalArgumentException("unknown journal operation " + tag);
+	}
+	
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.journal;
+
+import java.util.Objects;
+
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+
+/**
+ * Realizes a scenario journal record describing a single scenario change.
+ * The payload of a journal record is a scenario fragment of an existing
+ * schema type, that is, an obstacle box, cylinder or sphere, a cost
+ * interval, a waypoint, a trajectory or a replaced scenario section.
+ * Obstacles are identified by the identifiers of their cost intervals,
+ * waypoints by their indices and replaced sections by their names.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see JournalOperation
+ * @see ScenarioJournal
+ */
+public final class JournalRecord {
+	
+	/** the index denoting no or the last waypoint */
+	public static final int NO_INDEX = -1;
+	
+	/** the operation of this journal record */
+	private final JournalOperation operation;
+	
+	/** the obstacle identifier or section name of this journal record, may be null */
+	private final String id;
+	
+	/** the waypoint index of this journal record */
+	private final int index;
+	
+	/** the scenario fragment of this journal record, may be null */
+	private final Object fragment;
+	
+	/**
+	 * Constructs a new journal record.
+	 * 
+	 * @param operation the operation of the journal record
+	 * @param id the obstacle identifier or section name of the journal
+	 *        record, may be null
+	 * @param index the waypoint index of the journal record
+	 * @param fragment the scenario fragment of the journal record, may be
+	 *        null
+	 * 
+	 * @throws NullPointerException if the operation is null
+	 */
+	public JournalRecord(JournalOperation operation, String id, int index, Object fragment) {
+		this.operation = Objects.requireNonNull(operation);
+		this.id = id;
+		this.index = index;
+		this.fragment = fragment;
+	}
+	
+	/**
+	 * Gets the operation of this journal record.
+	 * 
+	 * @return the operation of this journal record
+	 */
+	public JournalOperation getOperation() {
+		return this.operation;
+	}
+	
+	/**
+	 * Gets the obstacle identifier or section name of this journal record.
+	 * 
+	 * @return the obstacle identifier or section name of this journal
+	 *         record, may be null
+	 */
+	public String getId() {
+		return this.id;
+	}
+	
+	/**
+	 * Gets the waypoint index of this journal record.
+	 * 
+	 * @return the waypoint index of this journal record
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+	
+	/**
+	 * Gets the scenario fragment of this journal record.
+	 * 
+	 * @return the scenario fragment of this journal record, may be null
+	 */
+	public Object getFragment() {
+		return this.fragment;
+	}
+	
+	/**
+	 * Gets the cost interval of an obstacle fragment.
+	 * 
+	 * @param obstacle the obstacle fragment
+	 * 
+	 * @return the cost interval of the obstacle fragment, null if the
+	 *         fragment is not an obstacle
+	 */
+	public static CostInterval getCostInterval(Object obstacle) {
+		CostInterval costInterval = null;
+		
+		if (obstacle instanceof ObstacleBox) {
+			costInterval = ((ObstacleBox) obstacle).getCostInterval();
+		} else if (obstacle instanceof ObstacleCylinder) {
+			costInterval = ((ObstacleCylinder) obstacle).getCostInterval();
+		} else if (obstacle instanceof ObstacleSphere) {
+			costInterval = ((ObstacleSphere) obstacle).getCostInterval();
+		}
+		
+		return costInterval;
+	}
+	
+	/**
+	 * Sets the cost interval of an obstacle fragment.
+	 * 
+	 * @param obstacle the obstacle fragment
+	 * @param costInterval the cost interval to be set
+	 */
+	public static void setCostInterval(Object obstacle, CostInterval costInterval) {
+		if (obstacle instanceof ObstacleBox) {
+			((ObstacleBox) obstacle).setCostInterval(costInterval);
+		} else if (obstacle instanceof ObstacleCylinder) {
+			((ObstacleCylinder) obstacle).setCostInterval(costInterval);
+		} else if (obstacle instanceof ObstacleSphere) {
+			((ObstacleSphere) obstacle).setCostInterval(costInterval);
+		}
+	}
+	
+}
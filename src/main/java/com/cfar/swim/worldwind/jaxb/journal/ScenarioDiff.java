@@ -0,0 +1,522 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.journal;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioContext;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryOutput;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryScenarioEncoder;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoints;
+
+/**
+ * Realizes a structural scenario diff which computes the delta between two
+ * scenario files as journal records. Obstacles are matched by the
+ * identifiers of their cost intervals and compared by geometry and cost
+ * interval, waypoints are matched by designator and position, and the
+ * remaining sections are compared as a whole. The delta is written to a
+ * scenario journal and applied by compacting the journal into the original
+ * scenario.
+ * 
+ * Both scenarios are streamed obstacle by obstacle. Only fingerprints of
+ * the obstacles and sections of the original scenario are retained between
+ * the two passes such that neither scenario is materialized in memory.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioJournal
+ * @see JournalCompactor
+ */
+public class ScenarioDiff {
+	
+	/** the maximum size of the waypoint matching table */
+	private static final long MAX_MATCHING_SIZE = 1L << 22;
+	
+	/** the fingerprint index slot of the geometry */
+	private static final int GEOMETRY = 0;
+	
+	/** the fingerprint index slot of the cost interval */
+	private static final int COST_INTERVAL = 1;
+	
+	/** the binary encoder computing the fingerprints of this scenario diff */
+	private final BinaryScenarioEncoder encoder = new BinaryScenarioEncoder();
+	
+	/** the binary output buffer computing the fingerprints of this scenario diff */
+	private final BinaryOutput output = new BinaryOutput();
+	
+	/** the obstacle fingerprints of the original scenario by identifier */
+	private final Map<String, long[]> obstacles = new HashMap<>();
+	
+	/** the section fingerprints of the original scenario by name */
+	private final Map<String, Long> sections = new HashMap<>();
+	
+	/** the waypoints of the original scenario */
+	private List<Waypoint> waypoints = new ArrayList<>();
+	
+	/** the number of records appended by this scenario diff */
+	private long records = 0;
+	
+	/**
+	 * Constructs a new scenario diff.
+	 * 
+	 * @throws JAXBException if the scenario context cannot be created
+	 */
+	public ScenarioDiff() throws JAXBException {
+		ScenarioContext.getInstance();
+	}
+	
+	/**
+	 * Computes the delta between two scenario files and writes it to a
+	 * delta journal file replacing any previous records.
+	 * 
+	 * @param from the original scenario file
+	 * @param to the modified scenario file
+	 * @param delta the delta journal file
+	 * 
+	 * @return the number of delta records
+	 * 
+	 * @throws JAXBException if the delta cannot be computed or written
+	 */
+	public long diff(File from, File to, File delta) throws JAXBException {
+		try (ScenarioJournal journal = new ScenarioJournal(delta)) {
+			journal.clear();
+			return this.diff(from, to, journal);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Computes the delta between two scenario files and appends it to a
+	 * delta journal.
+	 * 
+	 * @param from the original scenario file
+	 * @param to the modified scenario file
+	 * @param delta the delta journal
+	 * 
+	 * @return the number of appended delta records
+	 * 
+	 * @throws JAXBException if the delta cannot be computed or appended
+	 */
+	public synchronized long diff(File from, File to, ScenarioJournal delta) throws JAXBException {
+		Objects.requireNonNull(delta);
+		this.obstacles.clear();
+		this.sections.clear();
+		this.waypoints = new ArrayList<>();
+		this.records = 0;
+		
+		try {
+			this.stream(from, null);
+			this.stream(to, delta);
+			
+			for (String id : this.obstacles.keySet()) {
+				this.append(delta, new JournalRecord(JournalOperation.REMOVE_OBSTACLE,
+						id, JournalRecord.NO_INDEX, null));
+			}
+			for (String section : this.sections.keySet()) {
+				if ("aircraft".equals(section)) {
+					this.append(delta, new JournalRecord(JournalOperation.REPLACE_SECTION,
+							section, JournalRecord.NO_INDEX, null));
+				} else if ("trajectory".equals(section)) {
+					this.append(delta, new JournalRecord(JournalOperation.REPLACE_TRAJECTORY,
+							null, JournalRecord.NO_INDEX, null));
+				}
+			}
+			this.diffWaypoints(delta, new ArrayList<>());
+			
+			return this.records;
+		} finally {
+			this.obstacles.clear();
+			this.sections.clear();
+			this.waypoints = new ArrayList<>();
+		}
+	}
+	
+	/**
+	 * Applies a delta journal file to an original scenario file.
+	 * 
+	 * @param from the original scenario file
+	 * @param delta the delta journal file
+	 * @param to the modified scenario file
+	 * 
+	 * @throws JAXBException if the delta cannot be applied
+	 */
+	public void apply(File from, File delta, File to) throws JAXBException {
+		try (ScenarioJournal journal = new ScenarioJournal(delta)) {
+			new JournalCompactor(journal.read()).compact(from, to);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Streams a scenario file indexing the original scenario if no delta
+	 * journal is given, or comparing the modified scenario against the index
+	 * otherwise.
+	 * 
+	 * @param file the scenario file
+	 * @param delta the delta journal, null if the original scenario is
+	 *        indexed
+	 * 
+	 * @throws JAXBException if the scenario cannot be streamed
+	 */
+	private void stream(File file, ScenarioJournal delta) throws JAXBException {
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		XMLStreamReader reader = null;
+		
+		try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+			reader = ScenarioStreams.createReader(input, file.toURI().toString());
+			if ((XMLStreamConstants.START_ELEMENT != ScenarioStreams.toTag(reader))
+					|| !"scenario".equals(reader.getLocalName())) {
+				throw new JAXBException("scenario element expected at " + reader.getLocation());
+			}
+			reader.nextTag();
+			
+			while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+				String section = reader.getLocalName();
+				switch (section) {
+				case "environment":
+					Environment environment = unmarshaller.unmarshal(reader, Environment.class).getValue();
+					this.encoder.encodeEnvironment(this.reset(), environment);
+					this.diffSection(delta, section, environment);
+					break;
+				case "obstacles":
+					this.streamObstacles(reader, unmarshaller, delta);
+					break;
+				case "aircraft":
+					Aircraft aircraft = unmarshaller.unmarshal(reader, Aircraft.class).getValue();
+					this.encoder.encodeAircraft(this.reset(), aircraft);
+					this.diffSection(delta, section, aircraft);
+					break;
+				case "waypoints":
+					List<Waypoint> list = unmarshaller.unmarshal(reader, Waypoints.class).getValue().getWaypoint();
+					if (null == delta) {
+						this.waypoints = list;
+					} else {
+						this.diffWaypoints(delta, list);
+					}
+					break;
+				case "trajectory":
+					Trajectory trajectory = unmarshaller.unmarshal(reader, Trajectory.class).getValue();
+					this.encoder.encodeTrajectory(this.reset(), trajectory);
+					this.diffSection(delta, section, trajectory);
+					break;
+				case "planner":
+					Planner planner = unmarshaller.unmarshal(reader, Planner.class).getValue();
+					this.encoder.encodePlanner(this.reset(), planner);
+					this.diffSection(delta, section, planner);
+					break;
+				case "datalink":
+					Datalink datalink = unmarshaller.unmarshal(reader, Datalink.class).getValue();
+					this.encoder.encodeDatalink(this.reset(), datalink);
+					this.diffSection(delta, section, datalink);
+					break;
+				case "swim":
+					Swim swim = unmarshaller.unmarshal(reader, Swim.class).getValue();
+					this.encoder.encodeSwim(this.reset(), swim);
+					this.diffSection(delta, section, swim);
+					break;
+				default:
+					ScenarioStreams.skipElement(reader);
+				}
+			}
+		} catch (IOException | XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+			if (null != reader) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					// the underlying input stream is closed anyway
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Streams the obstacles of a scenario one at a time indexing or
+	 * comparing their fingerprints.
+	 * 
+	 * @param reader the XML stream reader positioned at the obstacles element
+	 * @param unmarshaller the unmarshaller of the individual obstacles
+	 * @param delta the delta journal, null if the original scenario is
+	 *        indexed
+	 * 
+	 * @throws JAXBException if an obstacle cannot be streamed
+	 * @throws XMLStreamException if an obstacle cannot be read
+	 */
+	private void streamObstacles(XMLStreamReader reader, Unmarshaller unmarshaller, ScenarioJournal delta)
+			throws JAXBException, XMLStreamException {
+		reader.nextTag();
+		
+		while (XMLStreamConstants.START_ELEMENT == ScenarioStreams.toTag(reader)) {
+			Object obstacle = ScenarioStreams.unmarshalObstacle(reader, unmarshaller);
+			
+			CostInterval costInterval = JournalRecord.getCostInterval(obstacle);
+			if (null != costInterval) {
+				long[] fingerprint = this.fingerprint(obstacle, costInterval);
+				
+				if (null == delta) {
+					this.obstacles.put(costInterval.getId(), fingerprint);
+				} else {
+					long[] original = this.obstacles.remove(costInterval.getId());
+					if ((null == original)
+							|| (original[ScenarioDiff.GEOMETRY] != fingerprint[ScenarioDiff.GEOMETRY])) {
+						this.append(delta, new JournalRecord(JournalOperation.ADD_OBSTACLE,
+								costInterval.getId(), JournalRecord.NO_INDEX, obstacle));
+					} else if (original[ScenarioDiff.COST_INTERVAL] != fingerprint[ScenarioDiff.COST_INTERVAL]) {
+						this.append(delta, new JournalRecord(JournalOperation.UPDATE_COST_INTERVAL,
+								costInterval.getId(), JournalRecord.NO_INDEX, costInterval));
+					}
+				}
+			}
+		}
+		reader.next();
+	}
+	
+	/**
+	 * Computes the geometry and cost interval fingerprints of an obstacle.
+	 * 
+	 * @param obstacle the obstacle
+	 * @param costInterval the cost interval of the obstacle
+	 * 
+	 * @return the geometry and cost interval fingerprints of the obstacle
+	 */
+	private long[] fingerprint(Object obstacle, CostInterval costInterval) {
+		long[] fingerprint = new long[2];
+		
+		JournalRecord.setCostInterval(obstacle, null);
+		this.encoder.encodeObstacle(this.reset(), obstacle);
+		fingerprint[ScenarioDiff.GEOMETRY] = this.output.hash();
+		JournalRecord.setCostInterval(obstacle, costInterval);
+		
+		this.encoder.encodeCostInterval(this.reset(), costInterval);
+		fingerprint[ScenarioDiff.COST_INTERVAL] = this.output.hash();
+		
+		return fingerprint;
+	}
+	
+	/**
+	 * Indexes or compares the fingerprint of an encoded scenario section.
+	 * 
+	 * @param delta the delta journal, null if the original scenario is
+	 *        indexed
+	 * @param section the name of the section
+	 * @param fragment the section
+	 * 
+	 * @throws JAXBException if a delta record cannot be appended
+	 */
+	private void diffSection(ScenarioJournal delta, String section, Object fragment) throws JAXBException {
+		long fingerprint = this.output.hash();
+		
+		if (null == delta) {
+			this.sections.put(section, fingerprint);
+		} else {
+			Long original = this.sections.remove(section);
+			if ((null == original) || (original.longValue() != fingerprint)) {
+				if ("trajectory".equals(section)) {
+					this.append(delta, new JournalRecord(JournalOperation.REPLACE_TRAJECTORY,
+							null, JournalRecord.NO_INDEX, fragment));
+				} else {
+					this.append(delta, new JournalRecord(JournalOperation.REPLACE_SECTION,
+							section, JournalRecord.NO_INDEX, fragment));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Compares the waypoints of the original scenario against the waypoints
+	 * of the modified scenario. Waypoints are matched by designator and
+	 * position using a longest common subsequence if the waypoint lists are
+	 * small enough, and matched waypoints differing otherwise are updated.
+	 * 
+	 * @param delta the delta journal
+	 * @param modified the waypoints of the modified scenario
+	 * 
+	 * @throws JAXBException if a delta record cannot be appended
+	 */
+	private void diffWaypoints(ScenarioJournal delta, List<Waypoint> modified) throws JAXBException {
+		List<Waypoint> original = this.waypoints;
+		this.waypoints = new ArrayList<>();
+		
+		int prefix = 0;
+		int limit = Math.min(original.size(), modified.size());
+		while ((prefix < limit) && this.matches(original.get(prefix), modified.get(prefix))) {
+			prefix++;
+		}
+		int suffix = 0;
+		while ((suffix < (limit - prefix)) && this.matches(
+				original.get(original.size() - suffix - 1), modified.get(modified.size() - suffix - 1))) {
+			suffix++;
+		}
+		
+		for (int index = 0; index < prefix; index++) {
+			this.updateWaypoint(delta, index, original.get(index), modified.get(index));
+		}
+		
+		int n = original.size() - prefix - suffix;
+		int m = modified.size() - prefix - suffix;
+		int index = prefix;
+		int i = 0;
+		int j = 0;
+		
+		if (((long) (n + 1) * (m + 1)) <= ScenarioDiff.MAX_MATCHING_SIZE) {
+			int[][] lcs = new int[n + 1][m + 1];
+			for (int a = n - 1; a >= 0; a--) {
+				for (int b = m - 1; b >= 0; b--) {
+					if (this.matches(original.get(prefix + a), modified.get(prefix + b))) {
+						lcs[a][b] = lcs[a + 1][b + 1] + 1;
+					} else {
+						lcs[a][b] = Math.max(lcs[a + 1][b], lcs[a][b + 1]);
+					}
+				}
+			}
+			
+			while ((i < n) && (j < m)) {
+				Waypoint from = original.get(prefix + i);
+				Waypoint to = modified.get(prefix + j);
+				if (this.matches(from, to)) {
+					this.updateWaypoint(delta, index, from, to);
+					index++;
+					i++;
+					j++;
+				} else if (lcs[i + 1][j] >= lcs[i][j + 1]) {
+					this.append(delta, new JournalRecord(JournalOperation.REMOVE_WAYPOINT, null, index, null));
+					i++;
+				} else {
+					this.append(delta, new JournalRecord(JournalOperation.ADD_WAYPOINT, null, index, to));
+					index++;
+					j++;
+				}
+			}
+		}
+		
+		for (; i < n; i++) {
+			this.append(delta, new JournalRecord(JournalOperation.REMOVE_WAYPOINT, null, index, null));
+		}
+		for (; j < m; j++) {
+			this.append(delta, new JournalRecord(JournalOperation.ADD_WAYPOINT,
+					null, index, modified.get(prefix + j)));
+			index++;
+		}
+		
+		for (int k = 0; k < suffix; k++) {
+			this.updateWaypoint(delta, index, original.get(prefix + n + k), modified.get(prefix + m + k));
+			index++;
+		}
+	}
+	
+	/**
+	 * Determines whether or not two waypoints match by designator and
+	 * position.
+	 * 
+	 * @param from the original waypoint
+	 * @param to the modified waypoint
+	 * 
+	 * @return true if the waypoints match, false otherwise
+	 */
+	private boolean matches(Waypoint from, Waypoint to) {
+		return Objects.equals(from.getDesignator(), to.getDesignator())
+				&& (Double.compare(from.getLatitude(), to.getLatitude()) == 0)
+				&& (Double.compare(from.getLongitude(), to.getLongitude()) == 0)
+				&& (Double.compare(from.getAltitude(), to.getAltitude()) == 0);
+	}
+	
+	/**
+	 * Updates a matched waypoint if it differs otherwise.
+	 * 
+	 * @param delta the delta journal
+	 * @param index the index of the waypoint
+	 * @param from the original waypoint
+	 * @param to the modified waypoint
+	 * 
+	 * @throws JAXBException if a delta record cannot be appended
+	 */
+	private void updateWaypoint(ScenarioJournal delta, int index, Waypoint from, Waypoint to)
+			throws JAXBException {
+		this.encoder.encodeWaypoint(this.reset(), from);
+		long fingerprint = this.output.hash();
+		this.encoder.encodeWaypoint(this.reset(), to);
+		
+		if (fingerprint != this.output.hash()) {
+			this.append(delta, new JournalRecord(JournalOperation.UPDATE_WAYPOINT, null, index, to));
+		}
+	}
+	
+	/**
+	 * Resets the binary output buffer of this scenario diff.
+	 * 
+	 * @return the reset binary output buffer
+	 */
+	private BinaryOutput reset() {
+		this.output.reset();
+		return this.output;
+	}
+	
+	/**
+	 * Appends a delta record to a delta journal.
+	 * 
+	 * @param delta the delta journal
+	 * @param record the delta record to be appended
+	 * 
+	 * @throws JAXBException if the delta record cannot be appended
+	 */
+	private void append(ScenarioJournal delta, JournalRecord record) throws JAXBException {
+		delta.append(record);
+		this.records++;
+	}
+	
+}
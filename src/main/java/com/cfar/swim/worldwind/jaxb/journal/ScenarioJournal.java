@@ -0,0 +1,648 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioContext;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryInput;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryOutput;
+import com.cfar.swim.worldwind.jaxb.scenario.Aircraft;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.Datalink;
+import com.cfar.swim.worldwind.jaxb.scenario.Environment;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.Swim;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+import com.cfar.swim.worldwind.render.Obstacle;
+
+/**
+ * Realizes an append-only scenario journal which persists individual
+ * scenario changes as journal records instead of re-marshalling complete
+ * scenarios. The persistence cost of a change therefore scales with the
+ * size of the change rather than with the size of the scenario.
+ * 
+ * A scenario journal starts with a magic number and a format version
+ * followed by framed journal records. Each frame consists of the varint
+ * length of the record, the record itself and the varint CRC-32 checksum of
+ * the record. A record consists of the operation tag, the obstacle
+ * identifier, the zigzag waypoint index and the scenario fragment of the
+ * record marshalled as XML. An incomplete trailing frame left by an
+ * interrupted append is discarded when the journal is opened.
+ * 
+ * A scenario journal is folded back into a full scenario snapshot by
+ * compacting it.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see JournalRecord
+ * @see JournalCompactor
+ */
+public class ScenarioJournal implements Closeable {
+	
+	/** the magic number of scenario journals */
+	public static final byte[] MAGIC = {'S', 'A', 'F', 'J'};
+	
+	/** the current version of the scenario journal format */
+	public static final int VERSION = 1;
+	
+	/** the journal file of this scenario journal */
+	private final File file;
+	
+	/** the file channel of this scenario journal */
+	private final FileChannel channel;
+	
+	/** the record buffer of this scenario journal */
+	private final BinaryOutput record = new BinaryOutput();
+	
+	/** the frame buffer of this scenario journal */
+	private final BinaryOutput frame = new BinaryOutput();
+	
+	/** indicates whether or not appended records are forced to the storage device */
+	private boolean synchronous = false;
+	
+	/**
+	 * Opens a scenario journal creating the journal file if required.
+	 * Incomplete trailing records of an existing journal file are discarded.
+	 * 
+	 * @param file the journal file
+	 * 
+	 * @throws JAXBException if the scenario journal cannot be opened
+	 */
+	public ScenarioJournal(File file) throws JAXBException {
+		ScenarioContext.getInstance();
+		this.file = file;
+		
+		try {
+			this.channel = FileChannel.open(file.toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+		
+		try {
+			if (0 == this.channel.size()) {
+				this.writeHeader();
+			} else {
+				long valid = ScenarioJournal.read(
+						Channels.newInputStream(this.channel.position(0)), null);
+				this.channel.truncate(valid);
+				this.channel.position(valid);
+			}
+		} catch (IOException | JAXBException e) {
+			try {
+				this.channel.close();
+			} catch (IOException ce) {
+				e.addSuppressed(ce);
+			}
+			throw (e instanceof JAXBException) ? (JAXBException) e : new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Writes the header of this scenario journal.
+	 * 
+	 * @throws IOException if the header cannot be written
+	 */
+	private void writeHeader() throws IOException {
+		this.frame.reset();
+		this.frame.writeBytes(ScenarioJournal.MAGIC, 0, ScenarioJournal.MAGIC.length);
+		this.frame.writeVarint(ScenarioJournal.VERSION);
+		this.channel.position(0);
+		this.channel.write(ByteBuffer.wrap(this.frame.toByteArray()));
+	}
+	
+	/**
+	 * Gets the journal file of this scenario journal.
+	 * 
+	 * @return the journal file of this scenario journal
+	 */
+	public File getFile() {
+		return this.file;
+	}
+	
+	/**
+	 * Indicates whether or not appended records are forced to the storage
+	 * device before an append returns.
+	 * 
+	 * @return true if appended records are forced, false otherwise
+	 */
+	public boolean isSynchronous() {
+		return this.synchronous;
+	}
+	
+	/**
+	 * Sets whether or not appended records are forced to the storage device
+	 * before an append returns.
+	 * 
+	 * @param synchronous true if appended records are to be forced, false
+	 *        otherwise
+	 */
+	public void setSynchronous(boolean synchronous) {
+		this.synchronous = synchronous;
+	}
+	
+	/**
+	 * Appends the addition of an obstacle to this scenario journal. An
+	 * obstacle with the same cost interval identifier is replaced.
+	 * 
+	 * @param obstacle the added obstacle
+	 * 
+	 * @throws JAXBException if the record cannot be appended
+	 */
+	public void addObstacle(Obstacle obstacle) throws JAXBException {
+		try {
+			this.append(new JournalRecord(JournalOperation.ADD_OBSTACLE, obstacle.getCostInterval().getId(),
+					JournalRecord.NO_INDEX, AdapterRegistry.getObstaclesAdapter().marshalObstacle(obstacle)));
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Appends the removal of an obstacle to this scenario journal.
+	 * 
+	 * @param obstacle the removed obstacle
+	 * 
+	 * @throws JAXBException if the record cannot be appended
+	 */
+	public void removeObstacle(Obstacle obstacle) throws JAXBException {
+		this.append(new JournalRecord(JournalOperation.REMOVE_OBSTACLE,
+				obstacle.getCostInterval().getId(), JournalRecord.NO_INDEX, null));
+	}
+	
+	/**
+	 * Appends the update of a cost interval, for example, its enabling or
+	 * disabling, to this scenario journal.
+	 * 
+	 * @param costInterval the updated cost interval
+	 * 
+	 * @throws JAXBException if the record cannot be appended
+	 */
+	public void updateCostInterval(com.cfar.swim.worldwind.planning.CostInterval costInterval)
+			throws JAXBException {
+		try {
+			this.append(new JournalRecord(JournalOperation.UPDATE_COST_INTERVAL, costInterval.getId(),
+					JournalRecord.NO_INDEX, AdapterRegistry.getCostIntervalAdapter().marshal(costInterval)));
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Appends the addition of a waypoint to this scenario journal.
+	 * 
+	 * @param index the index of the added waypoint, or
+	 *        {@link JournalRecord#NO_INDEX} to append it
+	 * @param waypoint the added waypoint
+	 * 
+	 * @throws JAXBException if the record cannot be appended
+	 */
+	public void addWaypoint(int index, com.cfar.swim.worldwind.planning.Waypoint waypoint)
+			throws JAXBException {
+		this.appendWaypoint(JournalOperation.ADD_WAYPOINT, index, waypoint);
+	}
+	
+	/**
+	 * Appends the update of a waypoint to this scenario journal.
+	 * 
+	 * @param index the index of the updated waypoint
+	 * @param waypoint the updated waypoint
+	 * 
+	 * @throws JAXBException if the record cannot be appended
+	 */
+	public void updateWaypoint(int index, com.cfar.swim.worldwind.planning.Waypoint waypoint)
+			throws JAXBException {
+		this.appendWaypoint(JournalOperation.UPDATE_WAYPOINT, index, waypoint);
+	}
+	
+	/**
+	 * Appends the removal of a waypoint to this scenario journal.
+	 * 
+	 * @param index the index of the removed waypoint
+	 * 
+	 * @throws JAXBException if the record cannot be appended
+	 */
+	public void removeWaypoint(int index) throws JAXBException {
+		this.append(new JournalRecord(JournalOperation.REMOVE_WAYPOINT, null, index, null));
+	}
+	
+	/**
+	 * Appends a waypoint record to this scenario journal.
+	 * 
+	 * @param operation the operation of the waypoint record
+	 * @param index the waypoint index of the waypoint record
+	 * @param waypoint the waypoint of the waypoint record
+	 * 
+	 * @throws JAXBException if the record cannot be appended
+	 */
+	private void appendWaypoint(JournalOperation operation, int index,
+			com.cfar.swim.worldwind.planning.Waypoint waypoint) throws JAXBException {
+		try {
+			this.append(new JournalRecord(operation, null, index,
+					AdapterRegistry.getWaypointAdapter().marshal(waypoint)));
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Appends the replacement of the trajectory to this scenario journal.
+	 * 
+	 * @param trajectory the replacing trajectory, null to remove the
+	 *        trajectory
+	 * 
+	 * @throws JAXBException if the record cannot be appended
+	 */
+	public void replaceTrajectory(com.cfar.swim.worldwind.planning.Trajectory trajectory)
+			throws JAXBException {
+		try {
+			this.append(new JournalRecord(JournalOperation.REPLACE_TRAJECTORY, null, JournalRecord.NO_INDEX,
+					(null == trajectory) ? null : AdapterRegistry.getTrajectoryAdapter().marshal(trajectory)));
+		} catch (JAXBException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Appends a journal record to this scenario journal.
+	 * 
+	 * @param record the journal record to be appended
+	 * 
+	 * @throws JAXBException if the journal record cannot be appended
+	 */
+	public synchronized void append(JournalRecord record) throws JAXBException {
+		byte[] fragment = ScenarioJournal.marshalFragment(record.getFragment());
+		
+		this.record.reset();
+		this.record.writeByte(record.getOperation().getTag());
+		this.record.writeString(record.getId());
+		this.record.writeZigzag(record.getIndex());
+		if (null == fragment) {
+			this.record.writeVarint(0);
+		} else {
+			this.record.writeVarint(fragment.length + 1L);
+			this.record.writeBytes(fragment, 0, fragment.length);
+		}
+		
+		byte[] bytes = this.record.toByteArray();
+		CRC32 checksum = new CRC32();
+		checksum.update(bytes, 0, bytes.length);
+		
+		this.frame.reset();
+		this.frame.writeVarint(bytes.length);
+		this.frame.writeBytes(this.record);
+		this.frame.writeVarint(checksum.getValue());
+		
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(this.frame.toByteArray());
+			while (buffer.hasRemaining()) {
+				this.channel.write(buffer);
+			}
+			if (this.synchronous) {
+				this.channel.force(false);
+			}
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Reads all journal records of this scenario journal.
+	 * 
+	 * @return the journal records of this scenario journal in append order
+	 * 
+	 * @throws JAXBException if the journal records cannot be read
+	 */
+	public synchronized List<JournalRecord> read() throws JAXBException {
+		List<JournalRecord> records = new ArrayList<>();
+		
+		try (InputStream input = Files.newInputStream(this.file.toPath())) {
+			ScenarioJournal.read(input, records);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+		
+		return records;
+	}
+	
+	/**
+	 * Compacts this scenario journal by folding its journal records into a
+	 * scenario snapshot. The snapshot is replaced atomically and this
+	 * scenario journal is cleared afterwards.
+	 * 
+	 * @param snapshot the scenario snapshot file
+	 * 
+	 * @throws JAXBException if this scenario journal cannot be compacted
+	 */
+	public synchronized void compact(File snapshot) throws JAXBException {
+		JournalCompactor compactor = new JournalCompactor(this.read());
+		File compacted = new File(snapshot.getPath() + ".compact");
+		
+		try {
+			compactor.compact(snapshot, compacted);
+			Files.move(compacted.toPath(), snapshot.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+		
+		this.clear();
+	}
+	
+	/**
+	 * Clears all journal records of this scenario journal.
+	 * 
+	 * @throws JAXBException if this scenario journal cannot be cleared
+	 */
+	public synchronized void clear() throws JAXBException {
+		try {
+			this.channel.truncate(0);
+			this.writeHeader();
+			this.channel.force(false);
+		} catch (IOException e) {
+			throw new JAXBException(e);
+		}
+	}
+	
+	/**
+	 * Closes this scenario journal.
+	 * 
+	 * @throws IOException if this scenario journal cannot be closed
+	 * 
+	 * @see Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		this.channel.close();
+	}
+	
+	/**
+	 * Reads the journal records of a scenario journal stream.
+	 * 
+	 * @param input the scenario journal stream
+	 * @param records the list of the read journal records, may be null
+	 * 
+	 * @return the number of bytes of the header and all complete records
+	 * 
+	 * @throws IOException if the scenario journal stream is corrupt
+	 * @throws JAXBException if a scenario fragment cannot be unmarshalled
+	 */
+	private static long read(InputStream input, List<JournalRecord> records) throws IOException, JAXBException {
+		BinaryInput binaryInput = new BinaryInput(input);
+		byte[] magic = new byte[ScenarioJournal.MAGIC.length];
+		binaryInput.readBytes(magic, 0, magic.length);
+		if (!Arrays.equals(ScenarioJournal.MAGIC, magic)) {
+			throw new IOException("invalid scenario journal");
+		}
+		long version = binaryInput.readVarint();
+		if (ScenarioJournal.VERSION != version) {
+			throw new IOException("unsupported scenario journal version " + version);
+		}
+		
+		long valid = binaryInput.position();
+		try {
+			while (true) {
+				byte[] bytes = new byte[binaryInput.readCount()];
+				binaryInput.readBytes(bytes, 0, bytes.length);
+				CRC32 checksum = new CRC32();
+				checksum.update(bytes, 0, bytes.length);
+				if (checksum.getValue() != binaryInput.readVarint()) {
+					throw new IOException("corrupt scenario journal record at " + valid);
+				}
+				if (null != records) {
+					records.add(ScenarioJournal.decodeRecord(bytes));
+				}
+				valid = binaryInput.position();
+			}
+		} catch (EOFException e) {
+			// an incomplete trailing record is discarded
+		}
+		
+		return valid;
+	}
+	
+	/**
+	 * Decodes a journal record.
+	 * 
+	 * @param bytes the bytes of the journal record
+	 * 
+	 * @return the decoded journal record
+	 * 
+	 * @throws IOException if the journal record is corrupt
+	 * @throws JAXBException if the scenario fragment cannot be unmarshalled
+	 */
+	private static JournalRecord decodeRecord(byte[] bytes) throws IOException, JAXBException {
+		BinaryInput input = new BinaryInput(ByteBuffer.wrap(bytes));
+		JournalOperation operation;
+		try {
+			operation = JournalOperation.fromTag(input.readByte());
+		} catch (IllegalArgumentException e) {
+			throw new IOException(e);
+		}
+		String id = input.readString();
+		int index = (int) input.readZigzag();
+		int length = input.readCount();
+		Object fragment = null;
+		if (0 < length) {
+			byte[] xml = new byte[length - 1];
+			input.readBytes(xml, 0, xml.length);
+			fragment = ScenarioJournal.unmarshalFragment(xml);
+		}
+		return new JournalRecord(operation, id, index, fragment);
+	}
+	
+	/**
+	 * Marshals a scenario fragment of a journal record.
+	 * 
+	 * @param fragment the scenario fragment, may be null
+	 * 
+	 * @return the marshalled scenario fragment, null if absent
+	 * 
+	 * @throws JAXBException if the scenario fragment cannot be marshalled
+	 */
+	private static byte[] marshalFragment(Object fragment) throws JAXBException {
+		if (null == fragment) {
+			return null;
+		}
+		
+		Marshaller marshaller = ScenarioContext.acquireMarshaller();
+		try {
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			if (fragment instanceof ObstacleBox) {
+				ScenarioJournal.marshalFragment(marshaller, output, "box", ObstacleBox.class, (ObstacleBox) fragment);
+			} else if (fragment instanceof ObstacleCylinder) {
+				ScenarioJournal.marshalFragment(marshaller, output, "cylinder", ObstacleCylinder.class, (ObstacleCylinder) fragment);
+			} else if (fragment instanceof ObstacleSphere) {
+				ScenarioJournal.marshalFragment(marshaller, output, "sphere", ObstacleSphere.class, (ObstacleSphere) fragment);
+			} else if (fragment instanceof CostInterval) {
+				ScenarioJournal.marshalFragment(marshaller, output, "costInterval", CostInterval.class, (CostInterval) fragment);
+			} else if (fragment instanceof Waypoint) {
+				ScenarioJournal.marshalFragment(marshaller, output, "waypoint", Waypoint.class, (Waypoint) fragment);
+			} else if (fragment instanceof Trajectory) {
+				ScenarioJournal.marshalFragment(marshaller, output, "trajectory", Trajectory.class, (Trajectory) fragment);
+			} else if (fragment instanceof Environment) {
+				ScenarioJournal.marshalFragment(marshaller, output, "environment", Environment.class, (Environment) fragment);
+			} else if (fragment instanceof Aircraft) {
+				ScenarioJournal.marshalFragment(marshaller, output, "aircraft", Aircraft.class, (Aircraft) fragment);
+			} else if (fragment instanceof Planner) {
+				ScenarioJournal.marshalFragment(marshaller, output, "planner", Planner.class, (Planner) fragment);
+			} else if (fragment instanceof Datalink) {
+				ScenarioJournal.marshalFragment(marshaller, output, "datalink", Datalink.class, (Datalink) fragment);
+			} else if (fragment instanceof Swim) {
+				ScenarioJournal.marshalFragment(marshaller, output, "swim", Swim.class, (Swim) fragment);
+			} else {
+				throw new JAXBException("unsupported journal fragment " + fragment.getClass().getName());
+			}
+			return output.toByteArray();
+		} finally {
+			ScenarioContext.releaseMarshaller(marshaller);
+		}
+	}
+	
+	/**
+	 * Marshals a scenario fragment into an output stream.
+	 * 
+	 * @param <T> the type of the scenario fragment
+	 * 
+	 * @param marshaller the fragment marshaller
+	 * @param output the output stream
+	 * @param localName the local name of the scenario fragment element
+	 * @param type the type of the scenario fragment
+	 * @param fragment the scenario fragment to be marshalled
+	 * 
+	 * @throws JAXBException if the scenario fragment cannot be marshalled
+	 */
+	private static <T> void marshalFragment(Marshaller marshaller, OutputStream output,
+			String localName, Class<T> type, T fragment) throws JAXBException {
+		marshaller.marshal(new JAXBElement<T>(
+				new QName(ScenarioStreams.NAMESPACE_URI, localName), type, fragment), output);
+	}
+	
+	/**
+	 * Unmarshals a scenario fragment of a journal record.
+	 * 
+	 * @param xml the marshalled scenario fragment
+	 * 
+	 * @return the unmarshalled scenario fragment
+	 * 
+	 * @throws JAXBException if the scenario fragment cannot be unmarshalled
+	 */
+	private static Object unmarshalFragment(byte[] xml) throws JAXBException {
+		Unmarshaller unmarshaller = ScenarioContext.acquireUnmarshaller();
+		XMLStreamReader reader = null;
+		
+		try {
+			reader = ScenarioStreams.createReader(new ByteArrayInputStream(xml), null);
+			if (XMLStreamConstants.START_ELEMENT != ScenarioStreams.toTag(reader)) {
+				throw new JAXBException("journal fragment expected at " + reader.getLocation());
+			}
+			switch (reader.getLocalName()) {
+			case "box":
+				return unmarshaller.unmarshal(reader, ObstacleBox.class).getValue();
+			case "cylinder":
+				return unmarshaller.unmarshal(reader, ObstacleCylinder.class).getValue();
+			case "sphere":
+				return unmarshaller.unmarshal(reader, ObstacleSphere.class).getValue();
+			case "costInterval":
+				return unmarshaller.unmarshal(reader, CostInterval.class).getValue();
+			case "waypoint":
+				return unmarshaller.unmarshal(reader, Waypoint.class).getValue();
+			case "trajectory":
+				return unmarshaller.unmarshal(reader, Trajectory.class).getValue();
+			case "environment":
+				return unmarshaller.unmarshal(reader, Environment.class).getValue();
+			case "aircraft":
+				return unmarshaller.unmarshal(reader, Aircraft.class).getValue();
+			case "planner":
+				return unmarshaller.unmarshal(reader, Planner.class).getValue();
+			case "datalink":
+				return unmarshaller.unmarshal(reader, Datalink.class).getValue();
+			case "swim":
+				return unmarshaller.unmarshal(reader, Swim.class).getValue();
+			default:
+				throw new JAXBException("unsupported journal fragment " + reader.getLocalName());
+			}
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		} finally {
+			ScenarioContext.releaseUnmarshaller(unmarshaller);
+			if (null != reader) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					// the underlying byte array stream needs no closing
+				}
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Realizes the process-wide scenario metrics which record the invocation
+ * counts, element counts and cumulative and maximum times of the individual
+ * (un)marshalling stages, that is, XML parsing and writing, the scenario
+ * sections and the expensive adapters. The times of enclosing stages
+ * include the times of their enclosed stages.
+ * 
+ * Scenario metrics are disabled by default, in which case a stage costs a
+ * single volatile read. They are enabled programmatically, via JMX or by
+ * setting the system property {@value #ENABLED_PROPERTY} to true, and are
+ * registered with the platform MBean server as {@value #OBJECT_NAME} once
+ * enabled.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see StageMetrics
+ * @see ScenarioMetricsMXBean
+ */
+public final class ScenarioMetrics {
+	
+	/** the system property enabling the scenario metrics */
+	public static final String ENABLED_PROPERTY = "com.cfar.swim.worldwind.jaxb.metrics";
+	
+	/** the JMX object name of the scenario metrics */
+	public static final String OBJECT_NAME = "com.cfar.swim.worldwind.jaxb:type=ScenarioMetrics";
+	
+	/** the start time of stages while the scenario metrics are disabled */
+	public static final long DISABLED = Long.MIN_VALUE;
+	
+	/** indicates whether or not the scenario metrics are enabled */
+	private static volatile boolean enabled = false;
+	
+	/** indicates whether or not the scenario metrics are registered with JMX */
+	private static boolean registered = false;
+	
+	/** the metrics of all stages by name */
+	private static final ConcurrentMap<String, StageMetrics> stages = new ConcurrentHashMap<>();
+	
+	static {
+		ScenarioMetrics.setEnabled(Boolean.getBoolean(ScenarioMetrics.ENABLED_PROPERTY));
+	}
+	
+	/**
+	 * Prevents the construction of scenario metrics.
+	 */
+	private ScenarioMetrics() {
+	}
+	
+	/**
+	 * Indicates whether or not the scenario metrics are enabled.
+	 * 
+	 * @return true if the scenario metrics are enabled, false otherwise
+	 */
+	public static boolean isEnabled() {
+		return ScenarioMetrics.enabled;
+	}
+	
+	/**
+	 * Enables or disables the scenario metrics. Enabled scenario metrics are
+	 * registered with the platform MBean server if not registered yet.
+	 * 
+	 * @param enabled true if the scenario metrics are to be enabled, false
+	 *        otherwise
+	 */
+	public static synchronized void setEnabled(boolean enabled) {
+		if (enabled && !ScenarioMetrics.registered) {
+			ScenarioMetrics.register();
+		}
+		ScenarioMetrics.enabled = enabled;
+	}
+	
+	/**
+	 * Gets the metrics of a stage creating them on first access. Stage
+	 * metrics are typically obtained once and held in a constant.
+	 * 
+	 * @param name the name of the stage
+	 * 
+	 * @return the metrics of the stage
+	 */
+	public static StageMetrics getStage(String name) {
+		return ScenarioMetrics.stages.computeIfAbsent(name, StageMetrics::new);
+	}
+	
+	/**
+	 * Starts the timing of a stage invocation.
+	 * 
+	 * @return the start time of the stage invocation, {@link #DISABLED} if
+	 *         the scenario metrics are disabled
+	 * 
+	 * @see StageMetrics#stop(long)
+	 */
+	public static long start() {
+		return ScenarioMetrics.enabled ? System.nanoTime() : ScenarioMetrics.DISABLED;
+	}
+	
+	/**
+	 * Takes snapshots of the metrics of all recorded stages.
+	 * 
+	 * @return the snapshots of the metrics of all recorded stages in name
+	 *         order
+	 */
+	public static List<StageSnapshot> snapshot() {
+		List<StageSnapshot> snapshots = new ArrayList<>();
+		
+		for (StageMetrics stage : ScenarioMetrics.stages.values()) {
+			StageSnapshot snapshot = stage.snapshot();
+			if (0 < snapshot.getInvocations()) {
+				snapshots.add(snapshot);
+			}
+		}
+		snapshots.sort(Comparator.comparing(StageSnapshot::getName));
+		
+		return snapshots;
+	}
+	
+	/**
+	 * Resets the metrics of all stages.
+	 */
+	public static void reset() {
+		for (StageMetrics stage : ScenarioMetrics.stages.values()) {
+			stage.reset();
+		}
+	}
+	
+	/**
+	 * Registers the scenario metrics with the platform MBean server.
+	 */
+	private static void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(ScenarioMetrics.OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new Management(), name);
+			}
+			ScenarioMetrics.registered = true;
+		} catch (JMException | SecurityException e) {
+			// the scenario metrics remain available programmatically
+		}
+	}
+	
+	/**
+	 * Realizes the management bean of the scenario metrics.
+	 * 
+	 * @author Stephan Heinemann
+	 */
+	private static class Management implements ScenarioMetricsMXBean {
+		
+		/**
+		 * Indicates whether or not the scenario metrics are enabled.
+		 * 
+		 * @return true if the scenario metrics are enabled, false otherwise
+		 * 
+		 * @see ScenarioMetricsMXBean#isEnabled()
+		 */
+		@Override
+		public boolean isEnabled() {
+			return ScenarioMetrics.isEnabled();
+		}
+		
+		/**
+		 * Enables or disables the scenario metrics.
+		 * 
+		 * @param enabled true if the scenario metrics are to be enabled,
+		 *        false otherwise
+		 * 
+		 * @see ScenarioMetricsMXBean#setEnabled(boolean)
+		 */
+		@Override
+		public void setEnabled(boolean enabled) {
+			ScenarioMetrics.setEnabled(enabled);
+		}
+		
+		/**
+		 * Gets snapshots of the metrics of all recorded stages.
+		 * 
+		 * @return the snapshots of the metrics of all recorded stages
+		 * 
+		 * @see ScenarioMetricsMXBean#getStages()
+		 */
+		@Override
+		public List<StageSnapshot> getStages() {
+			return ScenarioMetrics.snapshot();
+		}
+		
+		/**
+		 * Resets the metrics of all stages.
+		 * 
+		 * @see ScenarioMetricsMXBean#reset()
+		 */
+		@Override
+		public void reset() {
+			ScenarioMetrics.reset();
+		}
+		
+	}
+	
+}
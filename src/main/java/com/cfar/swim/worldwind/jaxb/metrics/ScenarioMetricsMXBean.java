@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.metrics;
+
+import java.util.List;
+
+/**
+ * Describes the management interface of the scenario metrics.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioMetrics
+ */
+public interface ScenarioMetricsMXBean {
+	
+	/**
+	 * Indicates whether or not the scenario metrics are enabled.
+	 * 
+	 * @return true if the scenario metrics are enabled, false otherwise
+	 */
+	public boolean isEnabled();
+	
+	/**
+	 * Enables or disables the scenario metrics.
+	 * 
+	 * @param enabled true if the scenario metrics are to be enabled, false
+	 *        otherwise
+	 */
+	public void setEnabled(boolean enabled);
+	
+	/**
+	 * Gets snapshots of the metrics of all recorded stages.
+	 * 
+	 * @return the snapshots of the metrics of all recorded stages in name
+	 *         order
+	 */
+	public List<StageSnapshot> getStages();
+	
+	/**
+	 * Resets the metrics of all stages.
+	 */
+	public void reset();
+	
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Realizes the metrics of a single (un)marshalling stage, that is, its
+ * invocation count, its processed element count and its cumulative and
+ * maximum time. Stage metrics are updated concurrently without contention
+ * and are only updated while scenario metrics are enabled.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see ScenarioMetrics
+ */
+public final class StageMetrics {
+	
+	/** the name of this stage */
+	private final String name;
+	
+	/** the invocation count of this stage */
+	private final LongAdder invocations = new LongAdder();
+	
+	/** the processed element count of this stage */
+	private final LongAdder elements = new LongAdder();
+	
+	/** the cumulative time of this stage in nanoseconds */
+	private final LongAdder totalTime = new LongAdder();
+	
+	/** the maximum time of this stage in nanoseconds */
+	private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0L);
+	
+	/**
+	 * Constructs new stage metrics.
+	 * 
+	 * @param name the name of the stage
+	 */
+	StageMetrics(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * Gets the name of this stage.
+	 * 
+	 * @return the name of this stage
+	 */
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * Records an invocation of this stage started at a start time obtained
+	 * from the scenario metrics.
+	 * 
+	 * @param start the start time of the invocation
+	 * 
+	 * @see ScenarioMetrics#start()
+	 */
+	public void stop(long start) {
+		if (ScenarioMetrics.DISABLED != start) {
+			this.record(System.nanoTime() - start, 0);
+		}
+	}
+	
+	/**
+	 * Records an invocation of this stage processing elements started at a
+	 * start time obtained from the scenario metrics.
+	 * 
+	 * @param start the start time of the invocation
+	 * @param elements the number of elements processed by the invocation
+	 * 
+	 * @see ScenarioMetrics#start()
+	 */
+	public void stop(long start, long elements) {
+		if (ScenarioMetrics.DISABLED != start) {
+			this.record(System.nanoTime() - start, elements);
+		}
+	}
+	
+	/**
+	 * Records an invocation of this stage.
+	 * 
+	 * @param time the time of the invocation in nanoseconds
+	 * @param elements the number of elements processed by the invocation
+	 */
+	private void record(long time, long elements) {
+		this.invocations.increment();
+		this.elements.add(elements);
+		this.totalTime.add(time);
+		this.maxTime.accumulate(time);
+	}
+	
+	/**
+	 * Takes a snapshot of these stage metrics.
+	 * 
+	 * @return the snapshot of these stage metrics
+	 */
+	public StageSnapshot snapshot() {
+		return new StageSnapshot(this.name, this.invocations.sum(), this.elements.sum(),
+				this.totalTime.sum(), this.maxTime.get());
+	}
+	
+	/**
+	 * Resets these stage metrics.
+	 */
+	void reset() {
+		this.invocations.reset();
+		this.elements.reset();
+		this.totalTime.reset();
+		this.maxTime.reset();
+	}
+	
+}
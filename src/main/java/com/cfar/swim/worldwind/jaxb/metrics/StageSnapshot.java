@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Realizes an immutable snapshot of the metrics of a single (un)marshalling
+ * stage.
+ * 
+ * @author Stephan Heinemann
+ * 
+ * @see StageMetrics#snapshot()
+ */
+public final class StageSnapshot {
+	
+	/** the name of the stage of this snapshot */
+	private final String name;
+	
+	/** the invocation count of the stage of this snapshot */
+	private final long invocations;
+	
+	/** the processed element count of the stage of this snapshot */
+	private final long elements;
+	
+	/** the cumulative time of the stage of this snapshot in nanoseconds */
+	private final long totalTime;
+	
+	/** the maximum time of the stage of this snapshot in nanoseconds */
+	private final long maxTime;
+	
+	/**
+	 * Constructs a new stage snapshot.
+	 * 
+	 * @param name the name of the stage
+	 * @param invocations the invocation count of the stage
+	 * @param elements the processed element count of the stage
+	 * @param totalTime the cumulative time of the stage in nanoseconds
+	 * @param maxTime the maximum time of the stage in nanoseconds
+	 */
+	@ConstructorProperties({"name", "invocations", "elements", "totalTime", "maxTime"})
+	public StageSnapshot(String name, long invocations, long elements, long totalTime, long maxTime) {
+		this.name = name;
+		this.invocations = invocations;
+		this.elements = elements;
+		this.totalTime = totalTime;
+		this.maxTime = maxTime;
+	}
+	
+	/**
+	 * Gets the name of the stage of this snapshot.
+	 * 
+	 * @return the name of the stage of this snapshot
+	 */
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * Gets the invocation count of the stage of this snapshot.
+	 * 
+	 * @return the invocation count of the stage of this snapshot
+	 */
+	public long getInvocations() {
+		return this.invocations;
+	}
+	
+	/**
+	 * Gets the processed element count of the stage of this snapshot.
+	 * 
+	 * @return the processed element count of the stage of this snapshot
+	 */
+	public long getElements() {
+		return this.elements;
+	}
+	
+	/**
+	 * Gets the cumulative time of the stage of this snapshot.
+	 * 
+	 * @return the cumulative time of the stage of this snapshot in
+	 *         nanoseconds
+	 */
+	public long getTotalTime() {
+		return this.totalTime;
+	}
+	
+	/**
+	 * Gets the maximum time of the stage of this snapshot.
+	 * 
+	 * @return the maximum time of the stage of this snapshot in nanoseconds
+	 */
+	public long getMaxTime() {
+		return this.maxTime;
+	}
+	
+	/**
+	 * Gets a string representation of this stage snapshot.
+	 * 
+	 * @return a string representation of this stage snapshot
+	 * 
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.name + " invocations=" + this.invocations + " elements=" + this.elements
+				+ " totalTime=" + this.totalTime + "ns maxTime=" + this.maxTime + "ns";
+	}
+	
+}
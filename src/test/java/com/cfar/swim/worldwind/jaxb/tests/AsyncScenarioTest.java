@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.ProgressInputStream;
+import com.cfar.swim.worldwind.jaxb.ProgressListener;
+import com.cfar.swim.worldwind.jaxb.ProgressOutputStream;
+import com.cfar.swim.worldwind.jaxb.ScenarioExecutors;
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+
+public class AsyncScenarioTest {
+	
+	public static final int COPIES = 200;
+	public static final String LARGE_FILENAME = "scenario3-large.xml";
+	public static final String OUTPUT_FILENAME = "scenario3-large-async.xml";
+	
+	@Test(timeout = 60000)
+	public void testUnmarshalProgress() throws JAXBException, IOException, InterruptedException, ExecutionException {
+		File scenarioFile = ScenarioResources.createLargeScenario(LARGE_FILENAME, COPIES);
+		CountingExecutor executor = new CountingExecutor(ScenarioExecutors.getDefaultExecutor());
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		scenarioUnmarshaller.setExecutor(executor);
+		assertSame(executor, scenarioUnmarshaller.getExecutor());
+		
+		// the progress is reported up to the length of the scenario file
+		List<Long> reports = new CopyOnWriteArrayList<>();
+		scenarioUnmarshaller.unmarshalScenarioAsync(scenarioFile, (processed, total) -> {
+			assertEquals(scenarioFile.length(), total);
+			reports.add(processed);
+		}).get();
+		
+		assertEquals(1, executor.getExecuted());
+		assertTrue(1 < reports.size());
+		for (int index = 1; index < reports.size(); index++) {
+			assertTrue(reports.get(index - 1) < reports.get(index));
+		}
+		assertEquals(scenarioFile.length(), reports.get(reports.size() - 1).longValue());
+	}
+	
+	@Test(timeout = 60000)
+	public void testUnmarshalCancel() throws JAXBException, IOException {
+		File scenarioFile = ScenarioResources.createLargeScenario(LARGE_FILENAME, COPIES);
+		DeferredExecutor executor = new DeferredExecutor();
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		scenarioUnmarshaller.setExecutor(executor);
+		
+		// cancelling at the first progress report stops parsing at the next read
+		List<Long> reports = new CopyOnWriteArrayList<>();
+		CancellingListener listener = new CancellingListener(reports);
+		listener.future = scenarioUnmarshaller.unmarshalScenarioAsync(scenarioFile, listener);
+		executor.runAll();
+		
+		assertEquals(1, executor.getExecuted());
+		assertTrue(listener.future.isCancelled());
+		assertEquals(1, reports.size());
+		assertTrue(reports.get(0) < scenarioFile.length());
+		
+		// cancelling before execution does not start parsing
+		reports.clear();
+		CompletableFuture<?> future = scenarioUnmarshaller.unmarshalScenarioAsync(
+				scenarioFile, (processed, total) -> reports.add(processed));
+		future.cancel(true);
+		executor.runAll();
+		
+		assertEquals(2, executor.getExecuted());
+		assertTrue(future.isCancelled());
+		assertTrue(reports.isEmpty());
+	}
+	
+	@Test(timeout = 60000)
+	public void testMarshalProgress() throws JAXBException, IOException, InterruptedException, ExecutionException {
+		File scenarioFile = ScenarioResources.createLargeScenario(LARGE_FILENAME, COPIES);
+		File outputFile = ScenarioResources.getTargetFile(OUTPUT_FILENAME);
+		com.cfar.swim.worldwind.session.Scenario scenario = new ScenarioUnmarshaller().unmarshalScenario(scenarioFile);
+		CountingExecutor executor = new CountingExecutor(ScenarioExecutors.getDefaultExecutor());
+		ScenarioMarshaller scenarioMarshaller = new ScenarioMarshaller();
+		scenarioMarshaller.setExecutor(executor);
+		assertSame(executor, scenarioMarshaller.getExecutor());
+		
+		// the progress is reported up to the length of the output file
+		List<Long> reports = new CopyOnWriteArrayList<>();
+		scenarioMarshaller.marshalScenarioAsync(scenario, outputFile, (processed, total) -> {
+			assertEquals(ProgressListener.UNKNOWN_TOTAL, total);
+			reports.add(processed);
+		}).get();
+		
+		assertEquals(1, executor.getExecuted());
+		assertTrue(1 < reports.size());
+		assertEquals(outputFile.length(), reports.get(reports.size() - 1).longValue());
+	}
+	
+	@Test(timeout = 60000)
+	public void testMarshalCancel() throws JAXBException, IOException {
+		File scenarioFile = ScenarioResources.createLargeScenario(LARGE_FILENAME, COPIES);
+		File outputFile = ScenarioResources.getTargetFile(OUTPUT_FILENAME);
+		outputFile.delete();
+		com.cfar.swim.worldwind.session.Scenario scenario = new ScenarioUnmarshaller().unmarshalScenario(scenarioFile);
+		DeferredExecutor executor = new DeferredExecutor();
+		ScenarioMarshaller scenarioMarshaller = new ScenarioMarshaller();
+		scenarioMarshaller.setExecutor(executor);
+		
+		// cancelling at the first progress report stops writing and deletes the partial output file
+		List<Long> reports = new CopyOnWriteArrayList<>();
+		CancellingListener listener = new CancellingListener(reports);
+		listener.future = scenarioMarshaller.marshalScenarioAsync(scenario, outputFile, listener);
+		executor.runAll();
+		
+		assertEquals(1, executor.getExecuted());
+		assertTrue(listener.future.isCancelled());
+		assertEquals(1, reports.size());
+		assertFalse(outputFile.exists());
+	}
+	
+	@Test
+	public void testProgressStreams() throws IOException {
+		byte[] data = new byte[(int) (2 * ProgressInputStream.REPORT_INTERVAL + 1)];
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		
+		// input progress reaches the total number of bytes
+		List<Long> reports = new CopyOnWriteArrayList<>();
+		try (ProgressInputStream input = new ProgressInputStream(new ByteArrayInputStream(data),
+				data.length, (processed, total) -> reports.add(processed), future)) {
+			byte[] buffer = new byte[1024];
+			while (-1 != input.read(buffer)) {
+				// consume the input
+			}
+			assertEquals(data.length, input.getProcessed());
+		}
+		assertEquals(3, reports.size());
+		assertEquals(data.length, reports.get(reports.size() - 1).longValue());
+		
+		// output progress reaches the number of bytes written when flushed
+		reports.clear();
+		ProgressOutputStream output = new ProgressOutputStream(new ByteArrayOutputStream(),
+				(processed, total) -> reports.add(processed), future);
+		output.write(data);
+		output.flush();
+		assertEquals(data.length, output.getProcessed());
+		assertEquals(data.length, reports.get(reports.size() - 1).longValue());
+		
+		// cancelled futures stop reading and writing
+		future.cancel(true);
+		try (ProgressInputStream input = new ProgressInputStream(new ByteArrayInputStream(data),
+				data.length, null, future)) {
+			input.read();
+			fail("cancelled input read");
+		} catch (InterruptedIOException e) {
+			// expected
+		}
+		try {
+			output.write(0);
+			fail("cancelled output written");
+		} catch (InterruptedIOException e) {
+			// expected
+		}
+		output.close();
+	}
+	
+	private static class CountingExecutor implements Executor {
+		
+		private final Executor executor;
+		private final AtomicInteger executed = new AtomicInteger();
+		
+		public CountingExecutor(Executor executor) {
+			this.executor = executor;
+		}
+		
+		public int getExecuted() {
+			return this.executed.get();
+		}
+		
+		@Override
+		public void execute(Runnable task) {
+			this.executed.incrementAndGet();
+			this.executor.execute(task);
+		}
+		
+	}
+	
+	private static class DeferredExecutor implements Executor {
+		
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+		private int executed = 0;
+		
+		public int getExecuted() {
+			return this.executed;
+		}
+		
+		public void runAll() {
+			while (!this.tasks.isEmpty()) {
+				this.tasks.remove().run();
+			}
+		}
+		
+		@Override
+		public void execute(Runnable task) {
+			this.executed++;
+			this.tasks.add(task);
+		}
+		
+	}
+	
+	private static class CancellingListener implements ProgressListener {
+		
+		private final List<Long> reports;
+		private CompletableFuture<?> future = null;
+		
+		public CancellingListener(List<Long> reports) {
+			this.reports = reports;
+		}
+		
+		@Override
+		public void progressed(long processed, long total) {
+			this.reports.add(processed);
+			this.future.cancel(true);
+		}
+		
+	}
+	
+}
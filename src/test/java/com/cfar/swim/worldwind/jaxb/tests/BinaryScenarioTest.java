@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryOutput;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryScenarioConverter;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryScenarioFormat;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.binary.BinaryScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+public class BinaryScenarioTest {
+	
+	public static final byte UNKNOWN_SECTION = 42;
+	
+	@Test
+	public void testConverter() throws JAXBException, IOException {
+		BinaryScenarioConverter converter = new BinaryScenarioConverter();
+		BinaryScenarioUnmarshaller binaryUnmarshaller = new BinaryScenarioUnmarshaller();
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			byte[] marshalledScenario = ScenarioResources.marshal(ScenarioResources.unmarshal(scenarioFile));
+			byte[] binaryScenario = this.toBinary(converter, scenarioFile);
+			
+			// XML to binary to XML conversions are lossless
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			converter.toXml(new ByteArrayInputStream(binaryScenario), output);
+			assertArrayEquals(marshalledScenario,
+					ScenarioResources.marshal(ScenarioResources.unmarshal(output.toByteArray())));
+			
+			// binary unmarshalling of converted scenarios is lossless
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshal(
+					binaryUnmarshaller.unmarshal(new ByteArrayInputStream(binaryScenario))));
+			
+			// binary marshalling of JAXB scenarios equals the conversion
+			output.reset();
+			new BinaryScenarioMarshaller().marshal(ScenarioResources.unmarshal(scenarioFile), output);
+			assertArrayEquals(binaryScenario, output.toByteArray());
+		}
+	}
+	
+	@Test
+	public void testUnknownSection() throws JAXBException, IOException {
+		BinaryScenarioConverter converter = new BinaryScenarioConverter();
+		BinaryScenarioUnmarshaller binaryUnmarshaller = new BinaryScenarioUnmarshaller();
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			byte[] marshalledScenario = ScenarioResources.marshal(ScenarioResources.unmarshal(scenarioFile));
+			byte[] binaryScenario = this.toBinary(converter, scenarioFile);
+			assertEquals(BinaryScenarioFormat.SECTION_END, binaryScenario[binaryScenario.length - 1]);
+			
+			// insert an unknown section before the end of the binary scenario
+			BinaryOutput payload = new BinaryOutput();
+			payload.writeVarint(Long.MAX_VALUE);
+			payload.writeBytes(new byte[] {1, 2, 3, 4}, 0, 4);
+			ByteArrayOutputStream extendedScenario = new ByteArrayOutputStream();
+			extendedScenario.write(binaryScenario, 0, binaryScenario.length - 1);
+			BinaryScenarioMarshaller.writeSection(extendedScenario, UNKNOWN_SECTION, payload);
+			extendedScenario.write(BinaryScenarioFormat.SECTION_END);
+			
+			// unknown sections are skipped by unmarshallers and converters
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshal(binaryUnmarshaller.unmarshal(
+					new ByteArrayInputStream(extendedScenario.toByteArray()))));
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			converter.toXml(new ByteArrayInputStream(extendedScenario.toByteArray()), output);
+			assertArrayEquals(marshalledScenario,
+					ScenarioResources.marshal(ScenarioResources.unmarshal(output.toByteArray())));
+		}
+	}
+	
+	@Test
+	public void testScenario() throws JAXBException, IOException {
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		BinaryScenarioMarshaller binaryMarshaller = new BinaryScenarioMarshaller();
+		BinaryScenarioUnmarshaller binaryUnmarshaller = new BinaryScenarioUnmarshaller();
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			com.cfar.swim.worldwind.session.Scenario scenario = scenarioUnmarshaller.unmarshalScenario(scenarioFile);
+			byte[] marshalledScenario = ScenarioResources.marshalScenario(scenario, scenarioFile.getName());
+			
+			// binary marshalling and unmarshalling of scenarios is lossless
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			binaryMarshaller.marshalScenario(scenario, output);
+			scenario = binaryUnmarshaller.unmarshalScenario(new ByteArrayInputStream(output.toByteArray()));
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshalScenario(scenario, scenarioFile.getName()));
+		}
+	}
+	
+	private byte[] toBinary(BinaryScenarioConverter converter, File scenarioFile) throws JAXBException, IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (InputStream input = new FileInputStream(scenarioFile)) {
+			converter.toBinary(input, scenarioFile.toURI().toString(), output);
+		}
+		return output.toByteArray();
+	}
+	
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.LazyScenario;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+public class LazyScenarioTest {
+	
+	@Test
+	public void testMaterialize() throws JAXBException, IOException {
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			LazyScenario lazyScenario = scenarioUnmarshaller.unmarshalLazyScenario(scenarioFile);
+			
+			// deferred sections are indexed if present
+			Scenario scenarioElement = ScenarioResources.unmarshal(scenarioFile);
+			assertEquals(null != scenarioElement.getObstacles(), lazyScenario.hasObstacles());
+			assertEquals(null != scenarioElement.getTrajectory(), lazyScenario.hasTrajectory());
+			
+			// materialized lazy and eager unmarshalling result in equivalent scenarios
+			com.cfar.swim.worldwind.session.Scenario scenario = lazyScenario.materialize();
+			assertSame(lazyScenario.getScenario(), scenario);
+			assertArrayEquals(ScenarioResources.marshalScenario(
+					scenarioUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName()),
+					ScenarioResources.marshalScenario(scenario, scenarioFile.getName()));
+		}
+	}
+	
+	@Test
+	public void testAbsentSections() throws JAXBException {
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		
+		// scenario1 has neither obstacles nor a trajectory
+		LazyScenario lazyScenario = scenarioUnmarshaller.unmarshalLazyScenario(
+				new File(ScenarioResources.SCENARIO_RESOURCES_DIR, "scenario1.xml"));
+		assertFalse(lazyScenario.hasObstacles());
+		assertTrue(lazyScenario.getObstacles().isEmpty());
+		assertFalse(lazyScenario.hasTrajectory());
+		assertNull(lazyScenario.getTrajectory());
+		assertSame(lazyScenario.getScenario(), lazyScenario.materialize());
+		
+		// scenario2 has obstacles but no trajectory
+		lazyScenario = scenarioUnmarshaller.unmarshalLazyScenario(
+				new File(ScenarioResources.SCENARIO_RESOURCES_DIR, "scenario2.xml"));
+		assertTrue(lazyScenario.hasObstacles());
+		assertEquals(1, lazyScenario.getObstacles().size());
+		assertFalse(lazyScenario.hasTrajectory());
+		assertNull(lazyScenario.getTrajectory());
+	}
+	
+}
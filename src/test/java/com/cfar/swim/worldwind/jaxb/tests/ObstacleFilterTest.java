@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioStreamUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.adapters.ObstacleFilter;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+
+import gov.nasa.worldwind.geom.Sector;
+
+public class ObstacleFilterTest {
+	
+	public static final String SCENARIO_FILENAME = "scenario3.xml";
+	
+	@Test
+	public void testSector() throws JAXBException {
+		List<Object> obstacles = this.getObstacles();
+		Object box = obstacles.get(0);
+		Object cylinder = obstacles.get(1);
+		Object sphere = obstacles.get(2);
+		
+		// boxes are tested by the extent of their segments
+		assertTrue(this.createFilter(Sector.fromDegrees(10.5d, 12d, 11d, 13d)).accepts(box));
+		assertFalse(this.createFilter(Sector.fromDegrees(12d, 13d, 10d, 12d)).accepts(box));
+		assertFalse(this.createFilter(Sector.fromDegrees(10d, 11d, 13d, 14d)).accepts(box));
+		
+		// cylinders are widened by their radius and the margin
+		assertTrue(this.createFilter(Sector.fromDegrees(39.9d, 40.1d, 19.9d, 20.1d)).accepts(cylinder));
+		assertTrue(this.createFilter(Sector.fromDegrees(40.015d, 41d, 19d, 21d)).accepts(cylinder));
+		assertFalse(this.createFilter(Sector.fromDegrees(40.025d, 41d, 19d, 21d)).accepts(cylinder));
+		assertFalse(this.createFilter(Sector.fromDegrees(39d, 41d, 20.03d, 21d)).accepts(cylinder));
+		
+		// spheres are widened by their radius and the margin
+		assertTrue(this.createFilter(Sector.fromDegrees(19d, 21d, 29d, 31d)).accepts(sphere));
+		assertFalse(this.createFilter(Sector.fromDegrees(20.1d, 21d, 29d, 31d)).accepts(sphere));
+		assertFalse(this.createFilter(Sector.fromDegrees(19d, 21d, 31d, 32d)).accepts(sphere));
+		
+		// unbounded filters accept all obstacles
+		for (Object obstacle : obstacles) {
+			assertTrue(this.createFilter(null).accepts(obstacle));
+		}
+	}
+	
+	@Test
+	public void testGreatCircle() throws JAXBException {
+		ObstacleBox box = (ObstacleBox) this.getObstacles().get(0);
+		box.getBegin().setLatitude(60d);
+		box.getBegin().setLongitude(0d);
+		box.getEnd().setLatitude(60d);
+		box.getEnd().setLongitude(90d);
+		
+		// great circle segments bulge towards the pole reaching about 67.8N
+		assertTrue(this.createFilter(Sector.fromDegrees(66d, 68d, 40d, 50d)).accepts(box));
+		assertFalse(this.createFilter(Sector.fromDegrees(68.5d, 70d, 40d, 50d)).accepts(box));
+		
+		box.getBegin().setLatitude(-60d);
+		box.getEnd().setLatitude(-60d);
+		assertTrue(this.createFilter(Sector.fromDegrees(-68d, -66d, 40d, 50d)).accepts(box));
+		assertFalse(this.createFilter(Sector.fromDegrees(-70d, -68.5d, 40d, 50d)).accepts(box));
+	}
+	
+	@Test
+	public void testAntiMeridian() throws JAXBException {
+		List<Object> obstacles = this.getObstacles();
+		ObstacleBox box = (ObstacleBox) obstacles.get(0);
+		box.getBegin().setLongitude(179.5d);
+		box.getEnd().setLongitude(-179.5d);
+		ObstacleCylinder cylinder = (ObstacleCylinder) obstacles.get(1);
+		cylinder.getLocation().setLongitude(179.995d);
+		
+		// segments crossing the anti-meridian take the shorter way around
+		assertTrue(this.createFilter(Sector.fromDegrees(10d, 11d, -180d, -179.8d)).accepts(box));
+		assertTrue(this.createFilter(Sector.fromDegrees(10d, 11d, 179.8d, 180d)).accepts(box));
+		assertFalse(this.createFilter(Sector.fromDegrees(10d, 11d, 0d, 10d)).accepts(box));
+		assertFalse(this.createFilter(Sector.fromDegrees(10d, 11d, -179d, -170d)).accepts(box));
+		
+		// extents wrap around the anti-meridian
+		assertTrue(this.createFilter(Sector.fromDegrees(39d, 41d, -180d, -179.99d)).accepts(cylinder));
+		assertFalse(this.createFilter(Sector.fromDegrees(39d, 41d, -179.9d, -179d)).accepts(cylinder));
+	}
+	
+	@Test
+	public void testAltitude() throws JAXBException {
+		List<Object> obstacles = this.getObstacles();
+		Object box = obstacles.get(0);
+		Object cylinder = obstacles.get(1);
+		Object sphere = obstacles.get(2);
+		Object aglCylinder = obstacles.get(3);
+		
+		// absolute altitudes are tested as is
+		assertTrue(this.createFilter(1400d, 1600d).accepts(box));
+		assertFalse(this.createFilter(1600d, 3000d).accepts(box));
+		assertTrue(this.createFilter(1900d, 3000d).accepts(cylinder));
+		assertFalse(this.createFilter(2100d, 3000d).accepts(cylinder));
+		
+		// spheres extend by their radius above and below their center
+		assertTrue(this.createFilter(1700d, 3000d).accepts(sphere));
+		assertTrue(this.createFilter(-100d, 300d).accepts(sphere));
+		assertFalse(this.createFilter(1900d, 3000d).accepts(sphere));
+		assertFalse(this.createFilter(-100d, 100d).accepts(sphere));
+		
+		// altitudes above ground are widened by the range of terrain elevations
+		assertTrue(this.createFilter(2500d, 3000d).accepts(aglCylinder));
+		assertTrue(this.createFilter(-20000d, -10000d).accepts(aglCylinder));
+		assertFalse(this.createFilter(10200d, 20000d).accepts(aglCylinder));
+		assertFalse(this.createFilter(-20000d, -11100d).accepts(aglCylinder));
+	}
+	
+	@Test
+	public void testTimeWindow() throws JAXBException {
+		List<Object> obstacles = this.getObstacles();
+		Object box = obstacles.get(0);
+		Object cylinder = obstacles.get(1);
+		Object sphere = obstacles.get(2);
+		
+		// cost intervals overlapping the time window are accepted
+		assertTrue(this.createFilter(this.createTime(2022, 6, 1), this.createTime(2022, 7, 1)).accepts(box));
+		assertTrue(this.createFilter(null, this.createTime(2021, 1, 2)).accepts(box));
+		assertTrue(this.createFilter(this.createTime(2022, 12, 30), null).accepts(box));
+		assertTrue(this.createFilter(this.createTime(2002, 1, 1), this.createTime(2002, 2, 1)).accepts(cylinder));
+		assertTrue(this.createFilter(this.createTime(2022, 6, 1), this.createTime(2022, 7, 1)).accepts(sphere));
+		
+		// cost intervals outside of the time window are rejected
+		assertFalse(this.createFilter(this.createTime(2023, 1, 2), null).accepts(box));
+		assertFalse(this.createFilter(null, this.createTime(2020, 12, 31)).accepts(box));
+		assertFalse(this.createFilter(null, this.createTime(2001, 12, 30)).accepts(cylinder));
+		assertFalse(this.createFilter(this.createTime(2021, 1, 1), this.createTime(2021, 6, 29)).accepts(sphere));
+		assertFalse(this.createFilter(this.createTime(2022, 7, 1), this.createTime(2022, 8, 1)).accepts(sphere));
+	}
+	
+	@Test
+	public void testLazyScenario() throws JAXBException {
+		File scenarioFile = new File(ScenarioResources.SCENARIO_RESOURCES_DIR, SCENARIO_FILENAME);
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		assertEquals(5, scenarioUnmarshaller.unmarshalLazyScenario(scenarioFile).getObstacles().size());
+		
+		// lazily materialized obstacles are filtered
+		scenarioUnmarshaller.setObstacleFilter(this.createFilter(Sector.fromDegrees(9d, 12d, 9d, 13d)));
+		assertEquals(1, scenarioUnmarshaller.unmarshalLazyScenario(scenarioFile).getObstacles().size());
+	}
+	
+	@Test
+	public void testStreamScenario() throws JAXBException, IOException {
+		File scenarioFile = new File(ScenarioResources.SCENARIO_RESOURCES_DIR, SCENARIO_FILENAME);
+		ObstacleFilter filter = this.createFilter(Sector.fromDegrees(9d, 12d, 9d, 13d));
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		scenarioUnmarshaller.setObstacleFilter(filter);
+		ScenarioStreamUnmarshaller streamUnmarshaller = new ScenarioStreamUnmarshaller();
+		streamUnmarshaller.setObstacleFilter(filter);
+		
+		// streamed obstacles are filtered like adapted obstacles
+		byte[] marshalledScenario = ScenarioResources.marshalScenario(
+				scenarioUnmarshaller.unmarshalScenario(scenarioFile), SCENARIO_FILENAME);
+		assertEquals(1, ScenarioResources.unmarshal(marshalledScenario).getObstacles().getBoxOrCylinderOrSphere().size());
+		assertArrayEquals(marshalledScenario, ScenarioResources.marshalScenario(
+				streamUnmarshaller.unmarshalScenario(scenarioFile), SCENARIO_FILENAME));
+	}
+	
+	private List<Object> getObstacles() throws JAXBException {
+		return ScenarioResources.unmarshal(new File(ScenarioResources.SCENARIO_RESOURCES_DIR, SCENARIO_FILENAME))
+				.getObstacles().getBoxOrCylinderOrSphere();
+	}
+	
+	private ObstacleFilter createFilter(Sector sector) {
+		return new ObstacleFilter(sector, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null, null);
+	}
+	
+	private ObstacleFilter createFilter(double bottom, double top) {
+		return new ObstacleFilter(null, bottom, top, null, null);
+	}
+	
+	private ObstacleFilter createFilter(ZonedDateTime start, ZonedDateTime end) {
+		return new ObstacleFilter(null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, start, end);
+	}
+	
+	private ZonedDateTime createTime(int year, int month, int day) {
+		return ZonedDateTime.of(year, month, day, 0, 0, 0, 0, ZoneOffset.UTC);
+	}
+	
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.adapters.AdapterRegistry;
+import com.cfar.swim.worldwind.jaxb.direct.ParallelScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+public class ParallelScenarioTest {
+	
+	public static final int WORKERS = 2;
+	public static final String COMMENTED_FILENAME = "scenario3-commented.xml";
+	public static final String FAILING_FILENAME = "scenario3-failing-parallel.xml";
+	
+	@Test(timeout = 60000)
+	public void testParallel() throws JAXBException, IOException {
+		try (ParallelScenarioUnmarshaller parallelUnmarshaller = new ParallelScenarioUnmarshaller(WORKERS)) {
+			parallelUnmarshaller.setMinChunkSize(1);
+			
+			for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+				Scenario scenario = parallelUnmarshaller.unmarshal(scenarioFile);
+				
+				// obstacles sections are split into several chunks
+				Scenario scenarioElement = ScenarioResources.unmarshal(scenarioFile);
+				if (null != scenarioElement.getObstacles()) {
+					assertTrue(Math.min(2, scenarioElement.getObstacles().getBoxOrCylinderOrSphere().size())
+							<= parallelUnmarshaller.getChunks());
+				}
+				
+				// parallel and JAXB unmarshalling result in identical scenarios in document order
+				assertArrayEquals(ScenarioResources.marshal(scenarioElement), ScenarioResources.marshal(scenario));
+			}
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testParallelScenario() throws JAXBException, IOException {
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		
+		try (ParallelScenarioUnmarshaller parallelUnmarshaller = new ParallelScenarioUnmarshaller(WORKERS)) {
+			parallelUnmarshaller.setMinChunkSize(1);
+			
+			for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+				com.cfar.swim.worldwind.session.Scenario scenario = parallelUnmarshaller.unmarshalScenario(scenarioFile);
+				
+				// obstacles sections are split into several chunks
+				Scenario scenarioElement = ScenarioResources.unmarshal(scenarioFile);
+				if (null != scenarioElement.getObstacles()) {
+					assertTrue(Math.min(2, scenarioElement.getObstacles().getBoxOrCylinderOrSphere().size())
+							<= parallelUnmarshaller.getChunks());
+				}
+				
+				// parallel and JAXB unmarshalling result in equivalent scenarios
+				assertArrayEquals(ScenarioResources.marshalScenario(
+						scenarioUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName()),
+						ScenarioResources.marshalScenario(scenario, scenarioFile.getName()));
+			}
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testParallelAdaptation() throws Exception {
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		ScenarioUnmarshaller parallelUnmarshaller = new ScenarioUnmarshaller();
+		parallelUnmarshaller.setParallel(true);
+		ScenarioMarshaller scenarioMarshaller = new ScenarioMarshaller();
+		ScenarioMarshaller parallelMarshaller = new ScenarioMarshaller();
+		parallelMarshaller.setParallel(true);
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			// parallel and sequential adaptation of scenario elements result in identical scenarios
+			Scenario scenarioElement = ScenarioResources.unmarshal(scenarioFile);
+			com.cfar.swim.worldwind.session.Scenario scenario =
+					AdapterRegistry.getScenarioAdapter().unmarshal(ScenarioResources.copy(scenarioElement));
+			com.cfar.swim.worldwind.session.Scenario parallelScenario =
+					AdapterRegistry.getParallelScenarioAdapter().unmarshal(ScenarioResources.copy(scenarioElement));
+			assertArrayEquals(ScenarioResources.marshalScenario(scenario, scenarioFile.getName()),
+					ScenarioResources.marshalScenario(parallelScenario, scenarioFile.getName()));
+			
+			// parallel and sequential unmarshalling result in identical scenarios
+			assertArrayEquals(ScenarioResources.marshalScenario(
+					scenarioUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName()),
+					ScenarioResources.marshalScenario(
+							parallelUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName()));
+			
+			// parallel and sequential marshalling result in identical scenario files
+			assertArrayEquals(ScenarioResources.marshal(AdapterRegistry.getScenarioAdapter().marshal(scenario)),
+					ScenarioResources.marshal(AdapterRegistry.getParallelScenarioAdapter().marshal(scenario)));
+			File scenarioTargetFile = ScenarioResources.getTargetFile("sequential-" + scenarioFile.getName());
+			File parallelTargetFile = ScenarioResources.getTargetFile("parallel-adapted-" + scenarioFile.getName());
+			scenarioMarshaller.marshalScenario(scenario, scenarioTargetFile);
+			parallelMarshaller.marshalScenario(scenario, parallelTargetFile);
+			assertArrayEquals(Files.readAllBytes(scenarioTargetFile.toPath()),
+					Files.readAllBytes(parallelTargetFile.toPath()));
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testUnsafeSplit() throws JAXBException, IOException {
+		// a chunk boundary falls into a comment containing an obstacle start tag
+		File scenarioFile = new File(ScenarioResources.SCENARIO_RESOURCES_DIR, "scenario3.xml");
+		String scenario = new String(Files.readAllBytes(scenarioFile.toPath()), StandardCharsets.UTF_8);
+		scenario = scenario.replaceFirst("</safcs:box>", "</safcs:box>\n\t\t<!-- <safcs:box> -->");
+		File commentedFile = ScenarioResources.getTargetFile(COMMENTED_FILENAME);
+		Files.write(commentedFile.toPath(), scenario.getBytes(StandardCharsets.UTF_8));
+		
+		try (ParallelScenarioUnmarshaller parallelUnmarshaller = new ParallelScenarioUnmarshaller(WORKERS)) {
+			parallelUnmarshaller.setMinChunkSize(1);
+			
+			// unsafely split scenario files are unmarshalled sequentially
+			Scenario scenarioElement = parallelUnmarshaller.unmarshal(commentedFile);
+			assertEquals(0, parallelUnmarshaller.getChunks());
+			assertArrayEquals(ScenarioResources.marshal(ScenarioResources.unmarshal(commentedFile)),
+					ScenarioResources.marshal(scenarioElement));
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testAdapterFailure() throws JAXBException, IOException {
+		// a cost interval without start time cannot be adapted
+		File scenarioFile = new File(ScenarioResources.SCENARIO_RESOURCES_DIR, "scenario3.xml");
+		String scenario = new String(Files.readAllBytes(scenarioFile.toPath()), StandardCharsets.UTF_8);
+		scenario = scenario.replaceFirst("start=\"[^\"]*\"", "");
+		File failingFile = ScenarioResources.getTargetFile(FAILING_FILENAME);
+		Files.write(failingFile.toPath(), scenario.getBytes(StandardCharsets.UTF_8));
+		
+		try (ParallelScenarioUnmarshaller parallelUnmarshaller = new ParallelScenarioUnmarshaller(WORKERS)) {
+			parallelUnmarshaller.setMinChunkSize(1);
+			
+			// adapter failures are thrown instead of unmarshalling sequentially
+			try {
+				parallelUnmarshaller.unmarshalScenario(failingFile);
+				fail("failing scenario unmarshalled");
+			} catch (JAXBException e) {
+				assertNotNull(e.getLinkedException());
+				assertTrue(1 < parallelUnmarshaller.getChunks());
+			}
+			
+			// the parallel unmarshaller remains usable after a failed load
+			assertNotNull(parallelUnmarshaller.unmarshalScenario(scenarioFile));
+		}
+	}
+	
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.direct.PipelineUtilization;
+import com.cfar.swim.worldwind.jaxb.direct.PipelinedScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+public class PipelinedScenarioTest {
+	
+	public static final int WORKERS = 2;
+	public static final String FAILING_FILENAME = "scenario3-failing.xml";
+	
+	@Test(timeout = 60000)
+	public void testPipelined() throws JAXBException, IOException {
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		
+		for (int chunkSize = 1; chunkSize <= 2; chunkSize++) {
+			try (PipelinedScenarioUnmarshaller pipelinedUnmarshaller = new PipelinedScenarioUnmarshaller(WORKERS)) {
+				pipelinedUnmarshaller.setChunkSize(chunkSize);
+				pipelinedUnmarshaller.setQueueCapacity(1);
+				long chunks = 0;
+				
+				for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+					com.cfar.swim.worldwind.session.Scenario scenario =
+							pipelinedUnmarshaller.unmarshalScenario(scenarioFile);
+					
+					// all obstacles and waypoints pass the pipeline in chunks
+					Scenario scenarioElement = ScenarioResources.unmarshal(scenarioFile);
+					PipelineUtilization utilization = pipelinedUnmarshaller.getUtilization();
+					assertNotNull(utilization);
+					assertEquals(this.countFragments(scenarioElement), utilization.getFragments());
+					assertEquals(this.countChunks(scenarioElement, chunkSize), utilization.getChunks());
+					chunks += utilization.getChunks();
+					
+					// pipelined and JAXB unmarshalling result in equivalent scenarios
+					assertArrayEquals(ScenarioResources.marshalScenario(
+							scenarioUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName()),
+							ScenarioResources.marshalScenario(scenario, scenarioFile.getName()));
+				}
+				assertTrue(0 < chunks);
+			}
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testAdapterFailure() throws JAXBException, IOException {
+		// a cost interval without start time cannot be adapted
+		File scenarioFile = new File(ScenarioResources.SCENARIO_RESOURCES_DIR, "scenario3.xml");
+		String scenario = new String(Files.readAllBytes(scenarioFile.toPath()), StandardCharsets.UTF_8);
+		scenario = scenario.replaceFirst("start=\"[^\"]*\"", "");
+		File failingFile = ScenarioResources.getTargetFile(FAILING_FILENAME);
+		Files.write(failingFile.toPath(), scenario.getBytes(StandardCharsets.UTF_8));
+		
+		try (PipelinedScenarioUnmarshaller pipelinedUnmarshaller = new PipelinedScenarioUnmarshaller(WORKERS)) {
+			pipelinedUnmarshaller.setChunkSize(1);
+			pipelinedUnmarshaller.setQueueCapacity(1);
+			
+			// adapter failures are thrown instead of hanging the pipeline
+			for (int load = 0; load < 2; load++) {
+				try {
+					pipelinedUnmarshaller.unmarshalScenario(failingFile);
+					fail("failing scenario unmarshalled");
+				} catch (JAXBException e) {
+					assertNotNull(e.getLinkedException());
+				}
+			}
+			
+			// the pipelined unmarshaller remains usable after a failed load
+			assertNotNull(pipelinedUnmarshaller.unmarshalScenario(scenarioFile));
+		}
+	}
+	
+	private long countFragments(Scenario scenario) {
+		long fragments = 0;
+		if (null != scenario.getObstacles()) {
+			fragments += scenario.getObstacles().getBoxOrCylinderOrSphere().size();
+		}
+		if (null != scenario.getWaypoints()) {
+			fragments += scenario.getWaypoints().getWaypoint().size();
+		}
+		if (null != scenario.getTrajectory()) {
+			fragments += scenario.getTrajectory().getWaypoint().size();
+		}
+		return fragments;
+	}
+	
+	private long countChunks(Scenario scenario, int chunkSize) {
+		long chunks = 0;
+		if (null != scenario.getObstacles()) {
+			chunks += (scenario.getObstacles().getBoxOrCylinderOrSphere().size() + chunkSize - 1) / chunkSize;
+		}
+		if (null != scenario.getWaypoints()) {
+			chunks += (scenario.getWaypoints().getWaypoint().size() + chunkSize - 1) / chunkSize;
+		}
+		if (null != scenario.getTrajectory()) {
+			chunks += (scenario.getTrajectory().getWaypoint().size() + chunkSize - 1) / chunkSize;
+		}
+		return chunks;
+	}
+	
+}
@@ -29,18 +29,35 @@
  */
 package com.cfar.swim.worldwind.jaxb.tests;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 import javax.xml.bind.JAXBException;
+import javax.xml.transform.stax.StAXSource;
 
 import org.junit.Test;
 
+import com.cfar.swim.worldwind.jaxb.ParallelScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioCompression;
+import com.cfar.swim.worldwind.jaxb.ScenarioEncoding;
 import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreamMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreamUnmarshaller;
 import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.direct.DirectScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.direct.DirectScenarioUnmarshaller;
 import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
 
 public class RoundtripTest {
@@ -82,4 +99,179 @@ public class RoundtripTest {
 		assertTrue(true);
 	}
 	
+	@Test
+	public void testDirect() throws JAXBException, IOException {
+		// create JAXB and direct marshallers and unmarshallers
+		ScenarioMarshaller scenarioMarshaller = new ScenarioMarshaller();
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		DirectScenarioMarshaller directMarshaller = new DirectScenarioMarshaller();
+		DirectScenarioUnmarshaller directUnmarshaller = new DirectScenarioUnmarshaller();
+		
+		File scenarioResourcesDir = new File(SCENARIO_RESOURCES_DIR);
+		File[] scenarioFiles = scenarioResourcesDir.listFiles(new XMLFilenameFilter());
+		
+		for (File scenarioFile : scenarioFiles) {
+			// direct and JAXB unmarshalling result in equivalent scenarios
+			Scenario scenarioElement = (Scenario) scenarioUnmarshaller.unmarshal(scenarioFile);
+			byte[] marshalledScenario = this.marshal(scenarioMarshaller, scenarioElement);
+			assertArrayEquals(marshalledScenario,
+					this.marshal(scenarioMarshaller, directUnmarshaller.unmarshal(scenarioFile)));
+			
+			// JAXB unmarshals directly marshalled scenarios equivalently
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			directMarshaller.marshal(scenarioElement, output);
+			byte[] directScenario = output.toByteArray();
+			output.reset();
+			directMarshaller.marshal((Scenario) scenarioUnmarshaller.unmarshal(
+					new ByteArrayInputStream(directScenario)), output);
+			assertArrayEquals(directScenario, output.toByteArray());
+			
+			// direct unmarshalling of JAXB marshalled scenarios is equivalent
+			output.reset();
+			directMarshaller.marshal(directUnmarshaller.unmarshal(
+					new ByteArrayInputStream(marshalledScenario), null), output);
+			assertArrayEquals(directScenario, output.toByteArray());
+		}
+	}
+	
+	@Test
+	public void testDirectScenario() throws JAXBException, IOException {
+		// create JAXB, streaming and direct unmarshallers
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		ScenarioStreamUnmarshaller streamUnmarshaller = new ScenarioStreamUnmarshaller();
+		DirectScenarioUnmarshaller directUnmarshaller = new DirectScenarioUnmarshaller();
+		streamUnmarshaller.setBatchSize(2);
+		directUnmarshaller.setBatchSize(2);
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			// direct, streaming and JAXB unmarshalling result in equivalent scenarios
+			byte[] marshalledScenario = ScenarioResources.marshalScenario(
+					scenarioUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName());
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshalScenario(
+					directUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName()));
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshalScenario(
+					streamUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName()));
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testParallel() throws JAXBException, IOException {
+		// create JAXB and parallel marshallers
+		ScenarioMarshaller scenarioMarshaller = new ScenarioMarshaller();
+		
+		try (ParallelScenarioMarshaller parallelMarshaller = new ParallelScenarioMarshaller(2)) {
+			parallelMarshaller.setChunkSize(1);
+			
+			for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+				// parallel and JAXB marshalling result in identical scenario files
+				Scenario scenarioElement = ScenarioResources.unmarshal(scenarioFile);
+				File parallelScenarioFile = ScenarioResources.getTargetFile("parallel-" + scenarioFile.getName());
+				parallelMarshaller.marshal(scenarioElement, parallelScenarioFile);
+				assertArrayEquals(this.marshal(scenarioMarshaller, scenarioElement),
+						Files.readAllBytes(parallelScenarioFile.toPath()));
+			}
+		}
+	}
+	
+	@Test
+	public void testStream() throws JAXBException, IOException {
+		// create JAXB and streaming marshallers and unmarshallers
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		ScenarioStreamMarshaller streamMarshaller = new ScenarioStreamMarshaller();
+		ScenarioStreamUnmarshaller streamUnmarshaller = new ScenarioStreamUnmarshaller();
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			com.cfar.swim.worldwind.session.Scenario scenario = scenarioUnmarshaller.unmarshalScenario(scenarioFile);
+			byte[] marshalledScenario = ScenarioResources.marshalScenario(scenario, scenarioFile.getName());
+			
+			// streaming and JAXB marshalling result in equivalent scenarios
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			streamMarshaller.marshalScenario(scenario, output);
+			byte[] streamedScenario = output.toByteArray();
+			Scenario scenarioElement = ScenarioResources.unmarshal(streamedScenario);
+			ScenarioResources.sortObstacles(scenarioElement);
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshal(scenarioElement));
+			
+			// streaming unmarshalling of streamed scenarios is equivalent
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshalScenario(streamUnmarshaller.unmarshalScenario(
+					new ByteArrayInputStream(streamedScenario), null), scenarioFile.getName()));
+		}
+	}
+	
+	@Test
+	public void testFastInfoset() throws JAXBException, IOException {
+		// create JAXB marshaller and unmarshaller
+		ScenarioMarshaller scenarioMarshaller = new ScenarioMarshaller();
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			Scenario scenarioElement = ScenarioResources.unmarshal(scenarioFile);
+			byte[] marshalledScenario = this.marshal(scenarioMarshaller, scenarioElement);
+			byte[] encodedScenario = this.encode(scenarioMarshaller, scenarioElement);
+			
+			// Fast Infoset scenarios are detected from their magic bytes and smaller
+			assertEquals(ScenarioEncoding.FAST_INFOSET, ScenarioEncoding.detect(
+					Arrays.copyOf(encodedScenario, ScenarioEncoding.HEADER_LENGTH), encodedScenario.length));
+			assertEquals(ScenarioEncoding.XML, ScenarioEncoding.detect(
+					Arrays.copyOf(marshalledScenario, ScenarioEncoding.HEADER_LENGTH), marshalledScenario.length));
+			assertTrue(encodedScenario.length < marshalledScenario.length);
+			
+			// Fast Infoset and XML encoding result in equivalent scenarios
+			assertTrue(ScenarioEncoding.createSource(new ByteArrayInputStream(encodedScenario), null) instanceof StAXSource);
+			Scenario decodedScenario = (Scenario) scenarioUnmarshaller.unmarshal(
+					ScenarioEncoding.createSource(new ByteArrayInputStream(encodedScenario), null));
+			assertArrayEquals(marshalledScenario, this.marshal(scenarioMarshaller, decodedScenario));
+		}
+	}
+	
+	@Test
+	public void testFastInfosetScenario() throws JAXBException, IOException {
+		// create JAXB marshaller and unmarshaller
+		ScenarioMarshaller scenarioMarshaller = new ScenarioMarshaller();
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			byte[] encodedScenario = this.encode(scenarioMarshaller, ScenarioResources.unmarshal(scenarioFile));
+			
+			// Fast Infoset scenario files are detected regardless of their name extension
+			File encodedFile = ScenarioResources.getTargetFile("finf-" + scenarioFile.getName());
+			Files.write(encodedFile.toPath(), encodedScenario);
+			File compressedFile = ScenarioResources.getTargetFile(scenarioFile.getName() + ".finf.gz");
+			try (OutputStream output = new ScenarioCompression().compress(
+					new FileOutputStream(compressedFile), compressedFile)) {
+				output.write(encodedScenario);
+			}
+			com.cfar.swim.worldwind.session.Scenario encoded = scenarioUnmarshaller.unmarshalScenario(encodedFile);
+			com.cfar.swim.worldwind.session.Scenario compressed = scenarioUnmarshaller.unmarshalScenario(compressedFile);
+			assertNotNull(encoded);
+			assertNotNull(compressed);
+			
+			// Fast Infoset and XML scenario files result in equivalent scenarios
+			byte[] marshalledScenario = ScenarioResources.marshalScenario(
+					scenarioUnmarshaller.unmarshalScenario(scenarioFile), scenarioFile.getName());
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshalScenario(encoded, scenarioFile.getName()));
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshalScenario(compressed, scenarioFile.getName()));
+			
+			// Fast Infoset scenario files are written according to their name extension
+			File marshalledFile = ScenarioResources.getTargetFile(scenarioFile.getName() + ".finf");
+			scenarioMarshaller.marshalScenario(encoded, marshalledFile);
+			assertEquals(ScenarioEncoding.FAST_INFOSET, ScenarioEncoding.detect(
+					Files.readAllBytes(marshalledFile.toPath()), ScenarioEncoding.HEADER_LENGTH));
+			assertArrayEquals(marshalledScenario, ScenarioResources.marshalScenario(
+					scenarioUnmarshaller.unmarshalScenario(marshalledFile), scenarioFile.getName()));
+		}
+	}
+	
+	private byte[] encode(ScenarioMarshaller scenarioMarshaller, Scenario scenarioElement) throws JAXBException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		scenarioMarshaller.marshal(scenarioElement, ScenarioEncoding.FAST_INFOSET.createResult(output));
+		return output.toByteArray();
+	}
+	
+	private byte[] marshal(ScenarioMarshaller scenarioMarshaller, Scenario scenarioElement) throws JAXBException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		scenarioMarshaller.marshal(scenarioElement, output);
+		return output.toByteArray();
+	}
+	
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioBatch;
+import com.cfar.swim.worldwind.jaxb.ScenarioBatchResult;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+public class ScenarioBatchTest {
+	
+	public static final int WORKERS = 2;
+	public static final int COPIES = 5000;
+	public static final String BATCH_DIRNAME = "batch";
+	public static final String CORRUPT_FILENAME = "corrupt.xml";
+	public static final String LARGE_FILENAME = "a-large.xml";
+	
+	@Test(timeout = 60000)
+	public void testErrorIsolation() throws JAXBException, IOException {
+		File batchDir = this.createBatchDir();
+		File corruptFile = new File(batchDir, CORRUPT_FILENAME);
+		Files.write(corruptFile.toPath(), "<safcs:scenario".getBytes(StandardCharsets.UTF_8));
+		
+		// a corrupt file fails without affecting the other files of the batch
+		try (ScenarioBatch batch = new ScenarioBatch(WORKERS)) {
+			List<ScenarioBatchResult<Object>> results = batch.unmarshal(batchDir).collect(Collectors.toList());
+			assertEquals(ScenarioResources.getScenarioFiles().length + 1, results.size());
+			for (ScenarioBatchResult<Object> result : results) {
+				if (corruptFile.equals(result.getFile())) {
+					assertFalse(result.isSuccessful());
+					assertTrue(result.getError() instanceof JAXBException);
+					assertNull(result.getValue());
+				} else {
+					assertTrue(result.isSuccessful());
+					assertTrue(result.getValue() instanceof Scenario);
+				}
+			}
+			
+			List<ScenarioBatchResult<com.cfar.swim.worldwind.session.Scenario>> scenarioResults =
+					batch.unmarshalScenarios(ScenarioBatch.listScenarioFiles(batchDir)).collect(Collectors.toList());
+			assertEquals(results.size(), scenarioResults.size());
+			for (ScenarioBatchResult<com.cfar.swim.worldwind.session.Scenario> result : scenarioResults) {
+				assertEquals(!corruptFile.equals(result.getFile()), result.isSuccessful());
+				assertEquals(result.isSuccessful(), null != result.getValue());
+			}
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testCompletionOrder() throws JAXBException, IOException {
+		// the large file is listed first but completed last
+		File batchDir = this.createBatchDir();
+		File largeFile = ScenarioResources.createLargeScenario(LARGE_FILENAME, COPIES);
+		Files.move(largeFile.toPath(), new File(batchDir, LARGE_FILENAME).toPath(),
+				StandardCopyOption.REPLACE_EXISTING);
+		largeFile = new File(batchDir, LARGE_FILENAME);
+		List<File> files = ScenarioBatch.listScenarioFiles(batchDir);
+		assertEquals(largeFile, files.get(0));
+		
+		try (ScenarioBatch batch = new ScenarioBatch(WORKERS)) {
+			List<File> completed = batch.unmarshal(batchDir)
+					.peek(result -> assertTrue(result.isSuccessful()))
+					.map(ScenarioBatchResult::getFile)
+					.collect(Collectors.toList());
+			assertEquals(files.size(), completed.size());
+			assertEquals(largeFile, completed.get(completed.size() - 1));
+			
+			completed = batch.unmarshal(files)
+					.peek(result -> assertTrue(result.isSuccessful()))
+					.map(ScenarioBatchResult::getFile)
+					.collect(Collectors.toList());
+			assertEquals(files.size(), completed.size());
+			assertEquals(largeFile, completed.get(completed.size() - 1));
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testProcessOrder() throws JAXBException, InterruptedException {
+		File[] files = ScenarioResources.getScenarioFiles();
+		CountDownLatch consumed = new CountDownLatch(1);
+		
+		// the first file is only completed after the second file has been consumed
+		try (ScenarioBatch batch = new ScenarioBatch(WORKERS);
+				Stream<ScenarioBatchResult<File>> results = batch.process(Arrays.asList(files[0], files[1]), file -> {
+					if (files[0].equals(file)) {
+						assertTrue(consumed.await(10, TimeUnit.SECONDS));
+					}
+					return file;
+				})) {
+			Iterator<ScenarioBatchResult<File>> iterator = results.iterator();
+			assertEquals(files[1], iterator.next().getValue());
+			consumed.countDown();
+			assertEquals(files[0], iterator.next().getValue());
+			assertFalse(iterator.hasNext());
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testClose() throws JAXBException, InterruptedException {
+		File[] scenarioFiles = ScenarioResources.getScenarioFiles();
+		List<File> files = new ArrayList<>();
+		for (int copy = 0; copy < 3; copy++) {
+			files.addAll(Arrays.asList(scenarioFiles));
+		}
+		List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch released = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(1);
+		
+		// closing the stream cancels the files which have not been completed yet
+		try (ScenarioBatch batch = new ScenarioBatch(1)) {
+			Stream<ScenarioBatchResult<Integer>> results = batch.process(files, file -> {
+				int index = processed.size();
+				processed.add(index);
+				if (1 == index) {
+					started.countDown();
+					try {
+						assertTrue(released.await(10, TimeUnit.SECONDS));
+					} finally {
+						finished.countDown();
+					}
+				}
+				return index;
+			});
+			Iterator<ScenarioBatchResult<Integer>> iterator = results.iterator();
+			ScenarioBatchResult<Integer> result = iterator.next();
+			assertTrue(result.isSuccessful());
+			assertNotNull(result.getValue());
+			
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+			results.close();
+			released.countDown();
+			assertTrue(finished.await(10, TimeUnit.SECONDS));
+		}
+		
+		assertEquals(Arrays.asList(0, 1), processed);
+	}
+	
+	private File createBatchDir() throws IOException {
+		File batchDir = ScenarioResources.getTargetFile(BATCH_DIRNAME);
+		batchDir.mkdirs();
+		for (File file : batchDir.listFiles()) {
+			file.delete();
+		}
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			Files.copy(scenarioFile.toPath(), new File(batchDir, scenarioFile.getName()).toPath());
+		}
+		return batchDir;
+	}
+	
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.LazyScenario;
+import com.cfar.swim.worldwind.jaxb.ReadAheadInputStream;
+import com.cfar.swim.worldwind.jaxb.ScenarioCompression;
+import com.cfar.swim.worldwind.jaxb.ScenarioEncoding;
+import com.cfar.swim.worldwind.jaxb.ScenarioExecutors;
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+public class ScenarioCompressionTest {
+	
+	public static final String SCENARIO_FILENAME = "scenario3.xml";
+	public static final String[] ENCODED_FILENAMES = {
+			"scenario3.xml.gz", "scenario3.xml.zz", "scenario3.finf", "scenario3.finf.gz" };
+	
+	@Test(timeout = 60000)
+	public void testDecompress() throws IOException {
+		File scenarioFile = new File(ScenarioResources.SCENARIO_RESOURCES_DIR, SCENARIO_FILENAME);
+		byte[] scenario = Files.readAllBytes(scenarioFile.toPath());
+		ScenarioCompression compression = new ScenarioCompression();
+		compression.setBufferSize(64);
+		
+		// compressed input is detected and decompressed ahead
+		for (String name : new String[] { "scenario3.xml.gz", "scenario3.xml.zz", SCENARIO_FILENAME }) {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+			try (OutputStream output = compression.compress(compressed, new File(name))) {
+				output.write(scenario);
+			}
+			try (InputStream input = compression.decompress(new ByteArrayInputStream(compressed.toByteArray()))) {
+				ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+				byte[] buffer = new byte[100];
+				int read = 0;
+				while (-1 != (read = input.read(buffer))) {
+					decompressed.write(buffer, 0, read);
+				}
+				assertArrayEquals(name, scenario, decompressed.toByteArray());
+			}
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testReadAheadFailure() {
+		// unchecked failures of the underlying stream are surfaced to the consumer
+		InputStream failing = new InputStream() {
+			@Override
+			public int read() {
+				throw new IllegalStateException("corrupt input");
+			}
+		};
+		
+		try (InputStream input = new ReadAheadInputStream(failing, ScenarioExecutors.getDefaultExecutor(), 16, 2)) {
+			input.read();
+			fail("failed input read");
+		} catch (IOException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testLazyScenario() throws JAXBException, IOException {
+		File scenarioFile = new File(ScenarioResources.SCENARIO_RESOURCES_DIR, SCENARIO_FILENAME);
+		Scenario scenarioElement = ScenarioResources.unmarshal(scenarioFile);
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		LazyScenario lazyScenario = scenarioUnmarshaller.unmarshalLazyScenario(scenarioFile);
+		
+		// compressed and Fast Infoset scenario files are loaded lazily
+		for (String name : ENCODED_FILENAMES) {
+			File encodedFile = ScenarioResources.getTargetFile(name);
+			try (OutputStream output = new ScenarioCompression().compress(new FileOutputStream(encodedFile), encodedFile)) {
+				new ScenarioMarshaller().marshal(scenarioElement, ScenarioEncoding.forFile(encodedFile).createResult(output));
+			}
+			
+			LazyScenario encodedScenario = scenarioUnmarshaller.unmarshalLazyScenario(encodedFile);
+			assertNotNull(encodedScenario.getScenario());
+			assertTrue(name, encodedScenario.hasObstacles());
+			assertEquals(name, lazyScenario.getObstacles().size(), encodedScenario.getObstacles().size());
+			assertTrue(name, encodedScenario.hasTrajectory());
+			assertNotNull(name, encodedScenario.getTrajectory());
+		}
+	}
+	
+}
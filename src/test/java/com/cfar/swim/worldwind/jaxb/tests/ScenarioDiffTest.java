@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.journal.JournalOperation;
+import com.cfar.swim.worldwind.jaxb.journal.JournalRecord;
+import com.cfar.swim.worldwind.jaxb.journal.ScenarioDiff;
+import com.cfar.swim.worldwind.jaxb.journal.ScenarioJournal;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleSphere;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+
+public class ScenarioDiffTest {
+	
+	public static final String SCENARIO_FILENAME = "scenario3.xml";
+	
+	@Test
+	public void testUnmodified() throws JAXBException, IOException {
+		this.assertDelta(this.loadScenario());
+	}
+	
+	@Test
+	public void testObstacleAdded() throws JAXBException, IOException {
+		Scenario modified = this.loadScenario();
+		ObstacleCylinder cylinder = (ObstacleCylinder) this.loadScenario().getObstacles().getBoxOrCylinderOrSphere().get(1);
+		cylinder.getCostInterval().setId("obstacle5");
+		modified.getObstacles().getBoxOrCylinderOrSphere().add(2, cylinder);
+		this.assertDelta(modified, JournalOperation.ADD_OBSTACLE);
+	}
+	
+	@Test
+	public void testObstacleRemoved() throws JAXBException, IOException {
+		Scenario modified = this.loadScenario();
+		modified.getObstacles().getBoxOrCylinderOrSphere().remove(2);
+		this.assertDelta(modified, JournalOperation.REMOVE_OBSTACLE);
+	}
+	
+	@Test
+	public void testObstacleGeometryChanged() throws JAXBException, IOException {
+		Scenario modified = this.loadScenario();
+		ObstacleSphere sphere = (ObstacleSphere) modified.getObstacles().getBoxOrCylinderOrSphere().get(2);
+		sphere.setRadius(900d);
+		this.assertDelta(modified, JournalOperation.ADD_OBSTACLE);
+	}
+	
+	@Test
+	public void testCostIntervalToggled() throws JAXBException, IOException {
+		Scenario modified = this.loadScenario();
+		ObstacleCylinder cylinder = (ObstacleCylinder) modified.getObstacles().getBoxOrCylinderOrSphere().get(3);
+		cylinder.getCostInterval().setEnabled(false);
+		this.assertDelta(modified, JournalOperation.UPDATE_COST_INTERVAL);
+		
+		Scenario original = this.loadScenario();
+		((ObstacleCylinder) original.getObstacles().getBoxOrCylinderOrSphere().get(3)).getCostInterval().setEnabled(false);
+		this.assertDelta(original, this.loadScenario(), JournalOperation.UPDATE_COST_INTERVAL);
+	}
+	
+	@Test
+	public void testWaypointInserted() throws JAXBException, IOException {
+		Scenario modified = this.loadScenario();
+		List<Waypoint> waypoints = modified.getWaypoints().getWaypoint();
+		waypoints.add(1, modified.getTrajectory().getWaypoint().get(1));
+		this.assertDelta(modified, JournalOperation.ADD_WAYPOINT);
+		
+		modified = this.loadScenario();
+		waypoints = modified.getWaypoints().getWaypoint();
+		waypoints.add(modified.getTrajectory().getWaypoint().get(1));
+		this.assertDelta(modified, JournalOperation.ADD_WAYPOINT);
+	}
+	
+	@Test
+	public void testWaypointRemoved() throws JAXBException, IOException {
+		Scenario modified = this.loadScenario();
+		modified.getWaypoints().getWaypoint().remove(1);
+		this.assertDelta(modified, JournalOperation.REMOVE_WAYPOINT);
+		
+		modified = this.loadScenario();
+		modified.getWaypoints().getWaypoint().remove(0);
+		this.assertDelta(modified, JournalOperation.REMOVE_WAYPOINT);
+	}
+	
+	@Test
+	public void testCombined() throws JAXBException, IOException {
+		Scenario modified = this.loadScenario();
+		List<Object> obstacles = modified.getObstacles().getBoxOrCylinderOrSphere();
+		((ObstacleCylinder) obstacles.get(1)).getCostInterval().setEnabled(false);
+		((ObstacleSphere) obstacles.get(2)).setRadius(900d);
+		obstacles.remove(4);
+		ObstacleCylinder cylinder = (ObstacleCylinder) this.loadScenario().getObstacles().getBoxOrCylinderOrSphere().get(3);
+		cylinder.getCostInterval().setId("obstacle5");
+		obstacles.add(0, cylinder);
+		List<Waypoint> waypoints = modified.getWaypoints().getWaypoint();
+		waypoints.remove(2);
+		waypoints.add(1, modified.getTrajectory().getWaypoint().get(1));
+		modified.getTrajectory().getWaypoint().remove(1);
+		
+		this.assertDelta(modified,
+				JournalOperation.UPDATE_COST_INTERVAL,
+				JournalOperation.ADD_OBSTACLE,
+				JournalOperation.ADD_OBSTACLE,
+				JournalOperation.REMOVE_OBSTACLE,
+				JournalOperation.ADD_WAYPOINT,
+				JournalOperation.REMOVE_WAYPOINT,
+				JournalOperation.REPLACE_TRAJECTORY);
+	}
+	
+	private Scenario loadScenario() throws JAXBException {
+		return ScenarioResources.unmarshal(new File(ScenarioResources.SCENARIO_RESOURCES_DIR, SCENARIO_FILENAME));
+	}
+	
+	private void assertDelta(Scenario modified, JournalOperation... operations) throws JAXBException, IOException {
+		this.assertDelta(this.loadScenario(), modified, operations);
+	}
+	
+	/*
+	 * Diffs two scenarios, checks the delta operations in any order, applies
+	 * the delta and compares the result with the modified scenario. The
+	 * obstacles are sorted before comparing since replaced and added
+	 * obstacles are applied last.
+	 */
+	private void assertDelta(Scenario original, Scenario modified, JournalOperation... operations)
+			throws JAXBException, IOException {
+		ScenarioMarshaller marshaller = new ScenarioMarshaller();
+		File from = ScenarioResources.getTargetFile("diff-from.xml");
+		File to = ScenarioResources.getTargetFile("diff-to.xml");
+		File delta = ScenarioResources.getTargetFile("diff.journal");
+		File applied = ScenarioResources.getTargetFile("diff-applied.xml");
+		marshaller.marshal(original, from);
+		marshaller.marshal(modified, to);
+		
+		ScenarioDiff diff = new ScenarioDiff();
+		assertEquals(operations.length, diff.diff(from, to, delta));
+		try (ScenarioJournal journal = new ScenarioJournal(delta)) {
+			List<JournalRecord> records = journal.read();
+			assertEquals(operations.length, records.size());
+			int[] expected = new int[JournalOperation.values().length];
+			int[] actual = new int[JournalOperation.values().length];
+			for (int index = 0; index < operations.length; index++) {
+				expected[operations[index].ordinal()]++;
+				actual[records.get(index).getOperation().ordinal()]++;
+			}
+			assertArrayEquals(expected, actual);
+		}
+		
+		diff.apply(from, delta, applied);
+		Scenario appliedScenario = ScenarioResources.unmarshal(Files.readAllBytes(applied.toPath()));
+		ScenarioResources.sortObstacles(appliedScenario);
+		Scenario modifiedScenario = ScenarioResources.copy(modified);
+		ScenarioResources.sortObstacles(modifiedScenario);
+		assertArrayEquals(ScenarioResources.marshal(modifiedScenario), ScenarioResources.marshal(appliedScenario));
+	}
+	
+}
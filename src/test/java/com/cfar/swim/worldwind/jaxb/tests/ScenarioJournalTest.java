@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.journal.JournalOperation;
+import com.cfar.swim.worldwind.jaxb.journal.JournalRecord;
+import com.cfar.swim.worldwind.jaxb.journal.ScenarioJournal;
+import com.cfar.swim.worldwind.jaxb.scenario.CostInterval;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleBox;
+import com.cfar.swim.worldwind.jaxb.scenario.ObstacleCylinder;
+import com.cfar.swim.worldwind.jaxb.scenario.Planner;
+import com.cfar.swim.worldwind.jaxb.scenario.RiskPolicy;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+import com.cfar.swim.worldwind.jaxb.scenario.Trajectory;
+import com.cfar.swim.worldwind.jaxb.scenario.Waypoint;
+
+public class ScenarioJournalTest {
+	
+	public static final String SCENARIO_FILENAME = "scenario3.xml";
+	public static final String JOURNAL_FILENAME = "scenario3.journal";
+	
+	@Test
+	public void testReplay() throws JAXBException, IOException {
+		File journalFile = this.createJournalFile();
+		List<JournalRecord> records = this.createRecords(this.loadScenario());
+		
+		try (ScenarioJournal journal = new ScenarioJournal(journalFile)) {
+			for (JournalRecord record : records) {
+				journal.append(record);
+			}
+			
+			// the journal replays all appended records in append order
+			this.assertRecords(records, journal.read());
+		}
+		
+		// a reopened journal replays the same records
+		try (ScenarioJournal journal = new ScenarioJournal(journalFile)) {
+			this.assertRecords(records, journal.read());
+		}
+	}
+	
+	@Test
+	public void testCompact() throws JAXBException, IOException {
+		File snapshotFile = ScenarioResources.getTargetFile(SCENARIO_FILENAME);
+		Files.copy(new File(ScenarioResources.SCENARIO_RESOURCES_DIR, SCENARIO_FILENAME).toPath(),
+				snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		Scenario expected = this.loadScenario();
+		List<JournalRecord> records = this.createRecords(expected);
+		
+		try (ScenarioJournal journal = new ScenarioJournal(this.createJournalFile())) {
+			for (JournalRecord record : records) {
+				journal.append(record);
+			}
+			journal.compact(snapshotFile);
+			
+			// compaction clears the journal
+			assertTrue(journal.read().isEmpty());
+		}
+		
+		// the compacted snapshot equals the scenario with the same edits
+		assertArrayEquals(ScenarioResources.marshal(expected), ScenarioResources.marshal(
+				ScenarioResources.unmarshal(Files.readAllBytes(snapshotFile.toPath()))));
+	}
+	
+	@Test
+	public void testTruncated() throws JAXBException, IOException {
+		File journalFile = this.createJournalFile();
+		List<JournalRecord> records = this.createRecords(this.loadScenario());
+		long valid = 0;
+		
+		try (ScenarioJournal journal = new ScenarioJournal(journalFile)) {
+			for (JournalRecord record : records) {
+				valid = journalFile.length();
+				journal.append(record);
+			}
+		}
+		
+		// tear the last record as an interrupted append would
+		try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+			file.setLength(file.length() - 2);
+		}
+		
+		try (ScenarioJournal journal = new ScenarioJournal(journalFile)) {
+			// the torn trailing record is discarded when the journal is opened
+			assertEquals(valid, journalFile.length());
+			this.assertRecords(records.subList(0, records.size() - 1), journal.read());
+			
+			// the journal remains appendable after the recovery
+			journal.append(records.get(records.size() - 1));
+			this.assertRecords(records, journal.read());
+		}
+	}
+	
+	@Test
+	public void testCorrupt() throws JAXBException, IOException {
+		File journalFile = this.createJournalFile();
+		List<JournalRecord> records = this.createRecords(this.loadScenario());
+		
+		try (ScenarioJournal journal = new ScenarioJournal(journalFile)) {
+			journal.append(records.get(0));
+			journal.append(records.get(1));
+		}
+		
+		// corrupt the obstacle identifier of the first record
+		try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+			long position = ScenarioJournal.MAGIC.length + 6;
+			file.seek(position);
+			int value = file.read();
+			file.seek(position);
+			file.write(value ^ 0x01);
+		}
+		
+		// a complete record with an invalid checksum is not discarded silently
+		try (ScenarioJournal journal = new ScenarioJournal(journalFile)) {
+			fail("corrupt scenario journal opened");
+		} catch (JAXBException e) {
+			assertTrue(e.getLinkedException().getMessage().startsWith("corrupt scenario journal record"));
+		}
+	}
+	
+	private Scenario loadScenario() throws JAXBException {
+		return ScenarioResources.unmarshal(new File(ScenarioResources.SCENARIO_RESOURCES_DIR, SCENARIO_FILENAME));
+	}
+	
+	private File createJournalFile() throws IOException {
+		File journalFile = ScenarioResources.getTargetFile(JOURNAL_FILENAME);
+		Files.deleteIfExists(journalFile.toPath());
+		return journalFile;
+	}
+	
+	/*
+	 * Creates one or more records of each journal operation applying the
+	 * same edits to the expected scenario. The record fragments are taken
+	 * from a copy of the expected scenario.
+	 */
+	private List<JournalRecord> createRecords(Scenario expected) throws JAXBException {
+		List<JournalRecord> records = new ArrayList<>();
+		Scenario copy = ScenarioResources.copy(expected);
+		List<Object> obstacles = expected.getObstacles().getBoxOrCylinderOrSphere();
+		List<Object> fragments = copy.getObstacles().getBoxOrCylinderOrSphere();
+		
+		// disable obstacle1
+		CostInterval costInterval = ((ObstacleCylinder) fragments.get(1)).getCostInterval();
+		costInterval.setEnabled(false);
+		((ObstacleCylinder) obstacles.get(1)).getCostInterval().setEnabled(false);
+		records.add(new JournalRecord(JournalOperation.UPDATE_COST_INTERVAL,
+				"obstacle1", JournalRecord.NO_INDEX, costInterval));
+		
+		// remove obstacle2
+		obstacles.remove(2);
+		records.add(new JournalRecord(JournalOperation.REMOVE_OBSTACLE,
+				"obstacle2", JournalRecord.NO_INDEX, null));
+		
+		// replace obstacle3 changing its geometry, replaced obstacles are compacted last
+		ObstacleCylinder cylinder = (ObstacleCylinder) fragments.get(3);
+		cylinder.setRadius(750d);
+		obstacles.remove(2);
+		obstacles.add(cylinder);
+		records.add(new JournalRecord(JournalOperation.ADD_OBSTACLE,
+				"obstacle3", JournalRecord.NO_INDEX, cylinder));
+		
+		// add obstacle5 and disable it afterwards
+		ObstacleBox box = (ObstacleBox) fragments.get(4);
+		box.getCostInterval().setId("obstacle5");
+		box.setTop(1750d);
+		records.add(new JournalRecord(JournalOperation.ADD_OBSTACLE,
+				"obstacle5", JournalRecord.NO_INDEX, box));
+		ObstacleBox disabledBox = (ObstacleBox) ScenarioResources.copy(copy).getObstacles().getBoxOrCylinderOrSphere().get(4);
+		disabledBox.getCostInterval().setEnabled(false);
+		obstacles.add(disabledBox);
+		records.add(new JournalRecord(JournalOperation.UPDATE_COST_INTERVAL,
+				"obstacle5", JournalRecord.NO_INDEX, disabledBox.getCostInterval()));
+		
+		// insert, update, remove and append waypoints
+		List<Waypoint> waypoints = expected.getWaypoints().getWaypoint();
+		List<Waypoint> trajectory = copy.getTrajectory().getWaypoint();
+		waypoints.add(1, trajectory.get(1));
+		records.add(new JournalRecord(JournalOperation.ADD_WAYPOINT, null, 1, trajectory.get(1)));
+		Waypoint updated = copy.getWaypoints().getWaypoint().get(0);
+		updated.setAltitude(900d);
+		waypoints.set(0, updated);
+		records.add(new JournalRecord(JournalOperation.UPDATE_WAYPOINT, null, 0, updated));
+		waypoints.remove(3);
+		records.add(new JournalRecord(JournalOperation.REMOVE_WAYPOINT, null, 3, null));
+		waypoints.add(trajectory.get(3));
+		records.add(new JournalRecord(JournalOperation.ADD_WAYPOINT, null, JournalRecord.NO_INDEX, trajectory.get(3)));
+		
+		// replace the trajectory
+		Trajectory replacing = new Trajectory();
+		replacing.getWaypoint().add(trajectory.get(0));
+		replacing.getWaypoint().add(trajectory.get(3));
+		expected.setTrajectory(replacing);
+		records.add(new JournalRecord(JournalOperation.REPLACE_TRAJECTORY, null, JournalRecord.NO_INDEX, replacing));
+		
+		// replace the planner and remove the aircraft
+		Planner planner = copy.getPlanner();
+		planner.setRiskPolicy(RiskPolicy.AVOIDANCE);
+		expected.setPlanner(planner);
+		records.add(new JournalRecord(JournalOperation.REPLACE_SECTION, "planner", JournalRecord.NO_INDEX, planner));
+		expected.setAircraft(null);
+		records.add(new JournalRecord(JournalOperation.REPLACE_SECTION, "aircraft", JournalRecord.NO_INDEX, null));
+		
+		return records;
+	}
+	
+	private void assertRecords(List<JournalRecord> expected, List<JournalRecord> actual) throws JAXBException {
+		assertEquals(expected.size(), actual.size());
+		for (int index = 0; index < expected.size(); index++) {
+			assertEquals(expected.get(index).getOperation(), actual.get(index).getOperation());
+			assertEquals(expected.get(index).getId(), actual.get(index).getId());
+			assertEquals(expected.get(index).getIndex(), actual.get(index).getIndex());
+			if (null == expected.get(index).getFragment()) {
+				assertNull(actual.get(index).getFragment());
+			} else {
+				assertEquals(expected.get(index).getFragment().getClass(), actual.get(index).getFragment().getClass());
+				assertArrayEquals(ScenarioResources.marshalFragment(expected.get(index).getFragment()),
+						ScenarioResources.marshalFragment(actual.get(index).getFragment()));
+			}
+		}
+	}
+	
+}
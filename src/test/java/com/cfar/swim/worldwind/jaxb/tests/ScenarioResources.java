@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioContext;
+import com.cfar.swim.worldwind.jaxb.ScenarioMarshaller;
+import com.cfar.swim.worldwind.jaxb.ScenarioStreams;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+final class ScenarioResources {
+	
+	public static final String SCENARIO_RESOURCES_DIR = "src/test/resources/xml";
+	public static final String SCENARIO_TARGET_DIR = "target/generated-test-sources/xml";
+	public static final String XML_FILENAME_EXT = ".xml";
+	
+	private ScenarioResources() {
+	}
+	
+	public static File[] getScenarioFiles() {
+		File[] scenarioFiles = new File(SCENARIO_RESOURCES_DIR).listFiles(
+				(dir, name) -> name.endsWith(XML_FILENAME_EXT));
+		Arrays.sort(scenarioFiles);
+		return scenarioFiles;
+	}
+	
+	public static File getTargetFile(String name) {
+		File scenarioTargetDir = new File(SCENARIO_TARGET_DIR);
+		scenarioTargetDir.mkdirs();
+		return new File(scenarioTargetDir, name);
+	}
+	
+	/*
+	 * Creates a large scenario file by repeating the obstacles of scenario3
+	 * with distinct cost interval identifiers.
+	 */
+	public static File createLargeScenario(String name, int copies) throws IOException {
+		File scenarioFile = new File(SCENARIO_RESOURCES_DIR, "scenario3.xml");
+		String scenario = new String(Files.readAllBytes(scenarioFile.toPath()), StandardCharsets.UTF_8);
+		int begin = scenario.indexOf("<safcs:obstacles>") + "<safcs:obstacles>".length();
+		int end = scenario.indexOf("</safcs:obstacles>");
+		StringBuilder largeScenario = new StringBuilder(scenario.substring(0, begin));
+		for (int copy = 0; copy < copies; copy++) {
+			largeScenario.append(scenario.substring(begin, end).replace("id=\"obstacle", "id=\"obstacle" + copy + "-"));
+		}
+		largeScenario.append(scenario.substring(end));
+		File largeScenarioFile = ScenarioResources.getTargetFile(name);
+		Files.write(largeScenarioFile.toPath(), largeScenario.toString().getBytes(StandardCharsets.UTF_8));
+		return largeScenarioFile;
+	}
+	
+	public static Scenario unmarshal(File scenarioFile) throws JAXBException {
+		return (Scenario) new ScenarioUnmarshaller().unmarshal(scenarioFile);
+	}
+	
+	public static Scenario unmarshal(byte[] scenario) throws JAXBException {
+		return (Scenario) new ScenarioUnmarshaller().unmarshal(new ByteArrayInputStream(scenario));
+	}
+	
+	public static byte[] marshal(Scenario scenario) throws JAXBException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new ScenarioMarshaller().marshal(scenario, output);
+		return output.toByteArray();
+	}
+	
+	public static Scenario copy(Scenario scenario) throws JAXBException {
+		return ScenarioResources.unmarshal(ScenarioResources.marshal(scenario));
+	}
+	
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public static byte[] marshalFragment(Object fragment) throws JAXBException {
+		Marshaller marshaller = ScenarioContext.acquireMarshaller();
+		try {
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			marshaller.marshal(new JAXBElement(new QName(ScenarioStreams.NAMESPACE_URI, "fragment"),
+					fragment.getClass(), fragment), output);
+			return output.toByteArray();
+		} finally {
+			ScenarioContext.releaseMarshaller(marshaller);
+		}
+	}
+	
+	/*
+	 * Marshals a scenario with the JAXB marshaller and reads it back sorting
+	 * its obstacles since the obstacles of a scenario are not ordered.
+	 */
+	public static byte[] marshalScenario(com.cfar.swim.worldwind.session.Scenario scenario, String name)
+			throws JAXBException, IOException {
+		File scenarioFile = ScenarioResources.getTargetFile(name);
+		new ScenarioMarshaller().marshalScenario(scenario, scenarioFile);
+		Scenario scenarioElement = ScenarioResources.unmarshal(Files.readAllBytes(scenarioFile.toPath()));
+		ScenarioResources.sortObstacles(scenarioElement);
+		return ScenarioResources.marshal(scenarioElement);
+	}
+	
+	/*
+	 * Sorts the obstacles of a scenario by their marshalled fragments.
+	 */
+	public static void sortObstacles(Scenario scenario) throws JAXBException {
+		if (null != scenario.getObstacles()) {
+			List<Object> obstacles = scenario.getObstacles().getBoxOrCylinderOrSphere();
+			String[] keys = new String[obstacles.size()];
+			Integer[] order = new Integer[obstacles.size()];
+			for (int index = 0; index < keys.length; index++) {
+				keys[index] = new String(ScenarioResources.marshalFragment(obstacles.get(index)), StandardCharsets.UTF_8);
+				order[index] = index;
+			}
+			Arrays.sort(order, Comparator.comparing(index -> keys[index]));
+			Object[] sorted = new Object[order.length];
+			for (int index = 0; index < order.length; index++) {
+				sorted[index] = obstacles.get(order[index]);
+			}
+			obstacles.clear();
+			obstacles.addAll(Arrays.asList(sorted));
+		}
+	}
+	
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.ScenarioSchema;
+import com.cfar.swim.worldwind.jaxb.ScenarioUnmarshaller;
+import com.cfar.swim.worldwind.jaxb.scenario.Scenario;
+
+public class ScenarioSchemaTest {
+	
+	public static final String INVALID_FILENAME = "scenario3-invalid.xml";
+	
+	@Test
+	public void testValid() throws JAXBException {
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		scenarioUnmarshaller.setSchema(ScenarioSchema.getInstance());
+		assertSame(ScenarioSchema.getInstance(), scenarioUnmarshaller.getSchema());
+		
+		// valid scenarios are unmarshalled as without validation
+		for (File scenarioFile : ScenarioResources.getScenarioFiles()) {
+			Object scenario = scenarioUnmarshaller.unmarshal(scenarioFile);
+			assertTrue(scenario instanceof Scenario);
+			assertArrayEquals(ScenarioResources.marshal(ScenarioResources.unmarshal(scenarioFile)),
+					ScenarioResources.marshal((Scenario) scenario));
+			assertNotNull(scenarioUnmarshaller.unmarshalScenario(scenarioFile));
+		}
+	}
+	
+	@Test
+	public void testInvalid() throws JAXBException, IOException {
+		// the radius of the first cylinder and the cost of the last obstacle are invalid
+		File scenarioFile = new File(ScenarioResources.SCENARIO_RESOURCES_DIR, "scenario3.xml");
+		String scenario = new String(Files.readAllBytes(scenarioFile.toPath()), StandardCharsets.UTF_8);
+		scenario = scenario.replaceFirst("radius=\"1000\"", "radius=\"wide\"");
+		scenario = scenario.replaceFirst("cost=\"60\"", "cost=\"high\"");
+		File invalidFile = ScenarioResources.getTargetFile(INVALID_FILENAME);
+		Files.write(invalidFile.toPath(), scenario.getBytes(StandardCharsets.UTF_8));
+		
+		List<String> lines = Arrays.asList(scenario.split("\n"));
+		int line = 1 + lines.indexOf(lines.stream().filter(l -> l.contains("radius=\"wide\"")).findFirst().get());
+		
+		// validation fails at the first error reporting its location
+		ScenarioUnmarshaller scenarioUnmarshaller = new ScenarioUnmarshaller();
+		scenarioUnmarshaller.setSchema(ScenarioSchema.getInstance());
+		try {
+			scenarioUnmarshaller.unmarshal(invalidFile);
+			fail("invalid scenario unmarshalled");
+		} catch (JAXBException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(" at line " + line + ", column "));
+		}
+		try {
+			scenarioUnmarshaller.unmarshalScenario(invalidFile);
+			fail("invalid scenario unmarshalled");
+		} catch (JAXBException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(" at line " + line + ", column "));
+			assertTrue(e.getMessage(), e.getMessage().contains(invalidFile.getName()));
+		}
+	}
+	
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021, Stephan Heinemann (UVic Center for Aerospace Research)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cfar.swim.worldwind.jaxb.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.GregorianCalendar;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.junit.Test;
+
+import com.cfar.swim.worldwind.jaxb.adapters.TemporalCodec;
+
+public class TemporalCodecTest {
+	
+	@Test
+	public void testEncodeTime() {
+		ZonedDateTime[] times = {
+				ZonedDateTime.of(2021, 6, 30, 12, 0, 0, 123000000, ZoneId.of("UTC")),
+				ZonedDateTime.of(2021, 1, 1, 0, 0, 0, 0, ZoneId.of("America/Vancouver")),
+				ZonedDateTime.of(2021, 1, 1, 0, 0, 0, 0, ZoneId.of("Asia/Kathmandu")),
+				// local mean time offsets are not whole minutes
+				ZonedDateTime.of(LocalDateTime.of(1637, 10, 12, 16, 21, 36), ZoneId.of("Asia/Kolkata")),
+				ZonedDateTime.of(LocalDateTime.of(1850, 1, 1, 12, 0, 0), ZoneId.of("Europe/Amsterdam"))};
+		
+		for (ZonedDateTime time : times) {
+			// direct encodings equal the calendar conversions denoting the same instant
+			XMLGregorianCalendar expected = TemporalCodec.getDatatypeFactory()
+					.newXMLGregorianCalendar(GregorianCalendar.from(time));
+			XMLGregorianCalendar calendar = TemporalCodec.encodeTime(time);
+			assertEquals(expected, calendar);
+			assertEquals(expected.toXMLFormat(), TemporalCodec.printTime(time));
+			assertEquals(time.toInstant(), TemporalCodec.decodeTime(calendar).toInstant());
+			assertEquals(time.toInstant(), TemporalCodec.parseTime(TemporalCodec.printTime(time)).toInstant());
+		}
+	}
+	
+}